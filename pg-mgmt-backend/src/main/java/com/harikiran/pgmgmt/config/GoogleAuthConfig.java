@@ -0,0 +1,73 @@
+package com.harikiran.pgmgmt.config;
+
+import java.io.IOException;
+import java.security.GeneralSecurityException;
+import java.util.Collections;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.util.StringUtils;
+
+import com.google.api.client.googleapis.auth.oauth2.GoogleIdTokenVerifier;
+import com.google.api.client.googleapis.auth.oauth2.GooglePublicKeysManager;
+import com.google.api.client.googleapis.javanet.GoogleNetHttpTransport;
+import com.google.api.client.http.HttpTransport;
+import com.google.api.client.json.JsonFactory;
+import com.google.api.client.json.gson.GsonFactory;
+import com.harikiran.pgmgmt.security.GooglePublicKeysSource;
+import com.harikiran.pgmgmt.security.GoogleSigningKeySource;
+import com.harikiran.pgmgmt.security.JwksFileSigningKeySource;
+import com.harikiran.pgmgmt.security.KeySourceIdTokenVerifier;
+
+/**
+ * Builds the Google ID token verifier once so the HTTP transport, TLS trust
+ * store and cached signing certificates are shared by every login.
+ */
+@Configuration
+public class GoogleAuthConfig {
+
+	private static final Logger logger = LoggerFactory.getLogger(GoogleAuthConfig.class);
+
+	@Bean
+	HttpTransport googleHttpTransport() throws GeneralSecurityException, IOException {
+		return GoogleNetHttpTransport.newTrustedTransport();
+	}
+
+	@Bean
+	JsonFactory googleJsonFactory() {
+		return GsonFactory.getDefaultInstance();
+	}
+
+	@Bean
+	GooglePublicKeysManager googlePublicKeysManager(HttpTransport googleHttpTransport, JsonFactory googleJsonFactory) {
+		return new GooglePublicKeysManager(googleHttpTransport, googleJsonFactory);
+	}
+
+	/**
+	 * Uses Google's published certificates unless
+	 * {@code google.oauth.jwks-location} points at a local JWKS document
+	 * ({@code file:} or {@code classpath:}).
+	 */
+	@Bean
+	GoogleSigningKeySource googleSigningKeySource(GooglePublicKeysManager googlePublicKeysManager,
+			ResourceLoader resourceLoader, @Value("${google.oauth.jwks-location:}") String jwksLocation)
+			throws IOException, GeneralSecurityException {
+		if (StringUtils.hasText(jwksLocation)) {
+			logger.info("Verifying Google ID tokens against local JWKS location={}", jwksLocation);
+			return new JwksFileSigningKeySource(resourceLoader.getResource(jwksLocation.trim()));
+		}
+		return new GooglePublicKeysSource(googlePublicKeysManager);
+	}
+
+	@Bean
+	GoogleIdTokenVerifier googleIdTokenVerifier(GooglePublicKeysManager googlePublicKeysManager,
+			GoogleSigningKeySource googleSigningKeySource, @Value("${google.oauth.client-id}") String googleClientId) {
+		GoogleIdTokenVerifier.Builder builder = new GoogleIdTokenVerifier.Builder(googlePublicKeysManager)
+				.setAudience(Collections.singletonList(googleClientId.trim()));
+		return new KeySourceIdTokenVerifier(builder, googleSigningKeySource);
+	}
+}
@@ -0,0 +1,123 @@
+package com.harikiran.pgmgmt.config;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.IndexResolver;
+import org.springframework.stereotype.Component;
+
+import com.harikiran.pgmgmt.model.Admin;
+import com.harikiran.pgmgmt.model.AllocationStats;
+import com.harikiran.pgmgmt.model.AllocationStatsRollup;
+import com.harikiran.pgmgmt.model.MealStats;
+import com.harikiran.pgmgmt.model.MealStatsRollup;
+import com.harikiran.pgmgmt.model.Room;
+import com.harikiran.pgmgmt.model.Tenant;
+import com.harikiran.pgmgmt.service.StatsStorage;
+
+/**
+ * Creates the indexes declared on document classes through {@code @Indexed}
+ * and {@code @CompoundIndex}.
+ *
+ * <p>
+ * Spring Boot leaves {@code auto-index-creation} off, so without this
+ * component annotated indexes are never built. Creation runs on a background
+ * virtual thread once the application is ready, so a slow or unreachable
+ * cluster never delays startup; failures are logged and retried on the next
+ * start.
+ * </p>
+ *
+ * <p>
+ * Every repository query is expected to be backed by one of these indexes;
+ * {@code RepositoryQueryPlanTest} checks this with {@code explain} against a
+ * local mongod. Stats kept in time-series collections are indexed by
+ * {@link StatsStorage} instead, after any migration has finished.
+ * </p>
+ */
+@Component
+public class MongoIndexManager {
+
+	private static final Logger logger = LoggerFactory.getLogger(MongoIndexManager.class);
+
+	static final List<Class<?>> MANAGED_DOCUMENTS = List.of(Tenant.class, Admin.class, Room.class,
+			MealStats.class, AllocationStats.class, MealStatsRollup.class, AllocationStatsRollup.class);
+
+	private final MongoTemplate mongoTemplate;
+	private final StatsStorage statsStorage;
+
+	public MongoIndexManager(MongoTemplate mongoTemplate, StatsStorage statsStorage) {
+		this.mongoTemplate = mongoTemplate;
+		this.statsStorage = statsStorage;
+	}
+
+	@EventListener(ApplicationReadyEvent.class)
+	public void onApplicationReady() {
+		Thread.ofVirtual().name("mongo-index-manager").start(this::ensureIndexes);
+	}
+
+	/**
+	 * Creates every declared index that does not exist yet and verifies the
+	 * result against the indexes the server reports.
+	 *
+	 * @return number of declared indexes that are missing afterwards
+	 */
+	public int ensureIndexes() {
+		statsStorage.awaitReady();
+		IndexResolver resolver = IndexResolver.create(mongoTemplate.getConverter().getMappingContext());
+		int missing = 0;
+		for (Class<?> documentType : MANAGED_DOCUMENTS) {
+			if (statsStorage.isTimeSeries(documentType)) {
+				// Unique indexes are not allowed there; StatsStorage creates the time index
+				continue;
+			}
+			IndexOperations indexOperations = mongoTemplate.indexOps(documentType);
+			for (IndexDefinition definition : resolver.resolveIndexFor(documentType)) {
+				try {
+					String name = indexOperations.createIndex(definition);
+					if (logger.isDebugEnabled()) {
+						logger.debug("Ensured index {} on {}", name, documentType.getSimpleName());
+					}
+				} catch (RuntimeException e) {
+					logger.error("Failed to ensure index {} on {}: {}", definition.getIndexKeys().toJson(),
+							documentType.getSimpleName(), e.getMessage());
+				}
+			}
+			missing += verifyIndexes(documentType, resolver, indexOperations);
+		}
+
+		if (missing == 0) {
+			logger.info("All declared indexes are present on {} collection(s)", MANAGED_DOCUMENTS.size());
+		}
+		return missing;
+	}
+
+	private int verifyIndexes(Class<?> documentType, IndexResolver resolver, IndexOperations indexOperations) {
+		Set<String> existing;
+		try {
+			existing = indexOperations.getIndexInfo().stream().map(IndexInfo::getName).collect(Collectors.toSet());
+		} catch (RuntimeException e) {
+			logger.error("Failed to list indexes on {}: {}", documentType.getSimpleName(), e.getMessage());
+			return 0;
+		}
+
+		int missing = 0;
+		for (IndexDefinition definition : resolver.resolveIndexFor(documentType)) {
+			Object name = definition.getIndexOptions().get("name");
+			if (name != null && !existing.contains(name.toString())) {
+				logger.warn("Index {} is declared on {} but missing; its queries will scan the collection", name,
+						documentType.getSimpleName());
+				missing++;
+			}
+		}
+		return missing;
+	}
+}
@@ -1,41 +1,136 @@
 package com.harikiran.pgmgmt.controller;
 
+import java.time.LocalDate;
+import java.util.EnumSet;
 import java.util.List;
 
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.format.annotation.DateTimeFormat.ISO;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
 
-import com.harikiran.pgmgmt.dto.DashboardSummaryResponse;
-import com.harikiran.pgmgmt.dto.DashboardSummaryResponse.AllocationStatsPoint;
-import com.harikiran.pgmgmt.dto.DashboardSummaryResponse.MealStatsPoint;
+import com.harikiran.pgmgmt.dto.StatsColumns;
+import com.harikiran.pgmgmt.model.StatsGranularity;
+import com.harikiran.pgmgmt.service.CollectionVersions.Collection;
 import com.harikiran.pgmgmt.service.DashboardService;
+import com.harikiran.pgmgmt.service.JsonResponseCache;
 
 @RestController
 @RequestMapping("/api/admin/dashboard")
 @PreAuthorize("hasRole('ADMIN')")
-/** Serves aggregated stats for the admin dashboard charts. */
+/**
+ * Serves aggregated stats for the admin dashboard charts, with ETags and
+ * cached bodies from {@link JsonResponseCache} so polling an unchanged
+ * dashboard costs no queries. Bodies a write just outdated are served for a
+ * few more seconds while one background load refreshes them.
+ */
 public class AdminDashboardController {
 
+	private static final MediaType COLUMNS = MediaType.parseMediaType(StatsColumns.MEDIA_TYPE);
+	private static final List<String> VARY = List.of(HttpHeaders.ACCEPT);
+
 	private final DashboardService dashboardService;
+	private final JsonResponseCache responseCache;
 
-	public AdminDashboardController(DashboardService dashboardService) {
+	public AdminDashboardController(DashboardService dashboardService, JsonResponseCache responseCache) {
 		this.dashboardService = dashboardService;
+		this.responseCache = responseCache;
 	}
 
 	@GetMapping("/summary")
-	public DashboardSummaryResponse getSummary() {
-		return dashboardService.loadDashboardSummary();
+	public ResponseEntity<byte[]> getSummary(
+			@RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+		try {
+			return responseCache.serve("dashboard/summary", ifNoneMatch,
+					EnumSet.of(Collection.TENANTS, Collection.ROOMS), true,
+					() -> ResponseEntity.ok(dashboardService.loadDashboardSummary()));
+		} catch (DashboardService.DeadlineExceededException e) {
+			throw new ResponseStatusException(HttpStatus.GATEWAY_TIMEOUT, e.getMessage());
+		}
 	}
 
+	/**
+	 * Meal stats per day, or averaged per week or month, for an optional
+	 * inclusive date range in IST. Clients accepting {@link StatsColumns#MEDIA_TYPE}
+	 * get them in columns.
+	 */
 	@GetMapping("/meal-stats")
-	public List<MealStatsPoint> getMealStats() {
-		return dashboardService.loadMealStatsTimeline();
+	public ResponseEntity<byte[]> getMealStats(
+			@RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+			@RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+			@RequestParam(required = false) @DateTimeFormat(iso = ISO.DATE) LocalDate from,
+			@RequestParam(required = false) @DateTimeFormat(iso = ISO.DATE) LocalDate to,
+			@RequestParam(required = false) String granularity) {
+		StatsGranularity resolution = parseRange(from, to, granularity);
+		boolean columns = acceptsColumns(accept);
+		return responseCache.serve(
+				"dashboard/meal-stats:" + resolution + ':' + from + ':' + to + (columns ? ":columns" : ""),
+				ifNoneMatch, EnumSet.of(Collection.MEAL_STATS), true, VARY,
+				() -> columns ? columnsResponse(dashboardService.loadMealStatsColumns(resolution, from, to))
+						: ResponseEntity.ok(dashboardService.loadMealStatsTimeline(resolution, from, to)));
 	}
 
+	/**
+	 * Allocation stats per day, or averaged per week or month, for an optional
+	 * inclusive date range in IST. Clients accepting {@link StatsColumns#MEDIA_TYPE}
+	 * get them in columns.
+	 */
 	@GetMapping("/allocation-stats")
-	public List<AllocationStatsPoint> getAllocationStats() {
-		return dashboardService.loadAllocationStatsTimeline();
+	public ResponseEntity<byte[]> getAllocationStats(
+			@RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+			@RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+			@RequestParam(required = false) @DateTimeFormat(iso = ISO.DATE) LocalDate from,
+			@RequestParam(required = false) @DateTimeFormat(iso = ISO.DATE) LocalDate to,
+			@RequestParam(required = false) String granularity) {
+		StatsGranularity resolution = parseRange(from, to, granularity);
+		boolean columns = acceptsColumns(accept);
+		return responseCache.serve(
+				"dashboard/allocation-stats:" + resolution + ':' + from + ':' + to + (columns ? ":columns" : ""),
+				ifNoneMatch, EnumSet.of(Collection.ALLOCATION_STATS), true, VARY,
+				() -> columns ? columnsResponse(dashboardService.loadAllocationStatsColumns(resolution, from, to))
+						: ResponseEntity.ok(dashboardService.loadAllocationStatsTimeline(resolution, from, to)));
+	}
+
+	/**
+	 * Whether {@code accept} names the columnar format explicitly; wildcards
+	 * keep getting the list of points.
+	 */
+	static boolean acceptsColumns(String accept) {
+		if (accept == null || accept.isBlank()) {
+			return false;
+		}
+		try {
+			return MediaType.parseMediaTypes(accept).stream()
+					.anyMatch(type -> type.equalsTypeAndSubtype(COLUMNS) && type.getQualityValue() > 0);
+		} catch (InvalidMediaTypeException e) {
+			return false;
+		}
+	}
+
+	private static ResponseEntity<?> columnsResponse(Object body) {
+		return ResponseEntity.ok().contentType(COLUMNS).body(body);
+	}
+
+	private static StatsGranularity parseRange(LocalDate from, LocalDate to, String granularity) {
+		if (from != null && to != null && from.isAfter(to)) {
+			throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "from must not be after to");
+		}
+		try {
+			return granularity == null || granularity.isBlank() ? StatsGranularity.DAY
+					: StatsGranularity.valueOf(granularity.trim().toUpperCase());
+		} catch (IllegalArgumentException e) {
+			throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+					"granularity must be one of day, week or month", e);
+		}
 	}
 }
@@ -2,13 +2,11 @@ package com.harikiran.pgmgmt.controller;
 
 import java.io.IOException;
 import java.security.GeneralSecurityException;
-import java.util.Collections;
 import java.util.Map;
-import java.util.Objects;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PostMapping;
@@ -18,12 +16,12 @@ import org.springframework.web.bind.annotation.RestController;
 
 import com.google.api.client.googleapis.auth.oauth2.GoogleIdToken;
 import com.google.api.client.googleapis.auth.oauth2.GoogleIdTokenVerifier;
-import com.google.api.client.googleapis.javanet.GoogleNetHttpTransport;
-import com.google.api.client.json.gson.GsonFactory;
 import com.harikiran.pgmgmt.model.Admin;
 import com.harikiran.pgmgmt.model.Tenant;
 import com.harikiran.pgmgmt.repository.AdminRepository;
 import com.harikiran.pgmgmt.repository.TenantRepository;
+import com.harikiran.pgmgmt.security.PrincipalCache;
+import com.harikiran.pgmgmt.service.TenantChangedEvent;
 import com.harikiran.pgmgmt.util.JwtUtil;
 
 @RestController
@@ -36,14 +34,19 @@ public class AuthController {
 	private final TenantRepository tenantRepository;
 	private final AdminRepository adminRepository;
 	private final JwtUtil jwtUtil;
+	private final PrincipalCache principalCache;
+	private final GoogleIdTokenVerifier googleIdTokenVerifier;
+	private final ApplicationEventPublisher eventPublisher;
 
-	@Value("${google.oauth.client-id}")
-	private String googleClientId;
-
-	public AuthController(TenantRepository tenantRepository, AdminRepository adminRepository, JwtUtil jwtUtil) {
+	public AuthController(TenantRepository tenantRepository, AdminRepository adminRepository, JwtUtil jwtUtil,
+			PrincipalCache principalCache, GoogleIdTokenVerifier googleIdTokenVerifier,
+			ApplicationEventPublisher eventPublisher) {
 		this.tenantRepository = tenantRepository;
 		this.adminRepository = adminRepository;
 		this.jwtUtil = jwtUtil;
+		this.principalCache = principalCache;
+		this.googleIdTokenVerifier = googleIdTokenVerifier;
+		this.eventPublisher = eventPublisher;
 	}
 
 	@PostMapping("/google")
@@ -67,8 +70,9 @@ public class AuthController {
 							locale, hostedDomain);
 				}
 
-				Tenant tenant = tenantRepository.findByEmail(email).map(existing -> update(existing, name, pictureUrl))
-						.orElseGet(() -> tenantRepository.save(new Tenant(name, email, pictureUrl)));
+				Tenant tenant = tenantRepository.upsertOnLogin(email, name, pictureUrl);
+				principalCache.evict(tenant.getEmail(), "tenant");
+				eventPublisher.publishEvent(TenantChangedEvent.saved(tenant));
 
 				String jwt = jwtUtil.generateToken(tenant);
 
@@ -114,6 +118,7 @@ public class AuthController {
 //				Admin refreshed = updateAdmin(admin, name, pictureUrl);
 
 				Admin refreshed = saveOrUpdateAdmin(name, email, pictureUrl);
+				principalCache.evict(refreshed.getEmail(), "admin");
 
 				String jwt = jwtUtil.generateToken(refreshed);
 
@@ -133,10 +138,8 @@ public class AuthController {
 			return null;
 		}
 
-		GoogleIdTokenVerifier verifier = new GoogleIdTokenVerifier.Builder(GoogleNetHttpTransport.newTrustedTransport(),
-				GsonFactory.getDefaultInstance()).setAudience(Collections.singletonList(googleClientId)).build();
-
-		GoogleIdToken idToken = verifier.verify(idTokenString);
+		// Shared verifier: signing certificates stay cached between logins
+		GoogleIdToken idToken = googleIdTokenVerifier.verify(idTokenString);
 		return idToken != null ? idToken.getPayload() : null;
 	}
 
@@ -146,41 +149,8 @@ public class AuthController {
 //	}
 
 	private Admin saveOrUpdateAdmin(String name, String email, String pictureUrl) {
-		logger.debug("Looking up admin for login email={} name='{}' pictureUrlPresent={}", email, name,
+		logger.debug("Upserting admin for login email={} name='{}' pictureUrlPresent={}", email, name,
 				pictureUrl != null);
-		return adminRepository.findByEmail(email).map(existing -> updateAdmin(existing, name, pictureUrl))
-				.orElseGet(() -> adminRepository.save(new Admin(name, email, pictureUrl)));
-	}
-
-	private Tenant update(Tenant tenant, String name, String pictureUrl) {
-		boolean shouldPersist = false;
-
-		if (name != null && !name.isBlank() && !Objects.equals(name, tenant.getName())) {
-			tenant.setName(name);
-			shouldPersist = true;
-		}
-
-		if (!Objects.equals(pictureUrl, tenant.getPictureUrl())) {
-			tenant.setPictureUrl(pictureUrl);
-			shouldPersist = true;
-		}
-
-		return shouldPersist ? tenantRepository.save(tenant) : tenant;
-	}
-
-	private Admin updateAdmin(Admin admin, String name, String pictureUrl) {
-		boolean shouldPersist = false;
-
-		if (name != null && !name.isBlank() && !Objects.equals(name, admin.getName())) {
-			admin.setName(name);
-			shouldPersist = true;
-		}
-
-		if (!Objects.equals(pictureUrl, admin.getPictureUrl())) {
-			admin.setPictureUrl(pictureUrl);
-			shouldPersist = true;
-		}
-
-		return shouldPersist ? adminRepository.save(admin) : admin;
+		return adminRepository.upsertOnLogin(email, name, pictureUrl);
 	}
 }
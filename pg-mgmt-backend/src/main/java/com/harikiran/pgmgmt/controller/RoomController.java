@@ -1,8 +1,19 @@
 package com.harikiran.pgmgmt.controller;
 
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Optional;
+import java.util.function.Supplier;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -11,13 +22,29 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.harikiran.pgmgmt.dto.AllocationPlan;
+import com.harikiran.pgmgmt.dto.AllocationRequest;
+import com.harikiran.pgmgmt.dto.OccupancyReport;
+import com.harikiran.pgmgmt.dto.RoomBulkUpdate;
+import com.harikiran.pgmgmt.dto.RoomBulkUpdateResult;
 import com.harikiran.pgmgmt.dto.RoomUpdateRequest;
+import com.harikiran.pgmgmt.dto.RoomVacancy;
 import com.harikiran.pgmgmt.model.Room;
 import com.harikiran.pgmgmt.repository.RoomRepository;
+import com.harikiran.pgmgmt.service.AllocationService;
+import com.harikiran.pgmgmt.service.CollectionVersions.Collection;
+import com.harikiran.pgmgmt.service.ExportService;
+import com.harikiran.pgmgmt.service.JsonResponseCache;
+import com.harikiran.pgmgmt.service.OccupancyReconciler;
+import com.harikiran.pgmgmt.service.RoomChangedEvent;
+import com.harikiran.pgmgmt.service.RoomOccupancyIndex;
 
 @RestController
 @RequestMapping("/api/rooms")
@@ -26,14 +53,99 @@ import com.harikiran.pgmgmt.repository.RoomRepository;
 public class RoomController {
 
 	private final RoomRepository roomRepo;
+	private final ExportService exportService;
+	private final JsonResponseCache responseCache;
+	private final RoomOccupancyIndex occupancyIndex;
+	private final ApplicationEventPublisher eventPublisher;
+	private final AllocationService allocationService;
+	private final OccupancyReconciler occupancyReconciler;
 
-	public RoomController(RoomRepository roomRepo) {
+	@Value("${app.rooms.vacancies.max-size:100}")
+	private int maxVacanciesSize;
+
+	public RoomController(RoomRepository roomRepo, ExportService exportService, JsonResponseCache responseCache,
+			RoomOccupancyIndex occupancyIndex, ApplicationEventPublisher eventPublisher,
+			AllocationService allocationService, OccupancyReconciler occupancyReconciler) {
 		this.roomRepo = roomRepo;
+		this.exportService = exportService;
+		this.responseCache = responseCache;
+		this.occupancyIndex = occupancyIndex;
+		this.eventPublisher = eventPublisher;
+		this.allocationService = allocationService;
+		this.occupancyReconciler = occupancyReconciler;
 	}
 
+	/**
+	 * Lists every room with an ETag that changes with each room write; an
+	 * unchanged list is answered from {@link JsonResponseCache}.
+	 */
 	@GetMapping
-	public List<Room> getAllRooms() {
-		return roomRepo.findAll();
+	public ResponseEntity<byte[]> getAllRooms(
+			@RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+		return responseCache.serve("rooms", ifNoneMatch, EnumSet.of(Collection.ROOMS),
+				() -> ResponseEntity.ok(roomRepo.findAll()));
+	}
+
+	/**
+	 * Rooms with free beds, best fit first, served from the in-memory
+	 * {@link RoomOccupancyIndex}.
+	 *
+	 * @param floor   only rooms on this floor
+	 * @param minFree minimum number of free beds a room must have
+	 * @param limit   maximum number of rooms to return
+	 */
+	@GetMapping("/vacancies")
+	public List<RoomVacancy> getVacancies(@RequestParam(required = false) String floor,
+			@RequestParam(defaultValue = "1") int minFree, @RequestParam(defaultValue = "10") int limit) {
+		if (minFree < 1 || limit < 1 || limit > maxVacanciesSize) {
+			throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+					"minFree must be >= 1 and limit between 1 and " + maxVacanciesSize);
+		}
+		if (!occupancyIndex.isReady()) {
+			throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Room occupancy index is loading");
+		}
+		return occupancyIndex.findVacancies(floor == null || floor.isBlank() ? null : floor, minFree, limit);
+	}
+
+	/**
+	 * Places many tenants in rooms at once; see {@link AllocationService}. With
+	 * {@code dryRun} the plan is returned without writing anything.
+	 */
+	@PostMapping("/allocations")
+	public AllocationPlan allocate(@RequestBody AllocationRequest request) {
+		if (!occupancyIndex.isReady()) {
+			throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Room occupancy index is loading");
+		}
+		try {
+			return allocationService.allocate(request);
+		} catch (IllegalArgumentException e) {
+			throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+		}
+	}
+
+	/**
+	 * Repairs room occupants that disagree with the tenants' room numbers; see
+	 * {@link OccupancyReconciler}. With {@code dryRun} the drift is only reported.
+	 */
+	@PostMapping("/reconcile")
+	public OccupancyReport reconcile(@RequestParam(defaultValue = "false") boolean dryRun) {
+		try {
+			return occupancyReconciler.reconcile(dryRun);
+		} catch (IllegalStateException e) {
+			throw new ResponseStatusException(HttpStatus.CONFLICT, e.getMessage(), e);
+		}
+	}
+
+	/**
+	 * Streams every room as NDJSON (default) or CSV directly from a Mongo cursor.
+	 */
+	@GetMapping("/export")
+	public ResponseEntity<StreamingResponseBody> exportRooms(@RequestParam(required = false) String format) {
+		ExportService.Format exportFormat = TenantController.parseExportFormat(format);
+		return ResponseEntity.ok().contentType(exportFormat.mediaType())
+				.header(HttpHeaders.CONTENT_DISPOSITION,
+						"attachment; filename=\"rooms." + exportFormat.extension() + "\"")
+				.body(output -> exportService.writeRooms(output, exportFormat));
 	}
 
 	@PostMapping
@@ -47,7 +159,16 @@ public class RoomController {
 		}
 
 		room.setAllocatedCount(0);
-		return roomRepo.save(room);
+		// A client-supplied version would turn the insert into a full replace.
+		room.setVersion(null);
+		Room saved;
+		try {
+			saved = roomRepo.save(room);
+		} catch (DuplicateKeyException e) {
+			throw new ResponseStatusException(HttpStatus.CONFLICT, "Room " + room.getRoomNo() + " already exists", e);
+		}
+		eventPublisher.publishEvent(RoomChangedEvent.saved(saved));
+		return saved;
 	}
 
 	@GetMapping("/{roomNo}")
@@ -55,31 +176,122 @@ public class RoomController {
 		return roomRepo.findByRoomNo(roomNo);
 	}
 
+	/**
+	 * Replaces the editable details of a room (number, floor, capacity and
+	 * comments) with one targeted update; occupancy is never rewritten. An
+	 * {@code If-Match} header carrying the version from a previous response makes
+	 * the update fail with {@code 409} when someone else changed the room since.
+	 * Changing the number of a room that still has tenants is refused with
+	 * {@code 409} as well, since they would keep pointing at the old number.
+	 */
 	@PutMapping("/{id}")
-	public Room updateRoom(@PathVariable String id, @RequestBody Room room) {
-		room.setId(id);
-		return roomRepo.save(room);
+	public ResponseEntity<Room> updateRoom(@PathVariable String id,
+			@RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch, @RequestBody Room room) {
+		validateCapacity(room.getCapacity());
+		String roomNo = trimToNull(room.getRoomNo());
+		String floorNo = trimToNull(room.getFloorNo());
+		String comments = trimToNull(room.getComments());
+		Update update = new Update().set("capacity", room.getCapacity());
+		if (roomNo == null) {
+			update.unset("roomNo");
+		} else {
+			update.set("roomNo", roomNo);
+		}
+		if (floorNo == null) {
+			update.unset("floorNo");
+		} else {
+			update.set("floorNo", floorNo);
+		}
+		if (comments == null) {
+			update.unset("comments");
+		} else {
+			update.set("comments", comments);
+		}
+
+		try {
+			return applyUpdate(
+					() -> roomRepo.replaceDetails(id, roomNo, update, TenantController.parseIfMatch(ifMatch)));
+		} catch (DuplicateKeyException e) {
+			throw new ResponseStatusException(HttpStatus.CONFLICT, "Room " + roomNo + " already exists", e);
+		} catch (DataIntegrityViolationException e) {
+			throw new ResponseStatusException(HttpStatus.CONFLICT, e.getMessage(), e);
+		}
 	}
 
+	/**
+	 * Sets capacity and/or comments of a room with one targeted update; honours
+	 * {@code If-Match} like {@link #updateRoom}.
+	 */
 	@PatchMapping("/{id}")
-	public Room updateRoomDetails(@PathVariable String id, @RequestBody RoomUpdateRequest request) {
-		Room room = roomRepo.findById(id)
-				.orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Room not found"));
+	public ResponseEntity<Room> updateRoomDetails(@PathVariable String id,
+			@RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+			@RequestBody RoomUpdateRequest request) {
+		validateCapacity(request.capacity());
+		if (request.isEmpty()) {
+			return roomRepo.findById(id).map(RoomController::okWithVersion)
+					.orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Room not found"));
+		}
+		return applyUpdate(() -> roomRepo.updateDetails(id, request, TenantController.parseIfMatch(ifMatch)));
+	}
 
-		if (request.capacity() != null) {
-			room.setCapacity(request.capacity());
+	/**
+	 * Sets capacity and/or comments of many rooms in one bulk write. Entries with
+	 * a {@code version} are only applied while the room still has it; rooms that
+	 * are missing or changed concurrently are listed in the result.
+	 */
+	@PatchMapping
+	public RoomBulkUpdateResult updateRoomsDetails(@RequestBody List<RoomBulkUpdate> updates) {
+		for (RoomBulkUpdate entry : updates) {
+			if (entry.id() == null || entry.id().isBlank() || entry.changes().isEmpty()) {
+				throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+						"Every entry needs an id and a capacity or comments");
+			}
+			validateCapacity(entry.capacity());
 		}
 
-		if (request.comments() != null) {
-			String trimmed = request.comments().trim();
-			room.setComments(trimmed.isEmpty() ? null : trimmed);
+		RoomBulkUpdateResult result = roomRepo.bulkUpdateDetails(updates);
+		if (result.matched() > 0) {
+			// The bulk write returns no documents; re-read them once for listeners
+			roomRepo.findAllById(updates.stream().map(RoomBulkUpdate::id).toList())
+					.forEach(room -> eventPublisher.publishEvent(RoomChangedEvent.saved(room)));
 		}
+		return result;
+	}
 
-		return roomRepo.save(room);
+	private ResponseEntity<Room> applyUpdate(Supplier<Optional<Room>> update) {
+		Optional<Room> updated;
+		try {
+			updated = update.get();
+		} catch (OptimisticLockingFailureException e) {
+			throw new ResponseStatusException(HttpStatus.CONFLICT, e.getMessage(), e);
+		}
+		updated.ifPresent(room -> eventPublisher.publishEvent(RoomChangedEvent.saved(room)));
+		return updated.map(RoomController::okWithVersion)
+				.orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Room not found"));
+	}
+
+	private static ResponseEntity<Room> okWithVersion(Room room) {
+		long version = room.getVersion() == null ? 0 : room.getVersion();
+		return ResponseEntity.ok().eTag(Long.toString(version)).body(room);
+	}
+
+	private static void validateCapacity(Integer capacity) {
+		if (capacity != null && capacity < 0) {
+			throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "capacity must not be negative");
+		}
+	}
+
+	private static String trimToNull(String value) {
+		if (value == null) {
+			return null;
+		}
+		String trimmed = value.trim();
+		return trimmed.isEmpty() ? null : trimmed;
 	}
 
 	@DeleteMapping("/{id}")
 	public void deleteRoom(@PathVariable String id) {
 		roomRepo.deleteById(id);
+		eventPublisher.publishEvent(RoomChangedEvent.deleted(id));
 	}
 }
\ No newline at end of file
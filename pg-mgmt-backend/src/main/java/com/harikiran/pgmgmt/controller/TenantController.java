@@ -1,16 +1,31 @@
 package com.harikiran.pgmgmt.controller;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.time.Instant;
 import java.time.LocalDate;
 import java.time.ZoneOffset;
 import java.time.format.DateTimeParseException;
-import java.util.ArrayList;
 import java.util.Date;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
-import java.util.Objects;
 import java.util.Optional;
-
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -20,13 +35,28 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
-
-import com.harikiran.pgmgmt.model.Room;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.harikiran.pgmgmt.dto.TenantField;
+import com.harikiran.pgmgmt.dto.TenantImportJobStatus;
+import com.harikiran.pgmgmt.dto.TenantPage;
+import com.harikiran.pgmgmt.dto.TenantPageRequest;
+import com.harikiran.pgmgmt.dto.TenantSearchPage;
 import com.harikiran.pgmgmt.model.Tenant;
-import com.harikiran.pgmgmt.repository.RoomRepository;
 import com.harikiran.pgmgmt.repository.TenantRepository;
+import com.harikiran.pgmgmt.security.PrincipalCache;
+import com.harikiran.pgmgmt.service.CollectionVersions.Collection;
+import com.harikiran.pgmgmt.service.ExportService;
+import com.harikiran.pgmgmt.service.JsonResponseCache;
+import com.harikiran.pgmgmt.service.RoomAssignmentService;
+import com.harikiran.pgmgmt.service.TenantChangedEvent;
+import com.harikiran.pgmgmt.service.TenantImportService;
+import com.harikiran.pgmgmt.service.TenantSearchIndex;
 
 @RestController
 @RequestMapping("/api/tenants")
@@ -35,24 +65,157 @@ import com.harikiran.pgmgmt.repository.TenantRepository;
  */
 public class TenantController {
 
-	private final TenantRepository tenantRepo;
-	private final RoomRepository roomRepo;
+	/** Response header carrying the continuation token of a paged listing. */
+	static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
 
-	public TenantController(TenantRepository tenantRepo, RoomRepository roomRepo) {
+	private final TenantRepository tenantRepo;
+	private final RoomAssignmentService roomAssignmentService;
+	private final PrincipalCache principalCache;
+	private final ExportService exportService;
+	private final TenantImportService importService;
+	private final TenantSearchIndex searchIndex;
+	private final ApplicationEventPublisher eventPublisher;
+	private final JsonResponseCache responseCache;
+
+	@Value("${app.tenants.page.default-size:50}")
+	private int defaultPageSize;
+
+	@Value("${app.tenants.page.max-size:200}")
+	private int maxPageSize;
+
+	@Value("${app.tenants.search.max-size:100}")
+	private int maxSearchSize;
+
+	public TenantController(TenantRepository tenantRepo, RoomAssignmentService roomAssignmentService,
+			PrincipalCache principalCache, ExportService exportService, TenantImportService importService,
+			TenantSearchIndex searchIndex, ApplicationEventPublisher eventPublisher, JsonResponseCache responseCache) {
 		this.tenantRepo = tenantRepo;
-		this.roomRepo = roomRepo;
+		this.roomAssignmentService = roomAssignmentService;
+		this.principalCache = principalCache;
+		this.exportService = exportService;
+		this.importService = importService;
+		this.searchIndex = searchIndex;
+		this.eventPublisher = eventPublisher;
+		this.responseCache = responseCache;
 	}
 
+	/**
+	 * Lists tenants. Without query parameters the full collection is returned as
+	 * before; any paging, filter or {@code fields} parameter switches to a keyset
+	 * page whose continuation token is sent in the {@value #NEXT_CURSOR_HEADER}
+	 * header. Responses carry an ETag that changes with every tenant write and
+	 * are served from {@link JsonResponseCache} while it still matches.
+	 */
 	@PreAuthorize("hasRole('ADMIN')")
 	@GetMapping
-	public List<Tenant> getAllTenants() {
-		return tenantRepo.findAll();
+	public ResponseEntity<byte[]> getAllTenants(@RequestParam(required = false) Integer limit,
+			@RequestParam(required = false) String cursor, @RequestParam(required = false) String sort,
+			@RequestParam(required = false) String roomNo, @RequestParam(required = false) Boolean active,
+			@RequestParam(required = false) Boolean due, @RequestParam(required = false) String mealPreference,
+			@RequestParam(required = false) Boolean continuousStay,
+			@RequestParam(required = false) List<String> fields,
+			@RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+		boolean paged = limit != null || cursor != null || sort != null || roomNo != null || active != null
+				|| due != null || mealPreference != null || continuousStay != null || fields != null;
+		if (!paged) {
+			return responseCache.serve("tenants", ifNoneMatch, EnumSet.of(Collection.TENANTS),
+					() -> ResponseEntity.ok(tenantRepo.findAll()));
+		}
+
+		TenantPageRequest request = buildPageRequest(limit, cursor, sort, roomNo, active, due, mealPreference,
+				continuousStay, fields);
+		return responseCache.serve("tenants:" + request, ifNoneMatch, EnumSet.of(Collection.TENANTS),
+				() -> loadPage(request));
+	}
+
+	private ResponseEntity<List<?>> loadPage(TenantPageRequest request) {
+		TenantPage page = tenantRepo.findPage(request);
+
+		List<?> body = request.fields().isEmpty() ? page.items()
+				: page.items().stream().map(tenant -> project(tenant, request.fields())).toList();
+		ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+		if (page.nextCursor() != null) {
+			response.header(NEXT_CURSOR_HEADER, page.nextCursor());
+		}
+		return response.body(body);
+	}
+
+	/**
+	 * Ranked search over tenant name, email, phone and room number, served from
+	 * the in-memory {@link TenantSearchIndex}.
+	 */
+	@PreAuthorize("hasRole('ADMIN')")
+	@GetMapping("/search")
+	public TenantSearchPage searchTenants(@RequestParam String q, @RequestParam(defaultValue = "0") int offset,
+			@RequestParam(defaultValue = "20") int limit) {
+		if (offset < 0 || limit < 1 || limit > maxSearchSize) {
+			throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+					"offset must be >= 0 and limit between 1 and " + maxSearchSize);
+		}
+		if (!searchIndex.isReady()) {
+			throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Tenant search index is loading");
+		}
+		return searchIndex.search(q, offset, limit);
+	}
+
+	/**
+	 * Streams every tenant as NDJSON (default) or CSV directly from a Mongo
+	 * cursor.
+	 */
+	@PreAuthorize("hasRole('ADMIN')")
+	@GetMapping("/export")
+	public ResponseEntity<StreamingResponseBody> exportTenants(@RequestParam(required = false) String format) {
+		ExportService.Format exportFormat = parseExportFormat(format);
+		return ResponseEntity.ok().contentType(exportFormat.mediaType())
+				.header(HttpHeaders.CONTENT_DISPOSITION,
+						"attachment; filename=\"tenants." + exportFormat.extension() + "\"")
+				.body(output -> exportService.writeTenants(output, exportFormat));
+	}
+
+	/**
+	 * Upserts tenants by email from a JSON array or a CSV file with a header row.
+	 * With {@code async=true} the upload is queued and {@code 202 Accepted} points
+	 * at the job to poll; otherwise the per-row result is returned once written.
+	 */
+	@PreAuthorize("hasRole('ADMIN')")
+	@PostMapping(path = "/import", consumes = { MediaType.APPLICATION_JSON_VALUE, "text/csv" })
+	public ResponseEntity<?> importTenants(@RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+			@RequestParam(defaultValue = "false") boolean async, InputStream body) throws IOException {
+		TenantImportService.Format format = TenantImportService.Format
+				.fromContentType(MediaType.parseMediaType(contentType));
+		if (!async) {
+			try {
+				return ResponseEntity.ok(importService.importTenants(body, format));
+			} catch (IOException e) {
+				throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+			}
+		}
+
+		Path upload = Files.createTempFile("tenant-import-", "." + format.name().toLowerCase(Locale.ROOT));
+		try {
+			Files.copy(body, upload, StandardCopyOption.REPLACE_EXISTING);
+		} catch (IOException e) {
+			Files.deleteIfExists(upload);
+			throw e;
+		}
+		TenantImportJobStatus status = importService.submit(upload, format);
+		return ResponseEntity.accepted().location(URI.create("/api/tenants/import/" + status.jobId())).body(status);
+	}
+
+	@PreAuthorize("hasRole('ADMIN')")
+	@GetMapping("/import/{jobId}")
+	public TenantImportJobStatus getImportJob(@PathVariable String jobId) {
+		return importService.findJob(jobId)
+				.orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Import job not found"));
 	}
 
 	@PreAuthorize("hasRole('ADMIN')")
 	@PostMapping
 	public Tenant addTenant(@RequestBody Tenant tenant) {
-		return tenantRepo.save(tenant);
+		Tenant saved = tenantRepo.save(tenant);
+		principalCache.evict(saved.getEmail(), "tenant");
+		eventPublisher.publishEvent(TenantChangedEvent.saved(saved));
+		return saved;
 	}
 
 	@PreAuthorize("hasRole('ADMIN') or @tenantSecurity.isCurrentUserEmail(#email, authentication)")
@@ -61,92 +224,82 @@ public class TenantController {
 		return tenantRepo.findByEmail(email).orElse(null);
 	}
 
+	/**
+	 * Replaces every field of an existing tenant with one targeted update that
+	 * bumps its version. An {@code If-Match} header carrying the version from a
+	 * previous response makes the update fail with {@code 409} when someone else
+	 * changed the tenant since; the {@code version} in the body is ignored.
+	 */
 	@PreAuthorize("hasRole('ADMIN')")
 	@PutMapping("/{id}")
-	public Tenant updateTenant(@PathVariable String id, @RequestBody Tenant tenant) {
-		tenant.setId(id);
-		return tenantRepo.save(tenant);
+	public ResponseEntity<Tenant> updateTenant(@PathVariable String id,
+			@RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+			@RequestBody Tenant tenant) {
+		tenantRepo.findById(id).ifPresent(previous -> principalCache.evict(previous.getEmail(), "tenant"));
+		ResponseEntity<Tenant> response = applyUpdate(id, buildReplaceUpdate(tenant), ifMatch);
+		principalCache.evict(tenant.getEmail(), "tenant");
+		return response;
 	}
 
 	@PreAuthorize("hasRole('ADMIN')")
 	@DeleteMapping("/{id}")
 	public void deleteTenant(@PathVariable String id) {
-		tenantRepo.deleteById(id);
+		tenantRepo.removeById(id).ifPresent(removed -> {
+			principalCache.evict(removed.getEmail(), "tenant");
+			eventPublisher.publishEvent(TenantChangedEvent.deleted(id));
+		});
 	}
 
+	/**
+	 * Toggles the tenant's meal status with one targeted update. An
+	 * {@code If-Match} header carrying the version from a previous response makes
+	 * the update fail with {@code 409} when someone else changed the tenant since.
+	 */
 	@PreAuthorize("hasRole('ADMIN') or @tenantSecurity.isOwnerById(#id, authentication)")
 	@PatchMapping("/{id}/status")
 	public ResponseEntity<Tenant> updateTenantStatus(@PathVariable String id,
+			@RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
 			@RequestBody Map<String, Boolean> statusUpdate) {
-		return tenantRepo.findById(id).map(tenant -> {
-			Boolean active = statusUpdate.get("isActive");
-			if (active != null) {
-				tenant.setActive(active);
-				tenantRepo.save(tenant);
-			}
-			return ResponseEntity.ok(tenant);
-		}).orElse(ResponseEntity.notFound().build());
+		Boolean active = statusUpdate.get("isActive");
+		if (active == null) {
+			return tenantRepo.findById(id).map(TenantController::okWithVersion)
+					.orElse(ResponseEntity.notFound().build());
+		}
+		return applyUpdate(id, new Update().set("isActive", active), ifMatch);
 	}
 
 	@PreAuthorize("hasRole('ADMIN') or @tenantSecurity.isOwnerById(#id, authentication)")
 	@PatchMapping("/{id}/profile")
 	public ResponseEntity<Tenant> updateTenantProfile(@PathVariable String id,
+			@RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
 			@RequestBody Map<String, Object> updates) {
-		return tenantRepo.findById(id).map(tenant -> {
-			applyProfileUpdates(tenant, updates);
-			tenantRepo.save(tenant);
-			return ResponseEntity.ok(tenant);
-		}).orElse(ResponseEntity.notFound().build());
+		Update update = buildProfileUpdate(updates);
+		if (update.getUpdateObject().isEmpty()) {
+			return tenantRepo.findById(id).map(TenantController::okWithVersion)
+					.orElse(ResponseEntity.notFound().build());
+		}
+		return applyUpdate(id, update, ifMatch);
 	}
 
+	/**
+	 * Moves a tenant to the room in {@code roomNo}, or out of its room when the
+	 * value is blank. Responds with {@code 400} when the room is missing or full.
+	 */
 	@PreAuthorize("hasRole('ADMIN')")
 	@PatchMapping("/{id}/room")
 	public ResponseEntity<Tenant> updateTenantRoom(@PathVariable String id, @RequestBody Map<String, Object> request) {
-		return tenantRepo.findById(id).map(tenant -> {
-			String tenantId = tenant.getId();
-			if (tenantId == null || tenantId.isBlank()) {
-				return ResponseEntity.badRequest().<Tenant>build();
-			}
-
-			String requestedRoomNo = Optional.ofNullable(request.get("roomNo")).map(Object::toString).orElse(null);
-			String normalizedNewRoomNo = normalizeRoomNo(requestedRoomNo);
-
-			if (!applyRoomUpdate(tenant, tenantId, normalizedNewRoomNo)) {
-				return ResponseEntity.badRequest().<Tenant>build();
-			}
-
-			Tenant savedTenant = tenantRepo.save(tenant);
-			return ResponseEntity.ok(savedTenant);
-		}).orElse(ResponseEntity.notFound().<Tenant>build());
-	}
-
-	private boolean applyRoomUpdate(Tenant tenant, String tenantId, String normalizedNewRoomNo) {
-		String existingRoomNo = normalizeRoomNo(tenant.getRoomNo());
-
-		if (Objects.equals(existingRoomNo, normalizedNewRoomNo)) {
-			return true;
+		if (id == null || id.isBlank()) {
+			return ResponseEntity.badRequest().build();
 		}
 
-		Room newRoom = null;
-		if (normalizedNewRoomNo != null) {
-			newRoom = roomRepo.findByRoomNo(normalizedNewRoomNo);
-			if (newRoom == null || !canAssignTenantToRoom(newRoom, tenantId)) {
-				return false;
-			}
-		}
-
-		if (existingRoomNo != null) {
-			removeTenantFromRoom(existingRoomNo, tenantId);
-		}
-
-		if (newRoom != null) {
-			addTenantToRoom(newRoom, tenantId);
-			tenant.setRoomNo(normalizedNewRoomNo);
-		} else {
-			tenant.setRoomNo(null);
+		String requestedRoomNo = Optional.ofNullable(request.get("roomNo")).map(Object::toString).orElse(null);
+		String normalizedNewRoomNo = normalizeRoomNo(requestedRoomNo);
+		try {
+			return roomAssignmentService.moveTenant(id, normalizedNewRoomNo).map(TenantController::okWithVersion)
+					.orElse(ResponseEntity.notFound().build());
+		} catch (RoomAssignmentService.RoomUnavailableException e) {
+			return ResponseEntity.badRequest().build();
 		}
-
-		return true;
 	}
 
 	private String normalizeRoomNo(String roomNo) {
@@ -158,47 +311,6 @@ public class TenantController {
 		return trimmed.isEmpty() ? null : trimmed;
 	}
 
-	private boolean canAssignTenantToRoom(Room room, String tenantId) {
-		List<String> tenantIds = Optional.ofNullable(room.getTenantIds()).orElse(List.of());
-		if (tenantIds.contains(tenantId)) {
-			return true;
-		}
-
-		int capacity = Math.max(room.getCapacity(), 0);
-		if (capacity == 0) {
-			return true;
-		}
-
-		int currentSize = tenantIds.size();
-		return currentSize < capacity;
-	}
-
-	private void addTenantToRoom(Room room, String tenantId) {
-		List<String> tenantIds = Optional.ofNullable(room.getTenantIds()).map(ArrayList::new).orElseGet(ArrayList::new);
-		if (!tenantIds.contains(tenantId)) {
-			tenantIds.add(tenantId);
-		}
-		room.setTenantIds(tenantIds);
-		room.setAllocatedCount(Math.max(tenantIds.size(), 0));
-		roomRepo.save(room);
-	}
-
-	private void removeTenantFromRoom(String roomNo, String tenantId) {
-		Room existingRoom = roomRepo.findByRoomNo(roomNo);
-		if (existingRoom == null) {
-			return;
-		}
-
-		List<String> tenantIds = Optional.ofNullable(existingRoom.getTenantIds()).map(ArrayList::new)
-				.orElseGet(ArrayList::new);
-		boolean modified = tenantIds.removeIf(id -> Objects.equals(id, tenantId));
-		if (modified || existingRoom.getAllocatedCount() != tenantIds.size()) {
-			existingRoom.setTenantIds(tenantIds);
-			existingRoom.setAllocatedCount(Math.max(tenantIds.size(), 0));
-			roomRepo.save(existingRoom);
-		}
-	}
-
 	private Date convertToDate(Object rawValue) {
 		if (rawValue == null) {
 			return null;
@@ -244,27 +356,122 @@ public class TenantController {
 		return Boolean.parseBoolean(stringValue);
 	}
 
-	private void applyProfileUpdates(Tenant tenant, Map<String, Object> updates) {
+	private Update buildProfileUpdate(Map<String, Object> updates) {
+		Update update = new Update();
 		if (updates.containsKey("phone")) {
 			Object phoneValue = updates.get("phone");
-			tenant.setPhone(phoneValue != null ? phoneValue.toString() : null);
+			update.set("phone", phoneValue != null ? phoneValue.toString() : null);
 		}
 		if (updates.containsKey("mealPreference")) {
 			Object mealValue = updates.get("mealPreference");
-			tenant.setMealPreference(mealValue != null ? mealValue.toString() : null);
+			update.set("mealPreference", mealValue != null ? mealValue.toString() : null);
 		}
 		if (updates.containsKey("renewalDate")) {
 			Object renewalDateValue = updates.get("renewalDate");
-			tenant.setRenewalDate(convertToDate(renewalDateValue));
-			tenant.setDue(false);
+			update.set("renewalDate", convertToDate(renewalDateValue));
+			update.set("due", false);
 		}
 		if (updates.containsKey("continuousStay")) {
 			Object continuousStayValue = updates.get("continuousStay");
-			tenant.setContinuousStay(convertToBoolean(continuousStayValue));
+			update.set("continuousStay", convertToBoolean(continuousStayValue));
 		}
 		if (updates.containsKey("due")) {
 			Object dueValue = updates.get("due");
-			tenant.setDue(convertToBoolean(dueValue));
+			update.set("due", convertToBoolean(dueValue));
+		}
+		return update;
+	}
+
+	private Update buildReplaceUpdate(Tenant tenant) {
+		return new Update().set("name", tenant.getName()).set("email", tenant.getEmail())
+				.set("phone", tenant.getPhone()).set("pictureUrl", tenant.getPictureUrl())
+				.set("mealPreference", tenant.getMealPreference()).set("roomNo", tenant.getRoomNo())
+				.set("due", tenant.isDue()).set("isActive", tenant.isActive())
+				.set("renewalDate", tenant.getRenewalDate()).set("continuousStay", tenant.isContinuousStay());
+	}
+
+	private ResponseEntity<Tenant> applyUpdate(String id, Update update, String ifMatch) {
+		Long expectedVersion = parseIfMatch(ifMatch);
+		try {
+			return tenantRepo.updateFields(id, update, expectedVersion).map(updated -> {
+				eventPublisher.publishEvent(TenantChangedEvent.saved(updated));
+				return okWithVersion(updated);
+			}).orElse(ResponseEntity.notFound().build());
+		} catch (OptimisticLockingFailureException e) {
+			throw new ResponseStatusException(HttpStatus.CONFLICT, e.getMessage(), e);
+		}
+	}
+
+	private static ResponseEntity<Tenant> okWithVersion(Tenant tenant) {
+		long version = tenant.getVersion() == null ? 0 : tenant.getVersion();
+		return ResponseEntity.ok().eTag(Long.toString(version)).body(tenant);
+	}
+
+	/**
+	 * Reads the expected tenant version from an {@code If-Match} header;
+	 * {@code null} when absent or {@code *}.
+	 */
+	static Long parseIfMatch(String ifMatch) {
+		if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+			return null;
+		}
+
+		String value = ifMatch.trim();
+		if (value.startsWith("W/")) {
+			value = value.substring(2);
+		}
+		if (value.length() >= 2 && value.startsWith("\"") && value.endsWith("\"")) {
+			value = value.substring(1, value.length() - 1);
+		}
+		try {
+			return Long.parseLong(value);
+		} catch (NumberFormatException e) {
+			throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid If-Match version: " + ifMatch, e);
+		}
+	}
+
+	static ExportService.Format parseExportFormat(String format) {
+		try {
+			return ExportService.Format.fromParameter(format);
+		} catch (IllegalArgumentException e) {
+			throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unsupported export format: " + format, e);
+		}
+	}
+
+	private TenantPageRequest buildPageRequest(Integer limit, String cursor, String sort, String roomNo,
+			Boolean active, Boolean due, String mealPreference, Boolean continuousStay, List<String> fields) {
+		int pageSize = limit == null ? defaultPageSize : limit;
+		if (pageSize < 1 || pageSize > maxPageSize) {
+			throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+					"limit must be between 1 and " + maxPageSize);
+		}
+
+		TenantPageRequest.Sort order;
+		TenantPageRequest.Cursor after;
+		Set<TenantField> projection = EnumSet.noneOf(TenantField.class);
+		try {
+			order = sort == null ? TenantPageRequest.Sort.ID
+					: TenantPageRequest.Sort.valueOf(sort.trim().toUpperCase());
+			after = cursor == null || cursor.isBlank() ? null
+					: TenantPageRequest.Cursor.decode(cursor.trim(), order);
+			if (fields != null) {
+				fields.stream().filter(field -> !field.isBlank()).map(TenantField::fromJsonName)
+						.forEach(projection::add);
+			}
+		} catch (IllegalArgumentException e) {
+			throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+		}
+
+		return new TenantPageRequest(normalizeRoomNo(roomNo), active, due, mealPreference, continuousStay, order,
+				after, pageSize, projection);
+	}
+
+	private Map<String, Object> project(Tenant tenant, Set<TenantField> fields) {
+		Map<String, Object> projected = new LinkedHashMap<>();
+		projected.put(TenantField.ID.jsonName(), tenant.getId());
+		for (TenantField field : fields) {
+			projected.put(field.jsonName(), field.read(tenant));
 		}
+		return projected;
 	}
-}
\ No newline at end of file
+}
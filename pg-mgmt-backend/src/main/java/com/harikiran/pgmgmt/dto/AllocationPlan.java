@@ -0,0 +1,22 @@
+package com.harikiran.pgmgmt.dto;
+
+import java.util.List;
+
+/**
+ * Outcome of a batch allocation.
+ *
+ * @param dryRun      {@code true} when nothing was written
+ * @param assignments tenants placed, grouped by room; on a real run only those
+ *                    that were written
+ * @param unplaced    tenants for which no room had enough free beds
+ * @param skipped     requested tenants that do not exist or already have a
+ *                    room
+ * @param conflicts   planned tenants not written because their room filled up
+ *                    or the tenant got a room concurrently
+ */
+public record AllocationPlan(boolean dryRun, List<Assignment> assignments, List<String> unplaced,
+		List<String> skipped, List<String> conflicts) {
+
+	public record Assignment(String tenantId, String roomNo, String floorNo) {
+	}
+}
@@ -0,0 +1,27 @@
+package com.harikiran.pgmgmt.dto;
+
+import java.util.List;
+
+/**
+ * Tenants to place in rooms in one batch, and how to place them.
+ *
+ * @param tenantIds tenants to place; may only be empty when {@code groups}
+ *                  names the tenants
+ * @param groups    roommates that must share a room; members are placed even
+ *                  when missing from {@code tenantIds}
+ * @param floor     floor to fill first, falling back to other floors when it
+ *                  runs out of beds
+ * @param strategy  how to choose among rooms with enough free beds; defaults
+ *                  to {@link Strategy#COMPACT}
+ * @param dryRun    compute and return the plan without writing it
+ */
+public record AllocationRequest(List<String> tenantIds, List<List<String>> groups, String floor,
+		Strategy strategy, boolean dryRun) {
+
+	public enum Strategy {
+		/** Fewest free beds first, keeping emptier rooms available. */
+		COMPACT,
+		/** Most free beds first, spreading tenants across rooms. */
+		SPREAD
+	}
+}
@@ -3,13 +3,17 @@ package com.harikiran.pgmgmt.dto;
 import java.util.Date;
 import java.util.List;
 
-public record DashboardSummaryResponse(DashboardCounts counts, List<TenantSummary> topTenants,
-		List<TenantSummary> paymentDueTenants) {
+public record DashboardSummaryResponse(DashboardCounts counts, List<FloorAllocation> floors,
+		List<TenantSummary> topTenants, List<TenantSummary> paymentDueTenants) {
 
 	public record DashboardCounts(long totalActive, long vegCount, long nonVegCount, long totalCapacity,
 			long allocatedCapacity, long vacantCapacity) {
 	}
 
+	public record FloorAllocation(String floorNo, long rooms, long totalCapacity, long allocatedCapacity,
+			long vacantCapacity) {
+	}
+
 	public record TenantSummary(String id, String name, String roomNo, Date renewalDate) {
 	}
 
@@ -0,0 +1,36 @@
+package com.harikiran.pgmgmt.dto;
+
+import java.util.List;
+
+/**
+ * Outcome of an occupancy reconciliation.
+ *
+ * @param dryRun          {@code true} when nothing was written
+ * @param drifts          rooms whose recorded occupants differ from the
+ *                        tenants pointing at them
+ * @param repairedRooms   rooms rewritten to their true occupants
+ * @param releasedTenants tenants whose room no longer exists and were left
+ *                        without one
+ * @param skipped         room numbers not repaired because the room changed
+ *                        since it was checked, or because tenants of a
+ *                        missing room are still listed by another room, as
+ *                        after a rename; the next run checks them again
+ */
+public record OccupancyReport(boolean dryRun, List<RoomDrift> drifts, int repairedRooms, int releasedTenants,
+		List<String> skipped) {
+
+	/**
+	 * @param roomId         {@code null} when tenants point at a room that does
+	 *                       not exist
+	 * @param recorded       {@code Room.tenantIds} as stored
+	 * @param allocatedCount {@code Room.allocatedCount} as stored
+	 * @param actual         ids of the tenants whose {@code roomNo} is this room
+	 */
+	public record RoomDrift(String roomNo, String roomId, List<String> recorded, int allocatedCount,
+			List<String> actual) {
+
+		public boolean roomMissing() {
+			return roomId == null;
+		}
+	}
+}
@@ -0,0 +1,18 @@
+package com.harikiran.pgmgmt.dto;
+
+/**
+ * One entry of a bulk room update.
+ *
+ * @param id       room identifier
+ * @param version  when not {@code null}, only update the room if its stored
+ *                 version still matches
+ * @param capacity new capacity, or {@code null} to keep it
+ * @param comments new comments, blank to clear them, or {@code null} to keep
+ *                 them
+ */
+public record RoomBulkUpdate(String id, Long version, Integer capacity, String comments) {
+
+	public RoomUpdateRequest changes() {
+		return new RoomUpdateRequest(capacity, comments);
+	}
+}
@@ -0,0 +1,14 @@
+package com.harikiran.pgmgmt.dto;
+
+import java.util.List;
+
+/**
+ * Outcome of a bulk room update.
+ *
+ * @param requested    entries in the request
+ * @param matched      rooms found with the expected version
+ * @param modified     rooms whose stored values changed
+ * @param unmatchedIds rooms that do not exist or were changed concurrently
+ */
+public record RoomBulkUpdateResult(int requested, int matched, int modified, List<String> unmatchedIds) {
+}
@@ -1,4 +1,15 @@
 package com.harikiran.pgmgmt.dto;
 
+/**
+ * Room details an admin may change without touching occupancy.
+ *
+ * @param capacity new capacity, or {@code null} to keep it
+ * @param comments new comments, blank to clear them, or {@code null} to keep
+ *                 them
+ */
 public record RoomUpdateRequest(Integer capacity, String comments) {
+
+	public boolean isEmpty() {
+		return capacity == null && comments == null;
+	}
 }
@@ -0,0 +1,13 @@
+package com.harikiran.pgmgmt.dto;
+
+/**
+ * A room with at least one free bed.
+ *
+ * @param id       room identifier
+ * @param roomNo   room number to assign tenants to
+ * @param floorNo  floor label
+ * @param capacity number of beds, or 0 for an unbounded room
+ * @param freeBeds beds still free, or {@code null} for an unbounded room
+ */
+public record RoomVacancy(String id, String roomNo, String floorNo, int capacity, Integer freeBeds) {
+}
@@ -0,0 +1,39 @@
+package com.harikiran.pgmgmt.dto;
+
+import com.harikiran.pgmgmt.model.StatsGranularity;
+
+/**
+ * Compact column-wise stats timelines, served instead of lists of points when
+ * a client accepts {@link #MEDIA_TYPE}.
+ *
+ * <p>
+ * Row {@code i} of a timeline is dated {@code baseDate} plus the sum of
+ * {@code dayDeltas[0..i]} days; the first delta is always {@code 0}. Every
+ * other array holds one column of the rows, in the same order as the points
+ * of the JSON list.
+ * </p>
+ */
+public final class StatsColumns {
+
+	/** Media type clients send in {@code Accept} to get the columnar format. */
+	public static final String MEDIA_TYPE = "application/vnd.pgmgmt.timeline+json";
+
+	private StatsColumns() {
+	}
+
+	/**
+	 * @param baseDate first day in IST as {@code yyyy-MM-dd}, or {@code null}
+	 *                 when there are no rows
+	 */
+	public record MealColumns(StatsGranularity granularity, String baseDate, int[] dayDeltas, int[] mealNo,
+			long[] totalCount, long[] vegCount, long[] nonVegCount) {
+	}
+
+	/**
+	 * @param baseDate first day in IST as {@code yyyy-MM-dd}, or {@code null}
+	 *                 when there are no rows
+	 */
+	public record AllocationColumns(StatsGranularity granularity, String baseDate, int[] dayDeltas,
+			long[] totalCount, long[] allocatedCount, long[] vacantCount) {
+	}
+}
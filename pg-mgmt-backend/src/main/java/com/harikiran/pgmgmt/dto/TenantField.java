@@ -0,0 +1,64 @@
+package com.harikiran.pgmgmt.dto;
+
+import java.util.function.Function;
+
+import com.harikiran.pgmgmt.model.Tenant;
+
+/**
+ * Tenant attributes that clients may request through the {@code fields}
+ * projection parameter, mapping the JSON property name to the stored document
+ * field.
+ */
+public enum TenantField {
+
+	ID("id", "id", Tenant::getId),
+	NAME("name", "name", Tenant::getName),
+	EMAIL("email", "email", Tenant::getEmail),
+	PHONE("phone", "phone", Tenant::getPhone),
+	PICTURE_URL("pictureUrl", "pictureUrl", Tenant::getPictureUrl),
+	MEAL_PREFERENCE("mealPreference", "mealPreference", Tenant::getMealPreference),
+	ROOM_NO("roomNo", "roomNo", Tenant::getRoomNo),
+	DUE("due", "due", Tenant::isDue),
+	ACTIVE("active", "isActive", Tenant::isActive),
+	RENEWAL_DATE("renewalDate", "renewalDate", Tenant::getRenewalDate),
+	CONTINUOUS_STAY("continuousStay", "continuousStay", Tenant::isContinuousStay);
+
+	private final String jsonName;
+	private final String documentField;
+	private final Function<Tenant, Object> accessor;
+
+	TenantField(String jsonName, String documentField, Function<Tenant, Object> accessor) {
+		this.jsonName = jsonName;
+		this.documentField = documentField;
+		this.accessor = accessor;
+	}
+
+	public String jsonName() {
+		return jsonName;
+	}
+
+	public String documentField() {
+		return documentField;
+	}
+
+	public Object read(Tenant tenant) {
+		return accessor.apply(tenant);
+	}
+
+	/**
+	 * Resolves a JSON property name supplied by a client.
+	 *
+	 * @param jsonName property name as serialized in tenant responses
+	 * @return matching field
+	 * @throws IllegalArgumentException when the name is not a tenant property
+	 */
+	public static TenantField fromJsonName(String jsonName) {
+		String candidate = jsonName == null ? "" : jsonName.trim();
+		for (TenantField field : values()) {
+			if (field.jsonName.equalsIgnoreCase(candidate)) {
+				return field;
+			}
+		}
+		throw new IllegalArgumentException("Unknown tenant field: " + candidate);
+	}
+}
@@ -0,0 +1,23 @@
+package com.harikiran.pgmgmt.dto;
+
+import java.time.Instant;
+
+/**
+ * Progress of an asynchronous bulk tenant import.
+ *
+ * @param jobId         identifier used for polling
+ * @param state         lifecycle state
+ * @param processedRows rows written so far
+ * @param progress      fraction of the uploaded input consumed, 0 to 1
+ * @param submittedAt   when the job was accepted
+ * @param completedAt   when the job finished, {@code null} while running
+ * @param result        final outcome once {@code state} is {@code COMPLETED}
+ * @param error         failure reason once {@code state} is {@code FAILED}
+ */
+public record TenantImportJobStatus(String jobId, State state, int processedRows, double progress,
+		Instant submittedAt, Instant completedAt, TenantImportResult result, String error) {
+
+	public enum State {
+		QUEUED, RUNNING, COMPLETED, FAILED
+	}
+}
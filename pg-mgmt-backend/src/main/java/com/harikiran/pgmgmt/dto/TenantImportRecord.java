@@ -0,0 +1,11 @@
+package com.harikiran.pgmgmt.dto;
+
+import java.util.Date;
+
+/**
+ * One tenant row of a bulk import, matched to existing tenants by email.
+ * {@code null} attributes leave the stored value untouched.
+ */
+public record TenantImportRecord(String name, String email, String phone, String mealPreference, Boolean active,
+		Boolean due, Date renewalDate, Boolean continuousStay) {
+}
@@ -0,0 +1,28 @@
+package com.harikiran.pgmgmt.dto;
+
+import java.util.List;
+
+/**
+ * Outcome of a bulk tenant import.
+ *
+ * @param total    rows read from the input
+ * @param inserted rows that created a new tenant
+ * @param updated  rows that matched an existing tenant by email
+ * @param failed   rows rejected by validation or by the database
+ * @param rows     per-row outcome in input order
+ */
+public record TenantImportResult(int total, int inserted, int updated, int failed, List<RowResult> rows) {
+
+	public enum Status {
+		INSERTED, UPDATED, INVALID, FAILED
+	}
+
+	/**
+	 * @param row     1-based row number (data rows only, header excluded)
+	 * @param email   email of the row when it could be read
+	 * @param status  outcome of the row
+	 * @param message validation or database error, {@code null} on success
+	 */
+	public record RowResult(int row, String email, Status status, String message) {
+	}
+}
@@ -0,0 +1,14 @@
+package com.harikiran.pgmgmt.dto;
+
+import java.util.List;
+
+import com.harikiran.pgmgmt.model.Tenant;
+
+/**
+ * One page of tenants plus the token for the next page.
+ *
+ * @param items      tenants in keyset order
+ * @param nextCursor continuation token, {@code null} on the last page
+ */
+public record TenantPage(List<Tenant> items, String nextCursor) {
+}
@@ -0,0 +1,72 @@
+package com.harikiran.pgmgmt.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Set;
+
+/**
+ * Filters, keyset position and projection for a page of tenants.
+ *
+ * @param roomNo         only tenants in this room
+ * @param active         only tenants with this {@code isActive} flag
+ * @param due            only tenants with this payment-due flag
+ * @param mealPreference only tenants with this meal preference
+ * @param continuousStay only tenants with this continuous-stay flag
+ * @param sort           keyset ordering
+ * @param after          position of the last tenant of the previous page, or
+ *                       {@code null} for the first page
+ * @param limit          maximum number of tenants to return
+ * @param fields         properties to return; empty for the full document
+ */
+public record TenantPageRequest(String roomNo, Boolean active, Boolean due, String mealPreference,
+		Boolean continuousStay, Sort sort, Cursor after, int limit, Set<TenantField> fields) {
+
+	/**
+	 * Keyset orderings. Both end with {@code _id} so every position is unique.
+	 */
+	public enum Sort {
+		ID, NAME
+	}
+
+	/**
+	 * Opaque continuation token identifying the last tenant of a page. The token
+	 * records the ordering it was issued for so it cannot be replayed under
+	 * another one.
+	 *
+	 * @param sort ordering of the page the token continues
+	 * @param name tenant name, only used for {@link Sort#NAME}
+	 * @param id   tenant id
+	 */
+	public record Cursor(Sort sort, String name, String id) {
+
+		private static final char SEPARATOR = '\n';
+
+		public String encode() {
+			String raw = sort.name() + SEPARATOR + (name == null ? "" : "n" + name) + SEPARATOR + id;
+			return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+		}
+
+		/**
+		 * Decodes a token produced by {@link #encode()} for a page ordered by
+		 * {@code expectedSort}.
+		 *
+		 * @throws IllegalArgumentException when the token is malformed or was issued
+		 *                                  for another ordering
+		 */
+		public static Cursor decode(String token, Sort expectedSort) {
+			String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+			int first = raw.indexOf(SEPARATOR);
+			int last = raw.lastIndexOf(SEPARATOR);
+			if (first <= 0 || first == last || last == raw.length() - 1) {
+				throw new IllegalArgumentException("Malformed cursor");
+			}
+			Sort sort = Sort.valueOf(raw.substring(0, first));
+			if (sort != expectedSort) {
+				throw new IllegalArgumentException("Cursor was issued for sort " + sort + ", not " + expectedSort);
+			}
+			String namePart = raw.substring(first + 1, last);
+			String name = namePart.isEmpty() ? null : namePart.substring(1);
+			return new Cursor(sort, name, raw.substring(last + 1));
+		}
+	}
+}
@@ -0,0 +1,14 @@
+package com.harikiran.pgmgmt.dto;
+
+import java.util.List;
+
+import com.harikiran.pgmgmt.model.Tenant;
+
+/**
+ * One page of ranked tenant search results.
+ *
+ * @param items best matches first
+ * @param total number of tenants matching the query across all pages
+ */
+public record TenantSearchPage(List<Tenant> items, int total) {
+}
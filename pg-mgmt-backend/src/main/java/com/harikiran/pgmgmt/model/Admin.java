@@ -1,6 +1,7 @@
 package com.harikiran.pgmgmt.model;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import lombok.Data;
@@ -33,6 +34,7 @@ public class Admin {
 	/**
 	 * Email address used for login and as the primary lookup key.
 	 */
+	@Indexed(name = "email_unique_idx", unique = true, partialFilter = "{ 'email': { $type: 'string' } }")
 	private String email;
 
 	/**
@@ -4,6 +4,7 @@ import java.time.Instant;
 import java.util.Date;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import lombok.Data;
@@ -29,8 +30,9 @@ public class AllocationStats {
 
 	/**
 	 * Date for which the snapshot was captured. Interpreted in IST by the
-	 * scheduler.
+	 * scheduler. One snapshot per day.
 	 */
+	@Indexed(name = "stats_date_unique_idx", unique = true)
 	private Date statsDate;
 
 	/**
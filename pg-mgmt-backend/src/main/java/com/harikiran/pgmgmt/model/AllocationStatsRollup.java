@@ -0,0 +1,149 @@
+package com.harikiran.pgmgmt.model;
+
+import java.time.Instant;
+import java.util.Date;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import lombok.Data;
+
+/**
+ * Sums of the daily {@link AllocationStats} snapshots over a week or month.
+ *
+ * <p>
+ * The id is derived from granularity and period, so rewriting a period
+ * replaces its document. Rollups are maintained by
+ * {@link com.harikiran.pgmgmt.service.AllocationStatsService} whenever a
+ * snapshot is captured; dividing a sum by {@link #samples} gives the period
+ * average.
+ * </p>
+ */
+@Data
+@Document(collection = "allocation_stats_rollups")
+@CompoundIndex(name = "granularity_period_idx", def = "{ 'granularity': 1, 'periodStart': 1 }", unique = true)
+public class AllocationStatsRollup {
+
+	@Id
+	/**
+	 * {@code granularity:periodStart}, for example {@code MONTH:2025-06-01}.
+	 */
+	private String id;
+
+	/**
+	 * Period length; never {@link StatsGranularity#DAY}.
+	 */
+	private StatsGranularity granularity;
+
+	/**
+	 * Start of the first day of the period.
+	 */
+	private Date periodStart;
+
+	/**
+	 * Number of daily snapshots summed.
+	 */
+	private long samples;
+
+	/**
+	 * Sum of {@link AllocationStats#getTotalCount()} over the period.
+	 */
+	private long totalCountSum;
+
+	/**
+	 * Sum of {@link AllocationStats#getAllocatedCount()} over the period.
+	 */
+	private long allocatedCountSum;
+
+	/**
+	 * Sum of {@link AllocationStats#getVacantCount()} over the period.
+	 */
+	private long vacantCountSum;
+
+	/**
+	 * Timestamp of the last rewrite of this period.
+	 */
+	private Instant updatedAt;
+
+	/**
+	 * Creates an empty rollup allowing frameworks to populate fields
+	 * reflectively.
+	 */
+	public AllocationStatsRollup() {
+	}
+
+	/**
+	 * Creates an empty rollup for one period.
+	 */
+	public AllocationStatsRollup(String id, StatsGranularity granularity, Date periodStart) {
+		this.id = id;
+		this.granularity = granularity;
+		this.periodStart = periodStart;
+	}
+
+	public String getId() {
+		return id;
+	}
+
+	public void setId(String id) {
+		this.id = id;
+	}
+
+	public StatsGranularity getGranularity() {
+		return granularity;
+	}
+
+	public void setGranularity(StatsGranularity granularity) {
+		this.granularity = granularity;
+	}
+
+	public Date getPeriodStart() {
+		return periodStart;
+	}
+
+	public void setPeriodStart(Date periodStart) {
+		this.periodStart = periodStart;
+	}
+
+	public long getSamples() {
+		return samples;
+	}
+
+	public void setSamples(long samples) {
+		this.samples = samples;
+	}
+
+	public long getTotalCountSum() {
+		return totalCountSum;
+	}
+
+	public void setTotalCountSum(long totalCountSum) {
+		this.totalCountSum = totalCountSum;
+	}
+
+	public long getAllocatedCountSum() {
+		return allocatedCountSum;
+	}
+
+	public void setAllocatedCountSum(long allocatedCountSum) {
+		this.allocatedCountSum = allocatedCountSum;
+	}
+
+	public long getVacantCountSum() {
+		return vacantCountSum;
+	}
+
+	public void setVacantCountSum(long vacantCountSum) {
+		this.vacantCountSum = vacantCountSum;
+	}
+
+	public Instant getUpdatedAt() {
+		return updatedAt;
+	}
+
+	public void setUpdatedAt(Instant updatedAt) {
+		this.updatedAt = updatedAt;
+	}
+
+}
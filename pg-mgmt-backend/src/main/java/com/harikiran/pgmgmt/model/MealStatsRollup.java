@@ -0,0 +1,163 @@
+package com.harikiran.pgmgmt.model;
+
+import java.time.Instant;
+import java.util.Date;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import lombok.Data;
+
+/**
+ * Sums of the {@link MealStats} snapshots of one meal over a week or month.
+ *
+ * <p>
+ * The id is derived from granularity, period and meal number, so rewriting a
+ * period replaces its document. Rollups are maintained by
+ * {@link com.harikiran.pgmgmt.service.MealStatsService} whenever a snapshot is
+ * captured; dividing a sum by {@link #samples} gives the period average.
+ * </p>
+ */
+@Data
+@Document(collection = "meal_stats_rollups")
+@CompoundIndex(name = "granularity_period_meal_idx", def = "{ 'granularity': 1, 'periodStart': 1, 'mealNo': 1 }",
+		unique = true)
+public class MealStatsRollup {
+
+	@Id
+	/**
+	 * {@code granularity:periodStart:mealNo}, for example
+	 * {@code WEEK:2025-06-02:1}.
+	 */
+	private String id;
+
+	/**
+	 * Period length; never {@link StatsGranularity#DAY}.
+	 */
+	private StatsGranularity granularity;
+
+	/**
+	 * Start of the first day of the period.
+	 */
+	private Date periodStart;
+
+	/**
+	 * Meal number (1 = breakfast, 2 = lunch, 3 = dinner).
+	 */
+	private int mealNo;
+
+	/**
+	 * Number of daily snapshots summed.
+	 */
+	private long samples;
+
+	/**
+	 * Sum of {@link MealStats#getTotalCount()} over the period.
+	 */
+	private long totalCountSum;
+
+	/**
+	 * Sum of {@link MealStats#getVegCount()} over the period.
+	 */
+	private long vegCountSum;
+
+	/**
+	 * Sum of {@link MealStats#getNonVegCount()} over the period.
+	 */
+	private long nonVegCountSum;
+
+	/**
+	 * Timestamp of the last rewrite of this period.
+	 */
+	private Instant updatedAt;
+
+	/**
+	 * Default constructor required by MongoDB drivers.
+	 */
+	public MealStatsRollup() {
+	}
+
+	/**
+	 * Creates an empty rollup for one meal and period.
+	 */
+	public MealStatsRollup(String id, StatsGranularity granularity, Date periodStart, int mealNo) {
+		this.id = id;
+		this.granularity = granularity;
+		this.periodStart = periodStart;
+		this.mealNo = mealNo;
+	}
+
+	public String getId() {
+		return id;
+	}
+
+	public void setId(String id) {
+		this.id = id;
+	}
+
+	public StatsGranularity getGranularity() {
+		return granularity;
+	}
+
+	public void setGranularity(StatsGranularity granularity) {
+		this.granularity = granularity;
+	}
+
+	public Date getPeriodStart() {
+		return periodStart;
+	}
+
+	public void setPeriodStart(Date periodStart) {
+		this.periodStart = periodStart;
+	}
+
+	public int getMealNo() {
+		return mealNo;
+	}
+
+	public void setMealNo(int mealNo) {
+		this.mealNo = mealNo;
+	}
+
+	public long getSamples() {
+		return samples;
+	}
+
+	public void setSamples(long samples) {
+		this.samples = samples;
+	}
+
+	public long getTotalCountSum() {
+		return totalCountSum;
+	}
+
+	public void setTotalCountSum(long totalCountSum) {
+		this.totalCountSum = totalCountSum;
+	}
+
+	public long getVegCountSum() {
+		return vegCountSum;
+	}
+
+	public void setVegCountSum(long vegCountSum) {
+		this.vegCountSum = vegCountSum;
+	}
+
+	public long getNonVegCountSum() {
+		return nonVegCountSum;
+	}
+
+	public void setNonVegCountSum(long nonVegCountSum) {
+		this.nonVegCountSum = nonVegCountSum;
+	}
+
+	public Instant getUpdatedAt() {
+		return updatedAt;
+	}
+
+	public void setUpdatedAt(Instant updatedAt) {
+		this.updatedAt = updatedAt;
+	}
+
+}
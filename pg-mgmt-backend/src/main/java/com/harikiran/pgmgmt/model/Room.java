@@ -3,6 +3,8 @@ package com.harikiran.pgmgmt.model;
 import java.util.List;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import lombok.Data;
@@ -26,8 +28,10 @@ public class Room {
 	private String id;
 
 	/**
-	 * Human readable room number displayed to tenants.
+	 * Human readable room number displayed to tenants. Unique among rooms that
+	 * have one.
 	 */
+	@Indexed(name = "room_no_unique_idx", unique = true, partialFilter = "{ 'roomNo': { $type: 'string' } }")
 	private String roomNo;
 
 	/**
@@ -54,8 +58,16 @@ public class Room {
 	 * List of tenant identifiers assigned to the room; used for coordination and
 	 * validation logic.
 	 */
+	@Indexed(name = "tenant_ids_idx")
 	private List<String> tenantIds;
 
+	/**
+	 * Optimistic-locking counter bumped by every write. Rooms stored before it
+	 * was introduced have no value and count as version 0.
+	 */
+	@Version
+	private Long version;
+
 	public String getId() {
 		return id;
 	}
@@ -112,4 +124,12 @@ public class Room {
 		this.tenantIds = tenantIds;
 	}
 
+	public Long getVersion() {
+		return version;
+	}
+
+	public void setVersion(Long version) {
+		this.version = version;
+	}
+
 }
@@ -0,0 +1,54 @@
+package com.harikiran.pgmgmt.model;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.temporal.TemporalAdjusters;
+import java.util.Date;
+
+import org.springframework.data.domain.Range;
+import org.springframework.data.domain.Range.Bound;
+
+/**
+ * Period length of a stats timeline point. Daily points are the captured
+ * snapshots themselves; weekly (Monday to Sunday) and monthly points are
+ * averages kept in rollup collections.
+ */
+public enum StatsGranularity {
+
+	DAY, WEEK, MONTH;
+
+	/** First day of the period containing {@code day}. */
+	public LocalDate periodStart(LocalDate day) {
+		return switch (this) {
+		case DAY -> day;
+		case WEEK -> day.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+		case MONTH -> day.withDayOfMonth(1);
+		};
+	}
+
+	/** First day of the period after the one starting on {@code periodStart}. */
+	public LocalDate nextPeriodStart(LocalDate periodStart) {
+		return switch (this) {
+		case DAY -> periodStart.plusDays(1);
+		case WEEK -> periodStart.plusWeeks(1);
+		case MONTH -> periodStart.plusMonths(1);
+		};
+	}
+
+	/**
+	 * Start-of-day instants bounding every period that contains a day from
+	 * {@code from} through {@code to}.
+	 *
+	 * @param from first day, or {@code null} for no lower bound
+	 * @param to   last day, or {@code null} for no upper bound
+	 * @param zone zone in which stats dates are taken
+	 */
+	public Range<Date> covering(LocalDate from, LocalDate to, ZoneId zone) {
+		Bound<Date> lower = from == null ? Bound.unbounded()
+				: Bound.inclusive(Date.from(periodStart(from).atStartOfDay(zone).toInstant()));
+		Bound<Date> upper = to == null ? Bound.unbounded()
+				: Bound.exclusive(Date.from(nextPeriodStart(periodStart(to)).atStartOfDay(zone).toInstant()));
+		return Range.of(lower, upper);
+	}
+}
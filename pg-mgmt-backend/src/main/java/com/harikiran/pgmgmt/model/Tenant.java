@@ -3,6 +3,8 @@ package com.harikiran.pgmgmt.model;
 import java.util.Date;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import lombok.Data;
@@ -20,6 +22,12 @@ import lombok.Data;
  */
 @Data
 @Document(collection = "tenants")
+@CompoundIndex(name = "name_id_idx", def = "{ 'name': 1, '_id': 1 }")
+@CompoundIndex(name = "room_no_id_idx", def = "{ 'roomNo': 1, '_id': 1 }")
+@CompoundIndex(name = "active_room_meal_idx", def = "{ 'isActive': 1, 'roomNo': 1, 'mealPreference': 1 }")
+@CompoundIndex(name = "stay_due_renewal_room_idx",
+		def = "{ 'continuousStay': 1, 'due': 1, 'renewalDate': 1, 'roomNo': 1 }")
+@CompoundIndex(name = "stay_renewal_room_idx", def = "{ 'continuousStay': 1, 'renewalDate': 1, 'roomNo': 1 }")
 public class Tenant {
 	/**
 	 * Unique identifier assigned by MongoDB.
@@ -33,8 +41,10 @@ public class Tenant {
 	private String name;
 
 	/**
-	 * Primary email used for login and tenant look-ups.
+	 * Primary email used for login and tenant look-ups. Unique among tenants that
+	 * have one; admin-created tenants may omit it.
 	 */
+	@Indexed(name = "email_unique_idx", unique = true, partialFilter = "{ 'email': { $type: 'string' } }")
 	private String email;
 
 	/**
@@ -77,6 +87,13 @@ public class Tenant {
 	 */
 	private boolean continuousStay;
 
+	/**
+	 * Revision counter bumped by every targeted update; clients may send it back
+	 * in {@code If-Match} to reject concurrent edits. Missing on documents that
+	 * were never patched, which counts as revision 0.
+	 */
+	private Long version;
+
 	/**
 	 * Constructs a tenant with the minimum Google identity attributes.
 	 *
@@ -178,4 +195,12 @@ public class Tenant {
 		this.continuousStay = continuousStay;
 	}
 
+	public Long getVersion() {
+		return version;
+	}
+
+	public void setVersion(Long version) {
+		this.version = version;
+	}
+
 }
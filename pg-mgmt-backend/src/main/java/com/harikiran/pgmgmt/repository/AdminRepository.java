@@ -9,7 +9,7 @@ import com.harikiran.pgmgmt.model.Admin;
 /**
  * Repository for managing administrator accounts.
  */
-public interface AdminRepository extends MongoRepository<Admin, String> {
+public interface AdminRepository extends MongoRepository<Admin, String>, AdminRepositoryCustom {
 //	Admin findByEmail(String email);
 
 	/**
@@ -21,4 +21,13 @@ public interface AdminRepository extends MongoRepository<Admin, String> {
 	 */
 	Optional<Admin> findByEmail(String email);
 
+	/**
+	 * Checks whether an admin account exists for the email without loading the
+	 * document.
+	 *
+	 * @param email admin email address
+	 * @return {@code true} when a matching admin exists
+	 */
+	boolean existsByEmail(String email);
+
 }
@@ -0,0 +1,22 @@
+package com.harikiran.pgmgmt.repository;
+
+import com.harikiran.pgmgmt.model.Admin;
+
+/**
+ * Admin operations that need {@code MongoTemplate} features beyond derived
+ * queries. Implemented by {@link AdminRepositoryCustomImpl}.
+ */
+public interface AdminRepositoryCustom {
+
+	/**
+	 * Creates or refreshes the admin for a Google sign-in with a single atomic
+	 * {@code findAndModify} upsert keyed by email.
+	 *
+	 * @param email      verified Google email
+	 * @param name       display name; only overwrites the stored name when not
+	 *                   blank
+	 * @param pictureUrl avatar URL, always overwritten
+	 * @return the admin document as stored after the upsert
+	 */
+	Admin upsertOnLogin(String email, String name, String pictureUrl);
+}
@@ -0,0 +1,43 @@
+package com.harikiran.pgmgmt.repository;
+
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.util.StringUtils;
+
+import com.harikiran.pgmgmt.model.Admin;
+
+/**
+ * {@code MongoTemplate}-backed implementation of {@link AdminRepositoryCustom}.
+ */
+class AdminRepositoryCustomImpl implements AdminRepositoryCustom {
+
+	private final MongoTemplate mongoTemplate;
+
+	AdminRepositoryCustomImpl(MongoTemplate mongoTemplate) {
+		this.mongoTemplate = mongoTemplate;
+	}
+
+	@Override
+	public Admin upsertOnLogin(String email, String name, String pictureUrl) {
+		Query query = Query.query(Criteria.where("email").is(email));
+
+		Update update = new Update().set("pictureUrl", pictureUrl);
+		if (StringUtils.hasText(name)) {
+			update.set("name", name);
+		} else {
+			update.setOnInsert("name", name);
+		}
+
+		FindAndModifyOptions options = FindAndModifyOptions.options().upsert(true).returnNew(true);
+		try {
+			return mongoTemplate.findAndModify(query, update, options, Admin.class);
+		} catch (DuplicateKeyException e) {
+			// Lost an insert race with a concurrent first login; retry as an update
+			return mongoTemplate.findAndModify(query, update, options, Admin.class);
+		}
+	}
+}
@@ -3,7 +3,9 @@ package com.harikiran.pgmgmt.repository;
 import java.util.Date;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
+import org.springframework.data.domain.Range;
 import org.springframework.data.mongodb.repository.MongoRepository;
 
 import com.harikiran.pgmgmt.model.AllocationStats;
@@ -28,4 +30,21 @@ public interface AllocationStatsRepository extends MongoRepository<AllocationSta
 	 */
 	List<AllocationStats> findAllByOrderByStatsDateAsc();
 
+	/**
+	 * Returns the snapshots of the days in {@code statsDates}, ordered by day.
+	 *
+	 * @param statsDates day range; either bound may be open
+	 * @return ordered list of allocation stats
+	 */
+	List<AllocationStats> findByStatsDateBetweenOrderByStatsDateAsc(Range<Date> statsDates);
+
+	/**
+	 * Streams the snapshots of the days in {@code statsDates} from a cursor,
+	 * ordered by day; close the stream when done.
+	 *
+	 * @param statsDates day range; either bound may be open
+	 * @return ordered stream of allocation stats
+	 */
+	Stream<AllocationStats> streamByStatsDateBetweenOrderByStatsDateAsc(Range<Date> statsDates);
+
 }
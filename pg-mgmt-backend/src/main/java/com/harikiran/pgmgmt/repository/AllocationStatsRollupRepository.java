@@ -0,0 +1,27 @@
+package com.harikiran.pgmgmt.repository;
+
+import java.util.Date;
+import java.util.List;
+
+import org.springframework.data.domain.Range;
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+import com.harikiran.pgmgmt.model.AllocationStatsRollup;
+import com.harikiran.pgmgmt.model.StatsGranularity;
+
+/**
+ * Repository for the weekly and monthly allocation statistics rollups.
+ */
+public interface AllocationStatsRollupRepository extends MongoRepository<AllocationStatsRollup, String> {
+
+	/**
+	 * Returns the rollups of the periods starting in {@code periodStarts},
+	 * ordered by period.
+	 *
+	 * @param granularity  period length
+	 * @param periodStarts range of period starts; either bound may be open
+	 * @return ordered list of rollups
+	 */
+	List<AllocationStatsRollup> findByGranularityAndPeriodStartBetweenOrderByPeriodStartAsc(
+			StatsGranularity granularity, Range<Date> periodStarts);
+}
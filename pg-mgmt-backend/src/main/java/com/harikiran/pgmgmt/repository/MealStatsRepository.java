@@ -3,7 +3,9 @@ package com.harikiran.pgmgmt.repository;
 import java.util.Date;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
+import org.springframework.data.domain.Range;
 import org.springframework.data.mongodb.repository.MongoRepository;
 
 import com.harikiran.pgmgmt.model.MealStats;
@@ -28,4 +30,21 @@ public interface MealStatsRepository extends MongoRepository<MealStats, String>
 	 * @return ordered list of meal statistics
 	 */
 	List<MealStats> findAllByOrderByStatsDateAscMealNoAsc();
+
+	/**
+	 * Returns the snapshots of the days in {@code statsDates}, chronologically.
+	 *
+	 * @param statsDates day range; either bound may be open
+	 * @return ordered list of meal statistics
+	 */
+	List<MealStats> findByStatsDateBetweenOrderByStatsDateAscMealNoAsc(Range<Date> statsDates);
+
+	/**
+	 * Streams the snapshots of the days in {@code statsDates} from a cursor,
+	 * chronologically; close the stream when done.
+	 *
+	 * @param statsDates day range; either bound may be open
+	 * @return ordered stream of meal statistics
+	 */
+	Stream<MealStats> streamByStatsDateBetweenOrderByStatsDateAscMealNoAsc(Range<Date> statsDates);
 }
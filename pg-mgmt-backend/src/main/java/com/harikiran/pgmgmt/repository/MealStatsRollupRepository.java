@@ -0,0 +1,27 @@
+package com.harikiran.pgmgmt.repository;
+
+import java.util.Date;
+import java.util.List;
+
+import org.springframework.data.domain.Range;
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+import com.harikiran.pgmgmt.model.MealStatsRollup;
+import com.harikiran.pgmgmt.model.StatsGranularity;
+
+/**
+ * Repository for the weekly and monthly meal statistics rollups.
+ */
+public interface MealStatsRollupRepository extends MongoRepository<MealStatsRollup, String> {
+
+	/**
+	 * Returns the rollups of the periods starting in {@code periodStarts},
+	 * chronologically.
+	 *
+	 * @param granularity  period length
+	 * @param periodStarts range of period starts; either bound may be open
+	 * @return ordered list of rollups
+	 */
+	List<MealStatsRollup> findByGranularityAndPeriodStartBetweenOrderByPeriodStartAscMealNoAsc(
+			StatsGranularity granularity, Range<Date> periodStarts);
+}
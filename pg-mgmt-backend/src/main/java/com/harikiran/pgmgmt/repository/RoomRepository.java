@@ -7,7 +7,7 @@ import com.harikiran.pgmgmt.model.Room;
 /**
  * Repository exposing core room lookups for allocation workflows.
  */
-public interface RoomRepository extends MongoRepository<Room, String> {
+public interface RoomRepository extends MongoRepository<Room, String>, RoomRepositoryCustom {
 
 	/**
 	 * Fetches a room document using its human readable room number.
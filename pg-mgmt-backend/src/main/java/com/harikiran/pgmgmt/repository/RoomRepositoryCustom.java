@@ -0,0 +1,148 @@
+package com.harikiran.pgmgmt.repository;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.mongodb.core.query.Update;
+
+import com.harikiran.pgmgmt.dto.RoomBulkUpdate;
+import com.harikiran.pgmgmt.dto.RoomBulkUpdateResult;
+import com.harikiran.pgmgmt.dto.RoomUpdateRequest;
+import com.harikiran.pgmgmt.model.Room;
+
+/**
+ * Room operations that need {@code MongoTemplate} features beyond derived
+ * queries. Implemented by {@link RoomRepositoryCustomImpl}.
+ */
+public interface RoomRepositoryCustom {
+
+	/**
+	 * Adds a tenant to a room with a single guarded {@code findAndModify} that
+	 * only matches while the room still has a free bed, so concurrent
+	 * assignments can never over-fill it. Rooms with a capacity of zero are
+	 * unbounded.
+	 *
+	 * @param roomNo   room number to assign to
+	 * @param tenantId tenant to add
+	 * @return the room now holding the tenant, or empty when the room does not
+	 *         exist or is full
+	 */
+	Optional<Room> assignTenant(String roomNo, String tenantId);
+
+	/**
+	 * Removes a tenant from every room except {@code keepRoomNo}, one atomic
+	 * {@code findAndModify} per room, so the caller learns the resulting state of
+	 * each room it touched.
+	 *
+	 * @param tenantId   tenant to remove
+	 * @param keepRoomNo room the tenant stays in, or {@code null} to release it
+	 *                   from all rooms
+	 * @return the rooms the tenant was removed from, as stored afterwards
+	 */
+	List<Room> releaseTenant(String tenantId, String keepRoomNo);
+
+	/**
+	 * Removes a tenant from the room it is known to occupy with a single
+	 * {@code findAndModify}.
+	 *
+	 * @param tenantId tenant to remove
+	 * @param roomNo   room the tenant is recorded in
+	 * @return the room as stored afterwards, or empty when that room does not
+	 *         hold the tenant
+	 */
+	Optional<Room> releaseTenantFrom(String tenantId, String roomNo);
+
+	/**
+	 * Applies {@code update} to one room with a single {@code findAndModify} and
+	 * returns the document as stored afterwards. The {@code @Version} field is
+	 * bumped by the template; occupancy fields are left to
+	 * {@link #assignTenant(String, String)} and
+	 * {@link #releaseTenant(String, String)}.
+	 *
+	 * @param id              room identifier
+	 * @param update          targeted field changes
+	 * @param expectedVersion when not {@code null}, only apply the update if the
+	 *                        stored version still matches
+	 * @return the updated room, or empty when no room has that id
+	 * @throws OptimisticLockingFailureException when the room exists but its
+	 *                                           version no longer matches
+	 */
+	Optional<Room> updateFields(String id, Update update, Long expectedVersion);
+
+	/**
+	 * Like {@link #updateFields(String, Update, Long)}, but only while the room
+	 * keeps {@code roomNo} or has no tenants, so renumbering an occupied room
+	 * can never leave its tenants on the old number.
+	 *
+	 * @param id              room identifier
+	 * @param roomNo          room number {@code update} leaves the room with, or
+	 *                        {@code null} when it removes it
+	 * @param update          targeted field changes
+	 * @param expectedVersion when not {@code null}, only apply the update if the
+	 *                        stored version still matches
+	 * @return the updated room, or empty when no room has that id
+	 * @throws OptimisticLockingFailureException when the room exists but its
+	 *                                           version no longer matches
+	 * @throws DataIntegrityViolationException   when the update would renumber a
+	 *                                           room that still has tenants
+	 */
+	Optional<Room> replaceDetails(String id, String roomNo, Update update, Long expectedVersion);
+
+	/**
+	 * Sets capacity and comments of one room; see
+	 * {@link #updateFields(String, Update, Long)}.
+	 */
+	Optional<Room> updateDetails(String id, RoomUpdateRequest changes, Long expectedVersion);
+
+	/**
+	 * Sets capacity and comments of many rooms in one unordered
+	 * {@code bulkWrite}. Entries whose room is missing or whose version no longer
+	 * matches are skipped and reported, the rest are applied.
+	 */
+	RoomBulkUpdateResult bulkUpdateDetails(List<RoomBulkUpdate> updates);
+
+	/**
+	 * Adds each group of tenants to its room in one unordered {@code bulkWrite}.
+	 * Like {@link #assignTenant(String, String)}, each update only matches while
+	 * the room has free beds for the whole group and holds none of its members.
+	 *
+	 * @param tenantIdsByRoomId tenants to add, keyed by room identifier
+	 * @return identifiers of the rooms that took their group
+	 */
+	Set<String> bulkAssignTenants(Map<String, List<String>> tenantIdsByRoomId);
+
+	/**
+	 * Sums capacity and allocated beds per floor with one {@code $group}
+	 * aggregation, so only one small document per floor is read whatever the
+	 * number of rooms.
+	 *
+	 * @return totals per floor ordered by floor number; rooms without a floor are
+	 *         grouped under a {@code null} floor
+	 */
+	List<FloorTotals> sumCapacityByFloor();
+
+	/**
+	 * Streams the floor, capacity and allocated beds of every room, projected
+	 * by an aggregation so no other field leaves the server.
+	 *
+	 * @return one entry per room; close the stream after use
+	 */
+	Stream<RoomBeds> streamBeds();
+
+	/**
+	 * @param floorNo   floor number as stored on the rooms
+	 * @param rooms     number of rooms on the floor
+	 * @param capacity  sum of their capacities
+	 * @param allocated sum of their allocated beds
+	 */
+	record FloorTotals(String floorNo, long rooms, long capacity, long allocated) {
+	}
+
+	record RoomBeds(String roomId, String floorNo, long capacity, long allocated) {
+	}
+}
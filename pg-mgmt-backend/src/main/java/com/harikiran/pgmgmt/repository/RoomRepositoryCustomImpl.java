@@ -0,0 +1,260 @@
+package com.harikiran.pgmgmt.repository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.bson.Document;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.BulkOperations.BulkMode;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.ArithmeticOperators;
+import org.springframework.data.mongodb.core.aggregation.ArrayOperators;
+import org.springframework.data.mongodb.core.aggregation.ComparisonOperators;
+import org.springframework.data.mongodb.core.aggregation.ConditionalOperators;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import com.harikiran.pgmgmt.dto.RoomBulkUpdate;
+import com.harikiran.pgmgmt.dto.RoomBulkUpdateResult;
+import com.harikiran.pgmgmt.dto.RoomUpdateRequest;
+import com.harikiran.pgmgmt.model.Room;
+import com.mongodb.bulk.BulkWriteResult;
+
+/**
+ * {@code MongoTemplate}-backed implementation of {@link RoomRepositoryCustom}.
+ */
+class RoomRepositoryCustomImpl implements RoomRepositoryCustom {
+
+	private final MongoTemplate mongoTemplate;
+
+	RoomRepositoryCustomImpl(MongoTemplate mongoTemplate) {
+		this.mongoTemplate = mongoTemplate;
+	}
+
+	@Override
+	public Optional<Room> assignTenant(String roomNo, String tenantId) {
+		Criteria hasFreeBed = Criteria.expr(ComparisonOperators.Lt
+				.valueOf(ArrayOperators.Size
+						.lengthOfArray(ConditionalOperators.ifNull("tenantIds").then(List.of())))
+				.lessThan("capacity"));
+		Query query = Query.query(Criteria.where("roomNo").is(roomNo).and("tenantIds").ne(tenantId)
+				.orOperator(Criteria.where("capacity").lte(0), hasFreeBed));
+		Update update = new Update().addToSet("tenantIds", tenantId).inc("allocatedCount", 1);
+
+		Room updated = mongoTemplate.findAndModify(query, update, FindAndModifyOptions.options().returnNew(true),
+				Room.class);
+		if (updated != null) {
+			return Optional.of(updated);
+		}
+		// No match means the room is missing, full, or already holds the tenant.
+		return Optional.ofNullable(mongoTemplate.findOne(
+				Query.query(Criteria.where("roomNo").is(roomNo).and("tenantIds").is(tenantId)), Room.class));
+	}
+
+	@Override
+	public List<Room> releaseTenant(String tenantId, String keepRoomNo) {
+		Criteria criteria = Criteria.where("tenantIds").is(tenantId);
+		if (keepRoomNo != null) {
+			criteria = criteria.and("roomNo").ne(keepRoomNo);
+		}
+		Query query = Query.query(criteria);
+		Update update = new Update().pull("tenantIds", tenantId).inc("allocatedCount", -1);
+
+		// Each pass stops matching the room it just released, so this always ends
+		// with one empty probe; moves use releaseTenantFrom and only sweep here as a
+		// fallback.
+		List<Room> released = new ArrayList<>(1);
+		Room room;
+		while ((room = mongoTemplate.findAndModify(query, update, FindAndModifyOptions.options().returnNew(true),
+				Room.class)) != null) {
+			released.add(room);
+		}
+		return released;
+	}
+
+	@Override
+	public Optional<Room> releaseTenantFrom(String tenantId, String roomNo) {
+		Query query = Query.query(Criteria.where("roomNo").is(roomNo).and("tenantIds").is(tenantId));
+		Update update = new Update().pull("tenantIds", tenantId).inc("allocatedCount", -1);
+		return Optional.ofNullable(mongoTemplate.findAndModify(query, update,
+				FindAndModifyOptions.options().returnNew(true), Room.class));
+	}
+
+	@Override
+	public Optional<Room> updateFields(String id, Update update, Long expectedVersion) {
+		// The template adds $inc on the @Version field to every findAndModify.
+		Room updated = mongoTemplate.findAndModify(byIdAndVersion(id, expectedVersion), update,
+				FindAndModifyOptions.options().returnNew(true), Room.class);
+		if (updated == null && expectedVersion != null
+				&& mongoTemplate.exists(Query.query(Criteria.where("id").is(id)), Room.class)) {
+			throw new OptimisticLockingFailureException(
+					"Room " + id + " was modified concurrently; expected version " + expectedVersion);
+		}
+		return Optional.ofNullable(updated);
+	}
+
+	@Override
+	public Optional<Room> replaceDetails(String id, String roomNo, Update update, Long expectedVersion) {
+		Query query = byIdAndVersion(id, expectedVersion);
+		query.addCriteria(new Criteria().orOperator(Criteria.where("roomNo").is(roomNo),
+				Criteria.where("tenantIds").size(0), Criteria.where("tenantIds").exists(false)));
+		Room updated = mongoTemplate.findAndModify(query, update, FindAndModifyOptions.options().returnNew(true),
+				Room.class);
+		if (updated != null) {
+			return Optional.of(updated);
+		}
+
+		if (mongoTemplate.exists(byIdAndVersion(id, expectedVersion), Room.class)) {
+			throw new DataIntegrityViolationException(
+					"Room " + id + " still has tenants; move them out before changing its number");
+		}
+		if (expectedVersion != null && mongoTemplate.exists(Query.query(Criteria.where("id").is(id)), Room.class)) {
+			throw new OptimisticLockingFailureException(
+					"Room " + id + " was modified concurrently; expected version " + expectedVersion);
+		}
+		return Optional.empty();
+	}
+
+	@Override
+	public Optional<Room> updateDetails(String id, RoomUpdateRequest changes, Long expectedVersion) {
+		return updateFields(id, detailsUpdate(changes), expectedVersion);
+	}
+
+	@Override
+	public RoomBulkUpdateResult bulkUpdateDetails(List<RoomBulkUpdate> updates) {
+		if (updates.isEmpty()) {
+			return new RoomBulkUpdateResult(0, 0, 0, List.of());
+		}
+
+		BulkOperations bulk = mongoTemplate.bulkOps(BulkMode.UNORDERED, Room.class);
+		for (RoomBulkUpdate entry : updates) {
+			// Bulk writes bypass the template's @Version handling.
+			bulk.updateOne(byIdAndVersion(entry.id(), entry.version()),
+					detailsUpdate(entry.changes()).inc("version", 1));
+		}
+		BulkWriteResult result = bulk.execute();
+
+		List<String> unmatched = result.getMatchedCount() == updates.size() ? List.of() : findUnmatched(updates);
+		return new RoomBulkUpdateResult(updates.size(), result.getMatchedCount(), result.getModifiedCount(),
+				unmatched);
+	}
+
+	@Override
+	public List<FloorTotals> sumCapacityByFloor() {
+		Aggregation aggregation = Aggregation.newAggregation(
+				Aggregation.group("floorNo").count().as("rooms").sum("capacity").as("capacity")
+						.sum("allocatedCount").as("allocated"),
+				Aggregation.sort(Sort.Direction.ASC, "_id"));
+		return mongoTemplate.aggregate(aggregation, Room.class, Document.class).getMappedResults().stream()
+				.map(floor -> new FloorTotals(floor.getString("_id"), floor.get("rooms", Number.class).longValue(),
+						floor.get("capacity", Number.class).longValue(),
+						floor.get("allocated", Number.class).longValue()))
+				.toList();
+	}
+
+	@Override
+	public Stream<RoomBeds> streamBeds() {
+		Aggregation aggregation = Aggregation
+				.newAggregation(Aggregation.project("floorNo", "capacity", "allocatedCount"));
+		return mongoTemplate.aggregateStream(aggregation, Room.class, Document.class)
+				.map(room -> new RoomBeds(room.get("_id").toString(), room.getString("floorNo"),
+						longValue(room, "capacity"), longValue(room, "allocatedCount")));
+	}
+
+	private static long longValue(Document document, String key) {
+		Number value = document.get(key, Number.class);
+		return value == null ? 0 : value.longValue();
+	}
+
+	@Override
+	public Set<String> bulkAssignTenants(Map<String, List<String>> tenantIdsByRoomId) {
+		if (tenantIdsByRoomId.isEmpty()) {
+			return Set.of();
+		}
+
+		BulkOperations bulk = mongoTemplate.bulkOps(BulkMode.UNORDERED, Room.class);
+		tenantIdsByRoomId.forEach((roomId, tenantIds) -> {
+			Criteria hasFreeBeds = Criteria.expr(ComparisonOperators.Lte
+					.valueOf(ArithmeticOperators.Add
+							.valueOf(ArrayOperators.Size
+									.lengthOfArray(ConditionalOperators.ifNull("tenantIds").then(List.of())))
+							.add(tenantIds.size()))
+					.lessThanEqualTo("capacity"));
+			Query query = Query.query(Criteria.where("id").is(roomId).and("tenantIds").nin(tenantIds)
+					.orOperator(Criteria.where("capacity").lte(0), hasFreeBeds));
+			Update update = new Update().addToSet("tenantIds").each(tenantIds.toArray())
+					.inc("allocatedCount", tenantIds.size()).inc("version", 1);
+			bulk.updateOne(query, update);
+		});
+		BulkWriteResult result = bulk.execute();
+		if (result.getMatchedCount() == tenantIdsByRoomId.size()) {
+			return tenantIdsByRoomId.keySet();
+		}
+
+		// Some rooms filled up meanwhile; keep those that now hold their whole group
+		Query query = Query.query(Criteria.where("id").in(tenantIdsByRoomId.keySet()));
+		query.fields().include("tenantIds");
+		return mongoTemplate.find(query, Room.class).stream()
+				.filter(room -> room.getTenantIds() != null
+						&& room.getTenantIds().containsAll(tenantIdsByRoomId.get(room.getId())))
+				.map(Room::getId).collect(Collectors.toSet());
+	}
+
+	/**
+	 * Works out which entries of a bulk update did not match: the room is gone,
+	 * or its version is not the one the update would have produced.
+	 */
+	private List<String> findUnmatched(List<RoomBulkUpdate> updates) {
+		List<String> ids = updates.stream().map(RoomBulkUpdate::id).toList();
+		Query query = Query.query(Criteria.where("id").in(ids));
+		query.fields().include("version");
+		Map<String, Long> versions = mongoTemplate.find(query, Room.class).stream().collect(
+				Collectors.toMap(Room::getId, room -> room.getVersion() == null ? 0L : room.getVersion()));
+
+		List<String> unmatched = new ArrayList<>();
+		for (RoomBulkUpdate entry : updates) {
+			Long stored = versions.get(entry.id());
+			if (stored == null || entry.version() != null && stored != entry.version() + 1) {
+				unmatched.add(entry.id());
+			}
+		}
+		return unmatched;
+	}
+
+	private static Query byIdAndVersion(String id, Long expectedVersion) {
+		Criteria criteria = Criteria.where("id").is(id);
+		if (expectedVersion != null) {
+			// Rooms that predate versioning have no field and count as 0.
+			criteria = expectedVersion == 0 ? criteria.and("version").in(0L, null)
+					: criteria.and("version").is(expectedVersion);
+		}
+		return Query.query(criteria);
+	}
+
+	static Update detailsUpdate(RoomUpdateRequest changes) {
+		Update update = new Update();
+		if (changes.capacity() != null) {
+			update.set("capacity", changes.capacity());
+		}
+		if (changes.comments() != null) {
+			String trimmed = changes.comments().trim();
+			if (trimmed.isEmpty()) {
+				update.unset("comments");
+			} else {
+				update.set("comments", trimmed);
+			}
+		}
+		return update;
+	}
+}
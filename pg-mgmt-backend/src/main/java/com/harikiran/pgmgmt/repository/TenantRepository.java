@@ -11,7 +11,7 @@ import com.harikiran.pgmgmt.model.Tenant;
  * Repository providing high-level tenant queries used by schedulers, dashboards
  * and administrative workflows.
  */
-public interface TenantRepository extends MongoRepository<Tenant, String> {
+public interface TenantRepository extends MongoRepository<Tenant, String>, TenantRepositoryCustom {
 
 	/**
 	 * Finds a tenant based on the unique email address supplied by Google
@@ -22,6 +22,24 @@ public interface TenantRepository extends MongoRepository<Tenant, String> {
 	 */
 	Optional<Tenant> findByEmail(String email);
 
+	/**
+	 * Checks whether a tenant exists for the email without loading the document.
+	 * Used by the JWT filter to confirm the principal is still registered.
+	 *
+	 * @param email unique email address
+	 * @return {@code true} when a matching tenant exists
+	 */
+	boolean existsByEmail(String email);
+
+	/**
+	 * Deletes the tenant with the given identifier and returns the removed
+	 * document in the same round trip.
+	 *
+	 * @param id tenant identifier
+	 * @return removed tenant, empty when none matched
+	 */
+	Optional<Tenant> removeById(String id);
+
 	/**
 	 * Returns active tenants whose renewal date is set and who have opted for a
 	 * continuous stay. Used by the due-status scheduler to decide who should be
@@ -31,14 +49,6 @@ public interface TenantRepository extends MongoRepository<Tenant, String> {
 	 */
 	List<Tenant> findByDueFalseAndRenewalDateNotNullAndContinuousStayTrue();
 
-	/**
-	 * Fetches tenants currently active and assigned to a room. Used when computing
-	 * allocation and meal statistics.
-	 *
-	 * @return tenants allocated to rooms
-	 */
-	List<Tenant> findByIsActiveTrueAndRoomNoNotNull();
-
 	/**
 	 * Lists tenants who intend to vacate (continuous stay disabled) ordered by the
 	 * upcoming renewal date for dashboard alerts.
@@ -0,0 +1,119 @@
+package com.harikiran.pgmgmt.repository;
+
+import java.util.Collection;
+import java.util.Date;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.mongodb.core.query.Update;
+
+import com.harikiran.pgmgmt.dto.TenantPage;
+import com.harikiran.pgmgmt.dto.TenantPageRequest;
+import com.harikiran.pgmgmt.model.Tenant;
+
+/**
+ * Tenant operations that need {@code MongoTemplate} features beyond derived
+ * queries. Implemented by {@link TenantRepositoryCustomImpl}.
+ */
+public interface TenantRepositoryCustom {
+
+	/**
+	 * Creates or refreshes the tenant for a Google sign-in with a single atomic
+	 * {@code findAndModify} upsert keyed by email.
+	 *
+	 * @param email      verified Google email
+	 * @param name       display name; only overwrites the stored name when not
+	 *                   blank
+	 * @param pictureUrl avatar URL, always overwritten
+	 * @return the tenant document as stored after the upsert
+	 */
+	Tenant upsertOnLogin(String email, String name, String pictureUrl);
+
+	/**
+	 * Returns one keyset page of tenants matching the request filters. Only the
+	 * requested fields are read from the database when a projection is given.
+	 *
+	 * @param request filters, sort, position and projection
+	 * @return tenants of the page and the cursor for the next one
+	 */
+	TenantPage findPage(TenantPageRequest request);
+
+	/**
+	 * Applies {@code update} to one tenant with a single {@code findAndModify},
+	 * bumping its {@code version}, and returns the document as stored afterwards.
+	 *
+	 * @param id              tenant identifier
+	 * @param update          targeted field changes
+	 * @param expectedVersion when not {@code null}, only apply the update if the
+	 *                        stored version still matches
+	 * @return the updated tenant, or empty when no tenant has that id
+	 * @throws OptimisticLockingFailureException when the tenant exists but its
+	 *                                           version no longer matches
+	 */
+	Optional<Tenant> updateFields(String id, Update update, Long expectedVersion);
+
+	/**
+	 * Sets or clears the {@code roomNo} of one tenant with a single
+	 * {@code findAndModify}, bumping its version.
+	 *
+	 * @param id     tenant identifier
+	 * @param roomNo new room number, or {@code null} to clear it
+	 * @return the tenant as stored <em>before</em> the update, so callers learn
+	 *         the room it left; empty when no tenant has that id
+	 */
+	Optional<Tenant> updateRoomNo(String id, String roomNo);
+
+	/**
+	 * Flags tenants as due with one {@code updateMulti}, bumping their versions.
+	 * A tenant is only updated while it is still not due, on a continuous stay
+	 * and renewing before {@code renewedBefore}, so a concurrent write that
+	 * changed any of these is never overwritten.
+	 *
+	 * @param ids           candidate tenant identifiers
+	 * @param renewedBefore exclusive upper bound of the renewal date
+	 * @return number of tenants flagged
+	 */
+	long markDue(Collection<String> ids, Date renewedBefore);
+
+	/**
+	 * Sets the {@code roomNo} of many tenants in one unordered {@code bulkWrite},
+	 * bumping their versions. A tenant is only updated while it has no room, so a
+	 * concurrent assignment is never overwritten.
+	 *
+	 * @param roomNoByTenantId room number to set, keyed by tenant identifier
+	 * @return identifiers of the tenants that were not updated
+	 */
+	Set<String> bulkAssignRooms(Map<String, String> roomNoByTenantId);
+
+	/**
+	 * Counts active tenants that have a room, and how many of them prefer veg
+	 * meals, with one {@code $match} + {@code $group} aggregation. Preferences
+	 * are compared lower-cased without spaces or hyphens, so "Veg",
+	 * "vegetarian" and "VEG" all count as veg.
+	 *
+	 * @return the two counts; zero when no tenant matches
+	 */
+	MealCounts countActiveMealPreferences();
+
+	/**
+	 * Streams the active tenants that have a room with whether each prefers veg
+	 * meals, by the same rule as {@link #countActiveMealPreferences()}. Only the
+	 * identifier and the flag leave the server.
+	 *
+	 * @return one entry per tenant; close the stream after use
+	 */
+	Stream<MealPreference> streamActiveMealPreferences();
+
+	/**
+	 * @param total active tenants with a room
+	 * @param veg   those whose meal preference is veg or vegetarian
+	 */
+	record MealCounts(long total, long veg) {
+	}
+
+	record MealPreference(String tenantId, boolean veg) {
+	}
+}
@@ -0,0 +1,240 @@
+package com.harikiran.pgmgmt.repository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import org.bson.Document;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.BulkOperations.BulkMode;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.util.StringUtils;
+
+import com.harikiran.pgmgmt.dto.TenantField;
+import com.harikiran.pgmgmt.dto.TenantPage;
+import com.harikiran.pgmgmt.dto.TenantPageRequest;
+import com.harikiran.pgmgmt.dto.TenantPageRequest.Cursor;
+import com.harikiran.pgmgmt.model.Tenant;
+import com.mongodb.bulk.BulkWriteResult;
+
+/**
+ * {@code MongoTemplate}-backed implementation of {@link TenantRepositoryCustom}.
+ */
+class TenantRepositoryCustomImpl implements TenantRepositoryCustom {
+
+	private static final List<String> VEG_IGNORED_CHARACTERS = List.of(" ", "-");
+	private static final List<String> VEG_PREFERENCES = List.of("veg", "vegetarian");
+
+	private final MongoTemplate mongoTemplate;
+
+	TenantRepositoryCustomImpl(MongoTemplate mongoTemplate) {
+		this.mongoTemplate = mongoTemplate;
+	}
+
+	@Override
+	public Tenant upsertOnLogin(String email, String name, String pictureUrl) {
+		Query query = Query.query(Criteria.where("email").is(email));
+
+		Update update = new Update().set("pictureUrl", pictureUrl);
+		if (StringUtils.hasText(name)) {
+			update.set("name", name);
+		} else {
+			update.setOnInsert("name", name);
+		}
+		// Match the defaults a freshly saved Tenant would carry so derived queries
+		// such as findByDueFalse... see the same document shape.
+		update.setOnInsert("due", false).setOnInsert("isActive", false).setOnInsert("continuousStay", false);
+		update.inc("version", 1);
+
+		FindAndModifyOptions options = FindAndModifyOptions.options().upsert(true).returnNew(true);
+		try {
+			return mongoTemplate.findAndModify(query, update, options, Tenant.class);
+		} catch (DuplicateKeyException e) {
+			// A concurrent first login inserted the document between our match and
+			// insert; the unique email index makes the retry a plain update.
+			return mongoTemplate.findAndModify(query, update, options, Tenant.class);
+		}
+	}
+
+	@Override
+	public Optional<Tenant> updateFields(String id, Update update, Long expectedVersion) {
+		Criteria criteria = Criteria.where("id").is(id);
+		if (expectedVersion != null) {
+			// Documents that predate versioning have no field and count as 0.
+			criteria = expectedVersion == 0 ? criteria.and("version").in(0L, null)
+					: criteria.and("version").is(expectedVersion);
+		}
+		update.inc("version", 1);
+
+		Tenant updated = mongoTemplate.findAndModify(Query.query(criteria), update,
+				FindAndModifyOptions.options().returnNew(true), Tenant.class);
+		if (updated == null && expectedVersion != null
+				&& mongoTemplate.exists(Query.query(Criteria.where("id").is(id)), Tenant.class)) {
+			throw new OptimisticLockingFailureException(
+					"Tenant " + id + " was modified concurrently; expected version " + expectedVersion);
+		}
+		return Optional.ofNullable(updated);
+	}
+
+	@Override
+	public Optional<Tenant> updateRoomNo(String id, String roomNo) {
+		Update update = roomNo == null ? new Update().unset("roomNo") : new Update().set("roomNo", roomNo);
+		update.inc("version", 1);
+		return Optional.ofNullable(mongoTemplate.findAndModify(Query.query(Criteria.where("id").is(id)), update,
+				FindAndModifyOptions.options().returnNew(false), Tenant.class));
+	}
+
+	@Override
+	public long markDue(Collection<String> ids, Date renewedBefore) {
+		if (ids.isEmpty()) {
+			return 0;
+		}
+
+		Query query = Query.query(Criteria.where("id").in(ids).and("due").is(false).and("continuousStay").is(true)
+				.and("renewalDate").lt(renewedBefore));
+		return mongoTemplate.updateMulti(query, new Update().set("due", true).inc("version", 1), Tenant.class)
+				.getModifiedCount();
+	}
+
+	@Override
+	public Set<String> bulkAssignRooms(Map<String, String> roomNoByTenantId) {
+		if (roomNoByTenantId.isEmpty()) {
+			return Set.of();
+		}
+
+		BulkOperations bulk = mongoTemplate.bulkOps(BulkMode.UNORDERED, Tenant.class);
+		roomNoByTenantId.forEach((tenantId, roomNo) -> bulk.updateOne(
+				Query.query(Criteria.where("id").is(tenantId).and("roomNo").is(null)),
+				new Update().set("roomNo", roomNo).inc("version", 1)));
+		BulkWriteResult result = bulk.execute();
+		if (result.getMatchedCount() == roomNoByTenantId.size()) {
+			return Set.of();
+		}
+
+		Query query = Query.query(Criteria.where("id").in(roomNoByTenantId.keySet()));
+		query.fields().include("roomNo");
+		Set<String> notUpdated = new HashSet<>(roomNoByTenantId.keySet());
+		mongoTemplate.find(query, Tenant.class).stream()
+				.filter(tenant -> roomNoByTenantId.get(tenant.getId()).equals(tenant.getRoomNo()))
+				.forEach(tenant -> notUpdated.remove(tenant.getId()));
+		return notUpdated;
+	}
+
+	@Override
+	public MealCounts countActiveMealPreferences() {
+		// Only indexed fields are read, so the aggregation is covered by active_room_meal_idx
+		Aggregation aggregation = Aggregation.newAggregation(matchActiveWithRoom(),
+				context -> new Document("$group", new Document("_id", null).append("total", new Document("$sum", 1))
+						.append("veg", new Document("$sum", isVeg()))));
+		Document counts = mongoTemplate.aggregate(aggregation, Tenant.class, Document.class).getUniqueMappedResult();
+		if (counts == null) {
+			return new MealCounts(0, 0);
+		}
+		return new MealCounts(counts.get("total", Number.class).longValue(),
+				counts.get("veg", Number.class).longValue());
+	}
+
+	@Override
+	public Stream<MealPreference> streamActiveMealPreferences() {
+		Aggregation aggregation = Aggregation.newAggregation(matchActiveWithRoom(),
+				context -> new Document("$project", new Document("veg", isVeg())));
+		return mongoTemplate.aggregateStream(aggregation, Tenant.class, Document.class)
+				.map(tenant -> new MealPreference(tenant.get("_id").toString(), tenant.getInteger("veg") == 1));
+	}
+
+	private static AggregationOperation matchActiveWithRoom() {
+		return Aggregation.match(Criteria.where("isActive").is(true).and("roomNo").ne(null));
+	}
+
+	/**
+	 * 1 when {@code mealPreference}, lower-cased without spaces or hyphens, is
+	 * veg or vegetarian, otherwise 0.
+	 */
+	private static Document isVeg() {
+		Document preference = new Document("$toLower", new Document("$ifNull", List.of("$mealPreference", "")));
+		for (String ignored : VEG_IGNORED_CHARACTERS) {
+			preference = new Document("$replaceAll",
+					new Document("input", preference).append("find", ignored).append("replacement", ""));
+		}
+		return new Document("$cond", List.of(new Document("$in", List.of(preference, VEG_PREFERENCES)), 1, 0));
+	}
+
+	@Override
+	public TenantPage findPage(TenantPageRequest request) {
+		List<Criteria> criteria = new ArrayList<>();
+		if (request.roomNo() != null) {
+			criteria.add(Criteria.where("roomNo").is(request.roomNo()));
+		}
+		if (request.active() != null) {
+			criteria.add(Criteria.where("isActive").is(request.active()));
+		}
+		if (request.due() != null) {
+			criteria.add(Criteria.where("due").is(request.due()));
+		}
+		if (request.mealPreference() != null) {
+			criteria.add(Criteria.where("mealPreference").is(request.mealPreference()));
+		}
+		if (request.continuousStay() != null) {
+			criteria.add(Criteria.where("continuousStay").is(request.continuousStay()));
+		}
+
+		boolean byName = request.sort() == TenantPageRequest.Sort.NAME;
+		if (request.after() != null) {
+			criteria.add(byName ? afterName(request.after()) : Criteria.where("id").gt(request.after().id()));
+		}
+
+		Query query = criteria.isEmpty() ? new Query() : new Query(new Criteria().andOperator(criteria));
+		query.with(byName ? Sort.by("name", "id") : Sort.by("id"));
+		// One extra row tells us whether another page exists without a count query
+		query.limit(request.limit() + 1);
+
+		if (!request.fields().isEmpty()) {
+			request.fields().forEach(field -> query.fields().include(field.documentField()));
+			query.fields().include(TenantField.ID.documentField());
+			if (byName) {
+				query.fields().include(TenantField.NAME.documentField());
+			}
+		}
+
+		List<Tenant> tenants = mongoTemplate.find(query, Tenant.class);
+		if (tenants.size() <= request.limit()) {
+			return new TenantPage(tenants, null);
+		}
+
+		List<Tenant> page = tenants.subList(0, request.limit());
+		Tenant last = page.get(page.size() - 1);
+		Cursor next = new Cursor(request.sort(), byName ? last.getName() : null, last.getId());
+		return new TenantPage(page, next.encode());
+	}
+
+	/**
+	 * Keyset predicate for {@code (name, _id)} ordering. Missing names sort before
+	 * every string, so a {@code null} cursor name continues through the remaining
+	 * unnamed tenants and then all named ones.
+	 */
+	private Criteria afterName(Cursor after) {
+		if (after.name() == null) {
+			return new Criteria().orOperator(
+					new Criteria().andOperator(Criteria.where("name").is(null), Criteria.where("id").gt(after.id())),
+					Criteria.where("name").type(2));
+		}
+		return new Criteria().orOperator(Criteria.where("name").gt(after.name()),
+				new Criteria().andOperator(Criteria.where("name").is(after.name()),
+						Criteria.where("id").gt(after.id())));
+	}
+}
@@ -0,0 +1,32 @@
+package com.harikiran.pgmgmt.security;
+
+import java.io.IOException;
+import java.security.GeneralSecurityException;
+import java.security.PublicKey;
+import java.util.List;
+
+import com.google.api.client.googleapis.auth.oauth2.GooglePublicKeysManager;
+
+/**
+ * Signing key source backed by Google's published certificates.
+ *
+ * <p>
+ * The wrapped {@link GooglePublicKeysManager} keeps the parsed keys until the
+ * {@code Cache-Control: max-age} (minus {@code Age}) of the last response
+ * elapses and refreshes them under a lock, so sharing one instance means
+ * certificates are fetched once per rotation window instead of once per login.
+ * </p>
+ */
+public class GooglePublicKeysSource implements GoogleSigningKeySource {
+
+	private final GooglePublicKeysManager publicKeysManager;
+
+	public GooglePublicKeysSource(GooglePublicKeysManager publicKeysManager) {
+		this.publicKeysManager = publicKeysManager;
+	}
+
+	@Override
+	public List<PublicKey> getPublicKeys() throws GeneralSecurityException, IOException {
+		return publicKeysManager.getPublicKeys();
+	}
+}
@@ -0,0 +1,28 @@
+package com.harikiran.pgmgmt.security;
+
+import java.io.IOException;
+import java.security.GeneralSecurityException;
+import java.security.PublicKey;
+import java.util.List;
+
+/**
+ * Supplies the public keys used to check the signature of Google ID tokens.
+ *
+ * <p>
+ * Production uses {@link GooglePublicKeysSource}, which fetches Google's
+ * signing certificates and caches them for as long as the response headers
+ * allow. Tests and benchmarks can plug in {@link JwksFileSigningKeySource} to
+ * verify tokens signed with local keys without network access.
+ * </p>
+ */
+public interface GoogleSigningKeySource {
+
+	/**
+	 * Returns the keys currently trusted for ID token signatures.
+	 *
+	 * @return trusted public keys, never {@code null}
+	 * @throws GeneralSecurityException when a key cannot be decoded
+	 * @throws IOException              when the keys cannot be loaded
+	 */
+	List<PublicKey> getPublicKeys() throws GeneralSecurityException, IOException;
+}
@@ -0,0 +1,63 @@
+package com.harikiran.pgmgmt.security;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigInteger;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.PublicKey;
+import java.security.spec.RSAPublicKeySpec;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+import org.springframework.core.io.Resource;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Signing key source that reads RSA keys from a local JWKS document.
+ *
+ * <p>
+ * The file is parsed once at construction, so verification never touches the
+ * network. Intended for tests, benchmarks and offline environments; select it
+ * by setting {@code google.oauth.jwks-location}.
+ * </p>
+ */
+public class JwksFileSigningKeySource implements GoogleSigningKeySource {
+
+	private final List<PublicKey> publicKeys;
+
+	public JwksFileSigningKeySource(Resource jwks) throws IOException, GeneralSecurityException {
+		try (InputStream input = jwks.getInputStream()) {
+			this.publicKeys = List.copyOf(parse(new ObjectMapper().readTree(input)));
+		}
+	}
+
+	@Override
+	public List<PublicKey> getPublicKeys() {
+		return publicKeys;
+	}
+
+	private static List<PublicKey> parse(JsonNode document) throws GeneralSecurityException {
+		JsonNode keys = document.path("keys");
+		if (!keys.isArray() || keys.isEmpty()) {
+			throw new IllegalArgumentException("JWKS document contains no keys");
+		}
+
+		KeyFactory keyFactory = KeyFactory.getInstance("RSA");
+		Base64.Decoder decoder = Base64.getUrlDecoder();
+		List<PublicKey> parsed = new ArrayList<>(keys.size());
+		for (JsonNode key : keys) {
+			if (!"RSA".equals(key.path("kty").asText())) {
+				continue;
+			}
+
+			BigInteger modulus = new BigInteger(1, decoder.decode(key.path("n").asText()));
+			BigInteger exponent = new BigInteger(1, decoder.decode(key.path("e").asText()));
+			parsed.add(keyFactory.generatePublic(new RSAPublicKeySpec(modulus, exponent)));
+		}
+		return parsed;
+	}
+}
@@ -3,7 +3,6 @@ package com.harikiran.pgmgmt.security;
 import java.io.IOException;
 import java.util.Collection;
 import java.util.List;
-import java.util.Optional;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -18,10 +17,9 @@ import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
 
-import com.harikiran.pgmgmt.model.Tenant;
 import com.harikiran.pgmgmt.repository.AdminRepository;
 import com.harikiran.pgmgmt.repository.TenantRepository;
-import com.harikiran.pgmgmt.util.JwtUtil;
+import com.harikiran.pgmgmt.util.JwtUtil.VerifiedToken;
 
 import io.jsonwebtoken.JwtException;
 import jakarta.servlet.FilterChain;
@@ -34,13 +32,15 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
 	private static final Logger logger = LoggerFactory.getLogger(JwtAuthenticationFilter.class);
 
-	private final JwtUtil jwtUtil;
+	private final VerifiedTokenCache verifiedTokenCache;
+	private final PrincipalCache principalCache;
 	private final TenantRepository tenantRepository;
 	private final AdminRepository adminRepository;
 
-	public JwtAuthenticationFilter(JwtUtil jwtUtil, TenantRepository tenantRepository,
-			AdminRepository adminRepository) {
-		this.jwtUtil = jwtUtil;
+	public JwtAuthenticationFilter(VerifiedTokenCache verifiedTokenCache, PrincipalCache principalCache,
+			TenantRepository tenantRepository, AdminRepository adminRepository) {
+		this.verifiedTokenCache = verifiedTokenCache;
+		this.principalCache = principalCache;
 		this.tenantRepository = tenantRepository;
 		this.adminRepository = adminRepository;
 	}
@@ -57,18 +57,16 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
 		String token = authorizationHeader.substring(7);
 		try {
-			String email = jwtUtil.extractEmail(token);
+			// Signature and expiry are checked once here; repeat tokens are served from
+			// the cache until their exp claim passes.
+			VerifiedToken verifiedToken = verifiedTokenCache.verify(token);
+			String email = verifiedToken.email();
 			if (!StringUtils.hasText(email)) {
 				filterChain.doFilter(request, response);
 				return;
 			}
 
-			if (!jwtUtil.validateToken(token, email)) {
-				filterChain.doFilter(request, response);
-				return;
-			}
-
-			String role = jwtUtil.extractRole(token);
+			String role = verifiedToken.role();
 			if (!StringUtils.hasText(role)) {
 				logger.debug("JWT contained no role claim for email={}", email);
 				filterChain.doFilter(request, response);
@@ -77,7 +75,8 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
 			if (SecurityContextHolder.getContext().getAuthentication() == null && userExists(email, role)) {
 				Collection<? extends GrantedAuthority> authorities = mapAuthorities(role);
-				UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(email,
+				JwtPrincipal principal = new JwtPrincipal(email, role, verifiedToken.tenantId());
+				UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(principal,
 						null, authorities);
 				authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
 				SecurityContextHolder.getContext().setAuthentication(authentication);
@@ -89,13 +88,24 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 		filterChain.doFilter(request, response);
 	}
 
+	/**
+	 * Streaming responses complete on an async dispatch that is authorized again,
+	 * so the token has to be re-applied there too. Repeat verification is a cache
+	 * hit.
+	 */
+	@Override
+	protected boolean shouldNotFilterAsyncDispatch() {
+		return false;
+	}
+
 	private boolean userExists(String email, String role) {
-		if ("admin".equalsIgnoreCase(role)) {
-			return adminRepository.findByEmail(email) != null;
-		}
+		return principalCache.exists(email, role, () -> {
+			if ("admin".equalsIgnoreCase(role)) {
+				return adminRepository.existsByEmail(email);
+			}
 
-		Optional<Tenant> tenant = tenantRepository.findByEmail(email);
-		return tenant.isPresent();
+			return tenantRepository.existsByEmail(email);
+		});
 	}
 
 	private Collection<? extends GrantedAuthority> mapAuthorities(String role) {
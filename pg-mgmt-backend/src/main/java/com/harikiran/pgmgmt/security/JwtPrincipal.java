@@ -0,0 +1,25 @@
+package com.harikiran.pgmgmt.security;
+
+import org.springframework.security.core.AuthenticatedPrincipal;
+
+/**
+ * Principal placed in the security context by {@link JwtAuthenticationFilter}.
+ *
+ * <p>
+ * {@link #getName()} returns the email so {@code authentication.getName()}
+ * behaves as before. {@code tenantId} comes from the token's
+ * {@code tenantId} claim and is {@code null} for admins and for tenant tokens
+ * issued before the claim was introduced.
+ * </p>
+ *
+ * @param email    JWT subject
+ * @param role     role claim ({@code tenant} or {@code admin})
+ * @param tenantId tenant document id, when present in the token
+ */
+public record JwtPrincipal(String email, String role, String tenantId) implements AuthenticatedPrincipal {
+
+	@Override
+	public String getName() {
+		return email;
+	}
+}
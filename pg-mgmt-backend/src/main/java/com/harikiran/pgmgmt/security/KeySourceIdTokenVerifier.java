@@ -0,0 +1,41 @@
+package com.harikiran.pgmgmt.security;
+
+import java.io.IOException;
+import java.security.GeneralSecurityException;
+import java.security.PublicKey;
+
+import com.google.api.client.googleapis.auth.oauth2.GoogleIdToken;
+import com.google.api.client.googleapis.auth.oauth2.GoogleIdTokenVerifier;
+
+/**
+ * Google ID token verifier that checks signatures against a pluggable
+ * {@link GoogleSigningKeySource} while keeping Google's issuer, audience and
+ * expiry checks.
+ *
+ * <p>
+ * Instances are thread-safe and meant to be shared across all logins.
+ * </p>
+ */
+public class KeySourceIdTokenVerifier extends GoogleIdTokenVerifier {
+
+	private final GoogleSigningKeySource keySource;
+
+	public KeySourceIdTokenVerifier(GoogleIdTokenVerifier.Builder builder, GoogleSigningKeySource keySource) {
+		super(builder);
+		this.keySource = keySource;
+	}
+
+	@Override
+	public boolean verify(GoogleIdToken googleIdToken) throws GeneralSecurityException, IOException {
+		if (!verifyPayload(googleIdToken)) {
+			return false;
+		}
+
+		for (PublicKey publicKey : keySource.getPublicKeys()) {
+			if (googleIdToken.verifySignature(publicKey)) {
+				return true;
+			}
+		}
+		return false;
+	}
+}
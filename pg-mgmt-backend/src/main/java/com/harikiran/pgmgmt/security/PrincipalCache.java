@@ -0,0 +1,104 @@
+package com.harikiran.pgmgmt.security;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.function.BooleanSupplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Size- and time-bounded cache of principals known to exist in the
+ * {@code tenants} or {@code admins} collections.
+ *
+ * <p>
+ * Only positive lookups are retained so a freshly created account is never
+ * hidden by a stale miss. Write paths that remove or rewrite accounts call
+ * {@link #evict(String, String)} so access is revoked without waiting for the
+ * TTL. Size, hit/miss counts and the hit ratio are published to actuator
+ * metrics under the {@code security.principals} cache name.
+ * </p>
+ */
+@Component
+public class PrincipalCache {
+
+	static final String CACHE_NAME = "security.principals";
+
+	private static final Logger logger = LoggerFactory.getLogger(PrincipalCache.class);
+
+	private final Cache<PrincipalKey, Boolean> cache;
+
+	@Autowired
+	public PrincipalCache(MeterRegistry meterRegistry,
+			@Value("${security.principal-cache.max-size:10000}") long maximumSize,
+			@Value("${security.principal-cache.ttl:5m}") Duration timeToLive) {
+		this(meterRegistry, maximumSize, timeToLive, Ticker.systemTicker());
+	}
+
+	PrincipalCache(MeterRegistry meterRegistry, long maximumSize, Duration timeToLive, Ticker ticker) {
+		this.cache = Caffeine.newBuilder().maximumSize(maximumSize).expireAfterWrite(timeToLive).ticker(ticker)
+				.recordStats().build();
+		CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+		Gauge.builder("cache.hit.ratio", cache, c -> c.stats().hitRate()).tag("cache", CACHE_NAME)
+				.description("Fraction of principal lookups answered without a database query")
+				.register(meterRegistry);
+	}
+
+	/**
+	 * Returns whether the principal exists, consulting the database through
+	 * {@code lookup} only when no live entry is cached.
+	 *
+	 * @param email  principal email taken from the JWT subject
+	 * @param role   role claim of the JWT
+	 * @param lookup database existence check executed on a cache miss
+	 * @return {@code true} when the principal is known to exist
+	 */
+	public boolean exists(String email, String role, BooleanSupplier lookup) {
+		PrincipalKey key = PrincipalKey.of(email, role);
+		if (cache.getIfPresent(key) != null) {
+			return true;
+		}
+
+		boolean exists = lookup.getAsBoolean();
+		if (exists) {
+			cache.put(key, Boolean.TRUE);
+		}
+		return exists;
+	}
+
+	/**
+	 * Drops the cached entry for the principal so the next request re-checks the
+	 * database.
+	 *
+	 * @param email principal email
+	 * @param role  {@code tenant} or {@code admin}
+	 */
+	public void evict(String email, String role) {
+		if (email == null) {
+			return;
+		}
+
+		cache.invalidate(PrincipalKey.of(email, role));
+		if (logger.isDebugEnabled()) {
+			logger.debug("Evicted cached principal email={} role={}", email, role);
+		}
+	}
+
+	private record PrincipalKey(String email, String role) {
+
+		static PrincipalKey of(String email, String role) {
+			return new PrincipalKey(email, role == null ? "" : role.trim().toLowerCase(Locale.ROOT));
+		}
+	}
+}
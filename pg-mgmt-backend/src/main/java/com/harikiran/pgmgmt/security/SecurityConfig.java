@@ -87,8 +87,9 @@ public class SecurityConfig {
 		configuration.setAllowCredentials(true);
 		configuration.setAllowedOriginPatterns(resolveAllowedOrigins());
 		configuration.setAllowedMethods(List.of("GET", "POST", "PUT", "PATCH", "DELETE", "OPTIONS"));
-		configuration.setAllowedHeaders(List.of("Authorization", "Content-Type", "X-Requested-With"));
-		configuration.setExposedHeaders(List.of("Authorization"));
+		configuration.setAllowedHeaders(List.of("Authorization", "Content-Type", "X-Requested-With", "If-Match",
+				"If-None-Match"));
+		configuration.setExposedHeaders(List.of("Authorization", "X-Next-Cursor", "ETag"));
 
 		UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
 		source.registerCorsConfiguration("/**", configuration);
@@ -30,6 +30,16 @@ public class TenantSecurity {
 			return false;
 		}
 
+		if (authentication.getPrincipal() instanceof JwtPrincipal jwtPrincipal && jwtPrincipal.tenantId() != null) {
+			boolean match = tenantId.equals(jwtPrincipal.tenantId());
+			if (!match && logger.isDebugEnabled()) {
+				logger.debug("Denied tenant data access principalTenantId={} targetTenantId={}",
+						jwtPrincipal.tenantId(), tenantId);
+			}
+			return match;
+		}
+
+		// Tokens issued before the tenantId claim existed fall back to an email match
 		return tenantRepository.findById(tenantId).map(tenant -> emailMatches(authentication, tenant.getEmail()))
 				.orElse(false);
 	}
@@ -65,6 +75,10 @@ public class TenantSecurity {
 			return userDetails.getUsername();
 		}
 
+		if (principal instanceof JwtPrincipal jwtPrincipal) {
+			return jwtPrincipal.email();
+		}
+
 		if (principal instanceof String stringPrincipal) {
 			return stringPrincipal;
 		}
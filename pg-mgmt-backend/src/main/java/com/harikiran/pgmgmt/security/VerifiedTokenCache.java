@@ -0,0 +1,100 @@
+package com.harikiran.pgmgmt.security;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.harikiran.pgmgmt.util.JwtUtil;
+import com.harikiran.pgmgmt.util.JwtUtil.VerifiedToken;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Bounded cache of verified JWT claims so that repeat requests carrying the
+ * same bearer token skip the HMAC signature check.
+ *
+ * <p>
+ * Entries are keyed by a SHA-256 digest of the token rather than the token
+ * itself and expire exactly at the token's {@code exp} claim, so a cached
+ * entry can never outlive the token it was derived from. Hit and miss counts
+ * are published to Micrometer under the {@code jwt.verified} cache name.
+ * </p>
+ */
+@Component
+public class VerifiedTokenCache {
+
+	static final String CACHE_NAME = "jwt.verified";
+
+	private final JwtUtil jwtUtil;
+	private final Cache<String, VerifiedToken> cache;
+
+	public VerifiedTokenCache(JwtUtil jwtUtil, MeterRegistry meterRegistry,
+			@Value("${jwt.cache.max-size:10000}") long maximumSize) {
+		this.jwtUtil = jwtUtil;
+		this.cache = Caffeine.newBuilder().maximumSize(maximumSize).expireAfter(new UntilTokenExpiry())
+				.recordStats().build();
+		CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+	}
+
+	/**
+	 * Returns the verified claims for the token, parsing and checking the
+	 * signature only when no live entry exists for it.
+	 *
+	 * @param token compact JWS string taken from the {@code Authorization} header
+	 * @return verified token claims
+	 * @throws io.jsonwebtoken.JwtException when the token fails verification
+	 */
+	public VerifiedToken verify(String token) {
+		return cache.get(digest(token), key -> jwtUtil.verify(token));
+	}
+
+	long estimatedSize() {
+		cache.cleanUp();
+		return cache.estimatedSize();
+	}
+
+	private static String digest(String token) {
+		try {
+			MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+			byte[] hash = sha256.digest(token.getBytes(StandardCharsets.UTF_8));
+			return Base64.getUrlEncoder().withoutPadding().encodeToString(hash);
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException("SHA-256 is not available on this JVM", e);
+		}
+	}
+
+	/**
+	 * Expires each entry at the {@code exp} claim of the token it belongs to.
+	 * Tokens without an expiry are never retained.
+	 */
+	private static final class UntilTokenExpiry implements Expiry<String, VerifiedToken> {
+
+		@Override
+		public long expireAfterCreate(String key, VerifiedToken value, long currentTime) {
+			if (value.expiresAt() == null) {
+				return 0L;
+			}
+			return Math.max(Duration.between(Instant.now(), value.expiresAt()).toNanos(), 0L);
+		}
+
+		@Override
+		public long expireAfterUpdate(String key, VerifiedToken value, long currentTime, long currentDuration) {
+			return expireAfterCreate(key, value, currentTime);
+		}
+
+		@Override
+		public long expireAfterRead(String key, VerifiedToken value, long currentTime, long currentDuration) {
+			return currentDuration;
+		}
+	}
+}
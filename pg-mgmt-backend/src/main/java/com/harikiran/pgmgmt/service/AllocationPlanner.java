@@ -0,0 +1,136 @@
+package com.harikiran.pgmgmt.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+
+import com.harikiran.pgmgmt.dto.AllocationRequest.Strategy;
+import com.harikiran.pgmgmt.dto.RoomVacancy;
+
+/**
+ * Computes a batch room assignment entirely in memory.
+ *
+ * <p>
+ * Units (roommate groups, then single tenants) are placed largest first. Each
+ * unit takes one room: with {@link Strategy#COMPACT} the room with the fewest
+ * free beds that still fits it, with {@link Strategy#SPREAD} the room with the
+ * most. Rooms sit in sorted sets by free beds, property-wide and per floor, so
+ * every placement is O(log rooms).
+ * </p>
+ */
+final class AllocationPlanner {
+
+	private static final Comparator<RoomState> BY_FREE_BEDS = Comparator.comparingInt((RoomState room) -> room.free)
+			.thenComparing(room -> room.vacancy.roomNo()).thenComparing(room -> room.vacancy.id());
+
+	private final Strategy strategy;
+	private final String preferredFloor;
+	private final NavigableSet<RoomState> rooms = new TreeSet<>(BY_FREE_BEDS);
+	private final Map<String, NavigableSet<RoomState>> roomsByFloor = new HashMap<>();
+
+	AllocationPlanner(Collection<RoomVacancy> vacancies, Strategy strategy, String preferredFloor) {
+		this.strategy = strategy == null ? Strategy.COMPACT : strategy;
+		this.preferredFloor = preferredFloor == null || preferredFloor.isBlank() ? null : preferredFloor.trim();
+		for (RoomVacancy vacancy : vacancies) {
+			add(new RoomState(vacancy));
+		}
+	}
+
+	/**
+	 * Places every unit, never splitting one across rooms.
+	 *
+	 * @param units tenant ids that must share a room; single tenants are units of
+	 *              one
+	 */
+	Result plan(List<List<String>> units) {
+		List<List<String>> ordered = new ArrayList<>(units);
+		ordered.sort(Comparator.comparingInt((List<String> unit) -> unit.size()).reversed());
+
+		Map<RoomVacancy, List<String>> placements = new LinkedHashMap<>();
+		List<String> unplaced = new ArrayList<>();
+		for (List<String> unit : ordered) {
+			RoomState room = choose(unit.size());
+			if (room == null) {
+				unplaced.addAll(unit);
+				continue;
+			}
+
+			remove(room);
+			if (room.free != Integer.MAX_VALUE) {
+				room.free -= unit.size();
+			}
+			if (room.free > 0) {
+				add(room);
+			}
+			placements.computeIfAbsent(room.vacancy, key -> new ArrayList<>()).addAll(unit);
+		}
+		return new Result(placements, unplaced);
+	}
+
+	private RoomState choose(int beds) {
+		if (preferredFloor != null) {
+			NavigableSet<RoomState> onFloor = roomsByFloor.get(preferredFloor);
+			RoomState room = onFloor == null ? null : choose(onFloor, beds);
+			if (room != null) {
+				return room;
+			}
+		}
+		return choose(rooms, beds);
+	}
+
+	private RoomState choose(NavigableSet<RoomState> candidates, int beds) {
+		if (candidates.isEmpty()) {
+			return null;
+		}
+		if (strategy == Strategy.SPREAD) {
+			RoomState roomiest = candidates.last();
+			return roomiest.free >= beds ? roomiest : null;
+		}
+		return candidates.ceiling(RoomState.probe(beds));
+	}
+
+	private void add(RoomState room) {
+		rooms.add(room);
+		roomsByFloor.computeIfAbsent(room.floor, key -> new TreeSet<>(BY_FREE_BEDS)).add(room);
+	}
+
+	private void remove(RoomState room) {
+		rooms.remove(room);
+		roomsByFloor.get(room.floor).remove(room);
+	}
+
+	/**
+	 * @param placements tenants per room, in placement order
+	 * @param unplaced   tenants no room could take
+	 */
+	record Result(Map<RoomVacancy, List<String>> placements, List<String> unplaced) {
+	}
+
+	private static final class RoomState {
+
+		private static final RoomVacancy PROBE = new RoomVacancy("", "", null, 0, null);
+
+		final RoomVacancy vacancy;
+		final String floor;
+		int free;
+
+		RoomState(RoomVacancy vacancy) {
+			this.vacancy = vacancy;
+			this.floor = vacancy.floorNo() == null ? "" : vacancy.floorNo().trim();
+			this.free = vacancy.freeBeds() == null ? Integer.MAX_VALUE : vacancy.freeBeds();
+		}
+
+		/** Sorts before every room with {@code free} or more free beds. */
+		static RoomState probe(int free) {
+			RoomState probe = new RoomState(PROBE);
+			probe.free = free;
+			return probe;
+		}
+	}
+}
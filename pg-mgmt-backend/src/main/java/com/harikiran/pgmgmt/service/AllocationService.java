@@ -0,0 +1,192 @@
+package com.harikiran.pgmgmt.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import com.harikiran.pgmgmt.dto.AllocationPlan;
+import com.harikiran.pgmgmt.dto.AllocationPlan.Assignment;
+import com.harikiran.pgmgmt.dto.AllocationRequest;
+import com.harikiran.pgmgmt.dto.RoomVacancy;
+import com.harikiran.pgmgmt.model.Room;
+import com.harikiran.pgmgmt.model.Tenant;
+import com.harikiran.pgmgmt.repository.RoomRepository;
+import com.harikiran.pgmgmt.repository.TenantRepository;
+
+/**
+ * Assigns many tenants to rooms at once.
+ *
+ * <p>
+ * The plan is computed in memory by {@link AllocationPlanner} from the free
+ * beds in {@link RoomOccupancyIndex}, then written in batches of
+ * {@code app.allocation.batch-size} rooms: one guarded {@code bulkWrite} to
+ * {@code rooms}, one to {@code tenants}. A room that filled up since the index
+ * saw it rejects its whole group, and a tenant that got a room concurrently is
+ * released again from the planned one, so a stale plan can only place fewer
+ * tenants, never over-fill a room. Both are reported as conflicts.
+ * </p>
+ */
+@Service
+public class AllocationService {
+
+	private static final Logger logger = LoggerFactory.getLogger(AllocationService.class);
+
+	private final MongoTemplate mongoTemplate;
+	private final TenantRepository tenantRepo;
+	private final RoomRepository roomRepo;
+	private final RoomOccupancyIndex occupancyIndex;
+	private final ApplicationEventPublisher eventPublisher;
+	private final int batchSize;
+
+	public AllocationService(MongoTemplate mongoTemplate, TenantRepository tenantRepo, RoomRepository roomRepo,
+			RoomOccupancyIndex occupancyIndex, ApplicationEventPublisher eventPublisher,
+			@Value("${app.allocation.batch-size:500}") int batchSize) {
+		this.mongoTemplate = mongoTemplate;
+		this.tenantRepo = tenantRepo;
+		this.roomRepo = roomRepo;
+		this.occupancyIndex = occupancyIndex;
+		this.eventPublisher = eventPublisher;
+		this.batchSize = batchSize;
+	}
+
+	/**
+	 * Plans and, unless {@link AllocationRequest#dryRun()}, writes a batch
+	 * allocation.
+	 *
+	 * @throws IllegalArgumentException when neither tenants nor groups are given,
+	 *                                  or a tenant is in more than one group
+	 */
+	public AllocationPlan allocate(AllocationRequest request) {
+		List<List<String>> groups = request.groups() == null ? List.of() : request.groups();
+		List<String> listed = request.tenantIds() == null ? List.of() : request.tenantIds();
+		// Every Google sign-in creates a tenant without a room, so never place "everyone"
+		if (listed.isEmpty() && groups.stream().allMatch(List::isEmpty)) {
+			throw new IllegalArgumentException("tenantIds or groups must name the tenants to place");
+		}
+		Set<String> grouped = new HashSet<>();
+		for (List<String> group : groups) {
+			for (String tenantId : group) {
+				if (!grouped.add(tenantId)) {
+					throw new IllegalArgumentException("Tenant " + tenantId + " is in more than one group");
+				}
+			}
+		}
+
+		Set<String> requested = new LinkedHashSet<>(listed);
+		requested.addAll(grouped);
+		Set<String> eligible = findUnassigned(requested);
+		List<String> skipped = requested.stream().filter(tenantId -> !eligible.contains(tenantId)).toList();
+
+		List<List<String>> units = new ArrayList<>();
+		for (List<String> group : groups) {
+			List<String> members = group.stream().filter(eligible::contains).toList();
+			if (!members.isEmpty()) {
+				units.add(members);
+			}
+		}
+		eligible.stream().filter(tenantId -> !grouped.contains(tenantId)).map(List::of).forEach(units::add);
+
+		AllocationPlanner.Result result = new AllocationPlanner(occupancyIndex.vacantRooms(), request.strategy(),
+				request.floor()).plan(units);
+		if (request.dryRun()) {
+			List<Assignment> assignments = new ArrayList<>();
+			result.placements().forEach((room, tenantIds) -> tenantIds
+					.forEach(tenantId -> assignments.add(new Assignment(tenantId, room.roomNo(), room.floorNo()))));
+			return new AllocationPlan(true, assignments, result.unplaced(), skipped, List.of());
+		}
+
+		AllocationPlan plan = commit(result, skipped);
+		if (logger.isInfoEnabled()) {
+			logger.info("Allocated {} tenant(s); unplaced={} skipped={} conflicts={}", plan.assignments().size(),
+					plan.unplaced().size(), plan.skipped().size(), plan.conflicts().size());
+		}
+		return plan;
+	}
+
+	/**
+	 * Returns the ids among {@code tenantIds} of tenants that exist and have no
+	 * room, in request order.
+	 */
+	private Set<String> findUnassigned(Set<String> tenantIds) {
+		Query query = Query.query(Criteria.where("roomNo").is(null).and("id").in(tenantIds));
+		query.fields().include("id");
+		Set<String> found = new HashSet<>();
+		mongoTemplate.find(query, Tenant.class).forEach(tenant -> found.add(tenant.getId()));
+
+		Set<String> ordered = new LinkedHashSet<>(tenantIds);
+		ordered.retainAll(found);
+		return ordered;
+	}
+
+	private AllocationPlan commit(AllocationPlanner.Result result, List<String> skipped) {
+		List<Assignment> assignments = new ArrayList<>();
+		List<String> conflicts = new ArrayList<>();
+		List<Map.Entry<RoomVacancy, List<String>>> placements = new ArrayList<>(result.placements().entrySet());
+		for (int from = 0; from < placements.size(); from += batchSize) {
+			List<Map.Entry<RoomVacancy, List<String>>> batch = placements.subList(from,
+					Math.min(from + batchSize, placements.size()));
+			commitBatch(batch, assignments, conflicts);
+		}
+		return new AllocationPlan(false, assignments, result.unplaced(), skipped, conflicts);
+	}
+
+	private void commitBatch(List<Map.Entry<RoomVacancy, List<String>>> batch, List<Assignment> assignments,
+			List<String> conflicts) {
+		Map<String, List<String>> tenantIdsByRoomId = new LinkedHashMap<>();
+		batch.forEach(entry -> tenantIdsByRoomId.put(entry.getKey().id(), entry.getValue()));
+		Set<String> takenRoomIds = roomRepo.bulkAssignTenants(tenantIdsByRoomId);
+
+		Map<String, String> roomNoByTenantId = new LinkedHashMap<>();
+		Map<String, RoomVacancy> roomByTenantId = new HashMap<>();
+		for (Map.Entry<RoomVacancy, List<String>> entry : batch) {
+			if (!takenRoomIds.contains(entry.getKey().id())) {
+				conflicts.addAll(entry.getValue());
+				continue;
+			}
+			entry.getValue().forEach(tenantId -> {
+				roomNoByTenantId.put(tenantId, entry.getKey().roomNo());
+				roomByTenantId.put(tenantId, entry.getKey());
+			});
+		}
+
+		Set<String> notUpdated = tenantRepo.bulkAssignRooms(roomNoByTenantId);
+		Set<String> changedRoomIds = new HashSet<>(takenRoomIds);
+		for (String tenantId : notUpdated) {
+			// Keep the tenant only in the room it now records, if any
+			String currentRoomNo = tenantRepo.findById(tenantId).map(Tenant::getRoomNo).orElse(null);
+			roomRepo.releaseTenant(tenantId, currentRoomNo).forEach(room -> changedRoomIds.add(room.getId()));
+			conflicts.add(tenantId);
+		}
+
+		List<String> assigned = roomNoByTenantId.keySet().stream().filter(tenantId -> !notUpdated.contains(tenantId))
+				.toList();
+		assigned.forEach(tenantId -> {
+			RoomVacancy room = roomByTenantId.get(tenantId);
+			assignments.add(new Assignment(tenantId, room.roomNo(), room.floorNo()));
+		});
+
+		// The bulk writes return no documents; re-read each side once for listeners
+		if (!changedRoomIds.isEmpty()) {
+			mongoTemplate.find(Query.query(Criteria.where("id").in(changedRoomIds)), Room.class)
+					.forEach(room -> eventPublisher.publishEvent(RoomChangedEvent.saved(room)));
+		}
+		if (!assigned.isEmpty()) {
+			mongoTemplate.find(Query.query(Criteria.where("id").in(assigned)), Tenant.class)
+					.forEach(tenant -> eventPublisher.publishEvent(TenantChangedEvent.saved(tenant)));
+		}
+	}
+}
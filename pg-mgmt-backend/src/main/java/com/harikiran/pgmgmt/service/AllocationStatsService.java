@@ -1,17 +1,26 @@
 package com.harikiran.pgmgmt.service;
 
 import java.time.Instant;
+import java.time.LocalDate;
 import java.util.Date;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 
 import com.harikiran.pgmgmt.model.AllocationStats;
-import com.harikiran.pgmgmt.model.Room;
+import com.harikiran.pgmgmt.model.AllocationStatsRollup;
+import com.harikiran.pgmgmt.model.StatsGranularity;
 import com.harikiran.pgmgmt.repository.AllocationStatsRepository;
+import com.harikiran.pgmgmt.repository.AllocationStatsRollupRepository;
 import com.harikiran.pgmgmt.repository.RoomRepository;
+import com.harikiran.pgmgmt.service.CollectionVersions.Collection;
 
 /**
  * Tracks room capacity allocation metrics and persists daily snapshots for the
@@ -21,39 +30,81 @@ import com.harikiran.pgmgmt.repository.RoomRepository;
 public class AllocationStatsService {
 
 	private static final Logger logger = LoggerFactory.getLogger(AllocationStatsService.class);
+	private static final List<StatsGranularity> ROLLED_UP = List.of(StatsGranularity.WEEK, StatsGranularity.MONTH);
 
 	private final RoomRepository roomRepository;
 	private final AllocationStatsRepository allocationStatsRepository;
+	private final AllocationStatsRollupRepository allocationStatsRollupRepository;
+	private final StatsStorage statsStorage;
+	private final CollectionVersions versions;
 
 	/**
 	 * Creates a new service that aggregates room allocation metrics.
 	 *
-	 * @param roomRepository             repository providing room details
-	 * @param allocationStatsRepository  repository for persisting allocation snapshots
+	 * @param roomRepository                  repository providing room details
+	 * @param allocationStatsRepository       repository for persisting allocation snapshots
+	 * @param allocationStatsRollupRepository repository for the weekly and monthly rollups
+	 * @param statsStorage                    writes snapshots to plain or time-series collections
+	 * @param versions                        write counters bumped when a snapshot is persisted
 	 */
-	public AllocationStatsService(RoomRepository roomRepository, AllocationStatsRepository allocationStatsRepository) {
+	public AllocationStatsService(RoomRepository roomRepository, AllocationStatsRepository allocationStatsRepository,
+			AllocationStatsRollupRepository allocationStatsRollupRepository, StatsStorage statsStorage,
+			CollectionVersions versions) {
 		this.roomRepository = roomRepository;
 		this.allocationStatsRepository = allocationStatsRepository;
+		this.allocationStatsRollupRepository = allocationStatsRollupRepository;
+		this.statsStorage = statsStorage;
+		this.versions = versions;
 	}
 
 	/**
-	 * Calculates the current allocation totals across all rooms.
+	 * Builds the rollups from the full history when none exist yet, as after
+	 * upgrading; runs in the background so startup does not wait for Mongo.
+	 */
+	@EventListener(ApplicationReadyEvent.class)
+	public void onApplicationReady() {
+		Thread.ofVirtual().name("allocation-stats-rollups").start(() -> {
+			try {
+				statsStorage.awaitReady();
+				if (allocationStatsRollupRepository.count() == 0) {
+					List<AllocationStats> history = allocationStatsRepository.findAllByOrderByStatsDateAsc();
+					for (StatsGranularity granularity : ROLLED_UP) {
+						allocationStatsRollupRepository.saveAll(rollUp(granularity, history));
+					}
+					versions.bump(Collection.ALLOCATION_STATS);
+					if (logger.isInfoEnabled()) {
+						logger.info("Built allocation stats rollups from {} snapshots", history.size());
+					}
+				}
+			} catch (RuntimeException e) {
+				logger.error("Failed to build allocation stats rollups: {}", e.getMessage());
+			}
+		});
+	}
+
+	/**
+	 * Calculates the current allocation totals across all rooms, with a
+	 * breakdown per floor. The sums are computed by MongoDB; only one document
+	 * per floor is read.
 	 *
 	 * @return snapshot containing total, allocated and vacant bed counts
 	 */
 	public AllocationSnapshot computeCurrentSnapshot() {
-		List<Room> rooms = roomRepository.findAll();
+		List<FloorSnapshot> floors = roomRepository.sumCapacityByFloor().stream()
+				.map(floor -> new FloorSnapshot(floor.floorNo(), floor.rooms(), floor.capacity(), floor.allocated(),
+						Math.max(floor.capacity() - floor.allocated(), 0)))
+				.toList();
 
-		long totalCapacity = rooms.stream().mapToLong(Room::getCapacity).sum();
-		long allocated = rooms.stream().mapToLong(Room::getAllocatedCount).sum();
+		long totalCapacity = floors.stream().mapToLong(FloorSnapshot::totalCapacity).sum();
+		long allocated = floors.stream().mapToLong(FloorSnapshot::allocatedCount).sum();
 		long vacant = Math.max(totalCapacity - allocated, 0);
 
 		if (logger.isDebugEnabled()) {
-			logger.debug("Computed allocation snapshot totals total={} allocated={} vacant={}", totalCapacity,
-					allocated, vacant);
+			logger.debug("Computed allocation snapshot totals total={} allocated={} vacant={} floors={}",
+					totalCapacity, allocated, vacant, floors.size());
 		}
 
-		return new AllocationSnapshot(totalCapacity, allocated, vacant);
+		return new AllocationSnapshot(totalCapacity, allocated, vacant, floors);
 	}
 
 	/**
@@ -65,6 +116,7 @@ public class AllocationStatsService {
 	 */
 	public AllocationStats captureSnapshot(Date statsDate) {
 		AllocationSnapshot snapshot = computeCurrentSnapshot();
+		statsStorage.awaitReady();
 
 		AllocationStats stats = allocationStatsRepository.findByStatsDate(statsDate)
 				.orElseGet(() -> new AllocationStats(statsDate));
@@ -74,7 +126,9 @@ public class AllocationStatsService {
 		stats.setVacantCount(snapshot.vacantCount());
 		stats.setCapturedAt(Instant.now());
 
-		AllocationStats saved = allocationStatsRepository.save(stats);
+		AllocationStats saved = statsStorage.save(stats, stats.getId());
+		refreshRollups(statsDate);
+		versions.bump(Collection.ALLOCATION_STATS);
 
 		if (logger.isInfoEnabled()) {
 			logger.info("Persisted allocation stats for date={} total={} allocated={} vacant={}", statsDate,
@@ -85,23 +139,103 @@ public class AllocationStatsService {
 	}
 
 	/**
-	 * Loads all allocation snapshots sorted chronologically for dashboard charts.
+	 * Loads the daily snapshots from {@code from} through {@code to} through the
+	 * {@code statsDate} index.
 	 *
+	 * @param from first day in IST, or {@code null} for the whole history
+	 * @param to   last day in IST, or {@code null} for up to today
 	 * @return ordered allocation statistics
 	 */
-	public List<AllocationStats> loadChronologicalStats() {
-		List<AllocationStats> stats = allocationStatsRepository.findAllByOrderByStatsDateAsc();
+	public List<AllocationStats> loadStats(LocalDate from, LocalDate to) {
+		statsStorage.awaitReady();
+		List<AllocationStats> stats = allocationStatsRepository.findByStatsDateBetweenOrderByStatsDateAsc(
+				StatsGranularity.DAY.covering(from, to, AllocationStatsScheduler.IST_ZONE));
 
 		if (logger.isDebugEnabled()) {
-			logger.debug("Loaded {} allocation stats records", stats.size());
+			logger.debug("Loaded {} allocation stats records from={} to={}", stats.size(), from, to);
 		}
 
 		return stats;
 	}
 
+	/**
+	 * Streams the same snapshots as {@link #loadStats(LocalDate, LocalDate)}
+	 * from a cursor; close the stream when done.
+	 */
+	public Stream<AllocationStats> streamStats(LocalDate from, LocalDate to) {
+		statsStorage.awaitReady();
+		return allocationStatsRepository.streamByStatsDateBetweenOrderByStatsDateAsc(
+				StatsGranularity.DAY.covering(from, to, AllocationStatsScheduler.IST_ZONE));
+	}
+
+	/**
+	 * Loads the weekly or monthly rollups of every period overlapping
+	 * {@code from} through {@code to}.
+	 *
+	 * @see #loadStats(LocalDate, LocalDate)
+	 */
+	public List<AllocationStatsRollup> loadRollups(StatsGranularity granularity, LocalDate from, LocalDate to) {
+		statsStorage.awaitReady();
+		List<AllocationStatsRollup> rollups = allocationStatsRollupRepository
+				.findByGranularityAndPeriodStartBetweenOrderByPeriodStartAsc(granularity,
+						granularity.covering(from, to, AllocationStatsScheduler.IST_ZONE));
+
+		if (logger.isDebugEnabled()) {
+			logger.debug("Loaded {} {} allocation stats rollups from={} to={}", rollups.size(), granularity, from,
+					to);
+		}
+
+		return rollups;
+	}
+
+	/**
+	 * Rewrites the week and month containing {@code statsDate} from their daily
+	 * snapshots, so a recaptured day is not counted twice; a failure is repaired
+	 * by the next capture in the same period.
+	 */
+	private void refreshRollups(Date statsDate) {
+		LocalDate day = LocalDate.ofInstant(statsDate.toInstant(), AllocationStatsScheduler.IST_ZONE);
+		try {
+			for (StatsGranularity granularity : ROLLED_UP) {
+				List<AllocationStats> period = allocationStatsRepository.findByStatsDateBetweenOrderByStatsDateAsc(
+						granularity.covering(day, day, AllocationStatsScheduler.IST_ZONE));
+				allocationStatsRollupRepository.saveAll(rollUp(granularity, period));
+			}
+		} catch (RuntimeException e) {
+			logger.error("Failed to refresh allocation stats rollups for {}: {}", day, e.getMessage());
+		}
+	}
+
+	/** Sums {@code snapshots} per period of {@code granularity}. */
+	static List<AllocationStatsRollup> rollUp(StatsGranularity granularity, List<AllocationStats> snapshots) {
+		Map<String, AllocationStatsRollup> rollups = new LinkedHashMap<>();
+		Instant now = Instant.now();
+		for (AllocationStats stats : snapshots) {
+			LocalDate periodStart = granularity.periodStart(
+					LocalDate.ofInstant(stats.getStatsDate().toInstant(), AllocationStatsScheduler.IST_ZONE));
+			AllocationStatsRollup rollup = rollups.computeIfAbsent(granularity + ":" + periodStart,
+					id -> new AllocationStatsRollup(id, granularity,
+							Date.from(periodStart.atStartOfDay(AllocationStatsScheduler.IST_ZONE).toInstant())));
+			rollup.setSamples(rollup.getSamples() + 1);
+			rollup.setTotalCountSum(rollup.getTotalCountSum() + stats.getTotalCount());
+			rollup.setAllocatedCountSum(rollup.getAllocatedCountSum() + stats.getAllocatedCount());
+			rollup.setVacantCountSum(rollup.getVacantCountSum() + stats.getVacantCount());
+			rollup.setUpdatedAt(now);
+		}
+		return List.copyOf(rollups.values());
+	}
+
 	/**
 	 * Immutable projection of total capacity, allocated count and vacancies.
 	 */
-	public record AllocationSnapshot(long totalCapacity, long allocatedCount, long vacantCount) {
+	public record AllocationSnapshot(long totalCapacity, long allocatedCount, long vacantCount,
+			List<FloorSnapshot> floors) {
+	}
+
+	/**
+	 * Allocation totals of the rooms on one floor.
+	 */
+	public record FloorSnapshot(String floorNo, long rooms, long totalCapacity, long allocatedCount,
+			long vacantCount) {
 	}
 }
@@ -0,0 +1,102 @@
+package com.harikiran.pgmgmt.service;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.LongSupplier;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Per-collection write counters used to stamp read responses with strong
+ * ETags.
+ *
+ * <p>
+ * Every write path of the application bumps the counter of the collection it
+ * changed; tenant and room writes are counted through
+ * {@link TenantChangedEvent} and {@link RoomChangedEvent}. The counters live
+ * in this process only, so each one starts from a random {@link #epoch()} that
+ * keeps ETags issued before a restart from matching afterwards.
+ * </p>
+ */
+@Component
+public class CollectionVersions {
+
+	/** Collections whose reads are served with version-stamped ETags. */
+	public enum Collection {
+		TENANTS, ROOMS, MEAL_STATS, ALLOCATION_STATS
+	}
+
+	/** Writes per collection whose time is remembered. */
+	static final int HISTORY = 64;
+
+	private final long epoch = ThreadLocalRandom.current().nextLong() & Long.MAX_VALUE;
+	private final Map<Collection, AtomicLong> versions = new EnumMap<>(Collection.class);
+	private final Map<Collection, AtomicLongArray> changedAt = new EnumMap<>(Collection.class);
+	private final LongSupplier clock;
+
+	@Autowired
+	public CollectionVersions() {
+		this(System::nanoTime);
+	}
+
+	CollectionVersions(LongSupplier clock) {
+		this.clock = clock;
+		for (Collection collection : Collection.values()) {
+			versions.put(collection, new AtomicLong());
+			AtomicLongArray times = new AtomicLongArray(HISTORY);
+			for (int slot = 0; slot < HISTORY; slot++) {
+				times.set(slot, Long.MIN_VALUE);
+			}
+			changedAt.put(collection, times);
+		}
+	}
+
+	public long epoch() {
+		return epoch;
+	}
+
+	public long current(Collection collection) {
+		return versions.get(collection).get();
+	}
+
+	/**
+	 * Records a write to {@code collection}; call it after the write completed so
+	 * a concurrent read never caches pre-write data under the new version.
+	 */
+	public void bump(Collection collection) {
+		long version = versions.get(collection).incrementAndGet();
+		changedAt.get(collection).set((int) (version % HISTORY), clock.getAsLong());
+	}
+
+	/**
+	 * When {@code collection} moved past {@code version}, by
+	 * {@link System#nanoTime()}: {@link Long#MAX_VALUE} while {@code version} is
+	 * current, {@link Long#MIN_VALUE} when that is unknown because more than
+	 * {@link #HISTORY} writes followed it. Right after a write its time may still
+	 * read older or unknown, never newer.
+	 */
+	public long changedAfter(Collection collection, long version) {
+		long current = current(collection);
+		if (current <= version) {
+			return Long.MAX_VALUE;
+		}
+		long time = changedAt.get(collection).get((int) ((version + 1) % HISTORY));
+		// Enough writes since reading current would have reused the slot
+		return current(collection) - version > HISTORY ? Long.MIN_VALUE : time;
+	}
+
+	@EventListener
+	public void onTenantChanged(TenantChangedEvent event) {
+		bump(Collection.TENANTS);
+	}
+
+	@EventListener
+	public void onRoomChanged(RoomChangedEvent event) {
+		bump(Collection.ROOMS);
+	}
+}
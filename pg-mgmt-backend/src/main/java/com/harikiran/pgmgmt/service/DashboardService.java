@@ -1,22 +1,45 @@
 package com.harikiran.pgmgmt.service;
 
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import com.harikiran.pgmgmt.dto.DashboardSummaryResponse;
 import com.harikiran.pgmgmt.dto.DashboardSummaryResponse.AllocationStatsPoint;
 import com.harikiran.pgmgmt.dto.DashboardSummaryResponse.DashboardCounts;
+import com.harikiran.pgmgmt.dto.DashboardSummaryResponse.FloorAllocation;
 import com.harikiran.pgmgmt.dto.DashboardSummaryResponse.MealStatsPoint;
 import com.harikiran.pgmgmt.dto.DashboardSummaryResponse.TenantSummary;
+import com.harikiran.pgmgmt.dto.StatsColumns.AllocationColumns;
+import com.harikiran.pgmgmt.dto.StatsColumns.MealColumns;
 import com.harikiran.pgmgmt.model.AllocationStats;
+import com.harikiran.pgmgmt.model.AllocationStatsRollup;
 import com.harikiran.pgmgmt.model.MealStats;
+import com.harikiran.pgmgmt.model.MealStatsRollup;
+import com.harikiran.pgmgmt.model.StatsGranularity;
 import com.harikiran.pgmgmt.model.Tenant;
 import com.harikiran.pgmgmt.repository.TenantRepository;
 import com.harikiran.pgmgmt.service.AllocationStatsService.AllocationSnapshot;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
 @Service
 /** Aggregates tenant, meal, and allocation data into dashboard view models. */
 public class DashboardService {
@@ -24,72 +47,288 @@ public class DashboardService {
 	private final TenantRepository tenantRepository;
 	private final MealStatsService mealStatsService;
 	private final AllocationStatsService allocationStatsService;
+	private final OccupancyCounters occupancyCounters;
+	private final MeterRegistry meterRegistry;
+	private final Duration summaryTimeout;
+	private final ExecutorService executor = Executors
+			.newThreadPerTaskExecutor(Thread.ofVirtual().name("dashboard-summary-", 0).factory());
 	private static final Logger logger = LoggerFactory.getLogger(DashboardService.class);
 
 	public DashboardService(TenantRepository tenantRepository, MealStatsService mealStatsService,
-			AllocationStatsService allocationStatsService) {
+			AllocationStatsService allocationStatsService, OccupancyCounters occupancyCounters,
+			MeterRegistry meterRegistry, @Value("${app.dashboard.summary-timeout:5s}") Duration summaryTimeout) {
 		this.tenantRepository = tenantRepository;
 		this.mealStatsService = mealStatsService;
 		this.allocationStatsService = allocationStatsService;
+		this.occupancyCounters = occupancyCounters;
+		this.meterRegistry = meterRegistry;
+		this.summaryTimeout = summaryTimeout;
 	}
 
+	/**
+	 * Builds the dashboard summary. Counts are read from
+	 * {@link OccupancyCounters} once they are loaded, and aggregated by MongoDB
+	 * until then.
+	 *
+	 * <p>
+	 * The queries are independent, so each runs on its own virtual thread and
+	 * the summary takes about as long as the slowest one. If one fails or they
+	 * do not all finish within {@code app.dashboard.summary-timeout}, the rest
+	 * are cancelled. Each branch is timed as {@code dashboard.summary.branch}.
+	 * </p>
+	 *
+	 * @throws DeadlineExceededException if the queries outlast the timeout
+	 */
 	public DashboardSummaryResponse loadDashboardSummary() {
-		MealStatsService.MealSnapshot mealSnapshot = mealStatsService.computeActiveSnapshot();
-		AllocationSnapshot allocationSnapshot = allocationStatsService.computeCurrentSnapshot();
-		DashboardCounts counts = new DashboardCounts(mealSnapshot.totalCount(), mealSnapshot.vegCount(),
-				mealSnapshot.nonVegCount(), allocationSnapshot.totalCapacity(), allocationSnapshot.allocatedCount(),
-				allocationSnapshot.vacantCount());
+		List<Future<?>> tasks = new ArrayList<>();
+		try {
+			CompletableFuture<DashboardCounts> counts;
+			CompletableFuture<List<FloorAllocation>> floors;
+			if (occupancyCounters.isReady()) {
+				OccupancyCounters.Counts live = occupancyCounters.snapshot();
+				counts = CompletableFuture.completedFuture(new DashboardCounts(live.active(), live.veg(), live.nonVeg(),
+						live.capacity(), live.allocated(), Math.max(live.capacity() - live.allocated(), 0)));
+				floors = CompletableFuture.completedFuture(live.floors().stream()
+						.map(floor -> new FloorAllocation(floor.floorNo(), floor.rooms(), floor.capacity(),
+								floor.allocated(), Math.max(floor.capacity() - floor.allocated(), 0)))
+						.toList());
+			} else {
+				CompletableFuture<MealStatsService.MealSnapshot> mealSnapshot = fork("meal-snapshot",
+						mealStatsService::computeActiveSnapshot, tasks);
+				CompletableFuture<AllocationSnapshot> allocationSnapshot = fork("allocation-snapshot",
+						allocationStatsService::computeCurrentSnapshot, tasks);
+				counts = mealSnapshot.thenCombine(allocationSnapshot,
+						(meal, allocation) -> new DashboardCounts(meal.totalCount(), meal.vegCount(),
+								meal.nonVegCount(), allocation.totalCapacity(), allocation.allocatedCount(),
+								allocation.vacantCount()));
+				floors = allocationSnapshot.thenApply(allocation -> allocation.floors().stream()
+						.map(floor -> new FloorAllocation(floor.floorNo(), floor.rooms(), floor.totalCapacity(),
+								floor.allocatedCount(), floor.vacantCount()))
+						.toList());
+			}
 
-		List<TenantSummary> topTenants = tenantRepository
-				.findByContinuousStayFalseAndRoomNoNotNullAndRenewalDateNotNullOrderByRenewalDateAsc().stream()
-				.map(this::mapTenantSummary).toList();
+			CompletableFuture<List<TenantSummary>> topTenants = fork("upcoming-renewals",
+					() -> tenantRepository
+							.findByContinuousStayFalseAndRoomNoNotNullAndRenewalDateNotNullOrderByRenewalDateAsc()
+							.stream().map(this::mapTenantSummary).toList(),
+					tasks);
+			CompletableFuture<List<TenantSummary>> paymentDueTenants = fork("payment-due",
+					() -> tenantRepository.findByContinuousStayTrueAndRoomNoNotNullAndDueTrueOrderByRenewalDateAsc()
+							.stream().map(this::mapTenantSummary).toList(),
+					tasks);
 
-		List<TenantSummary> paymentDueTenants = tenantRepository
-				.findByContinuousStayTrueAndRoomNoNotNullAndDueTrueOrderByRenewalDateAsc().stream()
-				.map(this::mapTenantSummary).toList();
+			awaitAll(List.of(counts, floors, topTenants, paymentDueTenants));
+			DashboardSummaryResponse summary = new DashboardSummaryResponse(counts.join(), floors.join(),
+					topTenants.join(), paymentDueTenants.join());
 
-		if (logger.isDebugEnabled()) {
-			logger.debug(
-					"Dashboard summary counts totalActive={} veg={} nonVeg={} totalCapacity={} allocatedCapacity={} vacantCapacity={} topTenants={} paymentDueTenants={}",
-					counts.totalActive(), counts.vegCount(), counts.nonVegCount(), counts.totalCapacity(),
-					counts.allocatedCapacity(), counts.vacantCapacity(), topTenants.size(), paymentDueTenants.size());
-//			paymentDueTenants.stream().limit(10)
-//					.forEach(t -> logger.debug("Payment due tenant id={} name='{}' roomNo={} renewalDate={}", t.id(),
-//							t.name(), t.roomNo(), t.renewalDate()));
+			if (logger.isDebugEnabled()) {
+				DashboardCounts c = summary.counts();
+				logger.debug(
+						"Dashboard summary counts totalActive={} veg={} nonVeg={} totalCapacity={} allocatedCapacity={} vacantCapacity={} topTenants={} paymentDueTenants={}",
+						c.totalActive(), c.vegCount(), c.nonVegCount(), c.totalCapacity(), c.allocatedCapacity(),
+						c.vacantCapacity(), summary.topTenants().size(), summary.paymentDueTenants().size());
+			}
+			return summary;
+		} finally {
+			// No-op for finished branches; interrupts queries still running after a failure or timeout
+			tasks.forEach(task -> task.cancel(true));
 		}
+	}
 
-		return new DashboardSummaryResponse(counts, topTenants, paymentDueTenants);
+	/** Runs {@code load} on a virtual thread, timing it under {@code branch}. */
+	private <T> CompletableFuture<T> fork(String branch, Supplier<T> load, List<Future<?>> tasks) {
+		CompletableFuture<T> result = new CompletableFuture<>();
+		tasks.add(executor.submit(() -> {
+			Timer.Sample sample = Timer.start(meterRegistry);
+			T value;
+			try {
+				value = load.get();
+			} catch (RuntimeException e) {
+				record(sample, branch, Thread.currentThread().isInterrupted() ? "cancelled" : "error");
+				result.completeExceptionally(e);
+				return;
+			}
+			// Recorded before completing so the timing is visible once the summary is
+			record(sample, branch, "success");
+			result.complete(value);
+		}));
+		return result;
+	}
+
+	private void record(Timer.Sample sample, String branch, String outcome) {
+		sample.stop(Timer.builder("dashboard.summary.branch").tag("branch", branch).tag("outcome", outcome)
+				.description("Dashboard summary queries").register(meterRegistry));
+	}
+
+	/**
+	 * Waits until every branch has completed or one has failed, whichever comes
+	 * first, for at most {@code app.dashboard.summary-timeout}.
+	 */
+	private void awaitAll(List<CompletableFuture<?>> branches) {
+		CompletableFuture<Void> failed = new CompletableFuture<>();
+		branches.forEach(branch -> branch.whenComplete((value, e) -> {
+			if (e != null) {
+				failed.completeExceptionally(e);
+			}
+		}));
+		try {
+			CompletableFuture.anyOf(CompletableFuture.allOf(branches.toArray(CompletableFuture[]::new)), failed)
+					.get(summaryTimeout.toNanos(), TimeUnit.NANOSECONDS);
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause() instanceof CompletionException wrapped ? wrapped.getCause() : e.getCause();
+			throw cause instanceof RuntimeException runtime ? runtime
+					: new IllegalStateException("Dashboard summary query failed", cause);
+		} catch (TimeoutException e) {
+			throw new DeadlineExceededException(summaryTimeout);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while loading the dashboard summary", e);
+		}
 	}
 
 	private TenantSummary mapTenantSummary(Tenant tenant) {
 		return new TenantSummary(tenant.getId(), tenant.getName(), tenant.getRoomNo(), tenant.getRenewalDate());
 	}
 
-	public List<MealStatsPoint> loadMealStatsTimeline() {
-		List<MealStats> mealStats = mealStatsService.loadChronologicalStats();
-		List<MealStatsPoint> points = mealStats.stream().map(this::mapMealStat).toList();
+	/**
+	 * Meal stats from {@code from} through {@code to}. Daily points are the
+	 * captured snapshots; weekly and monthly points are averages over the
+	 * period, dated at its first day.
+	 *
+	 * @param from first day, or {@code null} for the whole history
+	 * @param to   last day, or {@code null} for up to today
+	 */
+	public List<MealStatsPoint> loadMealStatsTimeline(StatsGranularity granularity, LocalDate from, LocalDate to) {
+		List<MealStatsPoint> points = granularity == StatsGranularity.DAY
+				? mealStatsService.loadStats(from, to).stream().map(this::mapMealStat).toList()
+				: mealStatsService.loadRollups(granularity, from, to).stream().map(this::mapMealRollup).toList();
 		if (logger.isDebugEnabled()) {
-			logger.debug("Loaded {} meal stats points for reporting", points.size());
+			logger.debug("Loaded {} {} meal stats points for reporting", points.size(), granularity);
 		}
 		return points;
 	}
 
-	public List<AllocationStatsPoint> loadAllocationStatsTimeline() {
-		List<AllocationStats> allocationStats = allocationStatsService.loadChronologicalStats();
-		List<AllocationStatsPoint> points = allocationStats.stream().map(this::mapAllocationStat).toList();
+	/**
+	 * Allocation stats from {@code from} through {@code to}.
+	 *
+	 * @see #loadMealStatsTimeline(StatsGranularity, LocalDate, LocalDate)
+	 */
+	public List<AllocationStatsPoint> loadAllocationStatsTimeline(StatsGranularity granularity, LocalDate from,
+			LocalDate to) {
+		List<AllocationStatsPoint> points = granularity == StatsGranularity.DAY
+				? allocationStatsService.loadStats(from, to).stream().map(this::mapAllocationStat).toList()
+				: allocationStatsService.loadRollups(granularity, from, to).stream().map(this::mapAllocationRollup)
+						.toList();
 		if (logger.isDebugEnabled()) {
-			logger.debug("Loaded {} allocation stats points for reporting", points.size());
+			logger.debug("Loaded {} {} allocation stats points for reporting", points.size(), granularity);
 		}
 		return points;
 	}
 
+	/**
+	 * The same meal stats as
+	 * {@link #loadMealStatsTimeline(StatsGranularity, LocalDate, LocalDate)} in
+	 * columns. Daily snapshots are copied from the Mongo cursor straight into
+	 * primitive arrays.
+	 */
+	public MealColumns loadMealStatsColumns(StatsGranularity granularity, LocalDate from, LocalDate to) {
+		TimelineColumns columns;
+		if (granularity == StatsGranularity.DAY) {
+			columns = new TimelineColumns(4, 0);
+			try (Stream<MealStats> stats = mealStatsService.streamStats(from, to)) {
+				stats.forEach(point -> {
+					columns.addRow(point.getStatsDate());
+					columns.set(0, point.getMealNo());
+					columns.set(1, point.getTotalCount());
+					columns.set(2, point.getVegCount());
+					columns.set(3, point.getNonVegCount());
+				});
+			}
+		} else {
+			List<MealStatsRollup> rollups = mealStatsService.loadRollups(granularity, from, to);
+			columns = new TimelineColumns(4, rollups.size());
+			for (MealStatsRollup rollup : rollups) {
+				long samples = rollup.getSamples();
+				columns.addRow(rollup.getPeriodStart());
+				columns.set(0, rollup.getMealNo());
+				columns.set(1, average(rollup.getTotalCountSum(), samples));
+				columns.set(2, average(rollup.getVegCountSum(), samples));
+				columns.set(3, average(rollup.getNonVegCountSum(), samples));
+			}
+		}
+		return new MealColumns(granularity, columns.baseDate(), columns.dayDeltas(), columns.intColumn(0),
+				columns.column(1), columns.column(2), columns.column(3));
+	}
+
+	/**
+	 * The same allocation stats as
+	 * {@link #loadAllocationStatsTimeline(StatsGranularity, LocalDate, LocalDate)}
+	 * in columns.
+	 *
+	 * @see #loadMealStatsColumns(StatsGranularity, LocalDate, LocalDate)
+	 */
+	public AllocationColumns loadAllocationStatsColumns(StatsGranularity granularity, LocalDate from,
+			LocalDate to) {
+		TimelineColumns columns;
+		if (granularity == StatsGranularity.DAY) {
+			columns = new TimelineColumns(3, 0);
+			try (Stream<AllocationStats> stats = allocationStatsService.streamStats(from, to)) {
+				stats.forEach(point -> {
+					columns.addRow(point.getStatsDate());
+					columns.set(0, point.getTotalCount());
+					columns.set(1, point.getAllocatedCount());
+					columns.set(2, point.getVacantCount());
+				});
+			}
+		} else {
+			List<AllocationStatsRollup> rollups = allocationStatsService.loadRollups(granularity, from, to);
+			columns = new TimelineColumns(3, rollups.size());
+			for (AllocationStatsRollup rollup : rollups) {
+				long samples = rollup.getSamples();
+				columns.addRow(rollup.getPeriodStart());
+				columns.set(0, average(rollup.getTotalCountSum(), samples));
+				columns.set(1, average(rollup.getAllocatedCountSum(), samples));
+				columns.set(2, average(rollup.getVacantCountSum(), samples));
+			}
+		}
+		return new AllocationColumns(granularity, columns.baseDate(), columns.dayDeltas(), columns.column(0),
+				columns.column(1), columns.column(2));
+	}
+
 	private MealStatsPoint mapMealStat(MealStats stats) {
 		return new MealStatsPoint(stats.getStatsDate(), stats.getMealNo(), stats.getTotalCount(), stats.getVegCount(),
 				stats.getNonVegCount());
 	}
 
+	private MealStatsPoint mapMealRollup(MealStatsRollup rollup) {
+		long samples = rollup.getSamples();
+		return new MealStatsPoint(rollup.getPeriodStart(), rollup.getMealNo(),
+				average(rollup.getTotalCountSum(), samples), average(rollup.getVegCountSum(), samples),
+				average(rollup.getNonVegCountSum(), samples));
+	}
+
 	private AllocationStatsPoint mapAllocationStat(AllocationStats stats) {
 		return new AllocationStatsPoint(stats.getStatsDate(), stats.getTotalCount(), stats.getAllocatedCount(),
 				stats.getVacantCount());
 	}
+
+	private AllocationStatsPoint mapAllocationRollup(AllocationStatsRollup rollup) {
+		long samples = rollup.getSamples();
+		return new AllocationStatsPoint(rollup.getPeriodStart(), average(rollup.getTotalCountSum(), samples),
+				average(rollup.getAllocatedCountSum(), samples), average(rollup.getVacantCountSum(), samples));
+	}
+
+	private static long average(long sum, long samples) {
+		return samples == 0 ? 0 : Math.round((double) sum / samples);
+	}
+
+	/** The dashboard summary queries did not finish within their deadline. */
+	public static class DeadlineExceededException extends RuntimeException {
+
+		private static final long serialVersionUID = 1L;
+
+		DeadlineExceededException(Duration timeout) {
+			super("Dashboard summary did not load within " + timeout);
+		}
+	}
 }
@@ -0,0 +1,193 @@
+package com.harikiran.pgmgmt.service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.harikiran.pgmgmt.model.Room;
+import com.harikiran.pgmgmt.model.Tenant;
+
+/**
+ * Streams full tenant and room listings straight from a Mongo cursor for
+ * accounting exports.
+ *
+ * <p>
+ * Documents are fetched in batches of {@code app.export.batch-size} and written
+ * one at a time, flushing after each batch, so heap use stays flat whatever the
+ * collection size and clients start receiving data immediately.
+ * </p>
+ */
+@Service
+public class ExportService {
+
+	private static final Logger logger = LoggerFactory.getLogger(ExportService.class);
+
+	private static final List<CsvColumn<Tenant>> TENANT_COLUMNS = List.of(new CsvColumn<>("id", Tenant::getId),
+			new CsvColumn<>("name", Tenant::getName), new CsvColumn<>("email", Tenant::getEmail),
+			new CsvColumn<>("phone", Tenant::getPhone), new CsvColumn<>("roomNo", Tenant::getRoomNo),
+			new CsvColumn<>("mealPreference", Tenant::getMealPreference),
+			new CsvColumn<>("active", Tenant::isActive), new CsvColumn<>("due", Tenant::isDue),
+			new CsvColumn<>("continuousStay", Tenant::isContinuousStay),
+			new CsvColumn<>("renewalDate", Tenant::getRenewalDate));
+
+	private static final List<CsvColumn<Room>> ROOM_COLUMNS = List.of(new CsvColumn<>("id", Room::getId),
+			new CsvColumn<>("roomNo", Room::getRoomNo), new CsvColumn<>("floorNo", Room::getFloorNo),
+			new CsvColumn<>("capacity", Room::getCapacity), new CsvColumn<>("allocatedCount", Room::getAllocatedCount),
+			new CsvColumn<>("comments", Room::getComments),
+			new CsvColumn<>("tenantIds", room -> room.getTenantIds() == null ? null
+					: String.join(";", room.getTenantIds())));
+
+	private final MongoTemplate mongoTemplate;
+	private final ObjectMapper objectMapper;
+	private final int batchSize;
+
+	public ExportService(MongoTemplate mongoTemplate, ObjectMapper objectMapper,
+			@Value("${app.export.batch-size:500}") int batchSize) {
+		this.mongoTemplate = mongoTemplate;
+		this.objectMapper = objectMapper;
+		this.batchSize = Math.max(batchSize, 1);
+	}
+
+	public void writeTenants(OutputStream output, Format format) throws IOException {
+		export(Tenant.class, TENANT_COLUMNS, output, format);
+	}
+
+	public void writeRooms(OutputStream output, Format format) throws IOException {
+		export(Room.class, ROOM_COLUMNS, output, format);
+	}
+
+	private <T> void export(Class<T> type, List<CsvColumn<T>> columns, OutputStream output, Format format)
+			throws IOException {
+		Query query = new Query().with(Sort.by("id")).cursorBatchSize(batchSize);
+		long written;
+		try (Stream<T> documents = mongoTemplate.stream(query, type)) {
+			written = format == Format.CSV ? writeCsv(documents, columns, output)
+					: writeNdjson(documents, type, output);
+		}
+
+		if (logger.isInfoEnabled()) {
+			logger.info("Exported {} {} document(s) as {}", written, type.getSimpleName(), format);
+		}
+	}
+
+	private <T> long writeNdjson(Stream<T> documents, Class<T> type, OutputStream output) throws IOException {
+		// Flushing is left to the batches; ObjectWriter would flush after every document
+		ObjectWriter writer = objectMapper.writerFor(type).without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+		long count = 0;
+		try (JsonGenerator generator = objectMapper.getFactory().createGenerator(output)) {
+			generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+			generator.setRootValueSeparator(new SerializedString("\n"));
+			for (T document : (Iterable<T>) documents::iterator) {
+				writer.writeValue(generator, document);
+				if (++count % batchSize == 0) {
+					generator.flush();
+				}
+			}
+			if (count > 0) {
+				generator.writeRaw('\n');
+			}
+		}
+		output.flush();
+		return count;
+	}
+
+	private <T> long writeCsv(Stream<T> documents, List<CsvColumn<T>> columns, OutputStream output)
+			throws IOException {
+		Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+		writer.write(String.join(",", columns.stream().map(CsvColumn::header).toList()));
+		writer.write("\r\n");
+
+		long count = 0;
+		for (T document : (Iterable<T>) documents::iterator) {
+			for (int i = 0; i < columns.size(); i++) {
+				if (i > 0) {
+					writer.write(',');
+				}
+				writeCsvValue(writer, columns.get(i).accessor().apply(document));
+			}
+			writer.write("\r\n");
+			if (++count % batchSize == 0) {
+				writer.flush();
+			}
+		}
+		writer.flush();
+		return count;
+	}
+
+	private void writeCsvValue(Writer writer, Object value) throws IOException {
+		if (value == null) {
+			return;
+		}
+
+		String text = value instanceof Date date ? date.toInstant().toString() : value.toString();
+		boolean quote = text.indexOf(',') >= 0 || text.indexOf('"') >= 0 || text.indexOf('\n') >= 0
+				|| text.indexOf('\r') >= 0;
+		if (!quote) {
+			writer.write(text);
+			return;
+		}
+
+		writer.write('"');
+		writer.write(text.replace("\"", "\"\""));
+		writer.write('"');
+	}
+
+	/**
+	 * Supported export encodings.
+	 */
+	public enum Format {
+
+		NDJSON(MediaType.parseMediaType("application/x-ndjson"), "ndjson"),
+		CSV(MediaType.parseMediaType("text/csv;charset=UTF-8"), "csv");
+
+		private final MediaType mediaType;
+		private final String extension;
+
+		Format(MediaType mediaType, String extension) {
+			this.mediaType = mediaType;
+			this.extension = extension;
+		}
+
+		public MediaType mediaType() {
+			return mediaType;
+		}
+
+		public String extension() {
+			return extension;
+		}
+
+		/**
+		 * Parses the {@code format} request parameter, defaulting to NDJSON.
+		 *
+		 * @throws IllegalArgumentException for unsupported formats
+		 */
+		public static Format fromParameter(String value) {
+			return value == null || value.isBlank() ? NDJSON : valueOf(value.trim().toUpperCase(Locale.ROOT));
+		}
+	}
+
+	private record CsvColumn<T>(String header, Function<T, Object> accessor) {
+	}
+}
@@ -0,0 +1,323 @@
+package com.harikiran.pgmgmt.service;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.harikiran.pgmgmt.service.CollectionVersions.Collection;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Serves read endpoints with strong ETags derived from
+ * {@link CollectionVersions} and keeps the last serialized body per endpoint
+ * and parameter set.
+ *
+ * <p>
+ * A request whose {@code If-None-Match} carries the current ETag is answered
+ * with {@code 304} before any query runs, and an unchanged response is written
+ * from the cached bytes without touching Mongo or Jackson. A body is fresh
+ * while its ETag is current and it is younger than {@code app.response-cache.ttl};
+ * concurrent requests that miss share one load per key and ETag. Endpoints that
+ * allow it get a stale body for up to
+ * {@code app.response-cache.stale-while-revalidate} after it went stale, with
+ * its own ETag, while a background load replaces it; a body goes stale when
+ * its ttl runs out or when {@link CollectionVersions} saw the write that
+ * outdated it, whether or not anyone asked for it since. The cache is bounded by
+ * the total body size in {@code app.response-cache.max-size} and published to
+ * actuator metrics under the {@code http.responses} cache name, with request
+ * outcomes and the age of served bodies alongside.
+ * </p>
+ */
+@Component
+public class JsonResponseCache {
+
+	static final String CACHE_NAME = "http.responses";
+
+	private static final Logger logger = LoggerFactory.getLogger(JsonResponseCache.class);
+
+	private final CollectionVersions versions;
+	private final ObjectMapper objectMapper;
+	private final MeterRegistry meterRegistry;
+	private final Cache<String, CachedResponse> cache;
+	private final ConcurrentMap<String, CompletableFuture<CachedResponse>> loads = new ConcurrentHashMap<>();
+	private final long ttlNanos;
+	private final long staleNanos;
+	private final LongSupplier clock;
+
+	@Autowired
+	public JsonResponseCache(CollectionVersions versions, ObjectMapper objectMapper, MeterRegistry meterRegistry,
+			@Value("${app.response-cache.max-size:32MB}") DataSize maximumSize,
+			@Value("${app.response-cache.ttl:1m}") Duration timeToLive,
+			@Value("${app.response-cache.stale-while-revalidate:10s}") Duration staleWhileRevalidate) {
+		this(versions, objectMapper, meterRegistry, maximumSize, timeToLive, staleWhileRevalidate, System::nanoTime);
+	}
+
+	JsonResponseCache(CollectionVersions versions, ObjectMapper objectMapper, MeterRegistry meterRegistry,
+			DataSize maximumSize, Duration timeToLive, Duration staleWhileRevalidate, LongSupplier clock) {
+		this.versions = versions;
+		this.objectMapper = objectMapper;
+		this.meterRegistry = meterRegistry;
+		this.ttlNanos = timeToLive.toNanos();
+		this.staleNanos = staleWhileRevalidate.toNanos();
+		this.clock = clock;
+		this.cache = Caffeine.newBuilder().maximumWeight(maximumSize.toBytes())
+				.expireAfterWrite(timeToLive.plus(staleWhileRevalidate)).ticker(clock::getAsLong)
+				.weigher((String key, CachedResponse response) -> response.body().length + key.length())
+				.recordStats().build();
+		CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+	}
+
+	/**
+	 * Answers a read of data from {@code sources}, never serving a stale body.
+	 *
+	 * @param key         endpoint and normalized parameters identifying the body
+	 * @param ifNoneMatch {@code If-None-Match} request header, may be {@code null}
+	 * @param sources     collections the response is built from
+	 * @param loader      builds the response when nothing usable is cached; only
+	 *                    its headers and body are kept, and the body is written
+	 *                    as JSON under the loader's content type, by default
+	 *                    {@code application/json}
+	 */
+	public ResponseEntity<byte[]> serve(String key, String ifNoneMatch, Set<Collection> sources,
+			Supplier<ResponseEntity<?>> loader) {
+		return serve(key, ifNoneMatch, sources, false, loader);
+	}
+
+	/**
+	 * Answers a read of data from {@code sources}.
+	 *
+	 * @param allowStale whether a body that went stale recently may be served
+	 *                   while it is reloaded in the background; the loader then
+	 *                   runs outside the request
+	 * @see #serve(String, String, Set, Supplier)
+	 */
+	public ResponseEntity<byte[]> serve(String key, String ifNoneMatch, Set<Collection> sources, boolean allowStale,
+			Supplier<ResponseEntity<?>> loader) {
+		return serve(key, ifNoneMatch, sources, allowStale, List.of(), loader);
+	}
+
+	/**
+	 * Answers a read whose body also depends on request headers.
+	 *
+	 * @param vary names of the request headers that choose the representation;
+	 *             sent as {@code Vary} with every answer, {@code 304}s included
+	 * @see #serve(String, String, Set, boolean, Supplier)
+	 */
+	public ResponseEntity<byte[]> serve(String key, String ifNoneMatch, Set<Collection> sources, boolean allowStale,
+			List<String> vary, Supplier<ResponseEntity<?>> loader) {
+		Map<Collection, Long> seen = versions(sources);
+		String etag = etag(key, seen);
+		if (matches(ifNoneMatch, etag)) {
+			count(key, "not-modified");
+			return notModified(etag, vary);
+		}
+
+		long now = clock.getAsLong();
+		CachedResponse cached = cache.getIfPresent(key);
+		if (cached != null && cached.etag().equals(etag) && now - cached.loadedAt() < ttlNanos) {
+			count(key, "hit");
+			return respond(key, cached, now);
+		}
+
+		if (cached != null && allowStale && staleFor(cached, now) <= staleNanos) {
+			count(key, "stale");
+			if (!loads.containsKey(flight(key, etag))) {
+				Thread.ofVirtual().name("response-cache-refresh").start(() -> {
+					try {
+						load(key, etag, seen, vary, loader);
+					} catch (RuntimeException e) {
+						logger.warn("Failed to refresh cached response {}: {}", key, e.getMessage());
+					}
+				});
+			}
+			if (matches(ifNoneMatch, cached.etag())) {
+				return notModified(cached.etag(), vary);
+			}
+			return respond(key, cached, now);
+		}
+
+		CachedResponse loaded = load(key, etag, seen, vary, loader);
+		return respond(key, loaded, clock.getAsLong());
+	}
+
+	/**
+	 * How long {@code cached} has been stale: since its ttl ran out or since one
+	 * of its collections was first written after it was read, whichever came
+	 * first; {@link Long#MAX_VALUE} when that write is too far back to date.
+	 */
+	private long staleFor(CachedResponse cached, long now) {
+		long staleSince = cached.loadedAt() + ttlNanos;
+		for (Map.Entry<Collection, Long> source : cached.versions().entrySet()) {
+			long changedAt = versions.changedAfter(source.getKey(), source.getValue());
+			if (changedAt == Long.MIN_VALUE) {
+				return Long.MAX_VALUE;
+			}
+			staleSince = Math.min(staleSince, changedAt);
+		}
+		return now - staleSince;
+	}
+
+	private static ResponseEntity<byte[]> notModified(String etag, List<String> vary) {
+		HttpHeaders headers = new HttpHeaders();
+		if (!vary.isEmpty()) {
+			headers.setVary(vary);
+		}
+		return ResponseEntity.status(HttpStatus.NOT_MODIFIED).headers(headers).eTag(etag).build();
+	}
+
+	/**
+	 * Loads the body for {@code key} at {@code etag}, or waits for the load
+	 * another request already started for the same pair.
+	 */
+	private CachedResponse load(String key, String etag, Map<Collection, Long> seen, List<String> vary,
+			Supplier<ResponseEntity<?>> loader) {
+		String flight = flight(key, etag);
+		CompletableFuture<CachedResponse> own = new CompletableFuture<>();
+		CompletableFuture<CachedResponse> running = loads.putIfAbsent(flight, own);
+		if (running != null) {
+			count(key, "coalesced");
+			try {
+				return running.join();
+			} catch (CompletionException e) {
+				throw e.getCause() instanceof RuntimeException cause ? cause : e;
+			}
+		}
+
+		count(key, "miss");
+		try {
+			long started = clock.getAsLong();
+			CachedResponse loaded = serialize(loader.get(), etag, seen, vary, started);
+			// A slower load of an older version must not replace a newer body
+			cache.asMap().merge(key, loaded,
+					(current, candidate) -> current.loadedAt() > candidate.loadedAt() ? current : candidate);
+			if (logger.isDebugEnabled()) {
+				logger.debug("Cached {} byte response for {} at {}", loaded.body().length, key, etag);
+			}
+			own.complete(loaded);
+			return loaded;
+		} catch (RuntimeException e) {
+			own.completeExceptionally(e);
+			throw e;
+		} finally {
+			loads.remove(flight, own);
+		}
+	}
+
+	private CachedResponse serialize(ResponseEntity<?> response, String etag, Map<Collection, Long> seen,
+			List<String> vary, long loadedAt) {
+		try {
+			HttpHeaders headers = new HttpHeaders();
+			headers.putAll(response.getHeaders());
+			if (!vary.isEmpty()) {
+				headers.setVary(vary);
+			}
+			return new CachedResponse(etag, HttpHeaders.readOnlyHttpHeaders(headers),
+					objectMapper.writeValueAsBytes(response.getBody()), loadedAt, seen);
+		} catch (JsonProcessingException e) {
+			throw new IllegalStateException("Failed to serialize cached response", e);
+		}
+	}
+
+	private ResponseEntity<byte[]> respond(String key, CachedResponse cached, long now) {
+		long age = Math.max(now - cached.loadedAt(), 0);
+		Timer.builder("http.responses.age").tag("endpoint", endpoint(key))
+				.description("Age of the cached bodies served").register(meterRegistry)
+				.record(age, TimeUnit.NANOSECONDS);
+		MediaType contentType = cached.headers().getContentType();
+		return ResponseEntity.ok().headers(cached.headers()).eTag(cached.etag())
+				.header(HttpHeaders.AGE, Long.toString(TimeUnit.NANOSECONDS.toSeconds(age)))
+				.contentType(contentType == null ? MediaType.APPLICATION_JSON : contentType).body(cached.body());
+	}
+
+	private void count(String key, String result) {
+		Counter.builder("http.responses.requests").tag("endpoint", endpoint(key)).tag("result", result)
+				.description("Cached read requests by outcome").register(meterRegistry).increment();
+	}
+
+	private static String flight(String key, String etag) {
+		return key + '\n' + etag;
+	}
+
+	/** Key without its parameters, so metric tags stay few. */
+	private static String endpoint(String key) {
+		int parameters = key.indexOf(':');
+		return parameters < 0 ? key : key.substring(0, parameters);
+	}
+
+	/**
+	 * Current versions of {@code sources}. Read them before querying so a write
+	 * racing with the query can only make the ETag older than the body, never
+	 * newer.
+	 */
+	private Map<Collection, Long> versions(Set<Collection> sources) {
+		Map<Collection, Long> seen = new EnumMap<>(Collection.class);
+		for (Collection collection : sources) {
+			seen.put(collection, versions.current(collection));
+		}
+		return seen;
+	}
+
+	/**
+	 * Strong ETag for the body under {@code key} read at {@code seen}. The
+	 * parameters of the key, the representation included, are hashed into it, so
+	 * bodies that differ by parameters or {@code Accept} never share an ETag.
+	 */
+	String etag(String key, Map<Collection, Long> seen) {
+		StringBuilder etag = new StringBuilder("\"").append(Long.toString(versions.epoch(), 36));
+		seen.values().forEach(version -> etag.append('-').append(version));
+		int parameters = key.indexOf(':');
+		if (parameters >= 0) {
+			etag.append('-').append(Integer.toUnsignedString(key.substring(parameters + 1).hashCode(), 36));
+		}
+		return etag.append('"').toString();
+	}
+
+	private static boolean matches(String ifNoneMatch, String etag) {
+		if (ifNoneMatch == null || ifNoneMatch.isBlank()) {
+			return false;
+		}
+		for (String candidate : ifNoneMatch.split(",")) {
+			String value = candidate.trim();
+			if (value.equals("*") || value.equals(etag) || value.equals("W/" + etag)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * @param loadedAt clock reading when loading the body started
+	 * @param versions versions of the source collections the body was read at
+	 */
+	private record CachedResponse(String etag, HttpHeaders headers, byte[] body, long loadedAt,
+			Map<Collection, Long> versions) {
+	}
+}
@@ -1,34 +1,79 @@
 package com.harikiran.pgmgmt.service;
 
 import java.time.Instant;
+import java.time.LocalDate;
 import java.util.Date;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Stream;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 
 import com.harikiran.pgmgmt.model.MealStats;
-import com.harikiran.pgmgmt.model.Tenant;
+import com.harikiran.pgmgmt.model.MealStatsRollup;
+import com.harikiran.pgmgmt.model.StatsGranularity;
 import com.harikiran.pgmgmt.repository.MealStatsRepository;
+import com.harikiran.pgmgmt.repository.MealStatsRollupRepository;
 import com.harikiran.pgmgmt.repository.TenantRepository;
+import com.harikiran.pgmgmt.repository.TenantRepositoryCustom.MealCounts;
+import com.harikiran.pgmgmt.service.CollectionVersions.Collection;
 
 @Service
 /** Calculates and persists meal preference statistics for reporting. */
 public class MealStatsService {
 
+	private static final List<StatsGranularity> ROLLED_UP = List.of(StatsGranularity.WEEK, StatsGranularity.MONTH);
+
 	private final TenantRepository tenantRepository;
 	private final MealStatsRepository mealStatsRepository;
+	private final MealStatsRollupRepository mealStatsRollupRepository;
+	private final StatsStorage statsStorage;
+	private final CollectionVersions versions;
 	private static final Logger logger = LoggerFactory.getLogger(MealStatsService.class);
 
-	public MealStatsService(TenantRepository tenantRepository, MealStatsRepository mealStatsRepository) {
+	public MealStatsService(TenantRepository tenantRepository, MealStatsRepository mealStatsRepository,
+			MealStatsRollupRepository mealStatsRollupRepository, StatsStorage statsStorage,
+			CollectionVersions versions) {
 		this.tenantRepository = tenantRepository;
 		this.mealStatsRepository = mealStatsRepository;
+		this.mealStatsRollupRepository = mealStatsRollupRepository;
+		this.statsStorage = statsStorage;
+		this.versions = versions;
+	}
+
+	/**
+	 * Builds the rollups from the full history when none exist yet, as after
+	 * upgrading; runs in the background so startup does not wait for Mongo.
+	 */
+	@EventListener(ApplicationReadyEvent.class)
+	public void onApplicationReady() {
+		Thread.ofVirtual().name("meal-stats-rollups").start(() -> {
+			try {
+				statsStorage.awaitReady();
+				if (mealStatsRollupRepository.count() == 0) {
+					List<MealStats> history = mealStatsRepository.findAllByOrderByStatsDateAscMealNoAsc();
+					for (StatsGranularity granularity : ROLLED_UP) {
+						mealStatsRollupRepository.saveAll(rollUp(granularity, history));
+					}
+					versions.bump(Collection.MEAL_STATS);
+					if (logger.isInfoEnabled()) {
+						logger.info("Built meal stats rollups from {} snapshots", history.size());
+					}
+				}
+			} catch (RuntimeException e) {
+				logger.error("Failed to build meal stats rollups: {}", e.getMessage());
+			}
+		});
 	}
 
 	public MealSnapshot captureSnapshot(int mealNo, Date statsDate) {
 		MealSnapshot snapshot = computeActiveSnapshot();
+		statsStorage.awaitReady();
 		MealStats stats = mealStatsRepository.findByStatsDateAndMealNo(statsDate, mealNo)
 				.orElseGet(() -> new MealStats(statsDate, mealNo));
 
@@ -37,7 +82,9 @@ public class MealStatsService {
 		stats.setNonVegCount(snapshot.nonVegCount());
 		stats.setCapturedAt(Instant.now());
 
-		mealStatsRepository.save(stats);
+		statsStorage.save(stats, stats.getId());
+		refreshRollups(statsDate);
+		versions.bump(Collection.MEAL_STATS);
 		if (logger.isDebugEnabled()) {
 			logger.debug("Captured meal snapshot mealNo={} statsDate={} total={} veg={} nonVeg={} recordId={}", mealNo,
 					statsDate, snapshot.totalCount(), snapshot.vegCount(), snapshot.nonVegCount(), stats.getId());
@@ -45,11 +92,15 @@ public class MealStatsService {
 		return snapshot;
 	}
 
+	/**
+	 * Counts active tenants with a room by meal preference. The counting runs in
+	 * MongoDB; see {@link TenantRepository#countActiveMealPreferences()}.
+	 */
 	public MealSnapshot computeActiveSnapshot() {
-		List<Tenant> activeTenants = tenantRepository.findByIsActiveTrueAndRoomNoNotNull();
+		MealCounts counts = tenantRepository.countActiveMealPreferences();
 
-		long total = activeTenants.size();
-		long veg = activeTenants.stream().filter(this::isVegPreference).count();
+		long total = counts.total();
+		long veg = counts.veg();
 		long nonVeg = total - veg;
 
 		if (logger.isDebugEnabled()) {
@@ -59,22 +110,86 @@ public class MealStatsService {
 		return new MealSnapshot(total, veg, nonVeg);
 	}
 
-	public List<MealStats> loadChronologicalStats() {
-		List<MealStats> stats = mealStatsRepository.findAllByOrderByStatsDateAscMealNoAsc();
+	/**
+	 * Loads the snapshots of the days from {@code from} through {@code to}
+	 * through the {@code statsDate} index.
+	 *
+	 * @param from first day in IST, or {@code null} for the whole history
+	 * @param to   last day in IST, or {@code null} for up to today
+	 */
+	public List<MealStats> loadStats(LocalDate from, LocalDate to) {
+		statsStorage.awaitReady();
+		List<MealStats> stats = mealStatsRepository.findByStatsDateBetweenOrderByStatsDateAscMealNoAsc(
+				StatsGranularity.DAY.covering(from, to, MealStatsScheduler.IST_ZONE));
 		if (logger.isDebugEnabled()) {
-			logger.debug("Loaded {} meal stats records", stats.size());
+			logger.debug("Loaded {} meal stats records from={} to={}", stats.size(), from, to);
 		}
 		return stats;
 	}
 
-	private boolean isVegPreference(Tenant tenant) {
-		String preference = tenant.getMealPreference();
-		if (preference == null) {
-			return false;
+	/**
+	 * Streams the same snapshots as {@link #loadStats(LocalDate, LocalDate)}
+	 * from a cursor; close the stream when done.
+	 */
+	public Stream<MealStats> streamStats(LocalDate from, LocalDate to) {
+		statsStorage.awaitReady();
+		return mealStatsRepository.streamByStatsDateBetweenOrderByStatsDateAscMealNoAsc(
+				StatsGranularity.DAY.covering(from, to, MealStatsScheduler.IST_ZONE));
+	}
+
+	/**
+	 * Loads the weekly or monthly rollups of every period overlapping
+	 * {@code from} through {@code to}.
+	 *
+	 * @see #loadStats(LocalDate, LocalDate)
+	 */
+	public List<MealStatsRollup> loadRollups(StatsGranularity granularity, LocalDate from, LocalDate to) {
+		statsStorage.awaitReady();
+		List<MealStatsRollup> rollups = mealStatsRollupRepository
+				.findByGranularityAndPeriodStartBetweenOrderByPeriodStartAscMealNoAsc(granularity,
+						granularity.covering(from, to, MealStatsScheduler.IST_ZONE));
+		if (logger.isDebugEnabled()) {
+			logger.debug("Loaded {} {} meal stats rollups from={} to={}", rollups.size(), granularity, from, to);
 		}
+		return rollups;
+	}
 
-		String normalized = preference.toLowerCase(Locale.ROOT).replace(" ", "").replace("-", "");
-		return normalized.equals("veg") || normalized.equals("vegetarian");
+	/**
+	 * Rewrites the week and month containing {@code statsDate} from their
+	 * snapshots, a few dozen documents at most. Rewriting whole periods keeps
+	 * a recaptured snapshot from being counted twice, and a failure is repaired
+	 * by the next capture in the same period.
+	 */
+	private void refreshRollups(Date statsDate) {
+		LocalDate day = LocalDate.ofInstant(statsDate.toInstant(), MealStatsScheduler.IST_ZONE);
+		try {
+			for (StatsGranularity granularity : ROLLED_UP) {
+				List<MealStats> period = mealStatsRepository.findByStatsDateBetweenOrderByStatsDateAscMealNoAsc(
+						granularity.covering(day, day, MealStatsScheduler.IST_ZONE));
+				mealStatsRollupRepository.saveAll(rollUp(granularity, period));
+			}
+		} catch (RuntimeException e) {
+			logger.error("Failed to refresh meal stats rollups for {}: {}", day, e.getMessage());
+		}
+	}
+
+	/** Sums {@code snapshots} per period of {@code granularity} and meal. */
+	static List<MealStatsRollup> rollUp(StatsGranularity granularity, List<MealStats> snapshots) {
+		Map<String, MealStatsRollup> rollups = new LinkedHashMap<>();
+		Instant now = Instant.now();
+		for (MealStats stats : snapshots) {
+			LocalDate periodStart = granularity
+					.periodStart(LocalDate.ofInstant(stats.getStatsDate().toInstant(), MealStatsScheduler.IST_ZONE));
+			String id = granularity + ":" + periodStart + ":" + stats.getMealNo();
+			MealStatsRollup rollup = rollups.computeIfAbsent(id, key -> new MealStatsRollup(key, granularity,
+					Date.from(periodStart.atStartOfDay(MealStatsScheduler.IST_ZONE).toInstant()), stats.getMealNo()));
+			rollup.setSamples(rollup.getSamples() + 1);
+			rollup.setTotalCountSum(rollup.getTotalCountSum() + stats.getTotalCount());
+			rollup.setVegCountSum(rollup.getVegCountSum() + stats.getVegCount());
+			rollup.setNonVegCountSum(rollup.getNonVegCountSum() + stats.getNonVegCount());
+			rollup.setUpdatedAt(now);
+		}
+		return List.copyOf(rollups.values());
 	}
 
 	public record MealSnapshot(long totalCount, long vegCount, long nonVegCount) {
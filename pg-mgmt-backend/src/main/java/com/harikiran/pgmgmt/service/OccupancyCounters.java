@@ -0,0 +1,305 @@
+package com.harikiran.pgmgmt.service;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.harikiran.pgmgmt.model.Room;
+import com.harikiran.pgmgmt.model.Tenant;
+import com.harikiran.pgmgmt.repository.RoomRepository;
+import com.harikiran.pgmgmt.repository.RoomRepositoryCustom.RoomBeds;
+import com.harikiran.pgmgmt.repository.TenantRepository;
+import com.harikiran.pgmgmt.repository.TenantRepositoryCustom.MealPreference;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Live dashboard counts kept in {@link LongAdder}s: active tenants with a room,
+ * veg and non-veg among them, total capacity and allocated beds, property-wide
+ * and per floor.
+ *
+ * <p>
+ * The counters follow {@link TenantChangedEvent} and {@link RoomChangedEvent},
+ * which every tenant and room write publishes. The last counted share of each
+ * tenant and room is remembered, so a change only adds its difference and a
+ * read is a sum of adders. Shares are seeded from two projecting aggregations
+ * once the application is ready and rebuilt the same way every
+ * {@code app.dashboard.counters.reconcile-interval}, which corrects any drift;
+ * writes that race with a rebuild win over the aggregated copy. The counters
+ * are also published as gauges.
+ * </p>
+ */
+@Service
+public class OccupancyCounters {
+
+	private static final Logger logger = LoggerFactory.getLogger(OccupancyCounters.class);
+
+	private static final Comparator<FloorCounts> BY_FLOOR = Comparator.comparing(FloorCounts::floorNo,
+			Comparator.nullsFirst(Comparator.naturalOrder()));
+
+	private final TenantRepository tenantRepository;
+	private final RoomRepository roomRepository;
+	private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+	private final ReentrantLock reconciling = new ReentrantLock();
+	private final LongAdder active = new LongAdder();
+	private final LongAdder veg = new LongAdder();
+	private final LongAdder nonVeg = new LongAdder();
+	private final LongAdder capacity = new LongAdder();
+	private final LongAdder allocated = new LongAdder();
+	private final Map<String, FloorBeds> floors = new ConcurrentHashMap<>();
+	private final Set<String> tenantsChangedDuringLoad = ConcurrentHashMap.newKeySet();
+	private final Set<String> roomsChangedDuringLoad = ConcurrentHashMap.newKeySet();
+	// Counted tenants only, mapped to whether they prefer veg
+	private Map<String, Boolean> tenants = new ConcurrentHashMap<>();
+	private Map<String, RoomBeds> rooms = new ConcurrentHashMap<>();
+	private volatile boolean loading;
+	private volatile boolean ready;
+
+	public OccupancyCounters(TenantRepository tenantRepository, RoomRepository roomRepository,
+			MeterRegistry meterRegistry) {
+		this.tenantRepository = tenantRepository;
+		this.roomRepository = roomRepository;
+		Gauge.builder("dashboard.tenants.active", active, this::read).description("Active tenants with a room")
+				.register(meterRegistry);
+		Gauge.builder("dashboard.tenants.meal", veg, this::read).tag("preference", "veg")
+				.description("Active tenants with a room by meal preference").register(meterRegistry);
+		Gauge.builder("dashboard.tenants.meal", nonVeg, this::read).tag("preference", "non-veg")
+				.description("Active tenants with a room by meal preference").register(meterRegistry);
+		Gauge.builder("dashboard.beds", capacity, this::read).tag("kind", "capacity")
+				.description("Beds across all rooms").register(meterRegistry);
+		Gauge.builder("dashboard.beds", allocated, this::read).tag("kind", "allocated")
+				.description("Beds across all rooms").register(meterRegistry);
+	}
+
+	@EventListener(ApplicationReadyEvent.class)
+	public void onApplicationReady() {
+		Thread.ofVirtual().name("occupancy-counters").start(this::reconcile);
+	}
+
+	@Scheduled(fixedDelayString = "${app.dashboard.counters.reconcile-interval:PT15M}",
+			initialDelayString = "${app.dashboard.counters.reconcile-interval:PT15M}")
+	public void reconcile() {
+		// A lock rather than synchronized, so the virtual thread does not pin its carrier while Mongo is slow
+		reconciling.lock();
+		try (Stream<MealPreference> tenantShares = tenantRepository.streamActiveMealPreferences();
+				Stream<RoomBeds> roomBeds = roomRepository.streamBeds()) {
+			load(tenantShares, roomBeds);
+		} catch (RuntimeException e) {
+			logger.error("Failed to load occupancy counters: {}", e.getMessage());
+		} finally {
+			reconciling.unlock();
+		}
+	}
+
+	void load(Stream<MealPreference> tenantShares, Stream<RoomBeds> roomBeds) {
+		lock.writeLock().lock();
+		try {
+			tenantsChangedDuringLoad.clear();
+			roomsChangedDuringLoad.clear();
+			loading = true;
+		} finally {
+			lock.writeLock().unlock();
+		}
+
+		Map<String, Boolean> loadedTenants = new ConcurrentHashMap<>();
+		Map<String, RoomBeds> loadedRooms = new ConcurrentHashMap<>();
+		try {
+			tenantShares.forEach(share -> loadedTenants.put(share.tenantId(), share.veg()));
+			roomBeds.forEach(room -> loadedRooms.put(room.roomId(), room));
+		} catch (RuntimeException e) {
+			loading = false;
+			throw e;
+		}
+
+		lock.writeLock().lock();
+		try {
+			tenantsChangedDuringLoad.forEach(id -> copy(tenants, loadedTenants, id));
+			roomsChangedDuringLoad.forEach(id -> copy(rooms, loadedRooms, id));
+			loading = false;
+			Counts before = ready ? snapshot() : null;
+			tenants = loadedTenants;
+			rooms = loadedRooms;
+			recount();
+			ready = true;
+
+			Counts after = snapshot();
+			if (before != null && !before.equals(after) && logger.isInfoEnabled()) {
+				logger.info("Corrected occupancy counters from {} to {}", before, after);
+			}
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	@EventListener
+	public void onTenantChanged(TenantChangedEvent event) {
+		if (event.tenantId() == null) {
+			return;
+		}
+
+		Boolean share = event.isDeleted() ? null : share(event.tenant());
+		lock.readLock().lock();
+		try {
+			if (loading) {
+				tenantsChangedDuringLoad.add(event.tenantId());
+			}
+			tenants.compute(event.tenantId(), (id, previous) -> {
+				countTenant(previous, -1);
+				countTenant(share, 1);
+				return share;
+			});
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	@EventListener
+	public void onRoomChanged(RoomChangedEvent event) {
+		if (event.roomId() == null) {
+			return;
+		}
+
+		Room room = event.room();
+		RoomBeds beds = event.isDeleted() ? null
+				: new RoomBeds(room.getId(), room.getFloorNo(), room.getCapacity(), room.getAllocatedCount());
+		lock.readLock().lock();
+		try {
+			if (loading) {
+				roomsChangedDuringLoad.add(event.roomId());
+			}
+			rooms.compute(event.roomId(), (id, previous) -> {
+				countRoom(previous, -1);
+				countRoom(beds, 1);
+				return beds;
+			});
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	public boolean isReady() {
+		return ready;
+	}
+
+	/**
+	 * Returns the current counts; each one is a sum of adders, and the floors
+	 * are as many as there are floors, not rooms.
+	 */
+	public Counts snapshot() {
+		lock.readLock().lock();
+		try {
+			List<FloorCounts> floorCounts = floors.values().stream().filter(floor -> floor.rooms.sum() > 0)
+					.map(FloorBeds::counts).sorted(BY_FLOOR).toList();
+			return new Counts(active.sum(), veg.sum(), nonVeg.sum(), capacity.sum(), allocated.sum(), floorCounts);
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Whether a preference counts as veg: lower-cased without spaces or hyphens
+	 * it is veg or vegetarian, as in
+	 * {@link TenantRepository#countActiveMealPreferences()}.
+	 */
+	static boolean isVeg(String preference) {
+		if (preference == null) {
+			return false;
+		}
+
+		String normalized = preference.toLowerCase(Locale.ROOT).replace(" ", "").replace("-", "");
+		return normalized.equals("veg") || normalized.equals("vegetarian");
+	}
+
+	private static Boolean share(Tenant tenant) {
+		return tenant.isActive() && tenant.getRoomNo() != null ? isVeg(tenant.getMealPreference()) : null;
+	}
+
+	private void countTenant(Boolean isVeg, int sign) {
+		if (isVeg == null) {
+			return;
+		}
+		active.add(sign);
+		(isVeg ? veg : nonVeg).add(sign);
+	}
+
+	private void countRoom(RoomBeds room, int sign) {
+		if (room == null) {
+			return;
+		}
+		capacity.add(sign * room.capacity());
+		allocated.add(sign * room.allocated());
+		String floor = room.floorNo() == null ? "" : room.floorNo();
+		floors.computeIfAbsent(floor, FloorBeds::new).add(room, sign);
+	}
+
+	/** Rebuilds every adder from the remembered shares; holds the write lock. */
+	private void recount() {
+		for (LongAdder adder : List.of(active, veg, nonVeg, capacity, allocated)) {
+			adder.reset();
+		}
+		floors.clear();
+		tenants.values().forEach(isVeg -> countTenant(isVeg, 1));
+		rooms.values().forEach(room -> countRoom(room, 1));
+	}
+
+	private double read(LongAdder adder) {
+		return ready ? adder.sum() : Double.NaN;
+	}
+
+	private static <V> void copy(Map<String, V> from, Map<String, V> to, String id) {
+		V value = from.get(id);
+		if (value == null) {
+			to.remove(id);
+		} else {
+			to.put(id, value);
+		}
+	}
+
+	/**
+	 * @param floors beds per floor ordered by floor number; rooms without a floor
+	 *               come first with a {@code null} floor
+	 */
+	public record Counts(long active, long veg, long nonVeg, long capacity, long allocated,
+			List<FloorCounts> floors) {
+	}
+
+	public record FloorCounts(String floorNo, long rooms, long capacity, long allocated) {
+	}
+
+	private static final class FloorBeds {
+
+		final String floorNo;
+		final LongAdder rooms = new LongAdder();
+		final LongAdder capacity = new LongAdder();
+		final LongAdder allocated = new LongAdder();
+
+		FloorBeds(String floorNo) {
+			this.floorNo = floorNo;
+		}
+
+		void add(RoomBeds room, int sign) {
+			rooms.add(sign);
+			capacity.add(sign * room.capacity());
+			allocated.add(sign * room.allocated());
+		}
+
+		FloorCounts counts() {
+			return new FloorCounts(floorNo.isEmpty() ? null : floorNo, rooms.sum(), capacity.sum(), allocated.sum());
+		}
+	}
+}
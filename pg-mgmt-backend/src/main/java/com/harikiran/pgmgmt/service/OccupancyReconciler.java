@@ -0,0 +1,344 @@
+package com.harikiran.pgmgmt.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.BulkOperations.BulkMode;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+import org.springframework.data.mongodb.core.aggregation.AggregationUpdate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.harikiran.pgmgmt.dto.OccupancyReport;
+import com.harikiran.pgmgmt.dto.OccupancyReport.RoomDrift;
+import com.harikiran.pgmgmt.model.Room;
+import com.harikiran.pgmgmt.model.Tenant;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Repairs {@code Room.tenantIds} and {@code Room.allocatedCount} from
+ * {@code Tenant.roomNo}, which is taken as the truth.
+ *
+ * <p>
+ * The comparison runs entirely in MongoDB: one aggregation groups
+ * {@code tenants} by {@code roomNo}, adds every room number from {@code rooms}
+ * with {@code $unionWith}, looks each room up through its unique
+ * {@code roomNo} index and returns only the rooms that disagree. Rooms are then
+ * repaired with one {@code bulkWrite}, each update guarded by the version that
+ * was compared. An update removes only ids whose tenants, read again, still
+ * point elsewhere and adds only those that point at the room, so an
+ * assignment made since the comparison survives. Tenants whose room was
+ * deleted lose their {@code roomNo} with another. A tenant whose room is
+ * missing but who is still listed by some other room is left alone, as is
+ * that room, because that is what a rename looks like. Drift found by the last
+ * run is exported as the {@code rooms.occupancy.drift} gauge.
+ * </p>
+ */
+@Service
+public class OccupancyReconciler {
+
+	private static final Logger logger = LoggerFactory.getLogger(OccupancyReconciler.class);
+
+	private final MongoTemplate mongoTemplate;
+	private final ApplicationEventPublisher eventPublisher;
+	private final ReentrantLock running = new ReentrantLock();
+	private final AtomicInteger driftedRooms = new AtomicInteger();
+	private final AtomicInteger orphanedTenants = new AtomicInteger();
+	private final Counter repairedRooms;
+	private final Counter releasedTenants;
+	private final Timer duration;
+
+	public OccupancyReconciler(MongoTemplate mongoTemplate, ApplicationEventPublisher eventPublisher,
+			MeterRegistry meterRegistry) {
+		this.mongoTemplate = mongoTemplate;
+		this.eventPublisher = eventPublisher;
+		Gauge.builder("rooms.occupancy.drift", driftedRooms, AtomicInteger::get).tag("kind", "rooms")
+				.description("Rooms whose occupants disagreed with tenants in the last reconciliation")
+				.register(meterRegistry);
+		Gauge.builder("rooms.occupancy.drift", orphanedTenants, AtomicInteger::get).tag("kind", "orphaned-tenants")
+				.description("Tenants pointing at a missing room in the last reconciliation")
+				.register(meterRegistry);
+		this.repairedRooms = Counter.builder("rooms.occupancy.repairs").tag("kind", "rooms").register(meterRegistry);
+		this.releasedTenants = Counter.builder("rooms.occupancy.repairs").tag("kind", "tenants")
+				.register(meterRegistry);
+		this.duration = Timer.builder("rooms.occupancy.reconcile").register(meterRegistry);
+	}
+
+	@Scheduled(cron = "${app.rooms.reconcile-cron:0 30 4 * * *}", zone = "Asia/Kolkata")
+	public void reconcileNightly() {
+		if (!running.tryLock()) {
+			logger.info("Skipping scheduled occupancy reconciliation; one is already running");
+			return;
+		}
+		try {
+			run(false);
+		} finally {
+			running.unlock();
+		}
+	}
+
+	/**
+	 * Finds and, unless {@code dryRun}, repairs occupancy drift.
+	 *
+	 * @throws IllegalStateException when a reconciliation is already running
+	 */
+	public OccupancyReport reconcile(boolean dryRun) {
+		if (!running.tryLock()) {
+			throw new IllegalStateException("An occupancy reconciliation is already running");
+		}
+		try {
+			return run(dryRun);
+		} finally {
+			running.unlock();
+		}
+	}
+
+	private OccupancyReport run(boolean dryRun) {
+		long start = System.nanoTime();
+		List<Drift> drifts = findDrift();
+		driftedRooms.set((int) drifts.stream().filter(drift -> !drift.room().roomMissing()).count());
+		orphanedTenants.set(drifts.stream().filter(drift -> drift.room().roomMissing())
+				.mapToInt(drift -> drift.room().actual().size()).sum());
+
+		List<RoomDrift> rooms = drifts.stream().map(Drift::room).toList();
+		OccupancyReport report = dryRun || drifts.isEmpty() ? new OccupancyReport(dryRun, rooms, 0, 0, List.of())
+				: repair(drifts, rooms);
+		duration.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+
+		if (logger.isInfoEnabled()) {
+			logger.info("Occupancy reconciliation dryRun={} driftedRooms={} orphanedTenants={} repaired={} skipped={}",
+					dryRun, driftedRooms.get(), orphanedTenants.get(), report.repairedRooms(),
+					report.skipped().size());
+		}
+		return report;
+	}
+
+	/**
+	 * Runs the comparison aggregation; only rooms that disagree, and room
+	 * numbers with tenants but no room, reach the application.
+	 */
+	List<Drift> findDrift() {
+		String rooms = mongoTemplate.getCollectionName(Room.class);
+		Document hasRoomNo = new Document("roomNo", new Document("$type", "string"));
+		Document roomNumbers = new Document("coll", rooms).append("pipeline", List.of(new Document("$match", hasRoomNo),
+				new Document("$project", new Document("_id", 0).append("roomNo", 1))));
+		// Rooms contribute their number with no tenant, so empty rooms are compared too
+		Document actual = new Document("$filter",
+				new Document("input", "$actual").append("cond", new Document("$ne", Arrays.asList("$$this", null))));
+		Document recorded = new Document("$ifNull", List.of("$room.tenantIds", List.of()));
+		Document actualSize = new Document("$size", "$actual");
+		Document disagrees = new Document("$or", List.of(
+				new Document("$eq", List.of(new Document("$type", "$roomId"), "missing")),
+				new Document("$ne", List.of(new Document("$size", "$recorded"), actualSize)),
+				new Document("$ne", List.of("$allocatedCount", actualSize)),
+				new Document("$not", List.of(new Document("$setEquals", List.of("$recorded", "$actual"))))));
+
+		Aggregation aggregation = Aggregation.newAggregation(
+				stage("$match", hasRoomNo),
+				stage("$project", new Document("_id", 0).append("roomNo", 1)
+						.append("tenantId", new Document("$toString", "$_id"))),
+				stage("$unionWith", roomNumbers),
+				stage("$group", new Document("_id", "$roomNo").append("actual", new Document("$push", "$tenantId"))),
+				stage("$lookup", new Document("from", rooms).append("localField", "_id")
+						.append("foreignField", "roomNo").append("as", "room")),
+				stage("$project", new Document("actual", actual)
+						.append("room", new Document("$arrayElemAt", List.of("$room", 0)))),
+				stage("$project", new Document("actual", 1).append("recorded", recorded)
+						.append("roomId", "$room._id").append("version", "$room.version")
+						.append("allocatedCount", new Document("$ifNull", List.of("$room.allocatedCount", 0)))),
+				stage("$match", new Document("$expr", disagrees)))
+				.withOptions(Aggregation.newAggregationOptions().allowDiskUse(true).build());
+
+		List<Drift> drifts = new ArrayList<>();
+		for (Document row : mongoTemplate.aggregate(aggregation, Tenant.class, Document.class)) {
+			Object roomId = row.get("roomId");
+			Number version = row.get("version", Number.class);
+			RoomDrift room = new RoomDrift(row.getString("_id"), roomId == null ? null : roomId.toString(),
+					row.getList("recorded", String.class), row.get("allocatedCount", Number.class).intValue(),
+					row.getList("actual", String.class));
+			drifts.add(new Drift(room, version == null ? null : version.longValue()));
+		}
+		return drifts;
+	}
+
+	private OccupancyReport repair(List<Drift> drifts, List<RoomDrift> rooms) {
+		BulkOperations roomBulk = mongoTemplate.bulkOps(BulkMode.UNORDERED, Room.class);
+		BulkOperations tenantBulk = mongoTemplate.bulkOps(BulkMode.UNORDERED, Tenant.class);
+		List<String> roomIds = new ArrayList<>();
+		List<String> tenantIds = new ArrayList<>();
+		List<String> skipped = new ArrayList<>();
+		Map<String, String> holders = findHolders(drifts);
+		Map<String, String> roomNos = currentRoomNos(drifts);
+		Map<String, List<String>> expected = new HashMap<>();
+		if (!holders.isEmpty()) {
+			logger.warn("Not releasing {} tenant(s) whose room is missing; rooms {} still list them", holders.size(),
+					new HashSet<>(holders.values()));
+		}
+		for (Drift drift : drifts) {
+			RoomDrift room = drift.room();
+			if (room.roomMissing()) {
+				List<String> release = room.actual().stream().filter(tenantId -> !holders.containsKey(tenantId))
+						.toList();
+				if (release.size() < room.actual().size()) {
+					skipped.add(room.roomNo());
+				}
+				if (!release.isEmpty()) {
+					tenantBulk.updateMulti(
+							Query.query(Criteria.where("id").in(release).and("roomNo").is(room.roomNo())),
+							new Update().unset("roomNo").inc("version", 1));
+					tenantIds.addAll(release);
+				}
+				continue;
+			}
+			if (holders.containsValue(room.roomNo())) {
+				// Emptying it would lose the only record of where its tenants went
+				skipped.add(room.roomNo());
+				continue;
+			}
+
+			// Tenants are added to a room before they point at it, so re-check both sides now
+			Set<String> actual = new HashSet<>(room.actual());
+			Set<String> recorded = new HashSet<>(room.recorded());
+			List<String> extra = room.recorded().stream().filter(tenantId -> !actual.contains(tenantId))
+					.filter(tenantId -> !room.roomNo().equals(roomNos.get(tenantId))).toList();
+			List<String> missing = room.actual().stream().filter(tenantId -> !recorded.contains(tenantId))
+					.filter(tenantId -> room.roomNo().equals(roomNos.get(tenantId))).toList();
+			List<String> repairedIds = new ArrayList<>(room.recorded());
+			repairedIds.removeAll(extra);
+			repairedIds.addAll(missing);
+			expected.put(room.roomId(), repairedIds);
+
+			// Bulk writes bypass the template's @Version handling.
+			roomBulk.updateOne(Query.query(Criteria.where("id").is(room.roomId()).and("version").is(drift.version())),
+					occupantsUpdate(extra, missing));
+			roomIds.add(room.roomId());
+		}
+
+		int repaired = roomIds.isEmpty() ? 0 : roomBulk.execute().getModifiedCount();
+		int released = tenantIds.isEmpty() ? 0 : tenantBulk.execute().getModifiedCount();
+		repairedRooms.increment(repaired);
+		releasedTenants.increment(released);
+
+		// The bulk writes return no documents; re-read each side once for listeners
+		if (!roomIds.isEmpty()) {
+			Map<String, Room> current = new HashMap<>();
+			mongoTemplate.find(Query.query(Criteria.where("id").in(roomIds)), Room.class).forEach(room -> {
+				current.put(room.getId(), room);
+				eventPublisher.publishEvent(RoomChangedEvent.saved(room));
+			});
+			if (repaired < roomIds.size()) {
+				drifts.stream().map(Drift::room).filter(room -> roomIds.contains(room.roomId()))
+						.filter(room -> !holdsExactly(current.get(room.roomId()), expected.get(room.roomId())))
+						.forEach(room -> skipped.add(room.roomNo()));
+			}
+		}
+		if (!tenantIds.isEmpty()) {
+			mongoTemplate.find(Query.query(Criteria.where("id").in(tenantIds)), Tenant.class)
+					.forEach(tenant -> eventPublisher.publishEvent(TenantChangedEvent.saved(tenant)));
+		}
+		return new OccupancyReport(false, rooms, repaired, released, skipped);
+	}
+
+	/**
+	 * Removes {@code extra} from and adds {@code missing} to a room's tenants,
+	 * leaving any other id in place, and recounts them in the same write. A
+	 * tenant assigned since the comparison is therefore never dropped.
+	 */
+	private static AggregationUpdate occupantsUpdate(List<String> extra, List<String> missing) {
+		Document recorded = new Document("$ifNull", List.of("$tenantIds", List.of()));
+		Document notExtra = new Document("$not",
+				List.of(new Document("$in", List.of("$$this", new Document("$literal", extra)))));
+		Document notRecorded = new Document("$not", List.of(new Document("$in", List.of("$$this", recorded))));
+		Document kept = new Document("$filter", new Document("input", recorded).append("cond", notExtra));
+		Document added = new Document("$filter",
+				new Document("input", new Document("$literal", missing)).append("cond", notRecorded));
+		return AggregationUpdate.from(List.of(
+				stage("$set", new Document("tenantIds", new Document("$concatArrays", List.of(kept, added)))),
+				stage("$set", new Document("allocatedCount", new Document("$size", "$tenantIds")).append("version",
+						new Document("$add", List.of(new Document("$ifNull", List.of("$version", 0)), 1))))));
+	}
+
+	/**
+	 * Reads the current {@code roomNo} of every tenant whose room is to be
+	 * rewritten, as the comparison may have seen an assignment half done.
+	 */
+	private Map<String, String> currentRoomNos(List<Drift> drifts) {
+		Set<String> tenantIds = new HashSet<>();
+		drifts.stream().map(Drift::room).filter(room -> !room.roomMissing()).forEach(room -> {
+			tenantIds.addAll(room.recorded());
+			tenantIds.addAll(room.actual());
+		});
+		Map<String, String> roomNos = new HashMap<>();
+		if (tenantIds.isEmpty()) {
+			return roomNos;
+		}
+		Query query = Query.query(Criteria.where("id").in(tenantIds));
+		query.fields().include("roomNo");
+		for (Tenant tenant : mongoTemplate.find(query, Tenant.class)) {
+			if (tenant.getRoomNo() != null) {
+				roomNos.put(tenant.getId(), tenant.getRoomNo());
+			}
+		}
+		return roomNos;
+	}
+
+	/**
+	 * Maps each tenant pointing at a missing room that some room still lists to
+	 * that room's number. A room renamed before its tenants were moved looks like
+	 * this, and releasing them would drop them from the renamed room too.
+	 */
+	private Map<String, String> findHolders(List<Drift> drifts) {
+		List<String> orphans = drifts.stream().map(Drift::room).filter(RoomDrift::roomMissing)
+				.flatMap(room -> room.actual().stream()).toList();
+		Map<String, String> holders = new HashMap<>();
+		if (orphans.isEmpty()) {
+			return holders;
+		}
+		Query query = Query.query(Criteria.where("tenantIds").in(orphans));
+		query.fields().include("roomNo").include("tenantIds");
+		Set<String> wanted = new HashSet<>(orphans);
+		for (Room room : mongoTemplate.find(query, Room.class)) {
+			room.getTenantIds().stream().filter(wanted::contains)
+					.forEach(tenantId -> holders.put(tenantId, room.getRoomNo()));
+		}
+		return holders;
+	}
+
+	private static boolean holdsExactly(Room room, List<String> tenantIds) {
+		return room != null && room.getTenantIds() != null && room.getAllocatedCount() == tenantIds.size()
+				&& room.getTenantIds().size() == tenantIds.size() && room.getTenantIds().containsAll(tenantIds);
+	}
+
+	private static AggregationOperation stage(String operator, Document body) {
+		return context -> new Document(operator, body);
+	}
+
+	/**
+	 * @param version the room version that was compared, {@code null} when the
+	 *                room predates versioning or does not exist
+	 */
+	record Drift(RoomDrift room, Long version) {
+	}
+}
@@ -0,0 +1,148 @@
+package com.harikiran.pgmgmt.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.mongodb.MongoDatabaseFactory;
+import org.springframework.data.mongodb.MongoTransactionManager;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.harikiran.pgmgmt.model.Room;
+import com.harikiran.pgmgmt.model.Tenant;
+import com.harikiran.pgmgmt.repository.RoomRepository;
+import com.harikiran.pgmgmt.repository.TenantRepository;
+import com.mongodb.client.MongoClient;
+import com.mongodb.connection.ClusterType;
+
+/**
+ * Moves tenants between rooms without the read-check-write races of loading
+ * and saving whole room documents.
+ *
+ * <p>
+ * A move is at most three atomic writes: a capacity-guarded add to the new
+ * room, a targeted update of the tenant's {@code roomNo} that returns the room
+ * it left, and one update releasing the tenant from that room. On a replica set
+ * or sharded cluster they run in one multi-document transaction; on a
+ * standalone server they run in sequence and the room add is undone if the
+ * tenant turns out not to exist.
+ * </p>
+ */
+@Service
+public class RoomAssignmentService {
+
+	private static final Logger logger = LoggerFactory.getLogger(RoomAssignmentService.class);
+
+	private final TenantRepository tenantRepo;
+	private final RoomRepository roomRepo;
+	private final MongoClient mongoClient;
+	private final TransactionTemplate transactionTemplate;
+	private final ApplicationEventPublisher eventPublisher;
+
+	public RoomAssignmentService(TenantRepository tenantRepo, RoomRepository roomRepo, MongoClient mongoClient,
+			MongoDatabaseFactory databaseFactory, ApplicationEventPublisher eventPublisher) {
+		this.tenantRepo = tenantRepo;
+		this.roomRepo = roomRepo;
+		this.mongoClient = mongoClient;
+		this.transactionTemplate = new TransactionTemplate(new MongoTransactionManager(databaseFactory));
+		this.eventPublisher = eventPublisher;
+	}
+
+	/**
+	 * Assigns a tenant to a room, or releases it from its room when
+	 * {@code roomNo} is {@code null}.
+	 *
+	 * @return the updated tenant, or empty when no tenant has that id
+	 * @throws RoomUnavailableException when the room does not exist or is full
+	 */
+	public Optional<Tenant> moveTenant(String tenantId, String roomNo) {
+		List<Room> changedRooms = new ArrayList<>();
+		Optional<Tenant> moved;
+		if (!transactionsSupported()) {
+			moved = Optional.ofNullable(move(tenantId, roomNo, true, changedRooms));
+		} else {
+			try {
+				moved = Optional.of(transactionTemplate.execute(status -> {
+					Tenant tenant = move(tenantId, roomNo, false, changedRooms);
+					if (tenant == null) {
+						throw new TenantNotFoundException();
+					}
+					return tenant;
+				}));
+			} catch (TenantNotFoundException e) {
+				// Rolled back, so none of the room writes happened
+				changedRooms.clear();
+				moved = Optional.empty();
+			}
+		}
+
+		changedRooms.forEach(room -> eventPublisher.publishEvent(RoomChangedEvent.saved(room)));
+		moved.ifPresent(tenant -> eventPublisher.publishEvent(TenantChangedEvent.saved(tenant)));
+		return moved;
+	}
+
+	/**
+	 * Runs the three writes of a move, collecting the resulting state of every
+	 * room written in {@code changedRooms} in write order.
+	 */
+	private Tenant move(String tenantId, String roomNo, boolean compensate, List<Room> changedRooms) {
+		if (roomNo != null) {
+			Room assigned = roomRepo.assignTenant(roomNo, tenantId)
+					.orElseThrow(() -> new RoomUnavailableException(roomNo));
+			changedRooms.add(assigned);
+		}
+
+		Tenant tenant = tenantRepo.updateRoomNo(tenantId, roomNo).orElse(null);
+		if (tenant == null) {
+			if (compensate && roomNo != null) {
+				roomRepo.releaseTenantFrom(tenantId, roomNo).ifPresent(changedRooms::add);
+			}
+			return null;
+		}
+
+		String previousRoomNo = tenant.getRoomNo();
+		if (previousRoomNo != null && !previousRoomNo.equals(roomNo)) {
+			Optional<Room> released = roomRepo.releaseTenantFrom(tenantId, previousRoomNo);
+			if (released.isPresent()) {
+				changedRooms.add(released.get());
+			} else {
+				// The rooms disagree with the tenant; sweep every other membership
+				changedRooms.addAll(roomRepo.releaseTenant(tenantId, roomNo));
+			}
+		}
+
+		// The update only touched roomNo and version, so apply them to the old copy
+		tenant.setRoomNo(roomNo);
+		tenant.setVersion(tenant.getVersion() == null ? 1 : tenant.getVersion() + 1);
+		if (logger.isDebugEnabled()) {
+			logger.debug("Moved tenant {} from room {} to room {}", tenantId, previousRoomNo, roomNo);
+		}
+		return tenant;
+	}
+
+	private boolean transactionsSupported() {
+		ClusterType type = mongoClient.getClusterDescription().getType();
+		return type == ClusterType.REPLICA_SET || type == ClusterType.SHARDED;
+	}
+
+	/**
+	 * Raised when the requested room does not exist or has no free bed.
+	 */
+	public static class RoomUnavailableException extends RuntimeException {
+
+		private static final long serialVersionUID = 1L;
+
+		public RoomUnavailableException(String roomNo) {
+			super("Room " + roomNo + " does not exist or is full");
+		}
+	}
+
+	private static class TenantNotFoundException extends RuntimeException {
+
+		private static final long serialVersionUID = 1L;
+	}
+}
@@ -0,0 +1,26 @@
+package com.harikiran.pgmgmt.service;
+
+import com.harikiran.pgmgmt.model.Room;
+
+/**
+ * Published after a room document is created, changed or deleted so
+ * in-memory views of the rooms collection can update incrementally.
+ *
+ * @param roomId identifier of the affected room
+ * @param room   the room as stored after the write, or {@code null} when it was
+ *               deleted
+ */
+public record RoomChangedEvent(String roomId, Room room) {
+
+	public static RoomChangedEvent saved(Room room) {
+		return new RoomChangedEvent(room.getId(), room);
+	}
+
+	public static RoomChangedEvent deleted(String roomId) {
+		return new RoomChangedEvent(roomId, null);
+	}
+
+	public boolean isDeleted() {
+		return room == null;
+	}
+}
@@ -0,0 +1,204 @@
+package com.harikiran.pgmgmt.service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import com.harikiran.pgmgmt.dto.RoomVacancy;
+import com.harikiran.pgmgmt.model.Room;
+
+/**
+ * Live in-memory view of free beds per room, answering vacancy lookups without
+ * a database query.
+ *
+ * <p>
+ * Rooms with at least one free bed are kept in sorted sets ordered by free
+ * beds, then room number: one for the whole property and one per floor. A
+ * lookup is a {@code tailSet} seek followed by reading {@code limit} entries,
+ * so it costs O(log n + limit) however many rooms there are. Free beds are
+ * counted from {@code tenantIds}, the same measure the capacity-guarded
+ * assignment uses; rooms with a capacity of zero are unbounded and rank last.
+ * The index loads in the background once the application is ready and follows
+ * {@link RoomChangedEvent}s; writes that race with the initial load win over
+ * the loaded copy.
+ * </p>
+ */
+@Service
+public class RoomOccupancyIndex {
+
+	private static final Logger logger = LoggerFactory.getLogger(RoomOccupancyIndex.class);
+
+	private static final Comparator<Slot> BEST_FIT = Comparator.comparingInt(Slot::freeBeds)
+			.thenComparing(Slot::roomNo).thenComparing(Slot::id);
+
+	private final MongoTemplate mongoTemplate;
+	private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+	private final Map<String, Slot> slotsById = new HashMap<>();
+	private final NavigableSet<Slot> vacant = new TreeSet<>(BEST_FIT);
+	private final Map<String, NavigableSet<Slot>> vacantByFloor = new HashMap<>();
+	private final Set<String> changedDuringLoad = new HashSet<>();
+	private volatile boolean ready;
+
+	public RoomOccupancyIndex(MongoTemplate mongoTemplate) {
+		this.mongoTemplate = mongoTemplate;
+	}
+
+	@EventListener(ApplicationReadyEvent.class)
+	public void onApplicationReady() {
+		Thread.ofVirtual().name("room-occupancy-index").start(() -> {
+			try (Stream<Room> rooms = mongoTemplate.stream(new Query(), Room.class)) {
+				load(rooms);
+			} catch (RuntimeException e) {
+				logger.error("Failed to load room occupancy index: {}", e.getMessage());
+			}
+		});
+	}
+
+	void load(Stream<Room> rooms) {
+		long start = System.nanoTime();
+		rooms.forEach(room -> {
+			lock.writeLock().lock();
+			try {
+				if (!changedDuringLoad.contains(room.getId())) {
+					put(room);
+				}
+			} finally {
+				lock.writeLock().unlock();
+			}
+		});
+
+		lock.writeLock().lock();
+		try {
+			changedDuringLoad.clear();
+			ready = true;
+		} finally {
+			lock.writeLock().unlock();
+		}
+		if (logger.isInfoEnabled()) {
+			logger.info("Room occupancy index loaded {} room(s) in {} ms", slotsById.size(),
+					(System.nanoTime() - start) / 1_000_000);
+		}
+	}
+
+	@EventListener
+	public void onRoomChanged(RoomChangedEvent event) {
+		if (event.roomId() == null) {
+			return;
+		}
+
+		lock.writeLock().lock();
+		try {
+			if (!ready) {
+				changedDuringLoad.add(event.roomId());
+			}
+			remove(event.roomId());
+			if (!event.isDeleted()) {
+				put(event.room());
+			}
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	public boolean isReady() {
+		return ready;
+	}
+
+	/**
+	 * Returns the rooms that best fit a placement needing {@code minFree} beds:
+	 * the fewest free beds first, so larger rooms stay available for groups.
+	 *
+	 * @param floor   only rooms on this floor, or {@code null} for any floor
+	 * @param minFree minimum number of free beds
+	 * @param limit   maximum number of rooms to return
+	 */
+	public List<RoomVacancy> findVacancies(String floor, int minFree, int limit) {
+		lock.readLock().lock();
+		try {
+			NavigableSet<Slot> candidates = floor == null ? vacant : vacantByFloor.get(floorKey(floor));
+			if (candidates == null) {
+				return List.of();
+			}
+
+			List<RoomVacancy> vacancies = new ArrayList<>(Math.min(limit, candidates.size()));
+			for (Slot slot : candidates.tailSet(new Slot(minFree, "", "", null), true)) {
+				if (vacancies.size() == limit) {
+					break;
+				}
+				vacancies.add(slot.vacancy());
+			}
+			return vacancies;
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Returns every room with at least one free bed, best fit first.
+	 */
+	public List<RoomVacancy> vacantRooms() {
+		lock.readLock().lock();
+		try {
+			return vacant.stream().map(Slot::vacancy).toList();
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	private void put(Room room) {
+		if (room.getId() == null || room.getRoomNo() == null) {
+			// Assignment is by room number, so rooms without one cannot take tenants
+			return;
+		}
+
+		int occupied = room.getTenantIds() == null ? 0 : room.getTenantIds().size();
+		int freeBeds = room.getCapacity() <= 0 ? Integer.MAX_VALUE : room.getCapacity() - occupied;
+		Slot slot = new Slot(freeBeds, room.getRoomNo(), room.getId(), room);
+		slotsById.put(room.getId(), slot);
+		if (freeBeds > 0) {
+			vacant.add(slot);
+			vacantByFloor.computeIfAbsent(floorKey(room.getFloorNo()), key -> new TreeSet<>(BEST_FIT)).add(slot);
+		}
+	}
+
+	private void remove(String roomId) {
+		Slot slot = slotsById.remove(roomId);
+		if (slot == null || !vacant.remove(slot)) {
+			return;
+		}
+
+		String floor = floorKey(slot.room().getFloorNo());
+		NavigableSet<Slot> onFloor = vacantByFloor.get(floor);
+		if (onFloor != null && onFloor.remove(slot) && onFloor.isEmpty()) {
+			vacantByFloor.remove(floor);
+		}
+	}
+
+	private static String floorKey(String floor) {
+		return floor == null ? "" : floor.trim();
+	}
+
+	private record Slot(int freeBeds, String roomNo, String id, Room room) {
+
+		RoomVacancy vacancy() {
+			return new RoomVacancy(id, roomNo, room.getFloorNo(), room.getCapacity(),
+					freeBeds == Integer.MAX_VALUE ? null : freeBeds);
+		}
+	}
+}
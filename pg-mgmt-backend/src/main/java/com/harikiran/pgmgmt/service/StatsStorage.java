@@ -0,0 +1,336 @@
+package com.harikiran.pgmgmt.service;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.bson.BsonType;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.CollectionOptions;
+import org.springframework.data.mongodb.core.CollectionOptions.TimeSeriesOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.timeseries.Granularity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.harikiran.pgmgmt.model.AllocationStats;
+import com.harikiran.pgmgmt.model.AllocationStatsRollup;
+import com.harikiran.pgmgmt.model.MealStats;
+import com.harikiran.pgmgmt.model.MealStatsRollup;
+import com.harikiran.pgmgmt.model.StatsGranularity;
+import com.harikiran.pgmgmt.service.CollectionVersions.Collection;
+import com.mongodb.MongoNamespace;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.InsertManyOptions;
+import com.mongodb.client.model.Projections;
+
+/**
+ * Storage layout and retention of the daily {@link MealStats} and
+ * {@link AllocationStats} snapshots.
+ *
+ * <p>
+ * With {@code app.stats.time-series} enabled (MongoDB 7.0 or later) both
+ * collections are native time-series collections on {@code statsDate}, with
+ * {@code mealNo} as the meal stats meta field. Existing plain collections are
+ * migrated in the background once the application is ready: renamed aside,
+ * copied into the new collection and dropped. A migration that stopped part
+ * way resumes from the renamed copy, adding only the documents not copied
+ * yet. Documents without a date in {@code statsDate}, which a time-series
+ * collection cannot hold, are moved to {@code <collection>_rejected} instead.
+ * A migration that fails moves the documents back into the plain collection,
+ * which stays in use until the next start tries again. Time-series
+ * collections cannot hold unique indexes or replace documents, so a
+ * recaptured snapshot is deleted and inserted again.
+ * </p>
+ *
+ * <p>
+ * With {@code app.stats.raw-retention} set, snapshots older than that many
+ * days are removed, by MongoDB for time-series collections and by a nightly
+ * job otherwise, as are weekly rollups of weeks that ended before then; the
+ * monthly rollups are kept. The retention is at least 31 days, so the current
+ * week and month, which captures rewrite from their snapshots, are always
+ * complete.
+ * </p>
+ */
+@Component
+public class StatsStorage {
+
+	private static final Logger logger = LoggerFactory.getLogger(StatsStorage.class);
+
+	static final Duration MINIMUM_RETENTION = Duration.ofDays(31);
+	private static final int MIGRATION_BATCH_SIZE = 1000;
+	private static final String LEGACY_SUFFIX = "_legacy";
+	private static final String REJECTED_SUFFIX = "_rejected";
+
+	private final MongoTemplate mongoTemplate;
+	private final CollectionVersions versions;
+	private final boolean timeSeries;
+	private final Set<Class<?>> timeSeriesTypes = ConcurrentHashMap.newKeySet();
+	private final Duration rawRetention;
+	private final CompletableFuture<Void> ready;
+
+	public StatsStorage(MongoTemplate mongoTemplate, CollectionVersions versions,
+			@Value("${app.stats.time-series:false}") boolean timeSeries,
+			@Value("${app.stats.raw-retention:0d}") Duration rawRetention) {
+		if (!rawRetention.isZero() && rawRetention.compareTo(MINIMUM_RETENTION) < 0) {
+			throw new IllegalArgumentException(
+					"app.stats.raw-retention must be 0 to keep everything or at least " + MINIMUM_RETENTION.toDays()
+							+ " days, was " + rawRetention);
+		}
+		this.mongoTemplate = mongoTemplate;
+		this.versions = versions;
+		this.timeSeries = timeSeries;
+		this.rawRetention = rawRetention;
+		this.ready = timeSeries ? new CompletableFuture<>() : CompletableFuture.completedFuture(null);
+		if (timeSeries) {
+			timeSeriesTypes.addAll(List.of(MealStats.class, AllocationStats.class));
+		}
+	}
+
+	@EventListener(ApplicationReadyEvent.class)
+	public void onApplicationReady() {
+		if (!timeSeries) {
+			return;
+		}
+		Thread.ofVirtual().name("stats-storage").start(() -> {
+			try {
+				prepareOrFallBack(MealStats.class, TimeSeriesOptions.timeSeries("statsDate").metaField("mealNo"));
+				prepareOrFallBack(AllocationStats.class, TimeSeriesOptions.timeSeries("statsDate"));
+			} finally {
+				ready.complete(null);
+			}
+		});
+	}
+
+	private void prepareOrFallBack(Class<?> documentType, TimeSeriesOptions options) {
+		try {
+			prepare(documentType, options);
+		} catch (RuntimeException e) {
+			logger.error("Failed to prepare a time-series collection for {}; keeping the plain one: {}",
+					documentType.getSimpleName(), e.getMessage());
+			try {
+				fallBack(documentType);
+			} catch (RuntimeException rollback) {
+				logger.error("Failed to restore the plain collection for {}: {}", documentType.getSimpleName(),
+						rollback.getMessage());
+			}
+		}
+	}
+
+	/**
+	 * Whether {@code documentType} is kept in a time-series collection, which
+	 * MongoDB indexes itself and which cannot hold unique indexes.
+	 */
+	public boolean isTimeSeries(Class<?> documentType) {
+		return timeSeriesTypes.contains(documentType);
+	}
+
+	/**
+	 * Blocks until the stats collections have their final layout, so nothing
+	 * reads them mid-migration. Returns at once when time series are disabled.
+	 */
+	public void awaitReady() {
+		ready.join();
+	}
+
+	/**
+	 * Writes a snapshot, replacing the stored one with the same {@code id}, once
+	 * the collections are ready; a snapshot written mid-migration would be lost
+	 * with the old collection.
+	 *
+	 * @param id id of the snapshot being replaced, or {@code null} for a new one
+	 */
+	public <T> T save(T stats, String id) {
+		awaitReady();
+		if (!isTimeSeries(stats.getClass())) {
+			return mongoTemplate.save(stats);
+		}
+		if (id != null) {
+			mongoTemplate.remove(Query.query(Criteria.where("_id").is(id)), stats.getClass());
+		}
+		return mongoTemplate.insert(stats);
+	}
+
+	/**
+	 * Removes snapshots and weekly rollups older than
+	 * {@code app.stats.raw-retention}; runs nightly before the first capture.
+	 */
+	@Scheduled(cron = "0 15 3 * * *", zone = "Asia/Kolkata")
+	public void applyRetention() {
+		if (rawRetention.isZero()) {
+			return;
+		}
+
+		LocalDate cutoff = LocalDate.now(AllocationStatsScheduler.IST_ZONE).minusDays(rawRetention.toDays());
+		Date cutoffDate = Date.from(cutoff.atStartOfDay(AllocationStatsScheduler.IST_ZONE).toInstant());
+		long removed = 0;
+		try {
+			Query expired = Query.query(Criteria.where("statsDate").lt(cutoffDate));
+			if (!isTimeSeries(MealStats.class)) {
+				removed += mongoTemplate.remove(expired, MealStats.class).getDeletedCount();
+			}
+			if (!isTimeSeries(AllocationStats.class)) {
+				removed += mongoTemplate.remove(expired, AllocationStats.class).getDeletedCount();
+			}
+			// Weeks starting a week before the cutoff ended before it
+			Date lastWeekStart = Date
+					.from(cutoff.minusWeeks(1).atStartOfDay(AllocationStatsScheduler.IST_ZONE).toInstant());
+			Query expiredWeeks = Query.query(Criteria.where("granularity").is(StatsGranularity.WEEK)
+					.and("periodStart").lt(lastWeekStart));
+			removed += mongoTemplate.remove(expiredWeeks, MealStatsRollup.class).getDeletedCount();
+			removed += mongoTemplate.remove(expiredWeeks, AllocationStatsRollup.class).getDeletedCount();
+		} catch (RuntimeException e) {
+			logger.error("Failed to apply stats retention before {}: {}", cutoff, e.getMessage());
+		}
+
+		if (removed > 0) {
+			versions.bump(Collection.MEAL_STATS);
+			versions.bump(Collection.ALLOCATION_STATS);
+			if (logger.isInfoEnabled()) {
+				logger.info("Removed {} stats documents from before {}", removed, cutoff);
+			}
+		}
+	}
+
+	private void prepare(Class<?> documentType, TimeSeriesOptions options) {
+		String name = mongoTemplate.getCollectionName(documentType);
+		String legacy = name + LEGACY_SUFFIX;
+		TimeSeriesOptions layout = options.granularity(Granularity.HOURS);
+		if (!rawRetention.isZero()) {
+			layout = layout.expireAfter(rawRetention);
+		}
+
+		Document info = collectionInfo(name);
+		boolean migrating = mongoTemplate.collectionExists(legacy);
+		if (info != null && !"timeseries".equals(info.getString("type"))) {
+			if (migrating) {
+				throw new IllegalStateException(name + " and " + legacy + " are both plain collections");
+			}
+			rename(name, legacy);
+			migrating = true;
+			info = null;
+		}
+
+		if (info == null) {
+			mongoTemplate.createCollection(name, CollectionOptions.empty().timeSeries(layout));
+			mongoTemplate.indexOps(name)
+					.createIndex(new Index("statsDate", Sort.Direction.ASC).named("stats_date_idx"));
+		} else {
+			mongoTemplate.getDb().runCommand(new Document("collMod", name).append("expireAfterSeconds",
+					rawRetention.isZero() ? "off" : rawRetention.toSeconds()));
+		}
+		if (migrating) {
+			migrate(legacy, name);
+		}
+	}
+
+	/**
+	 * Copies what {@code name} does not hold yet from {@code legacy}, which an
+	 * earlier attempt may have partly copied, then drops {@code legacy}.
+	 */
+	private void migrate(String legacy, String name) {
+		Copied copied = copy(legacy, name, true);
+		if (copied.rejected() > 0) {
+			// Only the rejected documents are left to keep once the copied ones are gone
+			String rejected = name + REJECTED_SUFFIX;
+			mongoTemplate.getCollection(legacy).deleteMany(Filters.type("statsDate", BsonType.DATE_TIME));
+			copy(legacy, rejected, false);
+			logger.warn("Moved {} documents of {} without a date in statsDate to {}", copied.rejected(), name,
+					rejected);
+		}
+		mongoTemplate.dropCollection(legacy);
+		if (logger.isInfoEnabled()) {
+			logger.info("Migrated {} documents of {} to a time-series collection", copied.documents(), name);
+		}
+	}
+
+	/**
+	 * Puts the plain collection of {@code documentType} back in place after a
+	 * failed migration, keeping anything written to the time-series one.
+	 */
+	private void fallBack(Class<?> documentType) {
+		String name = mongoTemplate.getCollectionName(documentType);
+		String legacy = name + LEGACY_SUFFIX;
+		if (mongoTemplate.collectionExists(legacy)) {
+			if (mongoTemplate.collectionExists(name)) {
+				copy(name, legacy, false);
+				mongoTemplate.dropCollection(name);
+			}
+			rename(legacy, name);
+		}
+		Document info = collectionInfo(name);
+		if (info == null || !"timeseries".equals(info.getString("type"))) {
+			timeSeriesTypes.remove(documentType);
+		}
+	}
+
+	private void rename(String from, String to) {
+		mongoTemplate.getCollection(from).renameCollection(new MongoNamespace(mongoTemplate.getDb().getName(), to));
+	}
+
+	private Document collectionInfo(String name) {
+		return mongoTemplate.getDb().listCollections().filter(new Document("name", name)).first();
+	}
+
+	/**
+	 * Inserts the documents of {@code from} whose {@code _id} is not in
+	 * {@code to} yet, in unordered batches.
+	 *
+	 * @param requireDate whether to leave out documents without a date in
+	 *                    {@code statsDate}, as a time-series {@code to} would
+	 *                    reject them
+	 */
+	private Copied copy(String from, String to, boolean requireDate) {
+		MongoCollection<Document> target = mongoTemplate.getCollection(to);
+		Set<Object> present = new HashSet<>();
+		target.find().projection(Projections.include("_id")).forEach(document -> present.add(document.get("_id")));
+
+		List<Document> batch = new ArrayList<>(MIGRATION_BATCH_SIZE);
+		long copied = 0;
+		long rejected = 0;
+		for (Document document : mongoTemplate.getCollection(from).find()) {
+			if (present.contains(document.get("_id"))) {
+				continue;
+			}
+			if (requireDate && !(document.get("statsDate") instanceof Date)) {
+				rejected++;
+				logger.debug("Not copying {} document {} without a date in statsDate", from, document.get("_id"));
+				continue;
+			}
+			batch.add(document);
+			if (batch.size() == MIGRATION_BATCH_SIZE) {
+				copied += insert(target, batch);
+			}
+		}
+		if (!batch.isEmpty()) {
+			copied += insert(target, batch);
+		}
+		return new Copied(copied, rejected);
+	}
+
+	private static int insert(MongoCollection<Document> target, List<Document> batch) {
+		target.insertMany(batch, new InsertManyOptions().ordered(false));
+		int inserted = batch.size();
+		batch.clear();
+		return inserted;
+	}
+
+	private record Copied(long documents, long rejected) {
+	}
+}
@@ -0,0 +1,26 @@
+package com.harikiran.pgmgmt.service;
+
+import com.harikiran.pgmgmt.model.Tenant;
+
+/**
+ * Published after a tenant document is created, changed or deleted so
+ * in-memory views of the tenants collection can update incrementally.
+ *
+ * @param tenantId identifier of the affected tenant
+ * @param tenant   the tenant as stored after the write, or {@code null} when it
+ *                 was deleted
+ */
+public record TenantChangedEvent(String tenantId, Tenant tenant) {
+
+	public static TenantChangedEvent saved(Tenant tenant) {
+		return new TenantChangedEvent(tenant.getId(), tenant);
+	}
+
+	public static TenantChangedEvent deleted(String tenantId) {
+		return new TenantChangedEvent(tenantId, null);
+	}
+
+	public boolean isDeleted() {
+		return tenant == null;
+	}
+}
@@ -9,6 +9,7 @@ import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
@@ -23,9 +24,11 @@ public class TenantDueScheduler {
 	static final ZoneId IST_ZONE = ZoneId.of("Asia/Kolkata");
 
 	private final TenantRepository tenantRepository;
+	private final ApplicationEventPublisher eventPublisher;
 
-	public TenantDueScheduler(TenantRepository tenantRepository) {
+	public TenantDueScheduler(TenantRepository tenantRepository, ApplicationEventPublisher eventPublisher) {
 		this.tenantRepository = tenantRepository;
+		this.eventPublisher = eventPublisher;
 	}
 
 	@Scheduled(cron = "0 0 6 * * *", zone = "Asia/Kolkata")
@@ -53,11 +56,18 @@ public class TenantDueScheduler {
 			return;
 		}
 
-		tenantsToUpdate.forEach(tenant -> tenant.setDue(true));
-		tenantRepository.saveAll(tenantsToUpdate);
+		// Guarded server-side so a meal toggle or renewal between the read and the
+		// write is neither overwritten nor flagged on stale data
+		List<String> ids = tenantsToUpdate.stream().map(Tenant::getId).toList();
+		Date renewedBefore = Date.from(referenceDate.plusDays(1).atStartOfDay(IST_ZONE).toInstant());
+		long marked = tenantRepository.markDue(ids, renewedBefore);
+		if (marked > 0) {
+			tenantRepository.findAllById(ids)
+					.forEach(tenant -> eventPublisher.publishEvent(TenantChangedEvent.saved(tenant)));
+		}
 
 		if (logger.isInfoEnabled()) {
-			logger.info("Marked {} tenant(s) as due based on renewal date", tenantsToUpdate.size());
+			logger.info("Marked {} tenant(s) as due based on renewal date", marked);
 		}
 
 		if (logger.isDebugEnabled()) {
@@ -0,0 +1,507 @@
+package com.harikiran.pgmgmt.service;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.IntConsumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.BulkOperations.BulkMode;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.harikiran.pgmgmt.dto.TenantImportJobStatus;
+import com.harikiran.pgmgmt.dto.TenantImportRecord;
+import com.harikiran.pgmgmt.dto.TenantImportResult;
+import com.harikiran.pgmgmt.dto.TenantImportResult.RowResult;
+import com.harikiran.pgmgmt.dto.TenantImportResult.Status;
+import com.harikiran.pgmgmt.model.Tenant;
+import com.harikiran.pgmgmt.util.CsvRecordReader;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.bulk.BulkWriteResult;
+import com.mongodb.bulk.BulkWriteUpsert;
+
+/**
+ * Imports tenants in bulk from a JSON array or a CSV file with a header row.
+ *
+ * <p>
+ * Rows are parsed and validated one at a time and written in unordered bulk
+ * batches of {@code app.import.batch-size}, upserting by email, so an import of
+ * any size costs one round trip per batch and never has to fit in memory. Room
+ * assignment is deliberately not importable; it keeps going through the room
+ * endpoints so occupancy stays consistent.
+ * </p>
+ */
+@Service
+public class TenantImportService {
+
+	private static final Logger logger = LoggerFactory.getLogger(TenantImportService.class);
+
+	private final MongoTemplate mongoTemplate;
+	private final ObjectMapper objectMapper;
+	private final int batchSize;
+	private final Duration jobRetention;
+	private final ApplicationEventPublisher eventPublisher;
+	private final Map<String, Job> jobs = new ConcurrentHashMap<>();
+
+	public TenantImportService(MongoTemplate mongoTemplate, ObjectMapper objectMapper,
+			ApplicationEventPublisher eventPublisher, @Value("${app.import.batch-size:500}") int batchSize,
+			@Value("${app.import.job-retention:1h}") Duration jobRetention) {
+		this.mongoTemplate = mongoTemplate;
+		this.objectMapper = objectMapper;
+		this.eventPublisher = eventPublisher;
+		this.batchSize = Math.max(batchSize, 1);
+		this.jobRetention = jobRetention;
+	}
+
+	/**
+	 * Imports every row of {@code input} and returns once all batches are
+	 * written.
+	 *
+	 * @throws IOException when the input is not a well-formed JSON array or CSV
+	 *                     document
+	 */
+	public TenantImportResult importTenants(InputStream input, Format format) throws IOException {
+		return run(input, format, processed -> {
+		});
+	}
+
+	/**
+	 * Starts a background import of a spooled upload. The file is deleted once
+	 * the job finishes.
+	 */
+	public TenantImportJobStatus submit(Path upload, Format format) throws IOException {
+		purgeExpiredJobs();
+
+		Job job = new Job(UUID.randomUUID().toString(), Files.size(upload));
+		jobs.put(job.id, job);
+		Thread.ofVirtual().name("tenant-import-" + job.id).start(() -> runJob(job, upload, format));
+		return job.status();
+	}
+
+	public Optional<TenantImportJobStatus> findJob(String jobId) {
+		Job job = jobs.get(jobId);
+		return job == null ? Optional.empty() : Optional.of(job.status());
+	}
+
+	private void runJob(Job job, Path upload, Format format) {
+		job.state = TenantImportJobStatus.State.RUNNING;
+		try (CountingInputStream input = new CountingInputStream(Files.newInputStream(upload))) {
+			job.input = input;
+			job.result = run(input, format, processed -> job.processedRows = processed);
+			job.state = TenantImportJobStatus.State.COMPLETED;
+		} catch (IOException | RuntimeException e) {
+			logger.error("Tenant import {} failed: {}", job.id, e.getMessage());
+			job.error = e.getMessage();
+			job.state = TenantImportJobStatus.State.FAILED;
+		} finally {
+			job.completedAt = Instant.now();
+			try {
+				Files.deleteIfExists(upload);
+			} catch (IOException e) {
+				logger.warn("Could not delete import upload {}: {}", upload, e.getMessage());
+			}
+		}
+	}
+
+	private void purgeExpiredJobs() {
+		Instant cutoff = Instant.now().minus(jobRetention);
+		jobs.values().removeIf(job -> job.completedAt != null && job.completedAt.isBefore(cutoff));
+	}
+
+	private TenantImportResult run(InputStream input, Format format, IntConsumer progress) throws IOException {
+		List<RowResult> results = new ArrayList<>();
+		List<ParsedRow> batch = new ArrayList<>(batchSize);
+		int total = 0;
+		try (RowSource source = format == Format.CSV ? new CsvRowSource(input) : new JsonRowSource(input)) {
+			ParsedRow row;
+			while ((row = source.next(total + 1)) != null) {
+				total++;
+				if (row.error() != null) {
+					results.add(new RowResult(row.row(), row.email(), Status.INVALID, row.error()));
+				} else {
+					batch.add(row);
+				}
+				if (batch.size() == batchSize) {
+					results.addAll(write(batch));
+					batch.clear();
+					progress.accept(results.size());
+				}
+			}
+		}
+		if (!batch.isEmpty()) {
+			results.addAll(write(batch));
+			progress.accept(results.size());
+		}
+
+		results.sort(Comparator.comparingInt(RowResult::row));
+		int inserted = 0;
+		int updated = 0;
+		for (RowResult result : results) {
+			if (result.status() == Status.INSERTED) {
+				inserted++;
+			} else if (result.status() == Status.UPDATED) {
+				updated++;
+			}
+		}
+
+		if (logger.isInfoEnabled()) {
+			logger.info("Imported {} tenant row(s): {} inserted, {} updated, {} failed", total, inserted, updated,
+					total - inserted - updated);
+		}
+		return new TenantImportResult(total, inserted, updated, total - inserted - updated, results);
+	}
+
+	private List<RowResult> write(List<ParsedRow> batch) {
+		BulkOperations operations = mongoTemplate.bulkOps(BulkMode.UNORDERED, Tenant.class);
+		for (ParsedRow row : batch) {
+			operations.upsert(Query.query(Criteria.where("email").is(row.email())), toUpdate(row.record()));
+		}
+
+		BulkWriteResult writeResult;
+		Map<Integer, String> errors = new HashMap<>();
+		try {
+			writeResult = operations.execute();
+		} catch (BulkOperationException e) {
+			// Unordered batches keep going past failed rows; only those rows are
+			// reported as failed.
+			writeResult = e.getResult();
+			for (BulkWriteError error : e.getErrors()) {
+				errors.put(error.getIndex(), error.getMessage());
+			}
+		}
+
+		Set<Integer> upserted = new HashSet<>();
+		for (BulkWriteUpsert upsert : writeResult.getUpserts()) {
+			upserted.add(upsert.getIndex());
+		}
+
+		List<RowResult> results = new ArrayList<>(batch.size());
+		List<String> written = new ArrayList<>(batch.size());
+		for (int i = 0; i < batch.size(); i++) {
+			ParsedRow row = batch.get(i);
+			if (errors.containsKey(i)) {
+				results.add(new RowResult(row.row(), row.email(), Status.FAILED, errors.get(i)));
+			} else {
+				Status status = upserted.contains(i) ? Status.INSERTED : Status.UPDATED;
+				results.add(new RowResult(row.row(), row.email(), status, null));
+				written.add(row.email());
+			}
+		}
+		publishChanges(written);
+		return results;
+	}
+
+	private void publishChanges(List<String> emails) {
+		if (emails.isEmpty()) {
+			return;
+		}
+		// Bulk writes do not return documents; one indexed read per batch lets
+		// in-memory views pick up the imported tenants.
+		mongoTemplate.find(Query.query(Criteria.where("email").in(emails)), Tenant.class)
+				.forEach(tenant -> eventPublisher.publishEvent(TenantChangedEvent.saved(tenant)));
+	}
+
+	static Update toUpdate(TenantImportRecord record) {
+		Update update = new Update();
+		setIfPresent(update, "name", record.name());
+		setIfPresent(update, "phone", record.phone());
+		setIfPresent(update, "mealPreference", record.mealPreference());
+		setIfPresent(update, "renewalDate", record.renewalDate());
+		// New tenants get the same defaults a freshly saved Tenant carries.
+		setOrDefault(update, "isActive", record.active());
+		setOrDefault(update, "due", record.due());
+		setOrDefault(update, "continuousStay", record.continuousStay());
+		update.inc("version", 1);
+		return update;
+	}
+
+	private static void setIfPresent(Update update, String field, Object value) {
+		if (value != null) {
+			update.set(field, value);
+		}
+	}
+
+	private static void setOrDefault(Update update, String field, Boolean value) {
+		if (value != null) {
+			update.set(field, value);
+		} else {
+			update.setOnInsert(field, false);
+		}
+	}
+
+	static ParsedRow parse(int row, Function<String, String> values) {
+		String email = trimToNull(values.apply("email"));
+		if (email == null) {
+			return ParsedRow.invalid(row, null, "email is required");
+		}
+		if (email.indexOf('@') <= 0 || email.chars().anyMatch(Character::isWhitespace)) {
+			return ParsedRow.invalid(row, email, "email is not valid");
+		}
+
+		try {
+			TenantImportRecord record = new TenantImportRecord(trimToNull(values.apply("name")), email,
+					trimToNull(values.apply("phone")), trimToNull(values.apply("mealPreference")),
+					parseBoolean("active", values.apply("active")), parseBoolean("due", values.apply("due")),
+					parseDate(values.apply("renewalDate")),
+					parseBoolean("continuousStay", values.apply("continuousStay")));
+			return new ParsedRow(row, email, record, null);
+		} catch (IllegalArgumentException e) {
+			return ParsedRow.invalid(row, email, e.getMessage());
+		}
+	}
+
+	private static Boolean parseBoolean(String field, String value) {
+		String text = trimToNull(value);
+		if (text == null) {
+			return null;
+		}
+		return switch (text.toLowerCase(Locale.ROOT)) {
+		case "true", "yes", "1" -> Boolean.TRUE;
+		case "false", "no", "0" -> Boolean.FALSE;
+		default -> throw new IllegalArgumentException(field + " must be true or false");
+		};
+	}
+
+	private static Date parseDate(String value) {
+		String text = trimToNull(value);
+		if (text == null) {
+			return null;
+		}
+		if (text.chars().allMatch(Character::isDigit)) {
+			return new Date(Long.parseLong(text));
+		}
+		try {
+			return Date.from(Instant.parse(text));
+		} catch (DateTimeParseException ignored) {
+			try {
+				return Date.from(LocalDate.parse(text).atStartOfDay().toInstant(ZoneOffset.UTC));
+			} catch (DateTimeParseException e) {
+				throw new IllegalArgumentException("renewalDate must be an ISO-8601 date or instant");
+			}
+		}
+	}
+
+	private static String trimToNull(String value) {
+		if (value == null) {
+			return null;
+		}
+		String trimmed = value.trim();
+		return trimmed.isEmpty() ? null : trimmed;
+	}
+
+	/**
+	 * Supported upload encodings.
+	 */
+	public enum Format {
+
+		JSON, CSV;
+
+		/**
+		 * Maps the request content type to a format.
+		 *
+		 * @throws IllegalArgumentException for unsupported content types
+		 */
+		public static Format fromContentType(MediaType contentType) {
+			if (contentType != null && MediaType.APPLICATION_JSON.isCompatibleWith(contentType)) {
+				return JSON;
+			}
+			if (contentType != null && contentType.isCompatibleWith(MediaType.parseMediaType("text/csv"))) {
+				return CSV;
+			}
+			throw new IllegalArgumentException("Unsupported import content type: " + contentType);
+		}
+	}
+
+	record ParsedRow(int row, String email, TenantImportRecord record, String error) {
+
+		static ParsedRow invalid(int row, String email, String error) {
+			return new ParsedRow(row, email, null, error);
+		}
+	}
+
+	private interface RowSource extends Closeable {
+
+		/**
+		 * @return the next row, or {@code null} at end of input
+		 */
+		ParsedRow next(int row) throws IOException;
+	}
+
+	private final class JsonRowSource implements RowSource {
+
+		private final JsonParser parser;
+
+		JsonRowSource(InputStream input) throws IOException {
+			this.parser = objectMapper.getFactory().createParser(input);
+			if (parser.nextToken() != JsonToken.START_ARRAY) {
+				throw new IOException("Expected a JSON array of tenants");
+			}
+		}
+
+		@Override
+		public ParsedRow next(int row) throws IOException {
+			JsonToken token = parser.nextToken();
+			if (token == null || token == JsonToken.END_ARRAY) {
+				return null;
+			}
+			if (token != JsonToken.START_OBJECT) {
+				parser.skipChildren();
+				return ParsedRow.invalid(row, null, "row is not a JSON object");
+			}
+
+			JsonNode node = objectMapper.readTree(parser);
+			return parse(row, field -> {
+				JsonNode value = node.get(field);
+				return value == null || value.isNull() ? null : value.asText();
+			});
+		}
+
+		@Override
+		public void close() throws IOException {
+			parser.close();
+		}
+	}
+
+	private static final class CsvRowSource implements RowSource {
+
+		private final BufferedReader reader;
+		private final CsvRecordReader records;
+		private final Map<String, Integer> columns = new HashMap<>();
+
+		CsvRowSource(InputStream input) throws IOException {
+			this.reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+			this.records = new CsvRecordReader(reader);
+			List<String> header = records.next();
+			if (header == null) {
+				throw new IOException("CSV import is missing its header row");
+			}
+			for (int i = 0; i < header.size(); i++) {
+				columns.put(header.get(i).trim().toLowerCase(Locale.ROOT), i);
+			}
+			if (!columns.containsKey("email")) {
+				throw new IOException("CSV header must include an email column");
+			}
+		}
+
+		@Override
+		public ParsedRow next(int row) throws IOException {
+			List<String> fields = records.next();
+			while (fields != null && fields.size() == 1 && fields.get(0).isBlank()) {
+				fields = records.next();
+			}
+			if (fields == null) {
+				return null;
+			}
+
+			List<String> values = fields;
+			return parse(row, field -> {
+				Integer index = columns.get(field.toLowerCase(Locale.ROOT));
+				return index == null || index >= values.size() ? null : values.get(index);
+			});
+		}
+
+		@Override
+		public void close() throws IOException {
+			reader.close();
+		}
+	}
+
+	private static final class CountingInputStream extends FilterInputStream {
+
+		private volatile long count;
+
+		CountingInputStream(InputStream input) {
+			super(input);
+		}
+
+		@Override
+		public int read() throws IOException {
+			int b = super.read();
+			if (b != -1) {
+				count++;
+			}
+			return b;
+		}
+
+		@Override
+		public int read(byte[] buffer, int offset, int length) throws IOException {
+			int read = super.read(buffer, offset, length);
+			if (read > 0) {
+				count += read;
+			}
+			return read;
+		}
+
+		long count() {
+			return count;
+		}
+	}
+
+	private static final class Job {
+
+		private final String id;
+		private final long size;
+		private final Instant submittedAt = Instant.now();
+		private volatile TenantImportJobStatus.State state = TenantImportJobStatus.State.QUEUED;
+		private volatile CountingInputStream input;
+		private volatile int processedRows;
+		private volatile TenantImportResult result;
+		private volatile String error;
+		private volatile Instant completedAt;
+
+		Job(String id, long size) {
+			this.id = id;
+			this.size = size;
+		}
+
+		TenantImportJobStatus status() {
+			double progress;
+			if (state == TenantImportJobStatus.State.COMPLETED) {
+				progress = 1;
+			} else {
+				CountingInputStream current = input;
+				progress = current == null || size == 0 ? 0 : Math.min(1, (double) current.count() / size);
+			}
+			return new TenantImportJobStatus(id, state, processedRows, progress, submittedAt, completedAt, result,
+					error);
+		}
+	}
+}
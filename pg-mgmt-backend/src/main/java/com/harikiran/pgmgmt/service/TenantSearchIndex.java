@@ -0,0 +1,451 @@
+package com.harikiran.pgmgmt.service;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import com.harikiran.pgmgmt.dto.TenantSearchPage;
+import com.harikiran.pgmgmt.model.Tenant;
+
+/**
+ * In-memory search index over tenant name, email, phone and room number.
+ *
+ * <p>
+ * Every field value is split into trigrams, plus one- and two-character token
+ * prefixes so short queries still narrow the candidates. A query intersects
+ * the smallest posting list of each term and verifies the survivors against
+ * the field values, so results never contain false positives. The index loads
+ * in the background once the application is ready and is kept current by
+ * {@link TenantChangedEvent}s; writes that race with the initial load win over
+ * the loaded copy.
+ * </p>
+ */
+@Service
+public class TenantSearchIndex {
+
+	private static final Logger logger = LoggerFactory.getLogger(TenantSearchIndex.class);
+
+	private static final int GRAM = 3;
+
+	/** Relative weight of a match in name, email, phone and room number. */
+	private static final int[] FIELD_WEIGHTS = { 4, 3, 2, 3 };
+
+	/** Score of a term matching every field exactly. */
+	private static final int MAX_TERM_SCORE = 4 * Arrays.stream(FIELD_WEIGHTS).sum();
+
+	private static final Comparator<Hit> RANKING = Comparator.comparingInt(Hit::score).reversed()
+			.thenComparing(Hit::sortName).thenComparing(Hit::id);
+
+	private final MongoTemplate mongoTemplate;
+	private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+	private final Map<String, Integer> slotsById = new HashMap<>();
+	private final List<Entry> entries = new ArrayList<>();
+	private final Deque<Integer> freeSlots = new ArrayDeque<>();
+	private final Map<String, Postings> postings = new HashMap<>();
+	private final Set<String> changedDuringLoad = new HashSet<>();
+	private volatile boolean ready;
+
+	public TenantSearchIndex(MongoTemplate mongoTemplate) {
+		this.mongoTemplate = mongoTemplate;
+	}
+
+	@EventListener(ApplicationReadyEvent.class)
+	public void onApplicationReady() {
+		Thread.ofVirtual().name("tenant-search-index").start(() -> {
+			try (Stream<Tenant> tenants = mongoTemplate.stream(new Query(), Tenant.class)) {
+				load(tenants);
+			} catch (RuntimeException e) {
+				logger.error("Failed to load tenant search index: {}", e.getMessage());
+			}
+		});
+	}
+
+	void load(Stream<Tenant> tenants) {
+		long start = System.nanoTime();
+		tenants.forEach(tenant -> {
+			lock.writeLock().lock();
+			try {
+				if (!changedDuringLoad.contains(tenant.getId())) {
+					put(tenant);
+				}
+			} finally {
+				lock.writeLock().unlock();
+			}
+		});
+
+		lock.writeLock().lock();
+		try {
+			changedDuringLoad.clear();
+			ready = true;
+		} finally {
+			lock.writeLock().unlock();
+		}
+		if (logger.isInfoEnabled()) {
+			logger.info("Tenant search index loaded {} tenant(s) in {} ms", slotsById.size(),
+					(System.nanoTime() - start) / 1_000_000);
+		}
+	}
+
+	@EventListener
+	public void onTenantChanged(TenantChangedEvent event) {
+		if (event.tenantId() == null) {
+			return;
+		}
+
+		lock.writeLock().lock();
+		try {
+			if (!ready) {
+				changedDuringLoad.add(event.tenantId());
+			}
+			if (event.isDeleted()) {
+				remove(event.tenantId());
+			} else {
+				put(event.tenant());
+			}
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	public boolean isReady() {
+		return ready;
+	}
+
+	/**
+	 * Finds tenants matching every whitespace-separated term of {@code query}.
+	 * Terms of three or more characters match anywhere in a field; shorter terms
+	 * match the start of a word. Exact and prefix matches rank above infix
+	 * matches, and name matches above the other fields.
+	 *
+	 * <p>
+	 * When every term is shorter than three characters the postings alone decide
+	 * which tenants match, so a tenant that could not make the page even with
+	 * the highest possible score is counted without being scored.
+	 * </p>
+	 *
+	 * @param query  search text
+	 * @param offset number of ranked results to skip
+	 * @param limit  maximum number of results to return
+	 */
+	public TenantSearchPage search(String query, int offset, int limit) {
+		String[] terms = terms(query);
+		if (terms.length == 0 || limit <= 0) {
+			return new TenantSearchPage(List.of(), 0);
+		}
+
+		lock.readLock().lock();
+		try {
+			Postings[] lists = candidateLists(terms);
+			if (lists == null) {
+				return new TenantSearchPage(List.of(), 0);
+			}
+			Postings candidates = lists[0];
+
+			int keep = offset + limit;
+			// Word-start grams of short terms are exact, so their matches need no verification
+			boolean prefixOnly = Arrays.stream(terms).allMatch(term -> term.length() < GRAM);
+			int maxScore = terms.length * MAX_TERM_SCORE;
+			PriorityQueue<Hit> best = new PriorityQueue<>(Math.min(keep, candidates.size()) + 1, RANKING.reversed());
+			int total = 0;
+			for (int i = 0; i < candidates.size(); i++) {
+				int slot = candidates.get(i);
+				if (!inAll(lists, slot)) {
+					continue;
+				}
+				Entry entry = entries.get(slot);
+				if (prefixOnly && best.size() == keep && best.peek().score() == maxScore
+						&& RANKING.compare(new Hit(entry, maxScore), best.peek()) > 0) {
+					total++;
+					continue;
+				}
+				int score = score(entry, terms);
+				if (score == 0) {
+					continue;
+				}
+				total++;
+				if (best.size() < keep) {
+					best.add(new Hit(entry, score));
+				} else if (score >= best.peek().score()) {
+					Hit hit = new Hit(entry, score);
+					if (RANKING.compare(hit, best.peek()) < 0) {
+						best.poll();
+						best.add(hit);
+					}
+				}
+			}
+
+			List<Hit> ranked = new ArrayList<>(best);
+			ranked.sort(RANKING);
+			List<Tenant> items = ranked.stream().skip(offset).map(hit -> hit.entry().tenant()).toList();
+			return new TenantSearchPage(items, total);
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Returns the smallest posting list of each term, smallest first, or
+	 * {@code null} when some gram has no postings at all.
+	 */
+	private Postings[] candidateLists(String[] terms) {
+		Postings[] lists = new Postings[terms.length];
+		for (int t = 0; t < terms.length; t++) {
+			for (String gram : queryGrams(terms[t])) {
+				Postings list = postings.get(gram);
+				if (list == null) {
+					return null;
+				}
+				if (lists[t] == null || list.size() < lists[t].size()) {
+					lists[t] = list;
+				}
+			}
+		}
+		Arrays.sort(lists, Comparator.comparingInt(Postings::size));
+		return lists;
+	}
+
+	private static boolean inAll(Postings[] lists, int slot) {
+		for (int i = 1; i < lists.length; i++) {
+			if (!lists[i].contains(slot)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static int score(Entry entry, String[] terms) {
+		int score = 0;
+		for (String term : terms) {
+			int termScore = entry.score(term);
+			if (termScore == 0) {
+				return 0;
+			}
+			score += termScore;
+		}
+		return score;
+	}
+
+	private void put(Tenant tenant) {
+		if (tenant.getId() == null) {
+			return;
+		}
+		remove(tenant.getId());
+
+		Entry entry = Entry.of(tenant, normalize(tenant));
+		int slot;
+		if (freeSlots.isEmpty()) {
+			slot = entries.size();
+			entries.add(entry);
+		} else {
+			slot = freeSlots.pop();
+			entries.set(slot, entry);
+		}
+		slotsById.put(tenant.getId(), slot);
+		for (String gram : indexGrams(entry.fields())) {
+			postings.computeIfAbsent(gram, key -> new Postings()).add(slot);
+		}
+	}
+
+	private void remove(String tenantId) {
+		Integer slot = slotsById.remove(tenantId);
+		if (slot == null) {
+			return;
+		}
+
+		for (String gram : indexGrams(entries.get(slot).fields())) {
+			Postings list = postings.get(gram);
+			if (list != null && list.remove(slot) && list.size() == 0) {
+				postings.remove(gram);
+			}
+		}
+		entries.set(slot, null);
+		freeSlots.push(slot);
+	}
+
+	private static String[] normalize(Tenant tenant) {
+		return new String[] { lower(tenant.getName()), lower(tenant.getEmail()), digits(tenant.getPhone()),
+				lower(tenant.getRoomNo()) };
+	}
+
+	private static Set<String> indexGrams(String[] fields) {
+		Set<String> grams = new HashSet<>();
+		for (String value : fields) {
+			for (int i = 0; i + GRAM <= value.length(); i++) {
+				grams.add(value.substring(i, i + GRAM));
+			}
+			for (int i = 0; i < value.length(); i++) {
+				if (Character.isLetterOrDigit(value.charAt(i))
+						&& (i == 0 || !Character.isLetterOrDigit(value.charAt(i - 1)))) {
+					grams.add("^" + value.charAt(i));
+					if (i + 1 < value.length()) {
+						grams.add("^" + value.substring(i, i + 2));
+					}
+				}
+			}
+		}
+		return grams;
+	}
+
+	private static List<String> queryGrams(String term) {
+		if (term.length() < GRAM) {
+			return List.of("^" + term);
+		}
+		List<String> grams = new ArrayList<>(term.length() - GRAM + 1);
+		for (int i = 0; i + GRAM <= term.length(); i++) {
+			grams.add(term.substring(i, i + GRAM));
+		}
+		return grams;
+	}
+
+	private static String[] terms(String query) {
+		if (query == null) {
+			return new String[0];
+		}
+		return Arrays.stream(query.trim().toLowerCase(Locale.ROOT).split("\\s+"))
+				.map(term -> term.startsWith("+") ? term.substring(1) : term).filter(term -> !term.isEmpty())
+				.toArray(String[]::new);
+	}
+
+	private static String lower(String value) {
+		return value == null ? "" : value.trim().toLowerCase(Locale.ROOT);
+	}
+
+	private static String digits(String value) {
+		if (value == null) {
+			return "";
+		}
+		StringBuilder digits = new StringBuilder(value.length());
+		for (int i = 0; i < value.length(); i++) {
+			if (Character.isDigit(value.charAt(i))) {
+				digits.append(value.charAt(i));
+			}
+		}
+		return digits.toString();
+	}
+
+	/**
+	 * Indexed copy of one tenant. The normalized fields are packed into a single
+	 * newline-separated string so verifying a candidate touches one array instead
+	 * of four scattered ones; no term can span two fields because terms never
+	 * contain whitespace.
+	 */
+	private record Entry(Tenant tenant, String name, String text, int emailStart, int phoneStart, int roomStart) {
+
+		static Entry of(Tenant tenant, String[] fields) {
+			int emailStart = fields[0].length() + 1;
+			int phoneStart = emailStart + fields[1].length() + 1;
+			int roomStart = phoneStart + fields[2].length() + 1;
+			return new Entry(tenant, fields[0], String.join("\n", fields), emailStart, phoneStart, roomStart);
+		}
+
+		String[] fields() {
+			return new String[] { name, text.substring(emailStart, phoneStart - 1),
+					text.substring(phoneStart, roomStart - 1), text.substring(roomStart) };
+		}
+
+		/**
+		 * Weighted sum of the best match quality of {@code term} in each field: 4
+		 * for an exact field match, 3 for a field prefix, 2 for a word start and 1
+		 * for an infix match of a full trigram.
+		 */
+		int score(String term) {
+			int[] best = new int[FIELD_WEIGHTS.length];
+			for (int index = text.indexOf(term); index >= 0; index = text.indexOf(term, index + 1)) {
+				int field = index < emailStart ? 0 : index < phoneStart ? 1 : index < roomStart ? 2 : 3;
+				int start = field == 0 ? 0 : field == 1 ? emailStart : field == 2 ? phoneStart : roomStart;
+				int end = field == 0 ? emailStart - 1
+						: field == 1 ? phoneStart - 1 : field == 2 ? roomStart - 1 : text.length();
+				int quality;
+				if (index == start) {
+					quality = index + term.length() == end ? 4 : 3;
+				} else if (!Character.isLetterOrDigit(text.charAt(index - 1))) {
+					quality = 2;
+				} else {
+					quality = term.length() >= GRAM ? 1 : 0;
+				}
+				best[field] = Math.max(best[field], quality);
+			}
+
+			int score = 0;
+			for (int field = 0; field < best.length; field++) {
+				score += FIELD_WEIGHTS[field] * best[field];
+			}
+			return score;
+		}
+	}
+
+	private record Hit(Entry entry, int score) {
+
+		String sortName() {
+			return entry.name();
+		}
+
+		String id() {
+			return entry.tenant().getId();
+		}
+	}
+
+	/**
+	 * Sorted, growable set of entry slots for one gram.
+	 */
+	private static final class Postings {
+
+		private int[] slots = new int[4];
+		private int size;
+
+		void add(int slot) {
+			int index = Arrays.binarySearch(slots, 0, size, slot);
+			if (index >= 0) {
+				return;
+			}
+			index = -index - 1;
+			if (size == slots.length) {
+				slots = Arrays.copyOf(slots, size * 2);
+			}
+			System.arraycopy(slots, index, slots, index + 1, size - index);
+			slots[index] = slot;
+			size++;
+		}
+
+		boolean remove(int slot) {
+			int index = Arrays.binarySearch(slots, 0, size, slot);
+			if (index < 0) {
+				return false;
+			}
+			System.arraycopy(slots, index + 1, slots, index, size - index - 1);
+			size--;
+			return true;
+		}
+
+		boolean contains(int slot) {
+			return Arrays.binarySearch(slots, 0, size, slot) >= 0;
+		}
+
+		int get(int index) {
+			return slots[index];
+		}
+
+		int size() {
+			return size;
+		}
+	}
+}
@@ -0,0 +1,74 @@
+package com.harikiran.pgmgmt.service;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Date;
+
+/**
+ * Growable primitive columns for {@link com.harikiran.pgmgmt.dto.StatsColumns}.
+ * Rows are appended in date order and nothing is allocated per row beyond
+ * occasional array growth; dates become day deltas in IST.
+ */
+final class TimelineColumns {
+
+	private static final long MILLIS_PER_DAY = 86_400_000L;
+	// India has kept one offset since 1945, so day numbers need no zone lookup per row
+	private static final long IST_OFFSET_MILLIS = MealStatsScheduler.IST_ZONE.getRules().getOffset(Instant.EPOCH)
+			.getTotalSeconds() * 1000L;
+
+	private final long[][] columns;
+	private int[] dayDeltas;
+	private int size;
+	private long baseDay;
+	private long previousDay;
+
+	TimelineColumns(int width, int expectedRows) {
+		int capacity = Math.max(expectedRows, 16);
+		columns = new long[width][capacity];
+		dayDeltas = new int[capacity];
+	}
+
+	/** Starts a row dated {@code statsDate}; fill it with {@link #set}. */
+	void addRow(Date statsDate) {
+		long day = Math.floorDiv(statsDate.getTime() + IST_OFFSET_MILLIS, MILLIS_PER_DAY);
+		if (size == dayDeltas.length) {
+			int capacity = size * 2;
+			dayDeltas = Arrays.copyOf(dayDeltas, capacity);
+			for (int column = 0; column < columns.length; column++) {
+				columns[column] = Arrays.copyOf(columns[column], capacity);
+			}
+		}
+		if (size == 0) {
+			baseDay = day;
+			previousDay = day;
+		}
+		dayDeltas[size++] = Math.toIntExact(day - previousDay);
+		previousDay = day;
+	}
+
+	/** Sets {@code column} of the row added last. */
+	void set(int column, long value) {
+		columns[column][size - 1] = value;
+	}
+
+	String baseDate() {
+		return size == 0 ? null : LocalDate.ofEpochDay(baseDay).toString();
+	}
+
+	int[] dayDeltas() {
+		return Arrays.copyOf(dayDeltas, size);
+	}
+
+	long[] column(int column) {
+		return Arrays.copyOf(columns[column], size);
+	}
+
+	int[] intColumn(int column) {
+		int[] values = new int[size];
+		for (int row = 0; row < size; row++) {
+			values[row] = Math.toIntExact(columns[column][row]);
+		}
+		return values;
+	}
+}
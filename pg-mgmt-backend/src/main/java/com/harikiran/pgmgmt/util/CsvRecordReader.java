@@ -0,0 +1,89 @@
+package com.harikiran.pgmgmt.util;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Minimal streaming reader for RFC 4180 CSV: comma separated, fields
+ * optionally wrapped in double quotes, quotes escaped by doubling, and quoted
+ * fields allowed to span lines. Reads one record at a time so arbitrarily
+ * large inputs never have to fit in memory.
+ */
+public class CsvRecordReader {
+
+	private final Reader reader;
+	private int pending = -2;
+
+	public CsvRecordReader(Reader reader) {
+		this.reader = reader;
+	}
+
+	/**
+	 * Reads the next record.
+	 *
+	 * @return field values of the record, or {@code null} at end of input
+	 * @throws IOException when the underlying reader fails or a quoted field is
+	 *                     not terminated
+	 */
+	public List<String> next() throws IOException {
+		int c = read();
+		if (c == -1) {
+			return null;
+		}
+
+		List<String> fields = new ArrayList<>();
+		StringBuilder field = new StringBuilder();
+		boolean quoted = false;
+		boolean fieldStart = true;
+		while (true) {
+			if (quoted) {
+				if (c == -1) {
+					throw new IOException("Unterminated quoted field");
+				}
+				if (c == '"') {
+					int following = read();
+					if (following == '"') {
+						field.append('"');
+					} else {
+						quoted = false;
+						c = following;
+						continue;
+					}
+				} else {
+					field.append((char) c);
+				}
+			} else if (c == '"' && fieldStart) {
+				quoted = true;
+				fieldStart = false;
+			} else if (c == ',') {
+				fields.add(field.toString());
+				field.setLength(0);
+				fieldStart = true;
+			} else if (c == '\r' || c == '\n' || c == -1) {
+				if (c == '\r') {
+					int following = read();
+					if (following != '\n') {
+						pending = following;
+					}
+				}
+				fields.add(field.toString());
+				return fields;
+			} else {
+				field.append((char) c);
+				fieldStart = false;
+			}
+			c = read();
+		}
+	}
+
+	private int read() throws IOException {
+		if (pending != -2) {
+			int c = pending;
+			pending = -2;
+			return c;
+		}
+		return reader.read();
+	}
+}
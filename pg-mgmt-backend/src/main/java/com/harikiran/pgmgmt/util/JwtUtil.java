@@ -2,6 +2,7 @@ package com.harikiran.pgmgmt.util;
 
 import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.time.Instant;
 import java.util.Date;
 
 import org.springframework.beans.factory.annotation.Value;
@@ -12,6 +13,7 @@ import com.harikiran.pgmgmt.model.Tenant;
 
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.JwtBuilder;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
@@ -19,23 +21,35 @@ import io.jsonwebtoken.security.Keys;
 @Component
 public class JwtUtil {
 
+	/**
+	 * Claim carrying the tenant document id so ownership checks need no database
+	 * read. Absent on admin tokens and on tenant tokens issued before it existed.
+	 */
+	public static final String TENANT_ID_CLAIM = "tenantId";
+
 	private final Key signingKey;
 	private final long expirationTime;
+	/**
+	 * Parsers are immutable and thread-safe once built, so a single instance is
+	 * shared by every verification instead of rebuilding one per call.
+	 */
+	private final JwtParser parser;
 
 	public JwtUtil(@Value("${jwt.secret}") String secret, @Value("${jwt.expiration-ms:86400000}") long expirationTime) {
 		this.signingKey = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
 		this.expirationTime = expirationTime;
+		this.parser = Jwts.parserBuilder().setSigningKey(signingKey).build();
 	}
 
 	public String generateToken(Tenant tenant) {
-		return buildToken(tenant.getEmail(), tenant.getName(), tenant.getPictureUrl(), "tenant");
+		return buildToken(tenant.getEmail(), tenant.getName(), tenant.getPictureUrl(), "tenant", tenant.getId());
 	}
 
 	public String generateToken(Admin admin) {
-		return buildToken(admin.getEmail(), admin.getName(), admin.getPictureUrl(), "admin");
+		return buildToken(admin.getEmail(), admin.getName(), admin.getPictureUrl(), "admin", null);
 	}
 
-	private String buildToken(String subject, String name, String pictureUrl, String role) {
+	private String buildToken(String subject, String name, String pictureUrl, String role, String tenantId) {
 		JwtBuilder builder = Jwts.builder().setSubject(subject).setIssuedAt(new Date(System.currentTimeMillis()))
 				.setExpiration(new Date(System.currentTimeMillis() + expirationTime));
 
@@ -51,6 +65,10 @@ public class JwtUtil {
 			builder.claim("role", role);
 		}
 
+		if (tenantId != null && !tenantId.isBlank()) {
+			builder.claim(TENANT_ID_CLAIM, tenantId);
+		}
+
 		return builder.signWith(signingKey, SignatureAlgorithm.HS256).compact();
 	}
 
@@ -58,6 +76,23 @@ public class JwtUtil {
 		return parseClaims(token).getSubject();
 	}
 
+	/**
+	 * Verifies the signature and expiry of the token exactly once and returns the
+	 * claims the security layer relies on.
+	 *
+	 * @param token compact JWS string
+	 * @return verified token claims
+	 * @throws io.jsonwebtoken.JwtException when the token is malformed, expired or
+	 *                                      carries an invalid signature
+	 */
+	public VerifiedToken verify(String token) {
+		Claims claims = parseClaims(token);
+		Date expiration = claims.getExpiration();
+		return new VerifiedToken(claims.getSubject(), claims.get("role", String.class),
+				claims.get("name", String.class), claims.get(TENANT_ID_CLAIM, String.class),
+				expiration != null ? expiration.toInstant() : null);
+	}
+
 	public String extractEmail(String token) {
 		return extractClaim(token, Claims::getSubject);
 	}
@@ -80,7 +115,7 @@ public class JwtUtil {
 	}
 
 	private Claims parseClaims(String token) {
-		return Jwts.parserBuilder().setSigningKey(signingKey).build().parseClaimsJws(token).getBody();
+		return parser.parseClaimsJws(token).getBody();
 	}
 
 	public boolean isTokenExpired(String token) {
@@ -91,4 +126,11 @@ public class JwtUtil {
 		final String extractedEmail = extractEmail(token);
 		return extractedEmail.equals(email) && !isTokenExpired(token);
 	}
-}
\ No newline at end of file
+
+	/**
+	 * Claims extracted from a token whose signature and expiry have already been
+	 * checked.
+	 */
+	public record VerifiedToken(String email, String role, String name, String tenantId, Instant expiresAt) {
+	}
+}
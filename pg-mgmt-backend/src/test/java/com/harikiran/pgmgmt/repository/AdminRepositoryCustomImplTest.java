@@ -0,0 +1,63 @@
+package com.harikiran.pgmgmt.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import com.harikiran.pgmgmt.model.Admin;
+
+@ExtendWith(MockitoExtension.class)
+class AdminRepositoryCustomImplTest {
+
+	@Mock
+	private MongoTemplate mongoTemplate;
+
+	private AdminRepositoryCustomImpl repository;
+
+	@BeforeEach
+	void setUp() {
+		repository = new AdminRepositoryCustomImpl(mongoTemplate);
+	}
+
+	@Test
+	void upsertOnLogin_setsNameAndPictureInOneUpsert() {
+		repository.upsertOnLogin("admin@example.com", "Ravi", "pic");
+
+		ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+		ArgumentCaptor<FindAndModifyOptions> options = ArgumentCaptor.forClass(FindAndModifyOptions.class);
+		verify(mongoTemplate).findAndModify(any(Query.class), update.capture(), options.capture(), eq(Admin.class));
+		assertTrue(options.getValue().isUpsert());
+		assertEquals(new Document("$set", new Document("pictureUrl", "pic").append("name", "Ravi")),
+				update.getValue().getUpdateObject());
+	}
+
+	@Test
+	void upsertOnLogin_duplicateKeyIsRetriedOnce() {
+		Admin existing = new Admin("Ravi", "admin@example.com", null);
+		when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class),
+				eq(Admin.class))).thenThrow(new DuplicateKeyException("email")).thenReturn(existing);
+
+		assertSame(existing, repository.upsertOnLogin("admin@example.com", null, null));
+
+		verify(mongoTemplate, times(2)).findAndModify(any(Query.class), any(Update.class),
+				any(FindAndModifyOptions.class), eq(Admin.class));
+	}
+}
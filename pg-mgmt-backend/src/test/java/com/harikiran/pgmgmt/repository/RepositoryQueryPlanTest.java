@@ -0,0 +1,245 @@
+package com.harikiran.pgmgmt.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.fail;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.bson.BsonDocument;
+import org.bson.Document;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Range;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.mongodb.repository.support.MongoRepositoryFactory;
+import org.springframework.data.repository.core.support.RepositoryComposition.RepositoryFragments;
+
+import com.harikiran.pgmgmt.config.MongoIndexManager;
+import com.harikiran.pgmgmt.dto.TenantPageRequest;
+import com.harikiran.pgmgmt.model.Room;
+import com.harikiran.pgmgmt.model.StatsGranularity;
+import com.harikiran.pgmgmt.model.Tenant;
+import com.harikiran.pgmgmt.service.CollectionVersions;
+import com.harikiran.pgmgmt.service.StatsStorage;
+import com.mongodb.ConnectionString;
+import com.mongodb.MongoClientSettings;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+
+/**
+ * Runs every repository query against a real mongod and fails when its
+ * {@code explain} plan contains a collection scan.
+ *
+ * <p>
+ * Commands are captured with a driver {@link CommandListener}, so the filters
+ * checked are exactly the ones Spring Data derives. Set
+ * {@code MONGODB_TEST_URI} (for example {@code mongodb://localhost:27017}) to
+ * enable; a throwaway database is created and dropped.
+ * </p>
+ */
+@EnabledIfEnvironmentVariable(named = "MONGODB_TEST_URI", matches = ".+")
+class RepositoryQueryPlanTest {
+
+	private static final Set<String> EXPLAINABLE_COMMANDS = Set.of("find", "count", "aggregate", "findAndModify",
+			"update", "delete");
+
+	private static final List<BsonDocument> commands = new CopyOnWriteArrayList<>();
+
+	private static String databaseName;
+	private static MongoClient client;
+	private static MongoTemplate mongoTemplate;
+	private static TenantRepository tenantRepository;
+	private static RoomRepository roomRepository;
+	private static AdminRepository adminRepository;
+	private static MealStatsRepository mealStatsRepository;
+	private static AllocationStatsRepository allocationStatsRepository;
+	private static MealStatsRollupRepository mealStatsRollupRepository;
+	private static AllocationStatsRollupRepository allocationStatsRollupRepository;
+
+	@BeforeAll
+	static void connect() {
+		databaseName = "pg_mgmt_plan_" + UUID.randomUUID().toString().replace("-", "");
+		CommandListener recorder = new CommandListener() {
+			@Override
+			public void commandStarted(CommandStartedEvent event) {
+				if (databaseName.equals(event.getDatabaseName())
+						&& EXPLAINABLE_COMMANDS.contains(event.getCommandName())) {
+					commands.add(event.getCommand().clone());
+				}
+			}
+		};
+		MongoClientSettings settings = MongoClientSettings.builder()
+				.applyConnectionString(new ConnectionString(System.getenv("MONGODB_TEST_URI")))
+				.addCommandListener(recorder).build();
+		client = MongoClients.create(settings);
+		mongoTemplate = new MongoTemplate(client, databaseName);
+
+		StatsStorage statsStorage = new StatsStorage(mongoTemplate, new CollectionVersions(), false, Duration.ZERO);
+		assertEquals(0, new MongoIndexManager(mongoTemplate, statsStorage).ensureIndexes(),
+				"declared indexes were not created");
+
+		MongoRepositoryFactory factory = new MongoRepositoryFactory(mongoTemplate);
+		tenantRepository = factory.getRepository(TenantRepository.class,
+				RepositoryFragments.just(new TenantRepositoryCustomImpl(mongoTemplate)));
+		roomRepository = factory.getRepository(RoomRepository.class,
+				RepositoryFragments.just(new RoomRepositoryCustomImpl(mongoTemplate)));
+		adminRepository = factory.getRepository(AdminRepository.class,
+				RepositoryFragments.just(new AdminRepositoryCustomImpl(mongoTemplate)));
+		mealStatsRepository = factory.getRepository(MealStatsRepository.class);
+		allocationStatsRepository = factory.getRepository(AllocationStatsRepository.class);
+		mealStatsRollupRepository = factory.getRepository(MealStatsRollupRepository.class);
+		allocationStatsRollupRepository = factory.getRepository(AllocationStatsRollupRepository.class);
+
+		Tenant tenant = new Tenant("Asha", "asha@example.com", null);
+		tenant.setId("t-1");
+		tenant.setRoomNo("101");
+		tenantRepository.save(tenant);
+		Room room = new Room();
+		room.setRoomNo("101");
+		room.setCapacity(2);
+		room.setTenantIds(List.of("t-1"));
+		roomRepository.save(room);
+	}
+
+	@AfterAll
+	static void dropDatabase() {
+		if (client != null) {
+			client.getDatabase(databaseName).drop();
+			client.close();
+		}
+	}
+
+	@BeforeEach
+	void resetCommands() {
+		commands.clear();
+	}
+
+	@Test
+	void tenantRepositoryQueriesUseIndexes() {
+		tenantRepository.findById("t-1");
+		tenantRepository.findByEmail("asha@example.com");
+		tenantRepository.existsByEmail("asha@example.com");
+		tenantRepository.findByDueFalseAndRenewalDateNotNullAndContinuousStayTrue();
+		tenantRepository.countActiveMealPreferences();
+		tenantRepository.findByContinuousStayFalseAndRoomNoNotNullAndRenewalDateNotNullOrderByRenewalDateAsc();
+		tenantRepository.findByContinuousStayTrueAndRoomNoNotNullAndDueTrueOrderByRenewalDateAsc();
+		tenantRepository.removeById("missing");
+		assertNoCollectionScans(8);
+	}
+
+	@Test
+	void tenantCustomQueriesUseIndexes() {
+		tenantRepository.upsertOnLogin("asha@example.com", "Asha", null);
+		tenantRepository.updateFields("t-1", new Update().set("isActive", true), null);
+		try {
+			tenantRepository.updateFields("t-1", new Update().set("isActive", false), 99L);
+			fail("stale version was accepted");
+		} catch (OptimisticLockingFailureException expected) {
+			// the conflict check is one more indexed lookup
+		}
+		tenantRepository.findPage(page(null, TenantPageRequest.Sort.ID, null));
+		tenantRepository.findPage(page("101", TenantPageRequest.Sort.ID,
+				new TenantPageRequest.Cursor(TenantPageRequest.Sort.ID, null, "t-0")));
+		tenantRepository.findPage(page(null, TenantPageRequest.Sort.NAME,
+				new TenantPageRequest.Cursor(TenantPageRequest.Sort.NAME, "A", "t-0")));
+		tenantRepository.markDue(List.of("t-1"), new Date());
+		tenantRepository.updateRoomNo("t-1", "101");
+		assertNoCollectionScans(9);
+	}
+
+	@Test
+	void roomRepositoryQueriesUseIndexes() {
+		roomRepository.findByRoomNo("101");
+		roomRepository.assignTenant("101", "t-2");
+		roomRepository.releaseTenant("t-2", "101");
+		roomRepository.releaseTenantFrom("t-2", "101");
+		roomRepository.replaceDetails("r-missing", "102", new Update().set("roomNo", "102"), null);
+		assertNoCollectionScans(5);
+	}
+
+	@Test
+	void adminRepositoryQueriesUseIndexes() {
+		adminRepository.upsertOnLogin("admin@example.com", "Admin", null);
+		adminRepository.findByEmail("admin@example.com");
+		adminRepository.existsByEmail("admin@example.com");
+		assertNoCollectionScans(3);
+	}
+
+	@Test
+	void statsRepositoryQueriesUseIndexes() {
+		Date today = new Date();
+		mealStatsRepository.findByStatsDateAndMealNo(today, 1);
+		mealStatsRepository.findAllByOrderByStatsDateAscMealNoAsc();
+		allocationStatsRepository.findByStatsDate(today);
+		allocationStatsRepository.findAllByOrderByStatsDateAsc();
+		LocalDate day = LocalDate.now(ZoneId.of("Asia/Kolkata"));
+		Range<Date> days = StatsGranularity.DAY.covering(day.minusDays(30), day, ZoneId.of("Asia/Kolkata"));
+		Range<Date> weeks = StatsGranularity.WEEK.covering(day.minusDays(30), null, ZoneId.of("Asia/Kolkata"));
+		mealStatsRepository.findByStatsDateBetweenOrderByStatsDateAscMealNoAsc(days);
+		allocationStatsRepository.findByStatsDateBetweenOrderByStatsDateAsc(days);
+		mealStatsRollupRepository.findByGranularityAndPeriodStartBetweenOrderByPeriodStartAscMealNoAsc(
+				StatsGranularity.WEEK, weeks);
+		allocationStatsRollupRepository.findByGranularityAndPeriodStartBetweenOrderByPeriodStartAsc(
+				StatsGranularity.WEEK, weeks);
+		assertNoCollectionScans(8);
+	}
+
+	private static TenantPageRequest page(String roomNo, TenantPageRequest.Sort sort,
+			TenantPageRequest.Cursor after) {
+		return new TenantPageRequest(roomNo, null, null, null, null, sort, after, 10, Set.of());
+	}
+
+	private void assertNoCollectionScans(int minimumCommands) {
+		List<BsonDocument> captured = new ArrayList<>(commands);
+		assertFalse(captured.size() < minimumCommands, "expected at least " + minimumCommands + " commands");
+
+		List<String> scans = new ArrayList<>();
+		for (BsonDocument command : captured) {
+			Document explain = mongoTemplate.getDb().runCommand(
+					new Document("explain", stripSessionFields(command)).append("verbosity", "queryPlanner"));
+			if (containsStage(explain.get("queryPlanner"), "COLLSCAN")) {
+				scans.add(command.toJson());
+			}
+		}
+		if (!scans.isEmpty()) {
+			fail("Collection scans for:\n" + String.join("\n", scans));
+		}
+	}
+
+	private static BsonDocument stripSessionFields(BsonDocument command) {
+		BsonDocument copy = command.clone();
+		copy.keySet().removeIf(key -> key.startsWith("$") || key.equals("lsid") || key.equals("txnNumber"));
+		return copy;
+	}
+
+	private static boolean containsStage(Object node, String stage) {
+		if (node instanceof Document document) {
+			if (stage.equals(document.get("stage"))) {
+				return true;
+			}
+			// Rejected plans are alternatives the planner did not pick.
+			return document.entrySet().stream().filter(entry -> !entry.getKey().equals("rejectedPlans"))
+					.anyMatch(entry -> containsStage(entry.getValue(), stage));
+		}
+		if (node instanceof List<?> list) {
+			return list.stream().anyMatch(item -> containsStage(item, stage));
+		}
+		return false;
+	}
+}
@@ -0,0 +1,206 @@
+package com.harikiran.pgmgmt.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.BulkOperations.BulkMode;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationResults;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import com.harikiran.pgmgmt.dto.RoomBulkUpdate;
+import com.harikiran.pgmgmt.dto.RoomBulkUpdateResult;
+import com.harikiran.pgmgmt.dto.RoomUpdateRequest;
+import com.harikiran.pgmgmt.model.Room;
+import com.harikiran.pgmgmt.repository.RoomRepositoryCustom.FloorTotals;
+import com.mongodb.bulk.BulkWriteResult;
+
+@ExtendWith(MockitoExtension.class)
+class RoomRepositoryCustomImplTest {
+
+	@Mock
+	private MongoTemplate mongoTemplate;
+
+	private RoomRepositoryCustomImpl repository;
+
+	@BeforeEach
+	void setUp() {
+		repository = new RoomRepositoryCustomImpl(mongoTemplate);
+	}
+
+	@Test
+	void assignTenant_onlyMatchesRoomsWithAFreeBed() {
+		when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class),
+				eq(Room.class))).thenReturn(new Room());
+
+		assertTrue(repository.assignTenant("101", "t-1").isPresent());
+
+		ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+		ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+		verify(mongoTemplate).findAndModify(query.capture(), update.capture(), any(FindAndModifyOptions.class),
+				eq(Room.class));
+		Document filter = query.getValue().getQueryObject();
+		assertEquals("101", filter.get("roomNo"));
+		assertEquals(new Document("$ne", "t-1"), filter.get("tenantIds"));
+		assertEquals(2, filter.getList("$or", Document.class).size());
+		assertTrue(filter.getList("$or", Document.class).get(1).containsKey("$expr"));
+		assertEquals(new Document("allocatedCount", 1), update.getValue().getUpdateObject().get("$inc"));
+	}
+
+	@Test
+	void assignTenant_fullRoomIsRejected() {
+		assertFalse(repository.assignTenant("101", "t-1").isPresent());
+	}
+
+	@Test
+	void assignTenant_tenantAlreadyInRoomIsAccepted() {
+		when(mongoTemplate.findOne(any(Query.class), eq(Room.class))).thenReturn(new Room());
+
+		assertTrue(repository.assignTenant("101", "t-1").isPresent());
+	}
+
+	@Test
+	void releaseTenantFrom_pullsFromTheKnownRoomOnly() {
+		when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class),
+				eq(Room.class))).thenReturn(new Room());
+
+		assertTrue(repository.releaseTenantFrom("t-1", "101").isPresent());
+
+		ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+		ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+		verify(mongoTemplate).findAndModify(query.capture(), update.capture(), any(FindAndModifyOptions.class),
+				eq(Room.class));
+		assertEquals(new Document("roomNo", "101").append("tenantIds", "t-1"), query.getValue().getQueryObject());
+		assertEquals(new Document("tenantIds", "t-1"), update.getValue().getUpdateObject().get("$pull"));
+	}
+
+	@Test
+	void updateDetails_setsOnlyTheGivenFieldsGuardedByVersion() {
+		when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class),
+				eq(Room.class))).thenReturn(new Room());
+
+		repository.updateDetails("r-1", new RoomUpdateRequest(3, "  "), 4L);
+
+		ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+		ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+		verify(mongoTemplate).findAndModify(query.capture(), update.capture(), any(FindAndModifyOptions.class),
+				eq(Room.class));
+		assertEquals(4L, query.getValue().getQueryObject().get("version"));
+		Document changes = update.getValue().getUpdateObject();
+		assertEquals(new Document("capacity", 3), changes.get("$set"));
+		assertEquals(new Document("comments", 1), changes.get("$unset"));
+	}
+
+	@Test
+	void updateFields_staleVersionOfExistingRoomConflicts() {
+		when(mongoTemplate.exists(any(Query.class), eq(Room.class))).thenReturn(true);
+
+		assertThrows(OptimisticLockingFailureException.class,
+				() -> repository.updateFields("r-1", new Update().set("capacity", 2), 1L));
+	}
+
+	@Test
+	void replaceDetails_onlyRenumbersEmptyRooms() {
+		when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class),
+				eq(Room.class))).thenReturn(new Room());
+
+		assertTrue(repository.replaceDetails("r-1", "102", new Update().set("roomNo", "102"), null).isPresent());
+
+		ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+		verify(mongoTemplate).findAndModify(query.capture(), any(Update.class), any(FindAndModifyOptions.class),
+				eq(Room.class));
+		Document filter = query.getValue().getQueryObject();
+		assertEquals("r-1", filter.get("id"));
+		assertEquals(List.of(new Document("roomNo", "102"), new Document("tenantIds", new Document("$size", 0)),
+				new Document("tenantIds", new Document("$exists", false))), filter.get("$or"));
+	}
+
+	@Test
+	void replaceDetails_renumberingAnOccupiedRoomIsRefused() {
+		when(mongoTemplate.exists(any(Query.class), eq(Room.class))).thenReturn(true);
+
+		assertThrows(DataIntegrityViolationException.class,
+				() -> repository.replaceDetails("r-1", "102", new Update().set("roomNo", "102"), 2L));
+	}
+
+	@Test
+	void replaceDetails_staleVersionConflicts() {
+		when(mongoTemplate.exists(any(Query.class), eq(Room.class))).thenReturn(false, true);
+
+		assertThrows(OptimisticLockingFailureException.class,
+				() -> repository.replaceDetails("r-1", "102", new Update().set("roomNo", "102"), 2L));
+	}
+
+	@Test
+	void replaceDetails_missingRoomIsEmpty() {
+		assertFalse(repository.replaceDetails("r-1", null, new Update().unset("roomNo"), null).isPresent());
+	}
+
+	@Test
+	void bulkUpdateDetails_reportsMissingAndConcurrentlyChangedRooms() {
+		BulkOperations bulk = mock(BulkOperations.class);
+		when(mongoTemplate.bulkOps(BulkMode.UNORDERED, Room.class)).thenReturn(bulk);
+		when(bulk.execute()).thenReturn(BulkWriteResult.acknowledged(0, 1, 0, 1, List.of(), List.of()));
+		when(mongoTemplate.find(any(Query.class), eq(Room.class)))
+				.thenReturn(List.of(room("r-1", 3L), room("r-2", 7L)));
+
+		RoomBulkUpdateResult result = repository.bulkUpdateDetails(List.of(new RoomBulkUpdate("r-1", 2L, 4, null),
+				new RoomBulkUpdate("r-2", 5L, null, "leaky tap"), new RoomBulkUpdate("r-3", null, 2, null)));
+
+		ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+		verify(bulk, times(3)).updateOne(any(Query.class), update.capture());
+		assertEquals(new Document("version", 1), update.getAllValues().get(0).getUpdateObject().get("$inc"));
+		assertEquals(3, result.requested());
+		assertEquals(1, result.matched());
+		assertEquals(List.of("r-2", "r-3"), result.unmatchedIds());
+	}
+
+	@Test
+	void sumCapacityByFloor_groupsByFloorServerSide() {
+		when(mongoTemplate.aggregate(any(Aggregation.class), eq(Room.class), eq(Document.class)))
+				.thenReturn(new AggregationResults<>(List.of(
+						new Document("_id", "1").append("rooms", 3).append("capacity", 9).append("allocated", 7),
+						new Document("_id", null).append("rooms", 1).append("capacity", 2).append("allocated", 0)),
+						new Document()));
+
+		List<FloorTotals> floors = repository.sumCapacityByFloor();
+
+		ArgumentCaptor<Aggregation> aggregation = ArgumentCaptor.forClass(Aggregation.class);
+		verify(mongoTemplate).aggregate(aggregation.capture(), eq(Room.class), eq(Document.class));
+		Document group = aggregation.getValue().toPipeline(Aggregation.DEFAULT_CONTEXT).get(0).get("$group",
+				Document.class);
+		assertEquals("$floorNo", group.get("_id"));
+		assertEquals(new Document("$sum", "$allocatedCount"), group.get("allocated"));
+		assertEquals(List.of(new FloorTotals("1", 3, 9, 7), new FloorTotals(null, 1, 2, 0)), floors);
+	}
+
+	private static Room room(String id, Long version) {
+		Room room = new Room();
+		room.setId(id);
+		room.setVersion(version);
+		return room;
+	}
+}
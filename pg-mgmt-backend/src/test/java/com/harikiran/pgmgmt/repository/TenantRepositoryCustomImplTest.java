@@ -0,0 +1,302 @@
+package com.harikiran.pgmgmt.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationResults;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import com.harikiran.pgmgmt.dto.TenantField;
+import com.harikiran.pgmgmt.dto.TenantPage;
+import com.harikiran.pgmgmt.dto.TenantPageRequest;
+import com.harikiran.pgmgmt.dto.TenantPageRequest.Cursor;
+import com.harikiran.pgmgmt.dto.TenantPageRequest.Sort;
+import com.harikiran.pgmgmt.model.Tenant;
+import com.harikiran.pgmgmt.repository.TenantRepositoryCustom.MealCounts;
+import com.mongodb.client.result.UpdateResult;
+
+@ExtendWith(MockitoExtension.class)
+class TenantRepositoryCustomImplTest {
+
+	@Mock
+	private MongoTemplate mongoTemplate;
+
+	private TenantRepositoryCustomImpl repository;
+
+	@BeforeEach
+	void setUp() {
+		repository = new TenantRepositoryCustomImpl(mongoTemplate);
+	}
+
+	@Test
+	void upsertOnLogin_firstLoginInsertsWithDefaults() {
+		Tenant inserted = new Tenant("Asha", "asha@example.com", "pic");
+		when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class),
+				eq(Tenant.class))).thenReturn(inserted);
+
+		assertSame(inserted, repository.upsertOnLogin("asha@example.com", "Asha", "pic"));
+
+		ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+		ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+		ArgumentCaptor<FindAndModifyOptions> options = ArgumentCaptor.forClass(FindAndModifyOptions.class);
+		verify(mongoTemplate).findAndModify(query.capture(), update.capture(), options.capture(), eq(Tenant.class));
+		assertEquals(new Document("email", "asha@example.com"), query.getValue().getQueryObject());
+		assertTrue(options.getValue().isUpsert());
+		assertTrue(options.getValue().isReturnNew());
+		assertEquals(new Document("due", false).append("isActive", false).append("continuousStay", false),
+				update.getValue().getUpdateObject().get("$setOnInsert"));
+	}
+
+	@Test
+	void upsertOnLogin_existingTenantOnlyGetsNameAndPicture() {
+		repository.upsertOnLogin("asha@example.com", "Asha R", "pic-2");
+
+		ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+		verify(mongoTemplate).findAndModify(any(Query.class), update.capture(), any(FindAndModifyOptions.class),
+				eq(Tenant.class));
+		Document updateObject = update.getValue().getUpdateObject();
+		assertEquals(new Document("pictureUrl", "pic-2").append("name", "Asha R"), updateObject.get("$set"));
+		assertEquals(new Document("version", 1), updateObject.get("$inc"));
+		assertEquals(Set.of("$set", "$setOnInsert", "$inc"), updateObject.keySet());
+	}
+
+	@Test
+	void upsertOnLogin_blankNameKeepsStoredName() {
+		repository.upsertOnLogin("asha@example.com", " ", "pic");
+
+		ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+		verify(mongoTemplate).findAndModify(any(Query.class), update.capture(), any(FindAndModifyOptions.class),
+				eq(Tenant.class));
+		Document updateObject = update.getValue().getUpdateObject();
+		assertEquals(new Document("pictureUrl", "pic"), updateObject.get("$set"));
+		assertEquals(" ", updateObject.get("$setOnInsert", Document.class).get("name"));
+	}
+
+	@Test
+	void upsertOnLogin_duplicateKeyIsRetriedOnce() {
+		Tenant existing = new Tenant("Asha", "asha@example.com", null);
+		when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class),
+				eq(Tenant.class))).thenThrow(new DuplicateKeyException("email_unique_idx")).thenReturn(existing);
+
+		assertSame(existing, repository.upsertOnLogin("asha@example.com", "Asha", null));
+
+		verify(mongoTemplate, times(2)).findAndModify(any(Query.class), any(Update.class),
+				any(FindAndModifyOptions.class), eq(Tenant.class));
+	}
+
+	@Test
+	void upsertOnLogin_secondDuplicateKeyPropagates() {
+		when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class),
+				eq(Tenant.class))).thenThrow(new DuplicateKeyException("email_unique_idx"));
+
+		assertThrows(DuplicateKeyException.class, () -> repository.upsertOnLogin("asha@example.com", "Asha", null));
+
+		verify(mongoTemplate, times(2)).findAndModify(any(Query.class), any(Update.class),
+				any(FindAndModifyOptions.class), eq(Tenant.class));
+	}
+
+	@Test
+	void updateFields_setsAndBumpsVersionInOneCall() {
+		Tenant tenant = new Tenant("Asha", "asha@example.com", null);
+		when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class),
+				eq(Tenant.class))).thenReturn(tenant);
+
+		assertTrue(repository.updateFields("t-1", new Update().set("isActive", true), null).isPresent());
+
+		ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+		verify(mongoTemplate).findAndModify(any(Query.class), update.capture(), any(FindAndModifyOptions.class),
+				eq(Tenant.class));
+		Document updateObject = update.getValue().getUpdateObject();
+		assertEquals(new Document("isActive", true), updateObject.get("$set"));
+		assertEquals(new Document("version", 1), updateObject.get("$inc"));
+		verify(mongoTemplate, never()).exists(any(Query.class), eq(Tenant.class));
+	}
+
+	@Test
+	void updateFields_staleVersionOfExistingTenantIsAConflict() {
+		when(mongoTemplate.exists(any(Query.class), eq(Tenant.class))).thenReturn(true);
+
+		assertThrows(OptimisticLockingFailureException.class,
+				() -> repository.updateFields("t-1", new Update().set("isActive", false), 3L));
+	}
+
+	@Test
+	void updateFields_missingTenantIsEmpty() {
+		assertTrue(repository.updateFields("t-1", new Update().set("isActive", false), 3L).isEmpty());
+	}
+
+	@Test
+	void cursor_roundTripsSortNameAndId() {
+		Cursor byName = new Cursor(Sort.NAME, "Asha\nR", "t-1");
+		Cursor unnamed = new Cursor(Sort.NAME, null, "t-2");
+		Cursor byId = new Cursor(Sort.ID, null, "t-3");
+
+		assertEquals(byName, Cursor.decode(byName.encode(), Sort.NAME));
+		assertEquals(unnamed, Cursor.decode(unnamed.encode(), Sort.NAME));
+		assertEquals(byId, Cursor.decode(byId.encode(), Sort.ID));
+	}
+
+	@Test
+	void cursor_malformedTokensAreRejected() {
+		assertThrows(IllegalArgumentException.class, () -> Cursor.decode("not base64!", Sort.ID));
+		assertThrows(IllegalArgumentException.class, () -> Cursor.decode(token("ID\nt-1"), Sort.ID));
+		assertThrows(IllegalArgumentException.class, () -> Cursor.decode(token("ID\n\n"), Sort.ID));
+		assertThrows(IllegalArgumentException.class, () -> Cursor.decode(token("AGE\n\nt-1"), Sort.ID));
+	}
+
+	@Test
+	void cursor_issuedForAnotherSortIsRejected() {
+		String token = new Cursor(Sort.ID, null, "t-1").encode();
+
+		assertThrows(IllegalArgumentException.class, () -> Cursor.decode(token, Sort.NAME));
+	}
+
+	@Test
+	void findPage_extraRowMeansAnotherPage() {
+		when(mongoTemplate.find(any(Query.class), eq(Tenant.class)))
+				.thenReturn(List.of(tenant("t-1", "Asha"), tenant("t-2", "Bala"), tenant("t-3", "Chitra")));
+
+		TenantPage page = repository.findPage(page(Sort.NAME, null, 2, Set.of()));
+
+		ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+		verify(mongoTemplate).find(query.capture(), eq(Tenant.class));
+		assertEquals(3, query.getValue().getLimit());
+		assertEquals(List.of("t-1", "t-2"), page.items().stream().map(Tenant::getId).toList());
+		assertEquals(new Cursor(Sort.NAME, "Bala", "t-2"), Cursor.decode(page.nextCursor(), Sort.NAME));
+	}
+
+	@Test
+	void findPage_lastPageHasNoCursor() {
+		when(mongoTemplate.find(any(Query.class), eq(Tenant.class))).thenReturn(List.of(tenant("t-1", "Asha")));
+
+		TenantPage page = repository.findPage(page(Sort.ID, new Cursor(Sort.ID, null, "t-0"), 2, Set.of()));
+
+		ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+		verify(mongoTemplate).find(query.capture(), eq(Tenant.class));
+		assertEquals(new Document("id", new Document("$gt", "t-0")),
+				query.getValue().getQueryObject().getList("$and", Document.class).get(0));
+		assertEquals(1, page.items().size());
+		assertNull(page.nextCursor());
+	}
+
+	@Test
+	void findPage_unnamedCursorContinuesThroughUnnamedThenNamedTenants() {
+		repository.findPage(page(Sort.NAME, new Cursor(Sort.NAME, null, "t-5"), 10, Set.of()));
+
+		ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+		verify(mongoTemplate).find(query.capture(), eq(Tenant.class));
+		Document keyset = query.getValue().getQueryObject().getList("$and", Document.class).get(0);
+		List<Document> branches = keyset.getList("$or", Document.class);
+		assertEquals(List.of(new Document("name", null), new Document("id", new Document("$gt", "t-5"))),
+				branches.get(0).getList("$and", Document.class));
+		assertEquals(new Document("name", new Document("$type", 2)), branches.get(1));
+	}
+
+	@Test
+	void findPage_projectionKeepsKeysetFields() {
+		repository.findPage(page(Sort.NAME, null, 10, Set.of(TenantField.PHONE)));
+
+		ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+		verify(mongoTemplate).find(query.capture(), eq(Tenant.class));
+		assertEquals(Set.of("phone", "id", "name"), query.getValue().getFieldsObject().keySet());
+	}
+
+	@Test
+	void updateRoomNo_returnsTheTenantAsItWasBefore() {
+		repository.updateRoomNo("t-1", null);
+
+		ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+		ArgumentCaptor<FindAndModifyOptions> options = ArgumentCaptor.forClass(FindAndModifyOptions.class);
+		verify(mongoTemplate).findAndModify(any(Query.class), update.capture(), options.capture(), eq(Tenant.class));
+		assertEquals(new Document("$unset", new Document("roomNo", 1)).append("$inc", new Document("version", 1)),
+				update.getValue().getUpdateObject());
+		assertFalse(options.getValue().isReturnNew());
+	}
+
+	@Test
+	void markDue_guardsAgainstConcurrentWritesInOneUpdate() {
+		Date renewedBefore = new Date(1_000L);
+		when(mongoTemplate.updateMulti(any(Query.class), any(Update.class), eq(Tenant.class)))
+				.thenReturn(UpdateResult.acknowledged(2, 1L, null));
+
+		assertEquals(1, repository.markDue(List.of("t-1", "t-2"), renewedBefore));
+
+		ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+		ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+		verify(mongoTemplate).updateMulti(query.capture(), update.capture(), eq(Tenant.class));
+		Document filter = query.getValue().getQueryObject();
+		assertEquals(false, filter.get("due"));
+		assertEquals(true, filter.get("continuousStay"));
+		assertEquals(new Document("$lt", renewedBefore), filter.get("renewalDate"));
+		assertEquals(new Document("$set", new Document("due", true)).append("$inc", new Document("version", 1)),
+				update.getValue().getUpdateObject());
+	}
+
+	@Test
+	void countActiveMealPreferences_groupsServerSide() {
+		when(mongoTemplate.aggregate(any(Aggregation.class), eq(Tenant.class), eq(Document.class)))
+				.thenReturn(new AggregationResults<>(List.of(new Document("_id", null).append("total", 7)
+						.append("veg", 3)), new Document()));
+
+		MealCounts counts = repository.countActiveMealPreferences();
+
+		ArgumentCaptor<Aggregation> aggregation = ArgumentCaptor.forClass(Aggregation.class);
+		verify(mongoTemplate).aggregate(aggregation.capture(), eq(Tenant.class), eq(Document.class));
+		List<Document> pipeline = aggregation.getValue().toPipeline(Aggregation.DEFAULT_CONTEXT);
+		assertEquals(2, pipeline.size());
+		assertEquals(true, pipeline.get(0).get("$match", Document.class).get("isActive"));
+		assertTrue(pipeline.get(1).get("$group", Document.class).toJson().contains("vegetarian"));
+		assertEquals(new MealCounts(7, 3), counts);
+	}
+
+	@Test
+	void countActiveMealPreferences_noTenantsCountsZero() {
+		when(mongoTemplate.aggregate(any(Aggregation.class), eq(Tenant.class), eq(Document.class)))
+				.thenReturn(new AggregationResults<>(List.of(), new Document()));
+
+		assertEquals(new MealCounts(0, 0), repository.countActiveMealPreferences());
+	}
+
+	private static TenantPageRequest page(Sort sort, Cursor after, int limit, Set<TenantField> fields) {
+		return new TenantPageRequest(null, null, null, null, null, sort, after, limit, fields);
+	}
+
+	private static Tenant tenant(String id, String name) {
+		Tenant tenant = new Tenant(name, null, null);
+		tenant.setId(id);
+		return tenant;
+	}
+
+	private static String token(String raw) {
+		return Base64.getUrlEncoder().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+	}
+}
@@ -0,0 +1,95 @@
+package com.harikiran.pgmgmt.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.interfaces.RSAPublicKey;
+import java.util.Base64;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.FileSystemResource;
+
+import com.google.api.client.googleapis.auth.oauth2.GoogleIdToken;
+import com.google.api.client.googleapis.auth.oauth2.GoogleIdTokenVerifier;
+import com.google.api.client.googleapis.auth.oauth2.GooglePublicKeysManager;
+import com.google.api.client.http.javanet.NetHttpTransport;
+import com.google.api.client.json.JsonFactory;
+import com.google.api.client.json.gson.GsonFactory;
+import com.google.api.client.json.webtoken.JsonWebSignature;
+
+/**
+ * Tests for KeySourceIdTokenVerifier using a local JWKS file so no network
+ * access is required.
+ */
+class KeySourceIdTokenVerifierTest {
+
+	private static final String CLIENT_ID = "test-client.apps.googleusercontent.com";
+
+	private final JsonFactory jsonFactory = GsonFactory.getDefaultInstance();
+
+	@TempDir
+	Path tempDir;
+
+	private KeyPair trustedKeys;
+	private GoogleIdTokenVerifier verifier;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		trustedKeys = generateKeyPair();
+		Path jwks = tempDir.resolve("jwks.json");
+		Files.writeString(jwks, toJwks((RSAPublicKey) trustedKeys.getPublic()), StandardCharsets.UTF_8);
+
+		GoogleIdTokenVerifier.Builder builder = new GoogleIdTokenVerifier.Builder(
+				new GooglePublicKeysManager(new NetHttpTransport(), jsonFactory))
+				.setAudience(List.of(CLIENT_ID));
+		verifier = new KeySourceIdTokenVerifier(builder, new JwksFileSigningKeySource(new FileSystemResource(jwks)));
+	}
+
+	@Test
+	void verify_tokenSignedWithTrustedKey_returnsPayload() throws Exception {
+		GoogleIdToken idToken = verifier.verify(sign(trustedKeys, CLIENT_ID));
+
+		assertThat(idToken).isNotNull();
+		assertThat(idToken.getPayload().getEmail()).isEqualTo("asha@example.com");
+	}
+
+	@Test
+	void verify_tokenSignedWithUnknownKey_returnsNull() throws Exception {
+		assertThat(verifier.verify(sign(generateKeyPair(), CLIENT_ID))).isNull();
+	}
+
+	@Test
+	void verify_tokenForAnotherAudience_returnsNull() throws Exception {
+		assertThat(verifier.verify(sign(trustedKeys, "someone-else"))).isNull();
+	}
+
+	private String sign(KeyPair keyPair, String audience) throws Exception {
+		JsonWebSignature.Header header = new JsonWebSignature.Header().setAlgorithm("RS256").setKeyId("test");
+		long now = System.currentTimeMillis() / 1000;
+		GoogleIdToken.Payload payload = new GoogleIdToken.Payload().setEmail("asha@example.com");
+		payload.setIssuer("https://accounts.google.com").setAudience(audience).setSubject("123")
+				.setIssuedAtTimeSeconds(now).setExpirationTimeSeconds(now + 300);
+		return JsonWebSignature.signUsingRsaSha256(keyPair.getPrivate(), jsonFactory, header, payload);
+	}
+
+	private static KeyPair generateKeyPair() throws Exception {
+		KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+		generator.initialize(2048);
+		return generator.generateKeyPair();
+	}
+
+	private static String toJwks(RSAPublicKey key) {
+		Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+		String modulus = encoder.encodeToString(key.getModulus().toByteArray());
+		String exponent = encoder.encodeToString(key.getPublicExponent().toByteArray());
+		return "{\"keys\":[{\"kty\":\"RSA\",\"kid\":\"test\",\"alg\":\"RS256\",\"n\":\"" + modulus + "\",\"e\":\""
+				+ exponent + "\"}]}";
+	}
+}
@@ -0,0 +1,78 @@
+package com.harikiran.pgmgmt.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Tests for PrincipalCache to ensure only known principals are cached and
+ * evictions and expiry force a fresh lookup.
+ */
+class PrincipalCacheTest {
+
+	private final AtomicLong clock = new AtomicLong();
+	private final AtomicInteger lookups = new AtomicInteger();
+	private PrincipalCache cache;
+
+	@BeforeEach
+	void setUp() {
+		cache = new PrincipalCache(new SimpleMeterRegistry(), 100, Duration.ofMinutes(5), clock::get);
+	}
+
+	@Test
+	void exists_knownPrincipal_isServedFromCache() {
+		assertThat(cache.exists("asha@example.com", "tenant", this::found)).isTrue();
+		assertThat(cache.exists("asha@example.com", " Tenant ", this::found)).isTrue();
+
+		assertThat(lookups).hasValue(1);
+	}
+
+	@Test
+	void exists_missIsNotCached() {
+		assertThat(cache.exists("asha@example.com", "tenant", this::missing)).isFalse();
+		assertThat(cache.exists("asha@example.com", "tenant", this::found)).isTrue();
+
+		assertThat(lookups).hasValue(2);
+	}
+
+	@Test
+	void evict_forcesFreshLookup() {
+		cache.exists("asha@example.com", "tenant", this::found);
+		cache.exists("asha@example.com", "admin", this::found);
+
+		cache.evict("asha@example.com", "tenant");
+
+		assertThat(cache.exists("asha@example.com", "tenant", this::missing)).isFalse();
+		assertThat(cache.exists("asha@example.com", "admin", this::missing)).isTrue();
+		assertThat(lookups).hasValue(3);
+	}
+
+	@Test
+	void exists_expiredEntry_isLookedUpAgain() {
+		cache.exists("asha@example.com", "tenant", this::found);
+
+		clock.addAndGet(Duration.ofMinutes(4).toNanos());
+		assertThat(cache.exists("asha@example.com", "tenant", this::missing)).isTrue();
+		clock.addAndGet(Duration.ofMinutes(2).toNanos());
+		assertThat(cache.exists("asha@example.com", "tenant", this::missing)).isFalse();
+
+		assertThat(lookups).hasValue(2);
+	}
+
+	private boolean found() {
+		lookups.incrementAndGet();
+		return true;
+	}
+
+	private boolean missing() {
+		lookups.incrementAndGet();
+		return false;
+	}
+}
@@ -0,0 +1,62 @@
+package com.harikiran.pgmgmt.security;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import com.harikiran.pgmgmt.model.Tenant;
+import com.harikiran.pgmgmt.repository.TenantRepository;
+
+@ExtendWith(MockitoExtension.class)
+class TenantSecurityTest {
+
+	@Mock
+	private TenantRepository tenantRepository;
+
+	private TenantSecurity tenantSecurity;
+
+	@BeforeEach
+	void setUp() {
+		tenantSecurity = new TenantSecurity(tenantRepository);
+	}
+
+	@Test
+	void isOwnerById_usesTenantIdClaimWithoutDatabaseRead() {
+		Authentication authentication = authenticate(new JwtPrincipal("asha@example.com", "tenant", "t-1"));
+
+		assertTrue(tenantSecurity.isOwnerById("t-1", authentication));
+		assertFalse(tenantSecurity.isOwnerById("t-2", authentication));
+		verifyNoInteractions(tenantRepository);
+	}
+
+	@Test
+	void isOwnerById_legacyTokenFallsBackToEmailMatch() {
+		Tenant tenant = new Tenant("Asha", "asha@example.com", null);
+		tenant.setId("t-1");
+		when(tenantRepository.findById("t-1")).thenReturn(Optional.of(tenant));
+
+		Authentication authentication = authenticate(new JwtPrincipal("asha@example.com", "tenant", null));
+
+		assertTrue(tenantSecurity.isOwnerById("t-1", authentication));
+		verify(tenantRepository).findById("t-1");
+	}
+
+	private Authentication authenticate(JwtPrincipal principal) {
+		return new UsernamePasswordAuthenticationToken(principal, null,
+				List.of(new SimpleGrantedAuthority("ROLE_TENANT")));
+	}
+}
@@ -0,0 +1,68 @@
+package com.harikiran.pgmgmt.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.harikiran.pgmgmt.model.Tenant;
+import com.harikiran.pgmgmt.util.JwtUtil;
+import com.harikiran.pgmgmt.util.JwtUtil.VerifiedToken;
+
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Tests for VerifiedTokenCache to ensure tokens are verified once and reused.
+ */
+class VerifiedTokenCacheTest {
+
+	private static final String SECRET = "0123456789abcdef0123456789abcdef0123456789abcdef";
+
+	private SimpleMeterRegistry meterRegistry;
+	private JwtUtil jwtUtil;
+	private VerifiedTokenCache cache;
+
+	@BeforeEach
+	void setUp() {
+		meterRegistry = new SimpleMeterRegistry();
+		jwtUtil = new JwtUtil(SECRET, 60_000L);
+		cache = new VerifiedTokenCache(jwtUtil, meterRegistry, 100);
+	}
+
+	@Test
+	void verify_repeatToken_isServedFromCache() {
+		String token = jwtUtil.generateToken(new Tenant("Asha", "asha@example.com", null));
+
+		VerifiedToken first = cache.verify(token);
+		VerifiedToken second = cache.verify(token);
+
+		assertThat(first.email()).isEqualTo("asha@example.com");
+		assertThat(first.role()).isEqualTo("tenant");
+		assertThat(second).isSameAs(first);
+		assertThat(meterRegistry.get("cache.gets").tag("cache", VerifiedTokenCache.CACHE_NAME).tag("result", "hit")
+				.functionCounter().count()).isEqualTo(1.0);
+		assertThat(meterRegistry.get("cache.gets").tag("cache", VerifiedTokenCache.CACHE_NAME).tag("result", "miss")
+				.functionCounter().count()).isEqualTo(1.0);
+	}
+
+	@Test
+	void verify_tamperedToken_isRejectedAndNotCached() {
+		String token = jwtUtil.generateToken(new Tenant("Asha", "asha@example.com", null));
+		String tampered = token.substring(0, token.length() - 2) + (token.endsWith("AA") ? "BB" : "AA");
+
+		assertThatThrownBy(() -> cache.verify(tampered)).isInstanceOf(JwtException.class);
+		assertThat(cache.estimatedSize()).isZero();
+	}
+
+	@Test
+	void verify_expiredToken_isRejected() {
+		JwtUtil expiringUtil = new JwtUtil(SECRET, -1_000L);
+		VerifiedTokenCache expiringCache = new VerifiedTokenCache(expiringUtil, meterRegistry, 100);
+		String token = expiringUtil.generateToken(new Tenant("Asha", "asha@example.com", null));
+
+		assertThatThrownBy(() -> expiringCache.verify(token)).isInstanceOf(ExpiredJwtException.class);
+	}
+}
@@ -0,0 +1,91 @@
+package com.harikiran.pgmgmt.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.harikiran.pgmgmt.dto.AllocationRequest.Strategy;
+import com.harikiran.pgmgmt.dto.RoomVacancy;
+
+/**
+ * Measures planning a batch allocation of 10k tenants, a tenth of them in
+ * roommate groups, over 3k partly occupied rooms.
+ *
+ * <p>
+ * Run with:
+ * </p>
+ *
+ * <pre>
+ * mvn test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt
+ * java -cp target/test-classes:target/classes:$(cat target/cp.txt) \
+ *     com.harikiran.pgmgmt.service.AllocationPlannerBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AllocationPlannerBenchmark {
+
+	@Param({ "10000" })
+	private int tenants;
+
+	@Param({ "3000" })
+	private int rooms;
+
+	@Param({ "COMPACT", "SPREAD" })
+	private Strategy strategy;
+
+	private List<RoomVacancy> vacancies;
+	private List<List<String>> units;
+
+	@Setup
+	public void setUp() {
+		Random random = new Random(42);
+		vacancies = new ArrayList<>(rooms);
+		for (int i = 0; i < rooms; i++) {
+			int capacity = 2 + random.nextInt(5);
+			int free = 1 + random.nextInt(capacity);
+			vacancies.add(new RoomVacancy("r" + i, Integer.toString(100 + i), Integer.toString(1 + i % 12), capacity,
+					free));
+		}
+
+		units = new ArrayList<>();
+		int placed = 0;
+		while (placed < tenants) {
+			int size = random.nextInt(10) == 0 ? 2 + random.nextInt(2) : 1;
+			List<String> unit = new ArrayList<>(size);
+			for (int i = 0; i < size; i++) {
+				unit.add("t" + placed++);
+			}
+			units.add(unit);
+		}
+	}
+
+	@Benchmark
+	public AllocationPlanner.Result plan() {
+		return new AllocationPlanner(vacancies, strategy, "3").plan(units);
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder().include(AllocationPlannerBenchmark.class.getSimpleName()).build()).run();
+	}
+}
@@ -0,0 +1,70 @@
+package com.harikiran.pgmgmt.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.junit.jupiter.api.Test;
+
+import com.harikiran.pgmgmt.dto.AllocationRequest.Strategy;
+import com.harikiran.pgmgmt.dto.RoomVacancy;
+
+class AllocationPlannerTest {
+
+	private static final List<RoomVacancy> ROOMS = List.of(new RoomVacancy("r1", "101", "1", 3, 3),
+			new RoomVacancy("r2", "102", "1", 2, 1), new RoomVacancy("r3", "201", "2", 4, 2));
+
+	@Test
+	void compactFillsTheFullestRoomsFirst() {
+		Map<String, List<String>> plan = plan(Strategy.COMPACT, null, List.of(List.of("a"), List.of("b")));
+
+		assertEquals(Map.of("102", List.of("a"), "201", List.of("b")), plan);
+	}
+
+	@Test
+	void spreadUsesTheEmptiestRoomsFirst() {
+		Map<String, List<String>> plan = plan(Strategy.SPREAD, null, List.of(List.of("a"), List.of("b")));
+
+		assertEquals(Map.of("101", List.of("a"), "201", List.of("b")), plan);
+	}
+
+	@Test
+	void preferredFloorIsFilledBeforeOthers() {
+		Map<String, List<String>> plan = plan(Strategy.COMPACT, "2",
+				List.of(List.of("a"), List.of("b"), List.of("c")));
+
+		assertEquals(Map.of("201", List.of("a", "b"), "102", List.of("c")), plan);
+	}
+
+	@Test
+	void roommatesShareARoomOrStayUnplaced() {
+		AllocationPlanner.Result result = new AllocationPlanner(ROOMS, Strategy.COMPACT, null)
+				.plan(List.of(List.of("a"), List.of("b", "c", "d"), List.of("e", "f", "g", "h")));
+
+		assertEquals(List.of("e", "f", "g", "h"), result.unplaced());
+		assertEquals(Map.of("101", List.of("b", "c", "d"), "102", List.of("a")), roomNos(result));
+	}
+
+	@Test
+	void unboundedRoomsTakeWhatElseDoesNotFit() {
+		List<RoomVacancy> rooms = List.of(new RoomVacancy("r1", "101", "1", 1, 1),
+				new RoomVacancy("r9", "999", "9", 0, null));
+
+		AllocationPlanner.Result result = new AllocationPlanner(rooms, Strategy.COMPACT, null)
+				.plan(List.of(List.of("a"), List.of("b"), List.of("c")));
+
+		assertEquals(Map.of("101", List.of("a"), "999", List.of("b", "c")), roomNos(result));
+	}
+
+	private static Map<String, List<String>> plan(Strategy strategy, String floor, List<List<String>> units) {
+		return roomNos(new AllocationPlanner(ROOMS, strategy, floor).plan(units));
+	}
+
+	private static Map<String, List<String>> roomNos(AllocationPlanner.Result result) {
+		Map<String, List<String>> byRoomNo = new TreeMap<>();
+		result.placements().forEach((room, tenantIds) -> byRoomNo.put(room.roomNo(), tenantIds));
+		return byRoomNo;
+	}
+}
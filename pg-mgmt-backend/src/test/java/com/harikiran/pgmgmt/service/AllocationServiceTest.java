@@ -0,0 +1,112 @@
+package com.harikiran.pgmgmt.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+import com.harikiran.pgmgmt.dto.AllocationPlan;
+import com.harikiran.pgmgmt.dto.AllocationPlan.Assignment;
+import com.harikiran.pgmgmt.dto.AllocationRequest;
+import com.harikiran.pgmgmt.dto.RoomVacancy;
+import com.harikiran.pgmgmt.model.Room;
+import com.harikiran.pgmgmt.model.Tenant;
+import com.harikiran.pgmgmt.repository.RoomRepository;
+import com.harikiran.pgmgmt.repository.TenantRepository;
+
+@ExtendWith(MockitoExtension.class)
+class AllocationServiceTest {
+
+	@Mock
+	private MongoTemplate mongoTemplate;
+
+	@Mock
+	private TenantRepository tenantRepository;
+
+	@Mock
+	private RoomRepository roomRepository;
+
+	@Mock
+	private RoomOccupancyIndex occupancyIndex;
+
+	@Mock
+	private ApplicationEventPublisher eventPublisher;
+
+	private AllocationService service;
+
+	@BeforeEach
+	void setUp() {
+		service = new AllocationService(mongoTemplate, tenantRepository, roomRepository, occupancyIndex,
+				eventPublisher, 500);
+	}
+
+	@Test
+	void allocate_requiresTheTenantsToPlace() {
+		assertThrows(IllegalArgumentException.class,
+				() -> service.allocate(new AllocationRequest(null, null, null, null, false)));
+		assertThrows(IllegalArgumentException.class,
+				() -> service.allocate(new AllocationRequest(List.of(), List.of(List.of()), null, null, true)));
+
+		verifyNoInteractions(mongoTemplate, roomRepository, tenantRepository);
+	}
+
+	@Test
+	void allocate_reportsRoomsThatFilledAndTenantsThatMovedAsConflicts() {
+		when(occupancyIndex.vacantRooms()).thenReturn(
+				List.of(new RoomVacancy("r-1", "101", "1", 2, 2), new RoomVacancy("r-2", "102", "1", 1, 1)));
+		when(mongoTemplate.find(any(Query.class), eq(Tenant.class)))
+				.thenReturn(List.of(tenant("t-1", null), tenant("t-2", null), tenant("t-3", null)));
+		// Room 102 filled up and t-2 got room 305 since the plan was made
+		when(roomRepository.bulkAssignTenants(any())).thenReturn(Set.of("r-1"));
+		when(tenantRepository.bulkAssignRooms(any())).thenReturn(Set.of("t-2"));
+		when(tenantRepository.findById("t-2")).thenReturn(Optional.of(tenant("t-2", "305")));
+		when(roomRepository.releaseTenant("t-2", "305")).thenReturn(List.of(new Room()));
+
+		AllocationPlan plan = service.allocate(
+				new AllocationRequest(List.of("t-3"), List.of(List.of("t-1", "t-2")), null, null, false));
+
+		assertFalse(plan.dryRun());
+		assertEquals(List.of(new Assignment("t-1", "101", "1")), plan.assignments());
+		assertEquals(List.of("t-3", "t-2"), plan.conflicts());
+		verify(roomRepository).bulkAssignTenants(Map.of("r-1", List.of("t-1", "t-2"), "r-2", List.of("t-3")));
+		verify(tenantRepository).bulkAssignRooms(Map.of("t-1", "101", "t-2", "101"));
+		verify(roomRepository).releaseTenant("t-2", "305");
+	}
+
+	@Test
+	void allocate_dryRunWritesNothing() {
+		when(occupancyIndex.vacantRooms()).thenReturn(List.of(new RoomVacancy("r-1", "101", "1", 2, 2)));
+		when(mongoTemplate.find(any(Query.class), eq(Tenant.class))).thenReturn(List.of(tenant("t-1", null)));
+
+		AllocationPlan plan = service.allocate(new AllocationRequest(List.of("t-1", "t-9"), null, null, null, true));
+
+		assertEquals(List.of(new Assignment("t-1", "101", "1")), plan.assignments());
+		assertEquals(List.of("t-9"), plan.skipped());
+		verifyNoInteractions(roomRepository, tenantRepository);
+	}
+
+	private static Tenant tenant(String id, String roomNo) {
+		Tenant tenant = new Tenant(id, null, null);
+		tenant.setId(id);
+		tenant.setRoomNo(roomNo);
+		return tenant;
+	}
+}
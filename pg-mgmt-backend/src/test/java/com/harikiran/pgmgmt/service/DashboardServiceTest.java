@@ -0,0 +1,143 @@
+package com.harikiran.pgmgmt.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.harikiran.pgmgmt.dto.DashboardSummaryResponse;
+import com.harikiran.pgmgmt.model.Tenant;
+import com.harikiran.pgmgmt.repository.TenantRepository;
+import com.harikiran.pgmgmt.service.AllocationStatsService.AllocationSnapshot;
+import com.harikiran.pgmgmt.service.AllocationStatsService.FloorSnapshot;
+import com.harikiran.pgmgmt.service.MealStatsService.MealSnapshot;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+class DashboardServiceTest {
+
+	@Mock
+	private TenantRepository tenantRepository;
+
+	@Mock
+	private MealStatsService mealStatsService;
+
+	@Mock
+	private AllocationStatsService allocationStatsService;
+
+	@Mock
+	private OccupancyCounters occupancyCounters;
+
+	private SimpleMeterRegistry meterRegistry;
+
+	@BeforeEach
+	void setUp() {
+		meterRegistry = new SimpleMeterRegistry();
+	}
+
+	@Test
+	void loadDashboardSummary_runsQueriesConcurrently() {
+		// Every branch waits for all four, so the summary only loads if they overlap
+		CyclicBarrier allStarted = new CyclicBarrier(4);
+		when(occupancyCounters.isReady()).thenReturn(false);
+		when(mealStatsService.computeActiveSnapshot()).thenAnswer(invocation -> {
+			allStarted.await(5, TimeUnit.SECONDS);
+			return new MealSnapshot(3, 1, 2);
+		});
+		when(allocationStatsService.computeCurrentSnapshot()).thenAnswer(invocation -> {
+			allStarted.await(5, TimeUnit.SECONDS);
+			return new AllocationSnapshot(6, 3, 3, List.of(new FloorSnapshot("1", 2, 6, 3, 3)));
+		});
+		when(tenantRepository.findByContinuousStayFalseAndRoomNoNotNullAndRenewalDateNotNullOrderByRenewalDateAsc())
+				.thenAnswer(invocation -> {
+					allStarted.await(5, TimeUnit.SECONDS);
+					return List.of(tenant("t1"));
+				});
+		when(tenantRepository.findByContinuousStayTrueAndRoomNoNotNullAndDueTrueOrderByRenewalDateAsc())
+				.thenAnswer(invocation -> {
+					allStarted.await(5, TimeUnit.SECONDS);
+					return List.of();
+				});
+
+		DashboardSummaryResponse summary = service(Duration.ofSeconds(10)).loadDashboardSummary();
+
+		assertEquals(3, summary.counts().totalActive());
+		assertEquals(6, summary.counts().totalCapacity());
+		assertEquals("1", summary.floors().get(0).floorNo());
+		assertEquals("t1", summary.topTenants().get(0).id());
+		assertEquals(1, meterRegistry.get("dashboard.summary.branch").tag("branch", "payment-due")
+				.tag("outcome", "success").timer().count());
+	}
+
+	@Test
+	void loadDashboardSummary_failedQueryCancelsTheOthers() throws Exception {
+		CountDownLatch interrupted = new CountDownLatch(1);
+		when(occupancyCounters.isReady()).thenReturn(true);
+		when(occupancyCounters.snapshot()).thenReturn(new OccupancyCounters.Counts(0, 0, 0, 0, 0, List.of()));
+		when(tenantRepository.findByContinuousStayFalseAndRoomNoNotNullAndRenewalDateNotNullOrderByRenewalDateAsc())
+				.thenAnswer(invocation -> {
+					try {
+						Thread.sleep(Duration.ofSeconds(30));
+					} catch (InterruptedException e) {
+						interrupted.countDown();
+					}
+					return List.of();
+				});
+		when(tenantRepository.findByContinuousStayTrueAndRoomNoNotNullAndDueTrueOrderByRenewalDateAsc())
+				.thenThrow(new IllegalStateException("mongo unavailable"));
+
+		DashboardService service = service(Duration.ofSeconds(10));
+		IllegalStateException error = assertThrows(IllegalStateException.class, service::loadDashboardSummary);
+
+		assertEquals("mongo unavailable", error.getMessage());
+		assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+	}
+
+	@Test
+	void loadDashboardSummary_slowQueryExceedsDeadline() throws Exception {
+		CountDownLatch interrupted = new CountDownLatch(1);
+		when(occupancyCounters.isReady()).thenReturn(true);
+		when(occupancyCounters.snapshot()).thenReturn(new OccupancyCounters.Counts(0, 0, 0, 0, 0, List.of()));
+		when(tenantRepository.findByContinuousStayFalseAndRoomNoNotNullAndRenewalDateNotNullOrderByRenewalDateAsc())
+				.thenReturn(List.of());
+		when(tenantRepository.findByContinuousStayTrueAndRoomNoNotNullAndDueTrueOrderByRenewalDateAsc())
+				.thenAnswer(invocation -> {
+					try {
+						Thread.sleep(Duration.ofSeconds(30));
+					} catch (InterruptedException e) {
+						interrupted.countDown();
+					}
+					return List.of();
+				});
+
+		DashboardService service = service(Duration.ofMillis(100));
+		assertThrows(DashboardService.DeadlineExceededException.class, service::loadDashboardSummary);
+
+		assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+	}
+
+	private DashboardService service(Duration timeout) {
+		return new DashboardService(tenantRepository, mealStatsService, allocationStatsService, occupancyCounters,
+				meterRegistry, timeout);
+	}
+
+	private static Tenant tenant(String id) {
+		Tenant tenant = new Tenant(id, id + "@example.com", null);
+		tenant.setId(id);
+		tenant.setRoomNo("101");
+		return tenant;
+	}
+}
@@ -0,0 +1,95 @@
+package com.harikiran.pgmgmt.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.harikiran.pgmgmt.model.Room;
+import com.harikiran.pgmgmt.model.Tenant;
+
+@ExtendWith(MockitoExtension.class)
+class ExportServiceTest {
+
+	@Mock
+	private MongoTemplate mongoTemplate;
+
+	private ExportService exportService;
+
+	@BeforeEach
+	void setUp() {
+		exportService = new ExportService(mongoTemplate, new ObjectMapper(), 1);
+	}
+
+	@Test
+	void writesOneJsonDocumentPerLine() throws Exception {
+		when(mongoTemplate.stream(any(Query.class), eq(Tenant.class)))
+				.thenReturn(Stream.of(tenant("t1", "Asha"), tenant("t2", "Ravi")));
+
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+		exportService.writeTenants(output, ExportService.Format.NDJSON);
+
+		List<String> lines = output.toString(StandardCharsets.UTF_8).lines().toList();
+		assertEquals(2, lines.size());
+		ObjectMapper mapper = new ObjectMapper();
+		assertEquals("t1", mapper.readTree(lines.get(0)).get("id").asText());
+		assertEquals("Ravi", mapper.readTree(lines.get(1)).get("name").asText());
+	}
+
+	@Test
+	void flushesOncePerBatch() throws Exception {
+		when(mongoTemplate.stream(any(Query.class), eq(Tenant.class))).thenReturn(Stream.of(tenant("t1", "Asha"),
+				tenant("t2", "Ravi"), tenant("t3", "Kiran"), tenant("t4", "Meena"), tenant("t5", "Arjun")));
+		AtomicInteger flushes = new AtomicInteger();
+		ByteArrayOutputStream output = new ByteArrayOutputStream() {
+			@Override
+			public void flush() {
+				flushes.incrementAndGet();
+			}
+		};
+
+		new ExportService(mongoTemplate, new ObjectMapper(), 2).writeTenants(output, ExportService.Format.NDJSON);
+
+		// Two full batches, then closing the generator and the final flush
+		assertEquals(4, flushes.get());
+		assertEquals(5, output.toString(StandardCharsets.UTF_8).lines().count());
+	}
+
+	@Test
+	void writesCsvWithHeaderAndEscapedValues() throws Exception {
+		Room room = new Room();
+		room.setId("r1");
+		room.setRoomNo("101");
+		room.setCapacity(3);
+		room.setComments("near lift, \"quiet\"");
+		room.setTenantIds(List.of("t1", "t2"));
+		when(mongoTemplate.stream(any(Query.class), eq(Room.class))).thenReturn(Stream.of(room));
+
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+		exportService.writeRooms(output, ExportService.Format.CSV);
+
+		assertEquals("id,roomNo,floorNo,capacity,allocatedCount,comments,tenantIds\r\n"
+				+ "r1,101,,3,0,\"near lift, \"\"quiet\"\"\",t1;t2\r\n", output.toString(StandardCharsets.UTF_8));
+	}
+
+	private Tenant tenant(String id, String name) {
+		Tenant tenant = new Tenant(name, id + "@example.com", null);
+		tenant.setId(id);
+		return tenant;
+	}
+}
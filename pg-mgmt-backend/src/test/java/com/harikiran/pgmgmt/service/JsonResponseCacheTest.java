@@ -0,0 +1,289 @@
+package com.harikiran.pgmgmt.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.unit.DataSize;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.harikiran.pgmgmt.service.CollectionVersions.Collection;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class JsonResponseCacheTest {
+
+	private static final Set<Collection> ROOMS = EnumSet.of(Collection.ROOMS);
+
+	private CollectionVersions versions;
+	private AtomicLong clock;
+	private SimpleMeterRegistry meterRegistry;
+	private JsonResponseCache cache;
+	private AtomicInteger loads;
+
+	@BeforeEach
+	void setUp() {
+		clock = new AtomicLong();
+		versions = new CollectionVersions(clock::get);
+		meterRegistry = new SimpleMeterRegistry();
+		cache = new JsonResponseCache(versions, new ObjectMapper(), meterRegistry, DataSize.ofMegabytes(1),
+				Duration.ofMinutes(1), Duration.ofSeconds(10), clock::get);
+		loads = new AtomicInteger();
+	}
+
+	@Test
+	void serve_unchangedData_reusesSerializedBody() {
+		ResponseEntity<byte[]> first = serve("rooms", null);
+		ResponseEntity<byte[]> second = serve("rooms", null);
+
+		assertThat(loads).hasValue(1);
+		assertThat(second.getBody()).isSameAs(first.getBody());
+		assertThat(new String(second.getBody(), StandardCharsets.UTF_8)).isEqualTo("[\"101\",1]");
+		assertThat(second.getHeaders().getETag()).isEqualTo(first.getHeaders().getETag()).startsWith("\"");
+		assertThat(second.getHeaders().getFirst("X-Load")).isEqualTo("1");
+	}
+
+	@Test
+	void serve_keepsLoaderContentType() {
+		MediaType columns = MediaType.parseMediaType("application/vnd.pgmgmt.timeline+json");
+
+		ResponseEntity<byte[]> response = cache.serve("stats:columns", null, ROOMS,
+				() -> ResponseEntity.ok().contentType(columns).varyBy(HttpHeaders.ACCEPT).body(List.of(1)));
+
+		assertThat(response.getHeaders().getContentType()).isEqualTo(columns);
+		assertThat(response.getHeaders().getVary()).containsExactly(HttpHeaders.ACCEPT);
+		assertThat(serve("rooms", null).getHeaders().getContentType()).isEqualTo(MediaType.APPLICATION_JSON);
+	}
+
+	@Test
+	void serve_matchingIfNoneMatch_answersNotModifiedWithoutLoading() {
+		String etag = serve("rooms", null).getHeaders().getETag();
+
+		ResponseEntity<byte[]> response = serve("rooms", "\"other\", " + etag);
+
+		assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+		assertThat(response.getHeaders().getETag()).isEqualTo(etag);
+		assertThat(loads).hasValue(1);
+	}
+
+	@Test
+	void serve_afterWrite_changesEtagAndReloads() {
+		String etag = serve("rooms", null).getHeaders().getETag();
+		versions.bump(Collection.ROOMS);
+
+		ResponseEntity<byte[]> response = serve("rooms", etag);
+
+		assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+		assertThat(response.getHeaders().getETag()).isNotEqualTo(etag);
+		assertThat(loads).hasValue(2);
+	}
+
+	@Test
+	void serve_writeToOtherCollection_keepsEtag() {
+		String etag = serve("rooms", null).getHeaders().getETag();
+		versions.onTenantChanged(TenantChangedEvent.deleted("t1"));
+
+		assertThat(serve("rooms", etag).getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+	}
+
+	@Test
+	void serve_differentKeys_areCachedSeparately() {
+		serve("rooms", null);
+		serve("rooms:floor=1", null);
+
+		assertThat(loads).hasValue(2);
+	}
+
+	@Test
+	void serve_differentParametersOrRepresentation_neverShareEtag() {
+		String day = serve("stats:DAY:null:null", null).getHeaders().getETag();
+		String week = serve("stats:WEEK:null:null", null).getHeaders().getETag();
+		String columns = serve("stats:DAY:null:null:columns", null).getHeaders().getETag();
+
+		assertThat(List.of(day, week, columns)).doesNotHaveDuplicates();
+		assertThat(serve("stats:DAY:null:null:columns", day).getStatusCode()).isEqualTo(HttpStatus.OK);
+		assertThat(serve("stats:DAY:null:null", day).getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+	}
+
+	@Test
+	void serve_varyingBody_sendsVaryWithNotModified() {
+		List<String> vary = List.of(HttpHeaders.ACCEPT);
+		Supplier<ResponseEntity<?>> loader = () -> ResponseEntity.ok(List.of(loads.incrementAndGet()));
+		ResponseEntity<byte[]> first = cache.serve("stats:columns", null, ROOMS, true, vary, loader);
+
+		ResponseEntity<byte[]> notModified = cache.serve("stats:columns", first.getHeaders().getETag(), ROOMS, true,
+				vary, loader);
+
+		assertThat(first.getHeaders().getVary()).containsExactly(HttpHeaders.ACCEPT);
+		assertThat(notModified.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+		assertThat(notModified.getHeaders().getVary()).containsExactly(HttpHeaders.ACCEPT);
+		assertThat(serve("rooms", serve("rooms", null).getHeaders().getETag()).getHeaders().getVary()).isEmpty();
+	}
+
+	@Test
+	void serve_expiredEntry_reloadsAndReportsAge() {
+		serve("rooms", null);
+		clock.addAndGet(Duration.ofSeconds(30).toNanos());
+		assertThat(serve("rooms", null).getHeaders().getFirst(HttpHeaders.AGE)).isEqualTo("30");
+
+		clock.addAndGet(Duration.ofSeconds(31).toNanos());
+		ResponseEntity<byte[]> response = serve("rooms", null);
+
+		assertThat(loads).hasValue(2);
+		assertThat(response.getHeaders().getFirst(HttpHeaders.AGE)).isEqualTo("0");
+	}
+
+	@Test
+	void serve_concurrentMisses_shareOneLoad() throws Exception {
+		CountDownLatch loading = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		Supplier<ResponseEntity<?>> slowLoader = () -> {
+			loads.incrementAndGet();
+			loading.countDown();
+			await(release);
+			return ResponseEntity.ok(List.of("101"));
+		};
+
+		try (ExecutorService executor = Executors.newFixedThreadPool(5)) {
+			List<Future<ResponseEntity<byte[]>>> responses = new ArrayList<>();
+			responses.add(executor.submit(() -> cache.serve("rooms", null, ROOMS, slowLoader)));
+			loading.await();
+			for (int i = 0; i < 4; i++) {
+				responses.add(executor.submit(() -> cache.serve("rooms", null, ROOMS, slowLoader)));
+			}
+			while (meterRegistry.find("http.responses.requests").tag("result", "coalesced").counter() == null
+					|| meterRegistry.get("http.responses.requests").tag("result", "coalesced").counter().count() < 4) {
+				Thread.sleep(1);
+			}
+			release.countDown();
+
+			for (Future<ResponseEntity<byte[]>> response : responses) {
+				assertThat(new String(response.get().getBody(), StandardCharsets.UTF_8)).isEqualTo("[\"101\"]");
+			}
+		}
+		assertThat(loads).hasValue(1);
+	}
+
+	@Test
+	void serve_staleAllowed_servesPreviousBodyWhileRefreshing() throws Exception {
+		CountDownLatch release = new CountDownLatch(1);
+		Supplier<ResponseEntity<?>> slowRefresh = () -> {
+			int load = loads.incrementAndGet();
+			if (load > 1) {
+				await(release);
+			}
+			return ResponseEntity.ok().header("X-Load", Integer.toString(load)).body(List.of("101", load));
+		};
+		String etag = cache.serve("summary", null, ROOMS, true, slowRefresh).getHeaders().getETag();
+		versions.bump(Collection.ROOMS);
+
+		ResponseEntity<byte[]> stale = cache.serve("summary", null, ROOMS, true, slowRefresh);
+		assertThat(stale.getHeaders().getETag()).isEqualTo(etag);
+		assertThat(stale.getHeaders().getFirst("X-Load")).isEqualTo("1");
+		assertThat(cache.serve("summary", etag, ROOMS, true, slowRefresh).getStatusCode())
+				.isEqualTo(HttpStatus.NOT_MODIFIED);
+		release.countDown();
+
+		ResponseEntity<byte[]> refreshed = cache.serve("summary", null, ROOMS, slowRefresh);
+		assertThat(refreshed.getHeaders().getFirst("X-Load")).isEqualTo("2");
+		assertThat(refreshed.getHeaders().getETag()).isNotEqualTo(etag);
+		assertThat(loads).hasValue(2);
+	}
+
+	@Test
+	void serve_staleBeyondWindow_loadsInRequest() throws Exception {
+		Supplier<ResponseEntity<?>> failingRefresh = () -> {
+			if (loads.incrementAndGet() > 1) {
+				throw new IllegalStateException("mongo unavailable");
+			}
+			return ResponseEntity.ok(List.of("101"));
+		};
+		cache.serve("summary", null, ROOMS, true, failingRefresh);
+		versions.bump(Collection.ROOMS);
+		assertThat(cache.serve("summary", null, ROOMS, true, failingRefresh).getStatusCode()).isEqualTo(HttpStatus.OK);
+		while (loads.get() < 2) {
+			Thread.sleep(1);
+		}
+
+		clock.addAndGet(Duration.ofSeconds(11).toNanos());
+
+		assertThatThrownBy(() -> cache.serve("summary", null, ROOMS, true, failingRefresh))
+				.isInstanceOf(IllegalStateException.class);
+	}
+
+	@Test
+	void serve_idleSinceWrite_loadsInsteadOfServingOutdatedBody() {
+		serve("summary", null);
+		clock.addAndGet(Duration.ofSeconds(5).toNanos());
+		versions.bump(Collection.ROOMS);
+		clock.addAndGet(Duration.ofHours(1).toNanos());
+
+		ResponseEntity<byte[]> response = cache.serve("summary", null, ROOMS, true, () -> ResponseEntity.ok(
+				List.of("101", loads.incrementAndGet())));
+
+		assertThat(new String(response.getBody(), StandardCharsets.UTF_8)).isEqualTo("[\"101\",2]");
+		assertThat(loads).hasValue(2);
+	}
+
+	@Test
+	void serve_idleSinceExpiry_loadsInsteadOfServingOutdatedBody() {
+		serve("summary", null);
+		clock.addAndGet(Duration.ofMinutes(1).plusSeconds(11).toNanos());
+
+		ResponseEntity<byte[]> response = cache.serve("summary", null, ROOMS, true, () -> ResponseEntity.ok(
+				List.of("101", loads.incrementAndGet())));
+
+		assertThat(new String(response.getBody(), StandardCharsets.UTF_8)).isEqualTo("[\"101\",2]");
+	}
+
+	@Test
+	void changedAfter_datesTheWriteThatOutdatedAVersion() {
+		clock.set(100);
+		versions.bump(Collection.ROOMS);
+		clock.set(200);
+		versions.bump(Collection.ROOMS);
+
+		assertThat(versions.changedAfter(Collection.ROOMS, 0)).isEqualTo(100);
+		assertThat(versions.changedAfter(Collection.ROOMS, 1)).isEqualTo(200);
+		assertThat(versions.changedAfter(Collection.ROOMS, 2)).isEqualTo(Long.MAX_VALUE);
+		for (int write = 0; write < CollectionVersions.HISTORY; write++) {
+			versions.bump(Collection.ROOMS);
+		}
+		assertThat(versions.changedAfter(Collection.ROOMS, 0)).isEqualTo(Long.MIN_VALUE);
+	}
+
+	private static void await(CountDownLatch latch) {
+		try {
+			latch.await();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private ResponseEntity<byte[]> serve(String key, String ifNoneMatch) {
+		return cache.serve(key, ifNoneMatch, ROOMS, () -> {
+			int load = loads.incrementAndGet();
+			return ResponseEntity.ok().header("X-Load", Integer.toString(load)).body(List.of("101", load));
+		});
+	}
+}
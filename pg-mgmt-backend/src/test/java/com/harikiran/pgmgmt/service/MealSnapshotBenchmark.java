@@ -0,0 +1,125 @@
+package com.harikiran.pgmgmt.service;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.bson.Document;
+import org.bson.RawBsonDocument;
+import org.bson.codecs.DocumentCodec;
+import org.bson.types.ObjectId;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+
+import com.harikiran.pgmgmt.model.Tenant;
+import com.harikiran.pgmgmt.repository.TenantRepositoryCustom.MealCounts;
+
+/**
+ * Compares the client-side cost of the meal snapshot at 50k active tenants:
+ * decoding and mapping every tenant to count preferences in the JVM, as the
+ * snapshot used to, against decoding the single document the aggregation
+ * returns.
+ *
+ * <p>
+ * Both read from BSON bytes as the driver receives them, so decoding is
+ * included; the server-side work of either query is not. Run with the GC
+ * profiler to see allocated bytes per operation ({@code gc.alloc.rate.norm}):
+ * </p>
+ *
+ * <pre>
+ * mvn test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt
+ * java -cp target/test-classes:target/classes:$(cat target/cp.txt) \
+ *     com.harikiran.pgmgmt.service.MealSnapshotBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MealSnapshotBenchmark {
+
+	private static final String[] PREFERENCES = { "Veg", "Non-Veg", "vegetarian", "non veg", "VEG", null };
+
+	@Param({ "50000" })
+	private int tenants;
+
+	private final DocumentCodec codec = new DocumentCodec();
+	private MappingMongoConverter converter;
+	private List<RawBsonDocument> tenantDocuments;
+	private RawBsonDocument countsDocument;
+
+	@Setup
+	public void setUp() {
+		MongoMappingContext mappingContext = new MongoMappingContext();
+		mappingContext.afterPropertiesSet();
+		converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, mappingContext);
+		converter.afterPropertiesSet();
+
+		Random random = new Random(42);
+		tenantDocuments = new ArrayList<>(tenants);
+		for (int i = 0; i < tenants; i++) {
+			Document tenant = new Document("_id", new ObjectId()).append("name", "Tenant " + i)
+					.append("email", "tenant" + i + "@example.com").append("phone", "98" + (10_000_000 + i))
+					.append("pictureUrl", "https://lh3.googleusercontent.com/a/" + i)
+					.append("mealPreference", PREFERENCES[random.nextInt(PREFERENCES.length)])
+					.append("roomNo", Integer.toString(100 + i % 3000)).append("due", false).append("isActive", true)
+					.append("renewalDate", new Date()).append("continuousStay", true).append("version", 3L)
+					.append("_class", Tenant.class.getName());
+			tenantDocuments.add(new RawBsonDocument(tenant, codec));
+		}
+		countsDocument = new RawBsonDocument(new Document("_id", null).append("total", tenants)
+				.append("veg", tenants / 2), codec);
+	}
+
+	@Benchmark
+	public long loadAndCountTenants() {
+		List<Tenant> active = new ArrayList<>();
+		for (RawBsonDocument raw : tenantDocuments) {
+			active.add(converter.read(Tenant.class, raw.decode(codec)));
+		}
+		return active.stream().filter(MealSnapshotBenchmark::isVegPreference).count();
+	}
+
+	@Benchmark
+	public MealCounts readAggregatedCounts() {
+		Document counts = countsDocument.decode(codec);
+		return new MealCounts(counts.get("total", Number.class).longValue(),
+				counts.get("veg", Number.class).longValue());
+	}
+
+	private static boolean isVegPreference(Tenant tenant) {
+		String preference = tenant.getMealPreference();
+		if (preference == null) {
+			return false;
+		}
+
+		String normalized = preference.toLowerCase(Locale.ROOT).replace(" ", "").replace("-", "");
+		return normalized.equals("veg") || normalized.equals("vegetarian");
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder().include(MealSnapshotBenchmark.class.getSimpleName())
+				.addProfiler(GCProfiler.class).build()).run();
+	}
+}
@@ -0,0 +1,121 @@
+package com.harikiran.pgmgmt.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDate;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Range;
+
+import com.harikiran.pgmgmt.model.MealStats;
+import com.harikiran.pgmgmt.model.MealStatsRollup;
+import com.harikiran.pgmgmt.model.StatsGranularity;
+import com.harikiran.pgmgmt.repository.MealStatsRepository;
+import com.harikiran.pgmgmt.repository.MealStatsRollupRepository;
+import com.harikiran.pgmgmt.repository.TenantRepository;
+import com.harikiran.pgmgmt.repository.TenantRepositoryCustom.MealCounts;
+
+@ExtendWith(MockitoExtension.class)
+class MealStatsServiceTest {
+
+	@Mock
+	private TenantRepository tenantRepository;
+
+	@Mock
+	private MealStatsRepository mealStatsRepository;
+
+	@Mock
+	private MealStatsRollupRepository mealStatsRollupRepository;
+
+	@Mock
+	private StatsStorage statsStorage;
+
+	private MealStatsService service;
+
+	@BeforeEach
+	void setUp() {
+		service = new MealStatsService(tenantRepository, mealStatsRepository, mealStatsRollupRepository, statsStorage,
+				new CollectionVersions());
+	}
+
+	@Test
+	void rollUp_sumsSnapshotsPerPeriodAndMeal() {
+		// Sunday 8 June and Monday 9 June 2025 fall in different weeks of the same month
+		List<MealStats> snapshots = List.of(stats(LocalDate.of(2025, 6, 8), 1, 10, 4),
+				stats(LocalDate.of(2025, 6, 9), 1, 12, 6), stats(LocalDate.of(2025, 6, 9), 2, 8, 2));
+
+		List<MealStatsRollup> weeks = MealStatsService.rollUp(StatsGranularity.WEEK, snapshots);
+		List<MealStatsRollup> months = MealStatsService.rollUp(StatsGranularity.MONTH, snapshots);
+
+		assertEquals(List.of("WEEK:2025-06-02:1", "WEEK:2025-06-09:1", "WEEK:2025-06-09:2"),
+				weeks.stream().map(MealStatsRollup::getId).toList());
+		assertEquals(List.of("MONTH:2025-06-01:1", "MONTH:2025-06-01:2"),
+				months.stream().map(MealStatsRollup::getId).toList());
+		MealStatsRollup breakfast = months.get(0);
+		assertEquals(2, breakfast.getSamples());
+		assertEquals(22, breakfast.getTotalCountSum());
+		assertEquals(10, breakfast.getVegCountSum());
+		assertEquals(12, breakfast.getNonVegCountSum());
+		assertEquals(day(LocalDate.of(2025, 6, 1)), breakfast.getPeriodStart());
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void captureSnapshot_rewritesWeekAndMonthOfTheDay() {
+		Date statsDate = day(LocalDate.of(2025, 6, 11));
+		MealStats captured = stats(LocalDate.of(2025, 6, 11), 1, 5, 2);
+		when(tenantRepository.countActiveMealPreferences()).thenReturn(new MealCounts(5, 2));
+		when(mealStatsRepository.findByStatsDateAndMealNo(any(Date.class), anyInt())).thenReturn(Optional.empty());
+		when(mealStatsRepository.findByStatsDateBetweenOrderByStatsDateAscMealNoAsc(any()))
+				.thenReturn(List.of(captured));
+
+		service.captureSnapshot(1, statsDate);
+
+		verify(statsStorage).save(any(MealStats.class), isNull());
+		ArgumentCaptor<Range<Date>> ranges = ArgumentCaptor.forClass(Range.class);
+		verify(mealStatsRepository, times(2)).findByStatsDateBetweenOrderByStatsDateAscMealNoAsc(ranges.capture());
+		assertEquals(day(LocalDate.of(2025, 6, 9)), ranges.getAllValues().get(0).getLowerBound().getValue().get());
+		assertEquals(day(LocalDate.of(2025, 6, 16)), ranges.getAllValues().get(0).getUpperBound().getValue().get());
+		assertEquals(day(LocalDate.of(2025, 7, 1)), ranges.getAllValues().get(1).getUpperBound().getValue().get());
+		verify(mealStatsRollupRepository, times(2)).saveAll(any(List.class));
+	}
+
+	@Test
+	void covering_includesBothEndsAndAlignsToPeriods() {
+		Range<Date> range = StatsGranularity.MONTH.covering(LocalDate.of(2025, 5, 20), LocalDate.of(2025, 6, 3),
+				MealStatsScheduler.IST_ZONE);
+
+		assertEquals(day(LocalDate.of(2025, 5, 1)), range.getLowerBound().getValue().get());
+		assertEquals(day(LocalDate.of(2025, 7, 1)), range.getUpperBound().getValue().get());
+		assertFalse(range.getUpperBound().isInclusive());
+		assertFalse(StatsGranularity.DAY.covering(null, null, MealStatsScheduler.IST_ZONE).getLowerBound()
+				.isBounded());
+	}
+
+	private static MealStats stats(LocalDate date, int mealNo, long total, long veg) {
+		MealStats stats = new MealStats(day(date), mealNo);
+		stats.setTotalCount(total);
+		stats.setVegCount(veg);
+		stats.setNonVegCount(total - veg);
+		return stats;
+	}
+
+	private static Date day(LocalDate date) {
+		return Date.from(date.atStartOfDay(MealStatsScheduler.IST_ZONE).toInstant());
+	}
+}
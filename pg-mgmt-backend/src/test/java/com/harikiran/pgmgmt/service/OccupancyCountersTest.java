@@ -0,0 +1,122 @@
+package com.harikiran.pgmgmt.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.harikiran.pgmgmt.model.Room;
+import com.harikiran.pgmgmt.model.Tenant;
+import com.harikiran.pgmgmt.repository.RoomRepositoryCustom.RoomBeds;
+import com.harikiran.pgmgmt.repository.TenantRepositoryCustom.MealPreference;
+import com.harikiran.pgmgmt.service.OccupancyCounters.Counts;
+import com.harikiran.pgmgmt.service.OccupancyCounters.FloorCounts;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class OccupancyCountersTest {
+
+	private SimpleMeterRegistry meterRegistry;
+	private OccupancyCounters counters;
+
+	@BeforeEach
+	void setUp() {
+		meterRegistry = new SimpleMeterRegistry();
+		counters = new OccupancyCounters(null, null, meterRegistry);
+	}
+
+	@Test
+	void seedsFromLoadedShares() {
+		assertTrue(Double.isNaN(meterRegistry.get("dashboard.tenants.active").gauge().value()));
+
+		load();
+
+		assertTrue(counters.isReady());
+		assertEquals(new Counts(2, 1, 1, 5, 2,
+				List.of(new FloorCounts("1", 1, 3, 2), new FloorCounts("2", 1, 2, 0))), counters.snapshot());
+		assertEquals(2, meterRegistry.get("dashboard.tenants.active").gauge().value());
+		assertEquals(5, meterRegistry.get("dashboard.beds").tag("kind", "capacity").gauge().value());
+	}
+
+	@Test
+	void followsTenantChanges() {
+		load();
+
+		counters.onTenantChanged(TenantChangedEvent.saved(tenant("t2", true, "101", "Vegetarian")));
+		counters.onTenantChanged(TenantChangedEvent.saved(tenant("t3", true, "201", "Non-Veg")));
+		counters.onTenantChanged(TenantChangedEvent.saved(tenant("t4", true, null, "Veg")));
+		counters.onTenantChanged(TenantChangedEvent.deleted("t1"));
+
+		Counts counts = counters.snapshot();
+		assertEquals(2, counts.active());
+		assertEquals(1, counts.veg());
+		assertEquals(1, counts.nonVeg());
+	}
+
+	@Test
+	void followsRoomChanges() {
+		load();
+
+		counters.onRoomChanged(RoomChangedEvent.saved(room("r1", "2", 4, 3)));
+		counters.onRoomChanged(RoomChangedEvent.saved(room("r3", null, 1, 1)));
+		counters.onRoomChanged(RoomChangedEvent.deleted("r2"));
+
+		assertEquals(new Counts(2, 1, 1, 5, 4,
+				List.of(new FloorCounts(null, 1, 1, 1), new FloorCounts("2", 1, 4, 3))), counters.snapshot());
+	}
+
+	@Test
+	void changesDuringLoadWinOverLoadedCopy() {
+		counters.load(Stream.of(new MealPreference("t1", true), new MealPreference("t2", false))
+				.peek(share -> counters.onTenantChanged(TenantChangedEvent.deleted("t1"))), Stream.of());
+
+		assertEquals(1, counters.snapshot().active());
+		assertEquals(0, counters.snapshot().veg());
+	}
+
+	@Test
+	void reloadCorrectsDrift() {
+		load();
+		counters.onTenantChanged(TenantChangedEvent.saved(tenant("t9", true, "101", "Veg")));
+
+		load();
+
+		assertEquals(2, counters.snapshot().active());
+	}
+
+	@Test
+	void normalizesVegPreferences() {
+		assertTrue(OccupancyCounters.isVeg(" VEG "));
+		assertTrue(OccupancyCounters.isVeg("Vegetarian"));
+		assertFalse(OccupancyCounters.isVeg("Non-Veg"));
+		assertFalse(OccupancyCounters.isVeg(null));
+	}
+
+	private void load() {
+		counters.load(Stream.of(new MealPreference("t1", true), new MealPreference("t2", false)),
+				Stream.of(new RoomBeds("r1", "1", 3, 2), new RoomBeds("r2", "2", 2, 0)));
+	}
+
+	private static Tenant tenant(String id, boolean active, String roomNo, String mealPreference) {
+		Tenant tenant = new Tenant(id, id + "@example.com", null);
+		tenant.setId(id);
+		tenant.setActive(active);
+		tenant.setRoomNo(roomNo);
+		tenant.setMealPreference(mealPreference);
+		return tenant;
+	}
+
+	private static Room room(String id, String floorNo, int capacity, int allocatedCount) {
+		Room room = new Room();
+		room.setId(id);
+		room.setFloorNo(floorNo);
+		room.setCapacity(capacity);
+		room.setAllocatedCount(allocatedCount);
+		return room;
+	}
+}
@@ -0,0 +1,208 @@
+package com.harikiran.pgmgmt.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.BulkOperations.BulkMode;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationResults;
+import org.springframework.data.mongodb.core.aggregation.AggregationUpdate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.mongodb.core.query.UpdateDefinition;
+
+import com.harikiran.pgmgmt.dto.OccupancyReport;
+import com.harikiran.pgmgmt.model.Room;
+import com.harikiran.pgmgmt.model.Tenant;
+import com.mongodb.bulk.BulkWriteResult;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+class OccupancyReconcilerTest {
+
+	private static final ObjectId ROOM_ID = new ObjectId();
+
+	@Mock
+	private MongoTemplate mongoTemplate;
+
+	@Mock
+	private ApplicationEventPublisher eventPublisher;
+
+	private SimpleMeterRegistry meterRegistry;
+	private OccupancyReconciler reconciler;
+
+	@BeforeEach
+	void setUp() {
+		meterRegistry = new SimpleMeterRegistry();
+		reconciler = new OccupancyReconciler(mongoTemplate, eventPublisher, meterRegistry);
+		when(mongoTemplate.getCollectionName(Room.class)).thenReturn("rooms");
+	}
+
+	@Test
+	void findDrift_groupsTenantsByRoomServerSide() {
+		returnRows();
+
+		reconciler.findDrift();
+
+		ArgumentCaptor<Aggregation> aggregation = ArgumentCaptor.forClass(Aggregation.class);
+		verify(mongoTemplate).aggregate(aggregation.capture(), eq(Tenant.class), eq(Document.class));
+		List<Document> pipeline = aggregation.getValue().toPipeline(Aggregation.DEFAULT_CONTEXT);
+		assertEquals(List.of("$match", "$project", "$unionWith", "$group", "$lookup", "$project", "$project",
+				"$match"), pipeline.stream().map(stage -> stage.keySet().iterator().next()).toList());
+		assertEquals("$roomNo", pipeline.get(3).get("$group", Document.class).get("_id"));
+		assertTrue(aggregation.getValue().getOptions().isAllowDiskUse());
+	}
+
+	@Test
+	void reconcile_dryRunReportsDriftWithoutWriting() {
+		returnRows(roomRow("101", List.of("t-1", "t-9"), 3, List.of("t-1")), orphanRow("404", List.of("t-2", "t-3")));
+
+		OccupancyReport report = reconciler.reconcile(true);
+
+		assertEquals(2, report.drifts().size());
+		assertEquals(ROOM_ID.toHexString(), report.drifts().get(0).roomId());
+		assertTrue(report.drifts().get(1).roomMissing());
+		verify(mongoTemplate, never()).bulkOps(any(BulkMode.class), any(Class.class));
+		assertEquals(1, meterRegistry.get("rooms.occupancy.drift").tag("kind", "rooms").gauge().value());
+		assertEquals(2, meterRegistry.get("rooms.occupancy.drift").tag("kind", "orphaned-tenants").gauge().value());
+	}
+
+	@Test
+	void reconcile_rewritesRoomsGuardedByVersionAndReleasesOrphans() {
+		returnRows(roomRow("101", List.of("t-1", "t-9"), 3, List.of("t-1")), orphanRow("404", List.of("t-2")));
+		BulkOperations roomBulk = mock(BulkOperations.class);
+		BulkOperations tenantBulk = mock(BulkOperations.class);
+		when(mongoTemplate.bulkOps(BulkMode.UNORDERED, Room.class)).thenReturn(roomBulk);
+		when(mongoTemplate.bulkOps(BulkMode.UNORDERED, Tenant.class)).thenReturn(tenantBulk);
+		when(roomBulk.execute()).thenReturn(BulkWriteResult.acknowledged(0, 1, 0, 1, List.of(), List.of()));
+		when(tenantBulk.execute()).thenReturn(BulkWriteResult.acknowledged(0, 1, 0, 1, List.of(), List.of()));
+
+		OccupancyReport report = reconciler.reconcile(false);
+
+		ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+		ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+		ArgumentCaptor<UpdateDefinition> occupants = ArgumentCaptor.forClass(UpdateDefinition.class);
+		verify(roomBulk).updateOne(query.capture(), occupants.capture());
+		assertEquals(4L, query.getValue().getQueryObject().get("version"));
+		assertEquals(List.of(List.of("t-9"), List.of()), removedAndAdded(occupants.getValue()));
+		List<Document> pipeline = ((AggregationUpdate) occupants.getValue()).toPipeline(Aggregation.DEFAULT_CONTEXT);
+		assertEquals(new Document("$size", "$tenantIds"),
+				pipeline.get(1).get("$set", Document.class).get("allocatedCount"));
+
+		verify(tenantBulk).updateMulti(query.capture(), update.capture());
+		assertEquals("404", query.getValue().getQueryObject().get("roomNo"));
+		assertTrue(update.getValue().getUpdateObject().get("$unset", Document.class).containsKey("roomNo"));
+		assertEquals(1, report.repairedRooms());
+		assertEquals(1, report.releasedTenants());
+		assertEquals(1.0, meterRegistry.get("rooms.occupancy.repairs").tag("kind", "rooms").counter().count());
+	}
+
+	@Test
+	void reconcile_roomRenamedKeepsTenantsOnTheOldNumber() {
+		// Room 101 became 102 before its tenant's roomNo was updated
+		returnRows(roomRow("102", List.of("t-2"), 1, List.of()), orphanRow("101", List.of("t-2", "t-3")));
+		Room renamed = new Room();
+		renamed.setRoomNo("102");
+		renamed.setTenantIds(List.of("t-2"));
+		when(mongoTemplate.find(any(Query.class), eq(Room.class))).thenReturn(List.of(renamed));
+		BulkOperations roomBulk = mock(BulkOperations.class);
+		BulkOperations tenantBulk = mock(BulkOperations.class);
+		when(mongoTemplate.bulkOps(BulkMode.UNORDERED, Room.class)).thenReturn(roomBulk);
+		when(mongoTemplate.bulkOps(BulkMode.UNORDERED, Tenant.class)).thenReturn(tenantBulk);
+		when(tenantBulk.execute()).thenReturn(BulkWriteResult.acknowledged(0, 1, 0, 1, List.of(), List.of()));
+
+		OccupancyReport report = reconciler.reconcile(false);
+
+		ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+		verify(mongoTemplate).find(query.capture(), eq(Room.class));
+		assertEquals(new Document("$in", List.of("t-2", "t-3")), query.getValue().getQueryObject().get("tenantIds"));
+		verify(roomBulk, never()).updateOne(any(Query.class), any(Update.class));
+		verify(roomBulk, never()).execute();
+		verify(tenantBulk).updateMulti(query.capture(), any(Update.class));
+		assertEquals(new Document("$in", List.of("t-3")), query.getValue().getQueryObject().get("id"));
+		assertEquals(0, report.repairedRooms());
+		assertEquals(1, report.releasedTenants());
+		assertEquals(List.of("102", "101"), report.skipped());
+	}
+
+	@Test
+	void reconcile_keepsTenantsAssignedSinceTheComparison() {
+		// t-5 was added to 101 after the tenants scan; t-7 moved to 202 since
+		returnRows(roomRow("101", List.of("t-1", "t-5", "t-9"), 3, List.of("t-1", "t-7")));
+		when(mongoTemplate.find(any(Query.class), eq(Tenant.class)))
+				.thenReturn(List.of(roomTenant("t-1", "101"), roomTenant("t-5", "101"), roomTenant("t-7", "202")));
+		BulkOperations roomBulk = mock(BulkOperations.class);
+		when(mongoTemplate.bulkOps(BulkMode.UNORDERED, Room.class)).thenReturn(roomBulk);
+		when(mongoTemplate.bulkOps(BulkMode.UNORDERED, Tenant.class)).thenReturn(mock(BulkOperations.class));
+		when(roomBulk.execute()).thenReturn(BulkWriteResult.acknowledged(0, 1, 0, 1, List.of(), List.of()));
+
+		reconciler.reconcile(false);
+
+		ArgumentCaptor<UpdateDefinition> occupants = ArgumentCaptor.forClass(UpdateDefinition.class);
+		verify(roomBulk).updateOne(any(Query.class), occupants.capture());
+		assertEquals(List.of(List.of("t-9"), List.of()), removedAndAdded(occupants.getValue()));
+	}
+
+	@Test
+	void reconcile_noDriftWritesNothing() {
+		returnRows();
+
+		OccupancyReport report = reconciler.reconcile(false);
+
+		assertTrue(report.drifts().isEmpty());
+		verify(mongoTemplate, never()).bulkOps(any(BulkMode.class), any(Class.class));
+	}
+
+	/** Returns the ids a room update removes and the ids it adds. */
+	private static List<Object> removedAndAdded(UpdateDefinition update) {
+		Document tenantIds = ((AggregationUpdate) update).toPipeline(Aggregation.DEFAULT_CONTEXT).get(0)
+				.get("$set", Document.class).get("tenantIds", Document.class);
+		List<Document> parts = tenantIds.getList("$concatArrays", Document.class);
+		Document removed = parts.get(0).get("$filter", Document.class).get("cond", Document.class);
+		Document added = parts.get(1).get("$filter", Document.class).get("input", Document.class);
+		List<?> notIn = removed.getList("$not", Document.class).get(0).getList("$in", Object.class);
+		return List.of(((Document) notIn.get(1)).get("$literal"), added.get("$literal"));
+	}
+
+	private static Tenant roomTenant(String id, String roomNo) {
+		Tenant tenant = new Tenant(id, id + "@example.com", null);
+		tenant.setId(id);
+		tenant.setRoomNo(roomNo);
+		return tenant;
+	}
+
+	private void returnRows(Document... rows) {
+		when(mongoTemplate.aggregate(any(Aggregation.class), eq(Tenant.class), eq(Document.class)))
+				.thenReturn(new AggregationResults<>(List.of(rows), new Document()));
+	}
+
+	private static Document roomRow(String roomNo, List<String> recorded, int allocatedCount, List<String> actual) {
+		return new Document("_id", roomNo).append("actual", actual).append("recorded", recorded)
+				.append("roomId", ROOM_ID).append("version", 4L).append("allocatedCount", allocatedCount);
+	}
+
+	private static Document orphanRow(String roomNo, List<String> actual) {
+		return new Document("_id", roomNo).append("actual", actual).append("recorded", List.of())
+				.append("allocatedCount", 0);
+	}
+}
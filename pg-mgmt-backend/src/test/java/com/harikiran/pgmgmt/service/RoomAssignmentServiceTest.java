@@ -0,0 +1,130 @@
+package com.harikiran.pgmgmt.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.mongodb.MongoDatabaseFactory;
+
+import com.harikiran.pgmgmt.model.Room;
+import com.harikiran.pgmgmt.model.Tenant;
+import com.harikiran.pgmgmt.repository.RoomRepository;
+import com.harikiran.pgmgmt.repository.TenantRepository;
+import com.mongodb.client.MongoClient;
+import com.mongodb.connection.ClusterConnectionMode;
+import com.mongodb.connection.ClusterDescription;
+import com.mongodb.connection.ClusterType;
+
+@ExtendWith(MockitoExtension.class)
+class RoomAssignmentServiceTest {
+
+	@Mock
+	private TenantRepository tenantRepository;
+
+	@Mock
+	private RoomRepository roomRepository;
+
+	@Mock
+	private MongoClient mongoClient;
+
+	@Mock
+	private MongoDatabaseFactory databaseFactory;
+
+	@Mock
+	private ApplicationEventPublisher eventPublisher;
+
+	private RoomAssignmentService service;
+
+	@BeforeEach
+	void setUp() {
+		when(mongoClient.getClusterDescription())
+				.thenReturn(new ClusterDescription(ClusterConnectionMode.SINGLE, ClusterType.STANDALONE, List.of()));
+		service = new RoomAssignmentService(tenantRepository, roomRepository, mongoClient, databaseFactory,
+				eventPublisher);
+	}
+
+	@Test
+	void moveTenant_releasesThePreviousRoomWithOneWrite() {
+		when(roomRepository.assignTenant("102", "t-1")).thenReturn(Optional.of(room("102")));
+		when(tenantRepository.updateRoomNo("t-1", "102")).thenReturn(Optional.of(tenant("101", 3L)));
+		when(roomRepository.releaseTenantFrom("t-1", "101")).thenReturn(Optional.of(room("101")));
+
+		Tenant moved = service.moveTenant("t-1", "102").orElseThrow();
+
+		assertEquals("102", moved.getRoomNo());
+		assertEquals(4L, moved.getVersion());
+		verify(roomRepository, never()).releaseTenant(anyString(), any());
+		verify(eventPublisher).publishEvent(TenantChangedEvent.saved(moved));
+	}
+
+	@Test
+	void moveTenant_sweepsOtherRoomsWhenThePreviousOneDisagrees() {
+		when(roomRepository.assignTenant("102", "t-1")).thenReturn(Optional.of(room("102")));
+		when(tenantRepository.updateRoomNo("t-1", "102")).thenReturn(Optional.of(tenant("101", null)));
+		when(roomRepository.releaseTenantFrom("t-1", "101")).thenReturn(Optional.empty());
+		when(roomRepository.releaseTenant("t-1", "102")).thenReturn(List.of(room("103")));
+
+		assertTrue(service.moveTenant("t-1", "102").isPresent());
+
+		verify(eventPublisher).publishEvent(RoomChangedEvent.saved(room("103")));
+	}
+
+	@Test
+	void moveTenant_unassignedTenantReleasesNothing() {
+		when(roomRepository.assignTenant("102", "t-1")).thenReturn(Optional.of(room("102")));
+		when(tenantRepository.updateRoomNo("t-1", "102")).thenReturn(Optional.of(tenant(null, 1L)));
+
+		assertTrue(service.moveTenant("t-1", "102").isPresent());
+
+		verify(roomRepository, never()).releaseTenantFrom(anyString(), anyString());
+		verify(roomRepository, never()).releaseTenant(anyString(), any());
+	}
+
+	@Test
+	void moveTenant_missingTenantUndoesTheRoomAdd() {
+		when(roomRepository.assignTenant("102", "t-1")).thenReturn(Optional.of(room("102")));
+		when(tenantRepository.updateRoomNo("t-1", "102")).thenReturn(Optional.empty());
+
+		assertTrue(service.moveTenant("t-1", "102").isEmpty());
+
+		verify(roomRepository).releaseTenantFrom("t-1", "102");
+	}
+
+	@Test
+	void moveTenant_fullRoomIsUnavailable() {
+		when(roomRepository.assignTenant("102", "t-1")).thenReturn(Optional.empty());
+
+		assertThrows(RoomAssignmentService.RoomUnavailableException.class, () -> service.moveTenant("t-1", "102"));
+
+		verify(tenantRepository, never()).updateRoomNo(anyString(), any());
+	}
+
+	private static Tenant tenant(String roomNo, Long version) {
+		Tenant tenant = new Tenant("Asha", "asha@example.com", null);
+		tenant.setId("t-1");
+		tenant.setRoomNo(roomNo);
+		tenant.setVersion(version);
+		return tenant;
+	}
+
+	private static Room room(String roomNo) {
+		Room room = new Room();
+		room.setId(roomNo);
+		room.setRoomNo(roomNo);
+		return room;
+	}
+}
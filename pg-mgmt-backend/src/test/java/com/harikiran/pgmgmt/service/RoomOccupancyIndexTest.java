@@ -0,0 +1,87 @@
+package com.harikiran.pgmgmt.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.harikiran.pgmgmt.dto.RoomVacancy;
+import com.harikiran.pgmgmt.model.Room;
+
+class RoomOccupancyIndexTest {
+
+	private RoomOccupancyIndex index;
+
+	@BeforeEach
+	void setUp() {
+		index = new RoomOccupancyIndex(null);
+		index.load(Stream.of(room("r1", "101", "1", 3, 1), room("r2", "102", "1", 2, 1), room("r3", "201", "2", 4, 0),
+				room("r4", "202", "2", 2, 2), room("r5", "301", "3", 0, 5)));
+	}
+
+	@Test
+	void returnsBestFitRoomsFirst() {
+		assertEquals(List.of("102", "101", "201", "301"), roomNos(index.findVacancies(null, 1, 10)));
+		assertEquals(List.of("201", "301"), roomNos(index.findVacancies(null, 3, 10)));
+		assertEquals(List.of("102", "101"), roomNos(index.findVacancies(null, 1, 2)));
+	}
+
+	@Test
+	void filtersByFloor() {
+		assertEquals(List.of("201"), roomNos(index.findVacancies("2", 1, 10)));
+		assertEquals(List.of(), index.findVacancies("9", 1, 10));
+	}
+
+	@Test
+	void reportsUnboundedRoomsWithoutFreeBedCount() {
+		RoomVacancy unbounded = index.findVacancies("3", 1, 10).get(0);
+
+		assertEquals(0, unbounded.capacity());
+		assertNull(unbounded.freeBeds());
+	}
+
+	@Test
+	void followsRoomChanges() {
+		index.onRoomChanged(RoomChangedEvent.saved(room("r2", "102", "1", 2, 2)));
+		index.onRoomChanged(RoomChangedEvent.saved(room("r4", "202", "2", 2, 1)));
+		index.onRoomChanged(RoomChangedEvent.deleted("r3"));
+
+		assertEquals(List.of("202", "101", "301"), roomNos(index.findVacancies(null, 1, 10)));
+		assertEquals(List.of("202"), roomNos(index.findVacancies("2", 1, 10)));
+	}
+
+	@Test
+	void changesDuringLoadWinOverLoadedCopy() {
+		RoomOccupancyIndex loading = new RoomOccupancyIndex(null);
+		loading.onRoomChanged(RoomChangedEvent.saved(room("r1", "101", "1", 3, 3)));
+		assertFalse(loading.isReady());
+
+		loading.load(Stream.of(room("r1", "101", "1", 3, 0)));
+
+		assertTrue(loading.isReady());
+		assertEquals(List.of(), loading.findVacancies(null, 1, 10));
+	}
+
+	private static List<String> roomNos(List<RoomVacancy> vacancies) {
+		return vacancies.stream().map(RoomVacancy::roomNo).toList();
+	}
+
+	private static Room room(String id, String roomNo, String floorNo, int capacity, int occupied) {
+		Room room = new Room();
+		room.setId(id);
+		room.setRoomNo(roomNo);
+		room.setFloorNo(floorNo);
+		room.setCapacity(capacity);
+		room.setTenantIds(new ArrayList<>(IntStream.range(0, occupied).mapToObj(i -> id + "-t" + i).toList()));
+		room.setAllocatedCount(occupied);
+		return room;
+	}
+}
@@ -0,0 +1,95 @@
+package com.harikiran.pgmgmt.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import org.bson.Document;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.data.mongodb.core.CollectionOptions;
+import org.springframework.data.mongodb.core.CollectionOptions.TimeSeriesOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import com.harikiran.pgmgmt.model.MealStats;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+
+/**
+ * Migrates plain stats collections to time series against a real mongod.
+ * Set {@code MONGODB_TEST_URI} (for example {@code mongodb://localhost:27017})
+ * to enable; a throwaway database is created and dropped.
+ */
+@EnabledIfEnvironmentVariable(named = "MONGODB_TEST_URI", matches = ".+")
+class StatsStorageMigrationTest {
+
+	private MongoClient client;
+	private MongoTemplate mongoTemplate;
+	private String databaseName;
+
+	@BeforeEach
+	void connect() {
+		databaseName = "pg_mgmt_stats_" + UUID.randomUUID().toString().replace("-", "");
+		client = MongoClients.create(System.getenv("MONGODB_TEST_URI"));
+		mongoTemplate = new MongoTemplate(client, databaseName);
+	}
+
+	@AfterEach
+	void dropDatabase() {
+		client.getDatabase(databaseName).drop();
+		client.close();
+	}
+
+	@Test
+	void migratesAndSetsAsideDocumentsWithoutADate() {
+		mongoTemplate.getCollection("meal_stats").insertMany(List.of(snapshot("m-1"),
+				new Document("_id", "m-2").append("statsDate", "2024-01-01").append("mealNo", 1)));
+
+		StatsStorage storage = migrate();
+
+		assertTrue(storage.isTimeSeries(MealStats.class));
+		assertEquals(Set.of("m-1"), ids("meal_stats"));
+		assertEquals(Set.of("m-2"), ids("meal_stats_rejected"));
+		assertFalse(mongoTemplate.collectionExists("meal_stats_legacy"));
+	}
+
+	@Test
+	void resumedMigrationKeepsWhatTheTimeSeriesCollectionHolds() {
+		mongoTemplate.getCollection("meal_stats_legacy").insertMany(List.of(snapshot("m-1"), snapshot("m-3")));
+		mongoTemplate.createCollection("meal_stats", CollectionOptions.empty()
+				.timeSeries(TimeSeriesOptions.timeSeries("statsDate").metaField("mealNo")));
+		mongoTemplate.getCollection("meal_stats").insertMany(List.of(snapshot("m-1"), snapshot("m-2")));
+
+		migrate();
+
+		assertEquals(Set.of("m-1", "m-2", "m-3"), ids("meal_stats"));
+		assertEquals(3, mongoTemplate.getCollection("meal_stats").countDocuments());
+		assertFalse(mongoTemplate.collectionExists("meal_stats_legacy"));
+	}
+
+	private StatsStorage migrate() {
+		StatsStorage storage = new StatsStorage(mongoTemplate, new CollectionVersions(), true, Duration.ZERO);
+		storage.onApplicationReady();
+		storage.awaitReady();
+		return storage;
+	}
+
+	private Set<Object> ids(String collection) {
+		Set<Object> ids = new HashSet<>();
+		mongoTemplate.getCollection(collection).find().forEach(document -> ids.add(document.get("_id")));
+		return ids;
+	}
+
+	private static Document snapshot(String id) {
+		return new Document("_id", id).append("statsDate", new Date()).append("mealNo", 1).append("totalCount", 3);
+	}
+}
@@ -0,0 +1,183 @@
+package com.harikiran.pgmgmt.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.RETURNS_DEEP_STUBS;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.CollectionOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+import com.harikiran.pgmgmt.model.AllocationStats;
+import com.harikiran.pgmgmt.model.AllocationStatsRollup;
+import com.harikiran.pgmgmt.model.MealStats;
+import com.harikiran.pgmgmt.model.MealStatsRollup;
+import com.harikiran.pgmgmt.model.Room;
+import com.mongodb.MongoNamespace;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoDatabase;
+import com.mongodb.client.result.DeleteResult;
+
+@ExtendWith(MockitoExtension.class)
+class StatsStorageTest {
+
+	@Mock
+	private MongoTemplate mongoTemplate;
+
+	@Test
+	void rejectsRetentionShorterThanAMonth() {
+		assertThrows(IllegalArgumentException.class, () -> storage(false, Duration.ofDays(7)));
+	}
+
+	@Test
+	void save_timeSeriesReplacesByDeleteAndInsert() {
+		StatsStorage storage = readyTimeSeriesStorage();
+		MealStats stats = new MealStats();
+		stats.setId("m-1");
+
+		storage.save(stats, "m-1");
+
+		InOrder order = inOrder(mongoTemplate);
+		ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+		order.verify(mongoTemplate).remove(query.capture(), eq(MealStats.class));
+		order.verify(mongoTemplate).insert(stats);
+		assertEquals(new Document("_id", "m-1"), query.getValue().getQueryObject());
+		verify(mongoTemplate, never()).save(any());
+		assertTrue(storage.isTimeSeries(AllocationStats.class));
+		assertFalse(storage.isTimeSeries(Room.class));
+	}
+
+	@Test
+	void save_timeSeriesWaitsForTheMigration() throws Exception {
+		StatsStorage storage = storage(true, Duration.ZERO);
+		MealStats stats = new MealStats();
+
+		CompletableFuture<MealStats> saved = CompletableFuture.supplyAsync(() -> storage.save(stats, null));
+
+		assertThrows(TimeoutException.class, () -> saved.get(200, TimeUnit.MILLISECONDS));
+		verify(mongoTemplate, never()).insert(stats);
+		prepareExistingTimeSeries();
+		storage.onApplicationReady();
+		saved.get(5, TimeUnit.SECONDS);
+		verify(mongoTemplate).insert(stats);
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void onApplicationReady_failedMigrationKeepsThePlainCollections() {
+		MongoDatabase database = mock(MongoDatabase.class, RETURNS_DEEP_STUBS);
+		MongoCollection<Document> collection = mock(MongoCollection.class);
+		when(mongoTemplate.getDb()).thenReturn(database);
+		when(database.getName()).thenReturn("pg");
+		when(mongoTemplate.getCollectionName(any(Class.class))).thenReturn("stats");
+		when(mongoTemplate.getCollection(any(String.class))).thenReturn(collection);
+		when(database.listCollections().filter(any(Bson.class)).first()).thenReturn(new Document("type", "collection"));
+		when(mongoTemplate.collectionExists("stats_legacy")).thenReturn(false, true, false, true);
+		when(mongoTemplate.createCollection(eq("stats"), any(CollectionOptions.class)))
+				.thenThrow(new IllegalStateException("time series need MongoDB 5.0"));
+		StatsStorage storage = storage(true, Duration.ZERO);
+
+		storage.onApplicationReady();
+		storage.awaitReady();
+
+		ArgumentCaptor<MongoNamespace> renamed = ArgumentCaptor.forClass(MongoNamespace.class);
+		verify(collection, times(4)).renameCollection(renamed.capture());
+		assertEquals(List.of("stats_legacy", "stats", "stats_legacy", "stats"),
+				renamed.getAllValues().stream().map(MongoNamespace::getCollectionName).toList());
+		assertFalse(storage.isTimeSeries(MealStats.class));
+		assertFalse(storage.isTimeSeries(AllocationStats.class));
+		AllocationStats stats = new AllocationStats();
+		storage.save(stats, "a-1");
+		verify(mongoTemplate).save(stats);
+	}
+
+	@Test
+	void save_plainCollectionsSaveInPlace() {
+		StatsStorage storage = storage(false, Duration.ZERO);
+		AllocationStats stats = new AllocationStats();
+
+		storage.save(stats, null);
+
+		verify(mongoTemplate).save(stats);
+		assertFalse(storage.isTimeSeries(AllocationStats.class));
+		storage.awaitReady();
+	}
+
+	@Test
+	void applyRetention_removesOldSnapshotsAndWeeks() {
+		when(mongoTemplate.remove(any(Query.class), any(Class.class))).thenReturn(DeleteResult.acknowledged(2));
+
+		storage(false, Duration.ofDays(90)).applyRetention();
+
+		ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+		verify(mongoTemplate).remove(query.capture(), eq(MealStats.class));
+		assertTrue(query.getValue().getQueryObject().get("statsDate", Document.class).containsKey("$lt"));
+		verify(mongoTemplate).remove(any(Query.class), eq(AllocationStats.class));
+		verify(mongoTemplate).remove(query.capture(), eq(MealStatsRollup.class));
+		assertEquals("WEEK", query.getValue().getQueryObject().get("granularity").toString());
+		verify(mongoTemplate).remove(any(Query.class), eq(AllocationStatsRollup.class));
+	}
+
+	@Test
+	void applyRetention_timeSeriesLeavesSnapshotsToMongo() {
+		when(mongoTemplate.remove(any(Query.class), any(Class.class))).thenReturn(DeleteResult.acknowledged(0));
+
+		storage(true, Duration.ofDays(90)).applyRetention();
+
+		verify(mongoTemplate, never()).remove(any(Query.class), eq(MealStats.class));
+		verify(mongoTemplate).remove(any(Query.class), eq(MealStatsRollup.class));
+	}
+
+	@Test
+	void applyRetention_disabledByDefault() {
+		storage(false, Duration.ZERO).applyRetention();
+
+		verifyNoInteractions(mongoTemplate);
+	}
+
+	/** Returns time-series storage whose collections already had their layout. */
+	private StatsStorage readyTimeSeriesStorage() {
+		prepareExistingTimeSeries();
+		StatsStorage storage = storage(true, Duration.ZERO);
+		storage.onApplicationReady();
+		storage.awaitReady();
+		return storage;
+	}
+
+	private void prepareExistingTimeSeries() {
+		MongoDatabase database = mock(MongoDatabase.class, RETURNS_DEEP_STUBS);
+		when(mongoTemplate.getDb()).thenReturn(database);
+		when(mongoTemplate.getCollectionName(any(Class.class))).thenReturn("stats");
+		when(database.listCollections().filter(any(Bson.class)).first())
+				.thenReturn(new Document("type", "timeseries"));
+	}
+
+	private StatsStorage storage(boolean timeSeries, Duration retention) {
+		return new StatsStorage(mongoTemplate, new CollectionVersions(), timeSeries, retention);
+	}
+}
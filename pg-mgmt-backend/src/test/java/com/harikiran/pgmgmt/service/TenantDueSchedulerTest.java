@@ -2,15 +2,17 @@ package com.harikiran.pgmgmt.service;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
-import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 import java.time.LocalDate;
 import java.time.ZoneId;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Date;
 import java.util.List;
 
@@ -20,6 +22,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
 import com.harikiran.pgmgmt.model.Tenant;
 import com.harikiran.pgmgmt.repository.TenantRepository;
@@ -30,11 +33,14 @@ class TenantDueSchedulerTest {
 	@Mock
 	private TenantRepository tenantRepository;
 
+	@Mock
+	private ApplicationEventPublisher eventPublisher;
+
 	private TenantDueScheduler scheduler;
 
 	@BeforeEach
 	void setUp() {
-		scheduler = new TenantDueScheduler(tenantRepository);
+		scheduler = new TenantDueScheduler(tenantRepository, eventPublisher);
 	}
 
 	@Test
@@ -46,27 +52,42 @@ class TenantDueSchedulerTest {
 		when(tenantRepository.findByDueFalseAndRenewalDateNotNullAndContinuousStayTrue())
 				.thenReturn(Arrays.asList(tenantDueToday, tenantDueFuture, tenantDuePast));
 
+		when(tenantRepository.markDue(any(), any(Date.class))).thenReturn(2L);
+		when(tenantRepository.findAllById(any())).thenReturn(List.of(tenantDueToday, tenantDuePast));
+
 		scheduler.processTenantsForDue(LocalDate.of(2025, 10, 3));
 
 		@SuppressWarnings("unchecked")
-		ArgumentCaptor<List<Tenant>> captor = ArgumentCaptor.forClass(List.class);
-		verify(tenantRepository).saveAll(captor.capture());
-
-		List<Tenant> savedTenants = captor.getValue();
-		assertEquals(2, savedTenants.size());
-		assertTrue(savedTenants.stream().anyMatch(t -> "today".equals(t.getId())));
-		assertTrue(savedTenants.stream().anyMatch(t -> "past".equals(t.getId())));
-		assertTrue(savedTenants.stream().allMatch(Tenant::isDue));
+		ArgumentCaptor<Collection<String>> ids = ArgumentCaptor.forClass(Collection.class);
+		ArgumentCaptor<Date> renewedBefore = ArgumentCaptor.forClass(Date.class);
+		verify(tenantRepository).markDue(ids.capture(), renewedBefore.capture());
+		assertEquals(List.of("today", "past"), List.copyOf(ids.getValue()));
+		assertEquals(Date.from(LocalDate.of(2025, 10, 4).atStartOfDay(ZoneId.of("Asia/Kolkata")).toInstant()),
+				renewedBefore.getValue());
+		verify(tenantRepository, never()).saveAll(any());
+		verify(eventPublisher, times(2)).publishEvent(any(TenantChangedEvent.class));
 		assertFalse(tenantDueFuture.isDue());
 	}
 
+	@Test
+	void publishesNothingWhenConcurrentWritesWon() {
+		when(tenantRepository.findByDueFalseAndRenewalDateNotNullAndContinuousStayTrue())
+				.thenReturn(List.of(buildTenant("today", LocalDate.of(2025, 10, 3))));
+
+		scheduler.processTenantsForDue(LocalDate.of(2025, 10, 3));
+
+		verify(tenantRepository).markDue(any(), any(Date.class));
+		verify(tenantRepository, never()).findAllById(any());
+		verifyNoInteractions(eventPublisher);
+	}
+
 	@Test
 	void skipsSaveWhenNoTenantsRequireUpdate() {
 		when(tenantRepository.findByDueFalseAndRenewalDateNotNullAndContinuousStayTrue()).thenReturn(List.of());
 
 		scheduler.processTenantsForDue(LocalDate.of(2025, 10, 3));
 
-		verify(tenantRepository, never()).saveAll(any());
+		verify(tenantRepository, never()).markDue(any(), any(Date.class));
 	}
 
 	private Tenant buildTenant(String id, LocalDate renewalDate) {
@@ -0,0 +1,107 @@
+package com.harikiran.pgmgmt.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+
+import org.bson.BsonString;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.BulkOperations.BulkMode;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.harikiran.pgmgmt.dto.TenantImportResult;
+import com.harikiran.pgmgmt.dto.TenantImportResult.Status;
+import com.harikiran.pgmgmt.model.Tenant;
+import com.mongodb.bulk.BulkWriteResult;
+import com.mongodb.bulk.BulkWriteUpsert;
+
+@ExtendWith(MockitoExtension.class)
+class TenantImportServiceTest {
+
+	@Mock
+	private MongoTemplate mongoTemplate;
+
+	@Mock
+	private BulkOperations bulkOperations;
+
+	@Mock
+	private ApplicationEventPublisher eventPublisher;
+
+	private TenantImportService importService;
+
+	@BeforeEach
+	void setUp() {
+		importService = new TenantImportService(mongoTemplate, new ObjectMapper(), eventPublisher, 2,
+				Duration.ofHours(1));
+	}
+
+	@Test
+	void csvRowsAreUpsertedInBatchesWithPerRowResults() throws Exception {
+		when(mongoTemplate.bulkOps(BulkMode.UNORDERED, Tenant.class)).thenReturn(bulkOperations);
+		when(bulkOperations.execute()).thenReturn(result(0), result());
+
+		String csv = "name,email,active,renewalDate\r\n"
+				+ "Asha,asha@example.com,true,2025-02-01\r\n"
+				+ "\"Ravi, Jr\",ravi@example.com,,\r\n"
+				+ "Nobody,,true,\r\n"
+				+ "Meera,meera@example.com,maybe,\r\n"
+				+ "Kiran,kiran@example.com,false,\r\n";
+		TenantImportResult result = importService.importTenants(stream(csv), TenantImportService.Format.CSV);
+
+		assertEquals(5, result.total());
+		assertEquals(1, result.inserted());
+		assertEquals(2, result.updated());
+		assertEquals(2, result.failed());
+		assertEquals(List.of(Status.INSERTED, Status.UPDATED, Status.INVALID, Status.INVALID, Status.UPDATED),
+				result.rows().stream().map(TenantImportResult.RowResult::status).toList());
+		verify(bulkOperations, times(3)).upsert(any(Query.class), any(Update.class));
+		verify(mongoTemplate, times(2)).bulkOps(eq(BulkMode.UNORDERED), eq(Tenant.class));
+	}
+
+	@Test
+	void jsonInputMustBeAnArray() {
+		assertThrows(IOException.class, () -> importService.importTenants(stream("{\"email\":\"a@example.com\"}"),
+				TenantImportService.Format.JSON));
+	}
+
+	@Test
+	void jsonRowsWithoutEmailAreRejectedWithoutWriting() throws Exception {
+		TenantImportResult result = importService.importTenants(stream("[{\"name\":\"Asha\"}, 42]"),
+				TenantImportService.Format.JSON);
+
+		assertEquals(2, result.failed());
+		assertEquals("email is required", result.rows().get(0).message());
+	}
+
+	private static BulkWriteResult result(int... upsertedIndexes) {
+		List<BulkWriteUpsert> upserts = Arrays.stream(upsertedIndexes)
+				.mapToObj(index -> new BulkWriteUpsert(index, new BsonString("id-" + index)))
+				.toList();
+		return BulkWriteResult.acknowledged(0, 2 - upserts.size(), 0, 0, upserts, List.of());
+	}
+
+	private static InputStream stream(String content) {
+		return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+	}
+}
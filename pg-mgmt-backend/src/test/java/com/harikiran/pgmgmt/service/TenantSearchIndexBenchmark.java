@@ -0,0 +1,84 @@
+package com.harikiran.pgmgmt.service;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.harikiran.pgmgmt.dto.TenantSearchPage;
+import com.harikiran.pgmgmt.model.Tenant;
+
+/**
+ * Measures {@link TenantSearchIndex#search} over 100k synthetic tenants.
+ *
+ * <p>
+ * Run with:
+ * </p>
+ *
+ * <pre>
+ * mvn test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt
+ * java -cp target/test-classes:target/classes:$(cat target/cp.txt) \
+ *     com.harikiran.pgmgmt.service.TenantSearchIndexBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TenantSearchIndexBenchmark {
+
+	private static final String[] FIRST_NAMES = { "Asha", "Ravi", "Priya", "Kiran", "Meera", "Arjun", "Divya",
+			"Rahul", "Sneha", "Vikram", "Anil", "Lakshmi", "Suresh", "Kavya", "Naveen", "Pooja" };
+	private static final String[] LAST_NAMES = { "Rao", "Kumar", "Reddy", "Nair", "Sharma", "Iyer", "Menon",
+			"Patel", "Gupta", "Das", "Shetty", "Verma" };
+	private static final String[] DOMAINS = { "gmail.com", "yahoo.com", "outlook.com", "example.com" };
+
+	@Param({ "100000" })
+	private int tenants;
+
+	@Param({ "asha", "ra", "r", "ra ku", "kumar gmail", "98450", "1204" })
+	private String query;
+
+	private TenantSearchIndex index;
+
+	@Setup
+	public void setUp() {
+		Random random = new Random(42);
+		index = new TenantSearchIndex(null);
+		index.load(IntStream.range(0, tenants).mapToObj(i -> {
+			String first = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)];
+			String last = LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+			Tenant tenant = new Tenant(first + " " + last,
+					(first + "." + last + i + "@" + DOMAINS[random.nextInt(DOMAINS.length)]).toLowerCase(), null);
+			tenant.setId(Integer.toHexString(i));
+			tenant.setPhone("9" + (100_000_000L + random.nextInt(900_000_000)));
+			tenant.setRoomNo(Integer.toString(100 + random.nextInt(2_000)));
+			return tenant;
+		}));
+	}
+
+	@Benchmark
+	public TenantSearchPage search() {
+		return index.search(query, 0, 20);
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder().include(TenantSearchIndexBenchmark.class.getSimpleName()).build()).run();
+	}
+}
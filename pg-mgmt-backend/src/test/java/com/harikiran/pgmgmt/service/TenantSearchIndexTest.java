@@ -0,0 +1,109 @@
+package com.harikiran.pgmgmt.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.harikiran.pgmgmt.dto.TenantSearchPage;
+import com.harikiran.pgmgmt.model.Tenant;
+
+class TenantSearchIndexTest {
+
+	private TenantSearchIndex index;
+
+	@BeforeEach
+	void setUp() {
+		index = new TenantSearchIndex(null);
+		index.load(Stream.of(tenant("t1", "Asha Rao", "asha@example.com", "+91 98450 12345", "101"),
+				tenant("t2", "Ravi Kumar", "ravi.kumar@example.com", "98450 67890", "102"),
+				tenant("t3", "Prasha Nair", "prasha@example.com", null, "201")));
+	}
+
+	@Test
+	void ranksPrefixMatchesAboveInfixMatches() {
+		TenantSearchPage page = index.search("asha", 0, 10);
+
+		assertEquals(2, page.total());
+		assertEquals(List.of("t1", "t3"), ids(page));
+	}
+
+	@Test
+	void shortTermsMatchWordStartsAndAllTermsMustMatch() {
+		assertEquals(List.of("t2"), ids(index.search("ku", 0, 10)));
+		assertEquals(List.of("t2"), ids(index.search("ravi 102", 0, 10)));
+		assertEquals(0, index.search("ravi 101", 0, 10).total());
+	}
+
+	@Test
+	void shortTermsRankEveryMatchWhateverTheOffset() {
+		TenantSearchIndex large = new TenantSearchIndex(null);
+		large.load(Stream.of(Stream.of(tenant("t0", "Asha Rao", null, null, null)),
+				IntStream.range(1, 41).mapToObj(i -> tenant("t" + i, "Ravi " + (100 - i), null, null, null)),
+				Stream.of(tenant("t41", "Ra", null, null, null))).flatMap(tenants -> tenants));
+
+		TenantSearchPage page = large.search("ra", 0, 5);
+
+		assertEquals(42, page.total());
+		assertEquals("t41", page.items().get(0).getId());
+		assertTrue(page.items().stream().skip(1).allMatch(tenant -> tenant.getName().startsWith("Ravi")));
+		List<String> twoPages = Stream.concat(ids(page).stream(), ids(large.search("ra", 5, 5)).stream()).toList();
+		assertEquals(ids(large.search("ra", 0, 10)), twoPages);
+		assertEquals("t40", twoPages.get(1));
+	}
+
+	@Test
+	void phoneMatchesIgnoreFormatting() {
+		assertEquals(List.of("t1"), ids(index.search("+9198450", 0, 10)));
+		assertEquals(2, index.search("98450", 0, 10).total());
+	}
+
+	@Test
+	void pagesThroughRankedResults() {
+		TenantSearchPage page = index.search("example", 1, 1);
+
+		assertEquals(3, page.total());
+		assertEquals(1, page.items().size());
+	}
+
+	@Test
+	void appliesChangesIncrementally() {
+		index.onTenantChanged(TenantChangedEvent.saved(tenant("t1", "Asha Menon", "asha@example.com", null, "301")));
+		index.onTenantChanged(TenantChangedEvent.deleted("t3"));
+
+		assertEquals(List.of("t1"), ids(index.search("menon", 0, 10)));
+		assertEquals(0, index.search("rao", 0, 10).total());
+		assertEquals(0, index.search("prasha", 0, 10).total());
+	}
+
+	@Test
+	void changesDuringLoadWinOverLoadedCopy() {
+		TenantSearchIndex loading = new TenantSearchIndex(null);
+		loading.onTenantChanged(TenantChangedEvent.saved(tenant("t1", "Asha Menon", null, null, null)));
+		assertFalse(loading.isReady());
+
+		loading.load(Stream.of(tenant("t1", "Asha Rao", null, null, null)));
+
+		assertTrue(loading.isReady());
+		assertEquals(1, loading.search("menon", 0, 10).total());
+		assertEquals(0, loading.search("rao", 0, 10).total());
+	}
+
+	private static List<String> ids(TenantSearchPage page) {
+		return page.items().stream().map(Tenant::getId).toList();
+	}
+
+	private static Tenant tenant(String id, String name, String email, String phone, String roomNo) {
+		Tenant tenant = new Tenant(name, email, null);
+		tenant.setId(id);
+		tenant.setPhone(phone);
+		tenant.setRoomNo(roomNo);
+		return tenant;
+	}
+}
@@ -0,0 +1,55 @@
+package com.harikiran.pgmgmt.service;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.time.LocalDate;
+import java.util.Date;
+
+import org.junit.jupiter.api.Test;
+
+class TimelineColumnsTest {
+
+	@Test
+	void encodesDatesAsDayDeltasInIst() {
+		TimelineColumns columns = new TimelineColumns(2, 0);
+		addRow(columns, LocalDate.of(2025, 6, 1), 1, 10);
+		addRow(columns, LocalDate.of(2025, 6, 1), 2, 11);
+		addRow(columns, LocalDate.of(2025, 6, 4), 1, 12);
+
+		assertEquals("2025-06-01", columns.baseDate());
+		assertArrayEquals(new int[] { 0, 0, 3 }, columns.dayDeltas());
+		assertArrayEquals(new int[] { 1, 2, 1 }, columns.intColumn(0));
+		assertArrayEquals(new long[] { 10, 11, 12 }, columns.column(1));
+	}
+
+	@Test
+	void growsPastTheExpectedRows() {
+		TimelineColumns columns = new TimelineColumns(1, 0);
+		LocalDate day = LocalDate.of(2024, 1, 1);
+		for (int row = 0; row < 400; row++) {
+			addRow(columns, day.plusDays(row), row, 0);
+		}
+
+		assertEquals(400, columns.dayDeltas().length);
+		assertEquals(399, columns.column(0)[399]);
+		assertEquals(1, columns.dayDeltas()[399]);
+	}
+
+	@Test
+	void emptyTimelineHasNoBaseDate() {
+		TimelineColumns columns = new TimelineColumns(3, 0);
+
+		assertNull(columns.baseDate());
+		assertArrayEquals(new int[0], columns.dayDeltas());
+	}
+
+	private static void addRow(TimelineColumns columns, LocalDate day, long first, long second) {
+		columns.addRow(Date.from(day.atStartOfDay(MealStatsScheduler.IST_ZONE).toInstant()));
+		columns.set(0, first);
+		if (second != 0) {
+			columns.set(1, second);
+		}
+	}
+}